@@ -0,0 +1,167 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load against the servlet read path (backend, WorkoutService) and the reactive one
+ * (this module) with the same request. For each concurrency level it keeps that many requests in
+ * flight for the given duration and reports throughput, latency percentiles, errors, and the peak
+ * heap, live threads and database connections of the server under test, sampled from its
+ * actuator every 250 ms.
+ * <p>
+ * Run through scripts/benchmark-reads.sh, or directly:
+ * {@code java scripts/ReadPathBenchmark.java <path> <seconds> <concurrency,...> <name=baseUrl>...}
+ */
+public class ReadPathBenchmark {
+
+    private static final Pattern VALUE = Pattern.compile("\"statistic\":\"VALUE\",\"value\":([0-9.Ee+-]+)");
+
+    /** Gauges sampled per server; missing ones (404) are skipped. */
+    private static final Map<String, String> GAUGES = new LinkedHashMap<>();
+
+    static {
+        GAUGES.put("heapMb", "jvm.memory.used?tag=area:heap");
+        GAUGES.put("threads", "jvm.threads.live");
+        GAUGES.put("jdbcActive", "hikaricp.connections.active");
+        GAUGES.put("jdbcPending", "hikaricp.connections.pending");
+        GAUGES.put("r2dbcAcquired", "r2dbc.pool.acquired");
+        GAUGES.put("r2dbcPending", "r2dbc.pool.pending");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: ReadPathBenchmark <path> <seconds> <concurrency,...> <name=baseUrl>...");
+            System.exit(2);
+        }
+        String path = args[0];
+        int seconds = Integer.parseInt(args[1]);
+        int[] levels = Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        System.out.printf("%-10s %6s %9s %8s %8s %7s %8s %8s %10s %11s %13s %13s%n", "server", "conc", "req/s",
+                "p50 ms", "p99 ms", "errors", "heapMb", "threads", "jdbcActive", "jdbcPending", "r2dbcAcquired",
+                "r2dbcPending");
+        for (int level : levels) {
+            for (int i = 3; i < args.length; i++) {
+                String[] target = args[i].split("=", 2);
+                run(client, target[0], target[1], path, level, seconds);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(HttpClient client, String name, String baseUrl, String path, int concurrency, int seconds)
+            throws InterruptedException {
+        // Warm-up so JIT and pools are not part of the measurement
+        load(client, URI.create(baseUrl + path), Math.min(concurrency, 16), 3, new ConcurrentLinkedQueue<>(),
+                new AtomicInteger());
+
+        Map<String, Double> peaks = new LinkedHashMap<>();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> sample(client, baseUrl, peaks), 0, 250, TimeUnit.MILLISECONDS);
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long started = System.nanoTime();
+        load(client, URI.create(baseUrl + path), concurrency, seconds, latencies, errors);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        sampler.shutdownNow();
+        sampler.awaitTermination(5, TimeUnit.SECONDS);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%-10s %6d %9.1f %8.1f %8.1f %7d %8s %8s %10s %11s %13s %13s%n", name, concurrency,
+                sorted.length / elapsed, percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get(),
+                peak(peaks, "heapMb"), peak(peaks, "threads"), peak(peaks, "jdbcActive"), peak(peaks, "jdbcPending"),
+                peak(peaks, "r2dbcAcquired"), peak(peaks, "r2dbcPending"));
+    }
+
+    /** Keeps {@code concurrency} requests in flight: each completion immediately sends the next. */
+    private static void load(HttpClient client, URI uri, int concurrency, int seconds,
+                             ConcurrentLinkedQueue<Long> latencies, AtomicInteger errors) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inFlight = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        List<Runnable> loops = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            loops.add(new Runnable() {
+                @Override
+                public void run() {
+                    if (!running.get() || System.nanoTime() > deadline) {
+                        return;
+                    }
+                    long sent = System.nanoTime();
+                    inFlight.incrementAndGet();
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                        inFlight.decrementAndGet();
+                        if (ex != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                        run();
+                    });
+                }
+            });
+        }
+        loops.forEach(Runnable::run);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        running.set(false);
+        while (inFlight.get() > 0) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static void sample(HttpClient client, String baseUrl, Map<String, Double> peaks) {
+        GAUGES.forEach((gauge, metric) -> {
+            try {
+                HttpResponse<String> response = client.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + metric))
+                                .timeout(Duration.ofSeconds(2)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                Matcher matcher = VALUE.matcher(response.body());
+                if (response.statusCode() == 200 && matcher.find()) {
+                    double value = Double.parseDouble(matcher.group(1));
+                    if (gauge.equals("heapMb")) {
+                        value /= 1024 * 1024;
+                    }
+                    peaks.merge(gauge, value, Math::max);
+                }
+            } catch (Exception ignored) {
+                // An overloaded server may not answer its actuator in time; that sample is skipped
+            }
+        });
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1)] / 1e6;
+    }
+
+    private static String peak(Map<String, Double> peaks, String gauge) {
+        Double value = peaks.get(gauge);
+        return value == null ? "-" : String.format("%.0f", value);
+    }
+}
@@ -0,0 +1,21 @@
+#!/usr/bin/env bash
+# Compares the servlet read path (backend, port 8080) with the reactive one (this module, port
+# 8081) on the same request at rising concurrency. Both must be running against the same
+# database with a block that has logged sets, and admission control must be off in the backend
+# (the default), otherwise it sheds the load being measured.
+#
+# Usage: scripts/benchmark-reads.sh [blockId] [seconds] [concurrency,...]
+#   BENCH_PATH overrides the request, e.g. BENCH_PATH='/workouts?blockId=1&weekNumber=1&dayNumber=1'
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+BLOCK_ID=${1:-1}
+SECONDS_PER_LEVEL=${2:-30}
+LEVELS=${3:-50,200,1000,4000}
+BENCH_PATH=${BENCH_PATH:-/blocks/$BLOCK_ID/progress}
+
+# Connections are only sockets here; raise the fd limit so thousands of them can be open
+ulimit -n 65536 2>/dev/null || true
+
+java scripts/ReadPathBenchmark.java "$BENCH_PATH" "$SECONDS_PER_LEVEL" "$LEVELS" \
+    mvc=http://localhost:8080/api reactive=http://localhost:8081/api
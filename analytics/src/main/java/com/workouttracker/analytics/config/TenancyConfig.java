@@ -0,0 +1,17 @@
+package com.workouttracker.analytics.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.analytics.tenancy.AthleteWebFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AthleteWebFilter.Settings.class)
+public class TenancyConfig {
+
+    @Bean
+    public AthleteWebFilter athleteWebFilter(AthleteWebFilter.Settings settings, ObjectMapper objectMapper) {
+        return new AthleteWebFilter(settings, objectMapper);
+    }
+}
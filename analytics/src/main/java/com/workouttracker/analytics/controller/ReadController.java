@@ -0,0 +1,40 @@
+package com.workouttracker.analytics.controller;
+
+import com.workouttracker.analytics.dto.WorkoutResponseDto;
+import com.workouttracker.analytics.service.WorkoutReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same paths, parameters and JSON as the backend's read endpoints, so a proxy can route these
+ * GETs here and everything else to the main API.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReadController {
+
+    private final WorkoutReadService workoutReadService;
+
+    /**
+     * With {@code Accept: application/x-ndjson} each workout is flushed as soon as it is complete;
+     * with JSON the array is still written incrementally, without collecting it first.
+     */
+    @GetMapping(value = "/blocks/{blockId}/progress",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<WorkoutResponseDto> getBlockProgress(@PathVariable Long blockId) {
+        return workoutReadService.getBlockProgress(blockId);
+    }
+
+    @GetMapping("/workouts")
+    public Mono<WorkoutResponseDto> getWorkout(@RequestParam Long blockId,
+                                               @RequestParam Integer weekNumber,
+                                               @RequestParam Integer dayNumber) {
+        return workoutReadService.getWorkout(blockId, weekNumber, dayNumber);
+    }
+}
@@ -0,0 +1,28 @@
+package com.workouttracker.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Same JSON as the backend's {@code ActualSetDto}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActualSetDto {
+    private Long id;
+    private Long exerciseId;
+    private Long prescribedSetId;
+    private Integer setNumber;
+    private BigDecimal actualWeight;
+    private Integer actualReps;
+    private Integer actualRPE;
+    private String tempoUsed;
+    private Boolean videoRecorded;
+    private String feedback;
+    private LocalDateTime completedAt;
+}
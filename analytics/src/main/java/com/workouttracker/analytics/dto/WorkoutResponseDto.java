@@ -0,0 +1,23 @@
+package com.workouttracker.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Same JSON as the backend's {@code WorkoutResponseDto} for reads; {@code newPersonalRecords} is never set there. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkoutResponseDto {
+    private Long id;
+    private Long blockId;
+    private Integer weekNumber;
+    private Integer dayNumber;
+    private LocalDateTime completedAt;
+    private List<WorkoutExerciseResponseDto> exercises;
+}
@@ -0,0 +1,8 @@
+package com.workouttracker.analytics.exception;
+
+/** The block's rows live in its archive file, which only the main API can read. */
+public class BlockArchivedException extends RuntimeException {
+    public BlockArchivedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,42 @@
+package com.workouttracker.analytics.exception;
+
+import com.workouttracker.analytics.dto.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+    
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        log.warn("Resource not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
+    }
+    
+    @ExceptionHandler(BlockArchivedException.class)
+    public ResponseEntity<ErrorResponse> handleBlockArchivedException(BlockArchivedException ex) {
+        log.info("Archived block requested: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, "Conflict", ex.getMessage());
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+    }
+    
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message) {
+        return ResponseEntity.status(status).body(ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .build());
+    }
+}
@@ -0,0 +1,109 @@
+package com.workouttracker.analytics.repository;
+
+import com.workouttracker.analytics.dto.ActualSetDto;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Reads logged sets straight from the backend's tables, flat and in workout order, so callers
+ * can group them while they stream. Statements run with a fetch size: PostgreSQL hands rows over
+ * one batch at a time as subscribers ask for them, instead of the whole result at once.
+ * <p>
+ * Every query is scoped to one athlete, like the backend's: another athlete's block reads as
+ * an unknown one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkoutSetReader {
+
+    /** One logged set with the plan coordinates it belongs to. */
+    public record SetRow(Long blockId, Integer weekNumber, Integer dayNumber,
+                         Long exerciseId, String exerciseName, ActualSetDto set) {
+    }
+
+    private static final String SETS = "SELECT w.block_id, w.week_number, d.day_number, e.id AS exercise_id, " +
+            "e.name AS exercise_name, a.id, a.prescribed_set_id, a.set_number, a.actual_weight, a.actual_reps, " +
+            "a.actual_rpe, a.tempo_used, a.video_recorded, a.feedback, a.completed_at " +
+            "FROM weeks w " +
+            "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL " +
+            "JOIN workout_days d ON d.week_id = w.id " +
+            "JOIN exercises e ON e.day_id = d.id " +
+            "JOIN actual_sets a ON a.exercise_id = e.id " +
+            "WHERE w.block_id = :blockId AND b.athlete_id = :athleteId AND a.athlete_id = :athleteId ";
+    private static final String ORDER = "ORDER BY w.week_number, d.day_number, e.order_in_workout, e.id, a.set_number, a.id";
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${workout-tracker.analytics.fetch-size:256}")
+    private int fetchSize;
+
+    public Flux<SetRow> findBlockSets(Long blockId, Long athleteId) {
+        return databaseClient.sql(SETS + ORDER)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .bind("blockId", blockId)
+                .bind("athleteId", athleteId)
+                .map(WorkoutSetReader::toRow)
+                .all();
+    }
+
+    public Flux<SetRow> findDaySets(Long blockId, Integer weekNumber, Integer dayNumber, Long athleteId) {
+        return databaseClient.sql(SETS + "AND w.week_number = :weekNumber AND d.day_number = :dayNumber " + ORDER)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .bind("blockId", blockId)
+                .bind("athleteId", athleteId)
+                .bind("weekNumber", weekNumber)
+                .bind("dayNumber", dayNumber)
+                .map(WorkoutSetReader::toRow)
+                .all();
+    }
+
+    public Mono<Boolean> dayExists(Long blockId, Integer weekNumber, Integer dayNumber, Long athleteId) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM workout_days d JOIN weeks w ON w.id = d.week_id " +
+                        "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL " +
+                        "WHERE w.block_id = :blockId AND b.athlete_id = :athleteId " +
+                        "AND w.week_number = :weekNumber AND d.day_number = :dayNumber)")
+                .bind("blockId", blockId)
+                .bind("athleteId", athleteId)
+                .bind("weekNumber", weekNumber)
+                .bind("dayNumber", dayNumber)
+                .map(row -> Boolean.TRUE.equals(row.get(0, Boolean.class)))
+                .one();
+    }
+
+    /** Empty for unknown, deleted and other athletes' blocks; an empty Optional for blocks that are not archived. */
+    public Mono<Optional<LocalDateTime>> findArchivedAt(Long blockId, Long athleteId) {
+        return databaseClient.sql("SELECT archived_at FROM training_blocks " +
+                        "WHERE id = :blockId AND athlete_id = :athleteId AND deleted_at IS NULL")
+                .bind("blockId", blockId)
+                .bind("athleteId", athleteId)
+                .map(row -> Optional.ofNullable(row.get("archived_at", LocalDateTime.class)))
+                .one();
+    }
+
+    private static SetRow toRow(Readable row) {
+        ActualSetDto set = ActualSetDto.builder()
+                .id(row.get("id", Long.class))
+                .exerciseId(row.get("exercise_id", Long.class))
+                .prescribedSetId(row.get("prescribed_set_id", Long.class))
+                .setNumber(row.get("set_number", Integer.class))
+                .actualWeight(row.get("actual_weight", BigDecimal.class))
+                .actualReps(row.get("actual_reps", Integer.class))
+                .actualRPE(row.get("actual_rpe", Integer.class))
+                .tempoUsed(row.get("tempo_used", String.class))
+                .videoRecorded(row.get("video_recorded", Boolean.class))
+                .feedback(row.get("feedback", String.class))
+                .completedAt(row.get("completed_at", LocalDateTime.class))
+                .build();
+        return new SetRow(row.get("block_id", Long.class), row.get("week_number", Integer.class),
+                row.get("day_number", Integer.class), set.getExerciseId(), row.get("exercise_name", String.class), set);
+    }
+}
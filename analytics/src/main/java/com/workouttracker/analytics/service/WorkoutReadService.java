@@ -0,0 +1,91 @@
+package com.workouttracker.analytics.service;
+
+import com.workouttracker.analytics.dto.ActualSetDto;
+import com.workouttracker.analytics.dto.WorkoutExerciseResponseDto;
+import com.workouttracker.analytics.dto.WorkoutResponseDto;
+import com.workouttracker.analytics.exception.BlockArchivedException;
+import com.workouttracker.analytics.exception.ResourceNotFoundException;
+import com.workouttracker.analytics.repository.WorkoutSetReader;
+import com.workouttracker.analytics.repository.WorkoutSetReader.SetRow;
+import com.workouttracker.analytics.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of the backend's {@code WorkoutService} reads. Rows arrive ordered by
+ * week, day and exercise, so a workout is complete as soon as the next day's first row shows up:
+ * only one workout is held in memory at a time, and the next batch of rows is fetched only when
+ * the client has taken the previous workouts.
+ * <p>
+ * Reads are scoped to the athlete that {@link AthleteContext} carries in the subscriber's
+ * context; another athlete's block behaves like an unknown one.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkoutReadService {
+
+    private record DayKey(Integer weekNumber, Integer dayNumber) {
+    }
+
+    private final WorkoutSetReader workoutSetReader;
+
+    /**
+     * Completed workouts of a block in week/day order. Unknown blocks and blocks without logged
+     * sets give an empty stream; archived blocks fail with {@link BlockArchivedException}.
+     */
+    public Flux<WorkoutResponseDto> getBlockProgress(Long blockId) {
+        return AthleteContext.currentAthleteId().flatMapMany(athleteId -> workoutSetReader
+                .findBlockSets(blockId, athleteId)
+                .bufferUntilChanged(row -> new DayKey(row.weekNumber(), row.dayNumber()))
+                .map(rows -> toWorkout(blockId, rows.get(0).weekNumber(), rows.get(0).dayNumber(), rows))
+                .switchIfEmpty(Mono.defer(() -> workoutSetReader.findArchivedAt(blockId, athleteId))
+                        .flatMap(archivedAt -> archivedAt.isPresent()
+                                ? Mono.error(new BlockArchivedException("Training block " + blockId
+                                        + " is archived; read its progress from the main API"))
+                                : Mono.<WorkoutResponseDto>empty())));
+    }
+
+    public Mono<WorkoutResponseDto> getWorkout(Long blockId, Integer weekNumber, Integer dayNumber) {
+        return AthleteContext.currentAthleteId().flatMap(athleteId -> workoutSetReader
+                .dayExists(blockId, weekNumber, dayNumber, athleteId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(
+                        String.format("Workout day not found for block %d, week %d, day %d",
+                                blockId, weekNumber, dayNumber))))
+                .thenMany(Flux.defer(() -> workoutSetReader.findDaySets(blockId, weekNumber, dayNumber, athleteId)))
+                .collectList()
+                .map(rows -> toWorkout(blockId, weekNumber, dayNumber, rows)));
+    }
+
+    private static WorkoutResponseDto toWorkout(Long blockId, Integer weekNumber, Integer dayNumber, List<SetRow> rows) {
+        Map<Long, WorkoutExerciseResponseDto> exercises = new LinkedHashMap<>();
+        LocalDateTime completedAt = null;
+        for (SetRow row : rows) {
+            exercises.computeIfAbsent(row.exerciseId(), id -> WorkoutExerciseResponseDto.builder()
+                            .exerciseId(id)
+                            .exerciseName(row.exerciseName())
+                            .actualSets(new ArrayList<>())
+                            .build())
+                    .getActualSets().add(row.set());
+            LocalDateTime setCompletedAt = row.set().getCompletedAt();
+            if (setCompletedAt != null && (completedAt == null || setCompletedAt.isAfter(completedAt))) {
+                completedAt = setCompletedAt;
+            }
+        }
+        return WorkoutResponseDto.builder()
+                .blockId(blockId)
+                .weekNumber(weekNumber)
+                .dayNumber(dayNumber)
+                .completedAt(completedAt)
+                .exercises(new ArrayList<>(exercises.values()))
+                .build();
+    }
+}
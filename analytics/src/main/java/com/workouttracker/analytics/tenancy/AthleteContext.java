@@ -0,0 +1,29 @@
+package com.workouttracker.analytics.tenancy;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * The athlete whose data a request reads. Requests do not stay on one thread here, so
+ * {@link AthleteWebFilter} puts the athlete into the Reactor {@link Context} of the exchange
+ * instead of a thread local, and reads pick it up where they start.
+ */
+public final class AthleteContext {
+
+    private static final String KEY = AthleteContext.class.getName();
+
+    private AthleteContext() {
+    }
+
+    /** Fails with {@link IllegalStateException} when no athlete is in the context, i.e. outside a request. */
+    public static Mono<Long> currentAthleteId() {
+        return Mono.deferContextual(context -> context.<Long>getOrEmpty(KEY)
+                .map(Mono::just)
+                .orElseGet(() -> Mono.error(new IllegalStateException("No athlete in the request context"))));
+    }
+
+    /** For {@code contextWrite}: runs the upstream reads as {@code athleteId}. */
+    public static Context with(Long athleteId) {
+        return Context.of(KEY, athleteId);
+    }
+}
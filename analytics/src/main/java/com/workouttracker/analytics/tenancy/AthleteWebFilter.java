@@ -0,0 +1,87 @@
+package com.workouttracker.analytics.tenancy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.analytics.dto.ErrorResponse;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resolves the athlete of each request exactly as the backend's {@code AthleteFilter} does,
+ * from the same {@code workout-tracker.tenancy} settings, and adds it to the Reactor context
+ * of the exchange. Without the header the request belongs to {@code default-athlete-id}; a
+ * missing header with {@code require-header}, or a malformed id, is a 400 before any read runs.
+ */
+public class AthleteWebFilter implements WebFilter {
+
+    @ConfigurationProperties("workout-tracker.tenancy")
+    public record Settings(
+            @DefaultValue("X-Athlete-Id") String header,
+            @DefaultValue("1") long defaultAthleteId,
+            @DefaultValue("false") boolean requireHeader) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+
+    public AthleteWebFilter(Settings settings, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/actuator")) {
+            return chain.filter(exchange);
+        }
+        String header = exchange.getRequest().getHeaders().getFirst(settings.header());
+        Long athleteId;
+        if (header == null || header.isBlank()) {
+            if (settings.requireHeader()) {
+                return reject(exchange.getResponse(), "Missing " + settings.header() + " header");
+            }
+            athleteId = settings.defaultAthleteId();
+        } else {
+            athleteId = parse(header.trim());
+            if (athleteId == null) {
+                return reject(exchange.getResponse(), "Invalid " + settings.header() + " header: " + header);
+            }
+        }
+        return chain.filter(exchange).contextWrite(AthleteContext.with(athleteId));
+    }
+
+    private static Long parse(String value) {
+        try {
+            long athleteId = Long.parseLong(value);
+            return athleteId > 0 ? athleteId : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String message) {
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(message)
+                .build();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(error);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException ex) {
+            return Mono.error(ex);
+        }
+    }
+}
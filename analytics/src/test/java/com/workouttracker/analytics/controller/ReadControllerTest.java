@@ -0,0 +1,126 @@
+package com.workouttracker.analytics.controller;
+
+import com.workouttracker.analytics.config.TenancyConfig;
+import com.workouttracker.analytics.dto.WorkoutResponseDto;
+import com.workouttracker.analytics.exception.BlockArchivedException;
+import com.workouttracker.analytics.exception.GlobalExceptionHandler;
+import com.workouttracker.analytics.exception.ResourceNotFoundException;
+import com.workouttracker.analytics.service.WorkoutReadService;
+import com.workouttracker.analytics.tenancy.AthleteContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReadController.class)
+@Import({GlobalExceptionHandler.class, TenancyConfig.class})
+class ReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private WorkoutReadService workoutReadService;
+
+    private static WorkoutResponseDto workout(int dayNumber) {
+        return WorkoutResponseDto.builder().blockId(1L).weekNumber(1).dayNumber(dayNumber).exercises(List.of()).build();
+    }
+
+    @Nested
+    @DisplayName("GET /blocks/{blockId}/progress")
+    class GetBlockProgress {
+
+        @Test
+        @DisplayName("returns 200 and a JSON array")
+        void returnsJsonArray() {
+            when(workoutReadService.getBlockProgress(1L)).thenReturn(Flux.just(workout(1), workout(2)));
+
+            webTestClient.get().uri("/blocks/1/progress").accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.length()").isEqualTo(2)
+                    .jsonPath("$[1].dayNumber").isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("streams one workout per line as NDJSON")
+        void streamsNdjson() {
+            when(workoutReadService.getBlockProgress(1L)).thenReturn(Flux.just(workout(1), workout(2)));
+
+            webTestClient.get().uri("/blocks/1/progress").accept(MediaType.APPLICATION_NDJSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    .returnResult(WorkoutResponseDto.class)
+                    .getResponseBody()
+                    .as(StepVerifier::create)
+                    .expectNextCount(2)
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("reads as the athlete named by the X-Athlete-Id header")
+        void readsAsHeaderAthlete() {
+            when(workoutReadService.getBlockProgress(1L))
+                    .thenReturn(AthleteContext.currentAthleteId().map(athleteId -> workout(athleteId.intValue())).flux());
+
+            webTestClient.get().uri("/blocks/1/progress").header("X-Athlete-Id", "5")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$[0].dayNumber").isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("returns 400 for a malformed X-Athlete-Id header without reading")
+        void returns400ForMalformedAthlete() {
+            webTestClient.get().uri("/blocks/1/progress").header("X-Athlete-Id", "abc")
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody().jsonPath("$.message").isEqualTo("Invalid X-Athlete-Id header: abc");
+
+            verifyNoInteractions(workoutReadService);
+        }
+
+        @Test
+        @DisplayName("returns 409 for archived blocks")
+        void returns409ForArchived() {
+            when(workoutReadService.getBlockProgress(1L))
+                    .thenReturn(Flux.error(new BlockArchivedException("Training block 1 is archived")));
+
+            webTestClient.get().uri("/blocks/1/progress")
+                    .exchange()
+                    .expectStatus().isEqualTo(409);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /workouts")
+    class GetWorkout {
+
+        @Test
+        @DisplayName("returns 404 when the workout day does not exist")
+        void returns404() {
+            when(workoutReadService.getWorkout(1L, 9, 9))
+                    .thenReturn(Mono.error(new ResourceNotFoundException("Workout day not found")));
+
+            webTestClient.get().uri("/workouts?blockId=1&weekNumber=9&dayNumber=9")
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody().jsonPath("$.message").isEqualTo("Workout day not found");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.workouttracker.analytics.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/** Every read is scoped to the athlete, on the block and on the sets themselves. */
+@ExtendWith(MockitoExtension.class)
+class WorkoutSetReaderTest {
+
+    private static final Long ATHLETE = 7L;
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private RowsFetchSpec<Object> rows;
+
+    private final GenericExecuteSpec spec = mock(GenericExecuteSpec.class, RETURNS_SELF);
+
+    private WorkoutSetReader reader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        reader = new WorkoutSetReader(databaseClient);
+        ReflectionTestUtils.setField(reader, "fetchSize", 256);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        doReturn(rows).when(spec).map(any(Function.class));
+        lenient().when(rows.all()).thenReturn(Flux.empty());
+        lenient().when(rows.one()).thenReturn(Mono.empty());
+    }
+
+    private String sql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        verify(spec).bind("athleteId", ATHLETE);
+        return sql.getValue();
+    }
+
+    @Test
+    @DisplayName("reads a block's sets of the athlete only")
+    void blockSets() {
+        reader.findBlockSets(1L, ATHLETE).blockLast();
+
+        assertThat(sql()).contains("b.athlete_id = :athleteId", "a.athlete_id = :athleteId");
+    }
+
+    @Test
+    @DisplayName("reads a day's sets of the athlete only")
+    void daySets() {
+        reader.findDaySets(1L, 1, 2, ATHLETE).blockLast();
+
+        assertThat(sql()).contains("b.athlete_id = :athleteId", "a.athlete_id = :athleteId");
+    }
+
+    @Test
+    @DisplayName("finds days of the athlete's blocks only")
+    void dayExists() {
+        reader.dayExists(1L, 1, 2, ATHLETE).block();
+
+        assertThat(sql()).contains("b.athlete_id = :athleteId");
+    }
+
+    @Test
+    @DisplayName("finds the archive state of the athlete's blocks only")
+    void archivedAt() {
+        reader.findArchivedAt(1L, ATHLETE).block();
+
+        assertThat(sql()).contains("athlete_id = :athleteId");
+    }
+}
@@ -0,0 +1,152 @@
+package com.workouttracker.analytics.service;
+
+import com.workouttracker.analytics.dto.ActualSetDto;
+import com.workouttracker.analytics.exception.BlockArchivedException;
+import com.workouttracker.analytics.exception.ResourceNotFoundException;
+import com.workouttracker.analytics.repository.WorkoutSetReader;
+import com.workouttracker.analytics.repository.WorkoutSetReader.SetRow;
+import com.workouttracker.analytics.tenancy.AthleteContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkoutReadServiceTest {
+
+    @Mock
+    private WorkoutSetReader workoutSetReader;
+
+    @InjectMocks
+    private WorkoutReadService workoutReadService;
+
+    private static final Long ATHLETE = 7L;
+
+    private static <T> Flux<T> asAthlete(Flux<T> reads) {
+        return reads.contextWrite(AthleteContext.with(ATHLETE));
+    }
+
+    private static <T> Mono<T> asAthlete(Mono<T> read) {
+        return read.contextWrite(AthleteContext.with(ATHLETE));
+    }
+
+    private static SetRow row(int week, int day, long exerciseId, long setId, LocalDateTime completedAt) {
+        return new SetRow(1L, week, day, exerciseId, "Exercise " + exerciseId, ActualSetDto.builder()
+                .id(setId).exerciseId(exerciseId).actualWeight(new BigDecimal("100.00")).actualReps(5)
+                .completedAt(completedAt).build());
+    }
+
+    @Nested
+    @DisplayName("getBlockProgress")
+    class GetBlockProgress {
+
+        @Test
+        @DisplayName("emits one workout per day, exercises in order, latest completion time")
+        void groupsByDay() {
+            LocalDateTime monday = LocalDateTime.of(2025, 1, 6, 18, 0);
+            when(workoutSetReader.findBlockSets(1L, ATHLETE)).thenReturn(Flux.just(
+                    row(1, 1, 10L, 100L, monday),
+                    row(1, 1, 10L, 101L, monday.plusMinutes(5)),
+                    row(1, 1, 11L, 102L, monday.plusMinutes(20)),
+                    row(1, 2, 12L, 103L, monday.plusDays(2))));
+
+            StepVerifier.create(asAthlete(workoutReadService.getBlockProgress(1L)))
+                    .assertNext(workout -> {
+                        assertThat(workout.getDayNumber()).isEqualTo(1);
+                        assertThat(workout.getCompletedAt()).isEqualTo(monday.plusMinutes(20));
+                        assertThat(workout.getExercises()).extracting("exerciseId").containsExactly(10L, 11L);
+                        assertThat(workout.getExercises().get(0).getActualSets()).hasSize(2);
+                    })
+                    .assertNext(workout -> assertThat(workout.getDayNumber()).isEqualTo(2))
+                    .verifyComplete();
+            verify(workoutSetReader, never()).findArchivedAt(any(), any());
+        }
+
+        @Test
+        @DisplayName("requests rows only as the subscriber asks for workouts")
+        void respectsBackpressure() {
+            AtomicLong requested = new AtomicLong();
+            Flux<SetRow> rows = Flux.range(1, 1_000)
+                    .map(day -> row(1, day, day, day, LocalDateTime.of(2025, 1, 6, 18, 0)))
+                    .doOnRequest(n -> requested.addAndGet(Math.min(n, 1_000_000)));
+            when(workoutSetReader.findBlockSets(1L, ATHLETE)).thenReturn(rows);
+
+            StepVerifier.create(asAthlete(workoutReadService.getBlockProgress(1L)), 2)
+                    .expectNextCount(2)
+                    .then(() -> assertThat(requested.get()).isLessThan(1_000))
+                    .thenCancel()
+                    .verify();
+        }
+
+        @Test
+        @DisplayName("completes empty for blocks without sets")
+        void emptyBlock() {
+            when(workoutSetReader.findBlockSets(1L, ATHLETE)).thenReturn(Flux.empty());
+            when(workoutSetReader.findArchivedAt(1L, ATHLETE)).thenReturn(Mono.just(Optional.empty()));
+
+            StepVerifier.create(asAthlete(workoutReadService.getBlockProgress(1L))).verifyComplete();
+        }
+
+        @Test
+        @DisplayName("fails without an athlete in the context instead of reading unscoped")
+        void requiresAthlete() {
+            StepVerifier.create(workoutReadService.getBlockProgress(1L))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+            verifyNoInteractions(workoutSetReader);
+        }
+
+        @Test
+        @DisplayName("fails for archived blocks, whose sets are only in the archive file")
+        void archivedBlock() {
+            when(workoutSetReader.findBlockSets(1L, ATHLETE)).thenReturn(Flux.empty());
+            when(workoutSetReader.findArchivedAt(1L, ATHLETE)).thenReturn(Mono.just(Optional.of(LocalDateTime.now())));
+
+            StepVerifier.create(asAthlete(workoutReadService.getBlockProgress(1L)))
+                    .expectError(BlockArchivedException.class)
+                    .verify();
+        }
+    }
+
+    @Nested
+    @DisplayName("getWorkout")
+    class GetWorkout {
+
+        @Test
+        @DisplayName("returns the day's sets")
+        void returnsWorkout() {
+            when(workoutSetReader.dayExists(1L, 1, 1, ATHLETE)).thenReturn(Mono.just(true));
+            when(workoutSetReader.findDaySets(1L, 1, 1, ATHLETE))
+                    .thenReturn(Flux.just(row(1, 1, 10L, 100L, LocalDateTime.of(2025, 1, 6, 18, 0))));
+
+            StepVerifier.create(asAthlete(workoutReadService.getWorkout(1L, 1, 1)))
+                    .assertNext(workout -> assertThat(workout.getExercises()).hasSize(1))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("fails with ResourceNotFoundException for unknown days")
+        void unknownDay() {
+            when(workoutSetReader.dayExists(1L, 9, 9, ATHLETE)).thenReturn(Mono.just(false));
+
+            StepVerifier.create(asAthlete(workoutReadService.getWorkout(1L, 9, 9)))
+                    .expectError(ResourceNotFoundException.class)
+                    .verify();
+            verify(workoutSetReader, never()).findDaySets(any(), any(), any(), any());
+        }
+    }
+}
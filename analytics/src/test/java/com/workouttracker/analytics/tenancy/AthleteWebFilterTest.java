@@ -0,0 +1,95 @@
+package com.workouttracker.analytics.tenancy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AthleteWebFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final List<Long> seen = new ArrayList<>();
+
+    private static AthleteWebFilter.Settings settings(boolean requireHeader) {
+        return new AthleteWebFilter.Settings("X-Athlete-Id", 1, requireHeader);
+    }
+
+    private static MockServerWebExchange exchange(String athleteId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/blocks/7/progress");
+        if (athleteId != null) {
+            request.header("X-Athlete-Id", athleteId);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private final WebFilterChain recording = exchange -> AthleteContext.currentAthleteId().doOnNext(seen::add).then();
+
+    @Test
+    @DisplayName("puts the athlete from the header into the context of the chain")
+    void bindsHeader() {
+        new AthleteWebFilter(settings(false), objectMapper).filter(exchange(" 42 "), recording).block();
+
+        assertThat(seen).containsExactly(42L);
+    }
+
+    @Test
+    @DisplayName("falls back to the default athlete without a header")
+    void defaultAthlete() {
+        new AthleteWebFilter(settings(false), objectMapper).filter(exchange(null), recording).block();
+
+        assertThat(seen).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("rejects a missing header with 400 when the header is required")
+    void requiredHeader() {
+        MockServerWebExchange exchange = exchange(null);
+
+        new AthleteWebFilter(settings(true), objectMapper).filter(exchange, recording).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(exchange.getResponse().getBodyAsString().block()).contains("Missing X-Athlete-Id header");
+        assertThat(seen).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rejects ids that are not positive numbers with 400")
+    void malformedHeader() {
+        AthleteWebFilter filter = new AthleteWebFilter(settings(false), objectMapper);
+        for (String athleteId : List.of("abc", "0", "-3")) {
+            MockServerWebExchange exchange = exchange(athleteId);
+
+            filter.filter(exchange, recording).block();
+
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(exchange.getResponse().getBodyAsString().block())
+                    .contains("Invalid X-Athlete-Id header: " + athleteId);
+        }
+        assertThat(seen).isEmpty();
+    }
+
+    @Test
+    @DisplayName("leaves actuator endpoints without an athlete")
+    void skipsActuator() {
+        WebFilterChain chain = exchange -> AthleteContext.currentAthleteId()
+                .doOnNext(seen::add)
+                .onErrorResume(IllegalStateException.class, ex -> Mono.empty())
+                .then();
+
+        new AthleteWebFilter(settings(true), objectMapper)
+                .filter(MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health")), chain).block();
+
+        assertThat(seen).isEmpty();
+    }
+}
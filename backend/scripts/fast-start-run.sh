@@ -0,0 +1,9 @@
+#!/usr/bin/env bash
+# Starts an instance from the fast-start build. Migrations are not applied here; run
+# scripts/migrate.sh once per release first.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+exec java -XX:SharedArchiveFile=target/app.jsa -Xlog:cds=off \
+    -Dspring.aot.enabled=true \
+    -jar target/workout-tracker-backend-1.0.0.jar --spring.profiles.active=fast-start "$@"
@@ -0,0 +1,21 @@
+#!/usr/bin/env bash
+# Builds the fast-start jar (Spring AOT + plain classpath) and records an AppCDS archive
+# from a training run that refreshes the context and exits before serving traffic.
+#
+# Usage: scripts/fast-start-train.sh
+# Then start instances with scripts/fast-start-run.sh. Rebuild the archive whenever the
+# jar or the JDK changes; a mismatched archive is ignored by the JVM with a warning.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=target/workout-tracker-backend-1.0.0.jar
+ARCHIVE=target/app.jsa
+
+mvn -B -q -Pfast-start package -DskipTests
+
+# spring.context.exit=onRefresh stops after bean creation, so no database is needed
+java -XX:ArchiveClassesAtExit="$ARCHIVE" -Xlog:cds=off \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$JAR" --spring.profiles.active=fast-start
+
+echo "AppCDS archive written to $ARCHIVE"
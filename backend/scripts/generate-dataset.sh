@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+# Bulk-loads a deterministic synthetic training history through COPY, then exits.
+# Scale and seed come from workout-tracker.generator.* (application-generate.yml), e.g.
+#   scripts/generate-dataset.sh --workout-tracker.generator.blocks=2000 --workout-tracker.generator.seed=7
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+exec java -jar target/workout-tracker-backend-1.0.0.jar --spring.profiles.active=generate "$@"
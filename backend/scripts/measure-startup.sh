@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GET /api/blocks for the default
+# start (Liquibase + validate on every start) and the fast-start mode. Needs the database
+# from application.yml with migrations already applied.
+#
+# Usage: scripts/measure-startup.sh [runs]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+URL=http://localhost:8080/api/blocks
+JAR=target/workout-tracker-backend-1.0.0.jar
+
+measure() {
+    local label=$1; shift
+    for _ in $(seq "$RUNS"); do
+        local start end pid
+        start=$(date +%s%N)
+        "$@" >/dev/null 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "$URL"; do sleep 0.05; done
+        end=$(date +%s%N)
+        echo "$label $(( (end - start) / 1000000 )) ms"
+        kill "$pid"; wait "$pid" 2>/dev/null || true
+    done
+}
+
+mvn -B -q package -DskipTests
+cp "$JAR" target/default.jar
+measure default java -jar target/default.jar
+
+scripts/fast-start-train.sh >/dev/null
+measure fast-start scripts/fast-start-run.sh
@@ -0,0 +1,7 @@
+#!/usr/bin/env bash
+# Applies Liquibase changesets, validates the schema and creates upcoming actual_sets
+# partitions, then exits. Runs without AOT so the Liquibase auto-configuration is present.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+exec java -jar target/workout-tracker-backend-1.0.0.jar --spring.profiles.active=migrate "$@"
@@ -0,0 +1,82 @@
+package com.workouttracker.admission;
+
+/**
+ * Concurrency limit that follows observed latency, in the style of a gradient limiter: while
+ * request latency stays near the best latency seen recently the limit grows, and as latency
+ * rises (requests queueing for connections or CPU) it shrinks proportionally. Requests beyond
+ * the limit are rejected immediately instead of joining the queue.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int minRttWindow;
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samplesSinceMinReset;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.minRttWindow = 500;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /** Completes an admitted request and feeds its latency into the limit. */
+    public synchronized void onSuccess(long rttNanos) {
+        inFlight--;
+        if (rttNanos <= 0) {
+            return;
+        }
+        // The no-load latency estimate is re-learned periodically so a slow period cannot pin it
+        if (++samplesSinceMinReset > minRttWindow) {
+            minRttNanos = rttNanos;
+            samplesSinceMinReset = 0;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    /** Completes an admitted request that failed; backs off without using its latency. */
+    public synchronized void onDropped() {
+        inFlight--;
+        limit = clamp(limit * 0.9);
+    }
+
+    /** Completes an admitted request whose latency says nothing about load (e.g. async streams). */
+    public synchronized void onIgnore() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,177 @@
+package com.workouttracker.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Admission layer in front of the controllers. In order, a request must:
+ * <ol>
+ *     <li>get a token from its client's bucket, otherwise 429;</li>
+ *     <li>fit in its priority's share of the global in-flight budget, otherwise 503;</li>
+ *     <li>fit under the adaptive concurrency limit of its endpoint, otherwise 503.</li>
+ * </ol>
+ * Rejections carry {@code Retry-After} and never reach a service or a database connection.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String OVERFLOW_ROUTE = "*";
+    private static final int MAX_ROUTES = 256;
+    private static final int MAX_CLIENTS = 10_000;
+    private static final long CLIENT_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    public record Settings(
+            boolean enabled,
+            int maxInFlight,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double tolerance,
+            double smoothing,
+            int bucketCapacity,
+            double refillPerSecond,
+            int retryAfterSeconds,
+            boolean trustForwardedFor) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger globalInFlight = new AtomicInteger();
+
+    public AdmissionControlFilter(Settings settings, ObjectMapper objectMapper) {
+        this(settings, objectMapper, System::nanoTime);
+    }
+
+    AdmissionControlFilter(Settings settings, ObjectMapper objectMapper, LongSupplier clock) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!settings.enabled() || "OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        String path = pathOf(request);
+        return path.startsWith("/swagger-ui") || path.startsWith("/api-docs") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        long waitNanos = bucketFor(clientKey(request), now).tryConsume(now);
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, secondsCeil(waitNanos), "Request rate limit exceeded");
+            return;
+        }
+
+        String path = ID_SEGMENT.matcher(pathOf(request)).replaceAll("/{id}");
+        RequestPriority priority = RequestPriority.of(request.getMethod(), path);
+        if (globalInFlight.incrementAndGet() > settings.maxInFlight() * priority.getGlobalShare()) {
+            globalInFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, settings.retryAfterSeconds(),
+                    "Server is busy; " + priority.name().toLowerCase() + " requests are being shed");
+            return;
+        }
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request.getMethod() + " " + path);
+        if (!limiter.tryAcquire()) {
+            globalInFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, settings.retryAfterSeconds(),
+                    "Endpoint concurrency limit reached");
+            return;
+        }
+
+        long start = clock.getAsLong();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            globalInFlight.decrementAndGet();
+            if (request.isAsyncStarted()) {
+                // Streams return immediately and live on; their latency is not a load signal
+                limiter.onIgnore();
+            } else if (failed || response.getStatus() >= 500) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(clock.getAsLong() - start);
+            }
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String route) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(route);
+        if (limiter != null) {
+            return limiter;
+        }
+        // Unknown paths (scanners, typos) share one limiter instead of growing the map
+        String key = limiters.size() < MAX_ROUTES ? route : OVERFLOW_ROUTE;
+        return limiters.computeIfAbsent(key, k -> new AdaptiveConcurrencyLimiter(settings.initialLimit(),
+                settings.minLimit(), settings.maxLimit(), settings.tolerance(), settings.smoothing()));
+    }
+
+    private TokenBucket bucketFor(String client, long now) {
+        if (buckets.size() >= MAX_CLIENTS) {
+            buckets.values().removeIf(bucket -> now - bucket.lastUsedNanos() > CLIENT_IDLE_NANOS);
+        }
+        return buckets.computeIfAbsent(client,
+                k -> new TokenBucket(settings.bucketCapacity(), settings.refillPerSecond(), now));
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (settings.trustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",", 2)[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static long secondsCeil(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        log.debug("Admission rejected with {}: {}", status.value(), message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .build();
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
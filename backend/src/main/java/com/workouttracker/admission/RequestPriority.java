@@ -0,0 +1,42 @@
+package com.workouttracker.admission;
+
+/**
+ * Admission priority of a request. Each priority may only use its share of the global
+ * in-flight budget, so under pressure analytics reads are shed first and workout logging last.
+ */
+public enum RequestPriority {
+    /** Logging and correcting sets during a session. */
+    CRITICAL(1.0),
+    STANDARD(0.85),
+    /** Aggregations, exports and searches over whole blocks that can be retried later. */
+    ANALYTICS(0.5);
+
+    private final double globalShare;
+
+    RequestPriority(double globalShare) {
+        this.globalShare = globalShare;
+    }
+
+    public double getGlobalShare() {
+        return globalShare;
+    }
+
+    /** {@code path} is relative to the servlet context, with ids already normalized. */
+    public static RequestPriority of(String method, String path) {
+        if ("POST".equals(method) && (path.equals("/workouts") || path.equals("/actual-sets"))) {
+            return CRITICAL;
+        }
+        if (("PUT".equals(method) || "DELETE".equals(method)) && path.startsWith("/actual-sets/")) {
+            return CRITICAL;
+        }
+        if ("GET".equals(method) && (path.endsWith("/progress") || path.endsWith("/compliance")
+                || path.endsWith("/backup") || path.equals("/blocks/compare") || path.equals("/search/feedback"))) {
+            return ANALYTICS;
+        }
+        // Any query can walk a whole block, so GraphQL is shed with the aggregations
+        if (path.equals("/graphql")) {
+            return ANALYTICS;
+        }
+        return STANDARD;
+    }
+}
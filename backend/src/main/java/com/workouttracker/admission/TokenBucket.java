@@ -0,0 +1,36 @@
+package com.workouttracker.admission;
+
+/**
+ * Per-client request budget: holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Time is passed in so the bucket needs no clock of its own.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /** Takes one token; returns 0 on success or the nanoseconds until a token is available. */
+    public synchronized long tryConsume(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = nowNanos;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    public synchronized long lastUsedNanos() {
+        return lastRefillNanos;
+    }
+}
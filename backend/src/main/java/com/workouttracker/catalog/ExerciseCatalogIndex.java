@@ -0,0 +1,229 @@
+package com.workouttracker.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory autocomplete index over exercise names. Two structures share entry ids:
+ * <ul>
+ *     <li>a sorted token map, so every query word can be resolved as a prefix with one range scan;</li>
+ *     <li>a bigram map, used only when prefix matching cannot fill the result, to tolerate typos.</li>
+ * </ul>
+ * Names are deduplicated case- and punctuation-insensitively; the first spelling added wins.
+ * Writers are serialized and only ever append, and an entry is published before its postings,
+ * so searches run lock-free against whatever has been added so far.
+ */
+public class ExerciseCatalogIndex {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Comparator<Indexed> BY_NAME =
+            Comparator.comparingInt((Indexed e) -> e.normalized().length()).thenComparing(Indexed::normalized);
+
+    public record Entry(String name, String bodyPart, String equipment) {
+    }
+
+    private record Indexed(int id, Entry entry, String normalized, String[] tokens, List<Set<String>> tokenGrams) {
+    }
+
+    private record Scored(Indexed indexed, double score) {
+    }
+
+    private final List<Indexed> entries = new CopyOnWriteArrayList<>();
+    private final Map<String, Indexed> byName = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<Integer>> tokenPostings = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Integer>> gramPostings = new ConcurrentHashMap<>();
+
+    /** @return how many of the given entries were new */
+    public synchronized int addAll(Collection<Entry> candidates) {
+        List<Indexed> added = new ArrayList<>();
+        for (Entry candidate : candidates) {
+            String normalized = normalize(candidate.name());
+            if (normalized.isEmpty() || byName.containsKey(normalized)) {
+                continue;
+            }
+            String[] tokens = normalized.split(" ");
+            Indexed indexed = new Indexed(entries.size() + added.size(),
+                    new Entry(candidate.name().trim(), candidate.bodyPart(), candidate.equipment()),
+                    normalized, tokens, Arrays.stream(tokens).map(ExerciseCatalogIndex::grams).toList());
+            byName.put(normalized, indexed);
+            added.add(indexed);
+        }
+        entries.addAll(added);
+        for (Indexed indexed : added) {
+            for (String token : indexed.tokens()) {
+                tokenPostings.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(indexed.id());
+            }
+            for (String gram : indexed.tokenGrams().stream().flatMap(Set::stream).collect(Collectors.toSet())) {
+                gramPostings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(indexed.id());
+            }
+        }
+        return added.size();
+    }
+
+    public boolean contains(String name) {
+        return byName.containsKey(normalize(name));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries whose words start with every query word come first: names starting with the whole
+     * query, then names whose first word matches the first query word, then the rest, shorter
+     * names first within each group. Remaining slots go to typo matches: each query word is scored
+     * by the share of its bigrams found in the closest word of the name, and names whose average
+     * reaches {@code minSimilarity} are returned best first.
+     *
+     * @param bodyPart  optional exact (case-insensitive) filter
+     * @param equipment optional exact (case-insensitive) filter
+     */
+    public List<Entry> search(String query, String bodyPart, String equipment, int limit, double minSimilarity) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return entries.stream()
+                    .filter(e -> matches(e, bodyPart, equipment))
+                    .sorted(Comparator.comparing(Indexed::normalized))
+                    .limit(limit)
+                    .map(Indexed::entry)
+                    .toList();
+        }
+        String[] queryTokens = normalized.split(" ");
+
+        Set<Integer> prefixIds = null;
+        for (String token : queryTokens) {
+            Set<Integer> ids = new HashSet<>();
+            tokenPostings.subMap(token, true, token + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            if (prefixIds == null) {
+                prefixIds = ids;
+            } else {
+                prefixIds.retainAll(ids);
+            }
+            if (prefixIds.isEmpty()) {
+                break;
+            }
+        }
+        List<Indexed> prefixHits = new ArrayList<>();
+        for (Integer id : prefixIds) {
+            Indexed indexed = entries.get(id);
+            if (matches(indexed, bodyPart, equipment)) {
+                prefixHits.add(indexed);
+            }
+        }
+        prefixHits.sort(Comparator.comparingInt((Indexed e) -> prefixRank(e, normalized, queryTokens[0]))
+                .thenComparing(BY_NAME));
+
+        Set<Entry> results = new LinkedHashSet<>();
+        for (int i = 0; i < prefixHits.size() && results.size() < limit; i++) {
+            results.add(prefixHits.get(i).entry());
+        }
+        if (results.size() < limit) {
+            for (Scored scored : fuzzy(queryTokens, prefixIds, bodyPart, equipment, minSimilarity)) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                results.add(scored.indexed().entry());
+            }
+        }
+        return List.copyOf(results);
+    }
+
+    private List<Scored> fuzzy(String[] queryTokens, Set<Integer> exclude, String bodyPart, String equipment,
+                               double minSimilarity) {
+        List<Set<String>> queryGrams = Arrays.stream(queryTokens).map(ExerciseCatalogIndex::grams).toList();
+        // Upper bound of each name's score: a word cannot share more bigrams with its closest
+        // name word than with the whole name. Only names that can reach the threshold are scored.
+        Map<Integer, Double> bounds = new HashMap<>();
+        for (Set<String> grams : queryGrams) {
+            double weight = 1.0 / (grams.size() * queryGrams.size());
+            for (String gram : grams) {
+                Set<Integer> posting = gramPostings.get(gram);
+                if (posting != null) {
+                    posting.forEach(id -> bounds.merge(id, weight, Double::sum));
+                }
+            }
+        }
+        List<Scored> scored = new ArrayList<>();
+        bounds.forEach((id, bound) -> {
+            if (bound < minSimilarity || exclude.contains(id)) {
+                return;
+            }
+            Indexed indexed = entries.get(id);
+            if (matches(indexed, bodyPart, equipment)) {
+                double score = similarity(queryGrams, indexed);
+                if (score >= minSimilarity) {
+                    scored.add(new Scored(indexed, score));
+                }
+            }
+        });
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(Scored::indexed, BY_NAME));
+        return scored;
+    }
+
+    private static double similarity(List<Set<String>> queryGrams, Indexed indexed) {
+        double total = 0;
+        for (Set<String> grams : queryGrams) {
+            int best = 0;
+            for (Set<String> tokenGrams : indexed.tokenGrams()) {
+                int common = 0;
+                for (String gram : grams) {
+                    if (tokenGrams.contains(gram)) {
+                        common++;
+                    }
+                }
+                best = Math.max(best, common);
+            }
+            total += (double) best / grams.size();
+        }
+        return total / queryGrams.size();
+    }
+
+    private static int prefixRank(Indexed indexed, String query, String firstQueryToken) {
+        if (indexed.normalized().startsWith(query)) {
+            return 0;
+        }
+        return indexed.tokens()[0].startsWith(firstQueryToken) ? 1 : 2;
+    }
+
+    private static boolean matches(Indexed indexed, String bodyPart, String equipment) {
+        return matches(bodyPart, indexed.entry().bodyPart()) && matches(equipment, indexed.entry().equipment());
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || filter.isBlank() || filter.trim().equalsIgnoreCase(value);
+    }
+
+    /** Bigrams of a word with a leading boundary marker, so word starts weigh in. */
+    private static Set<String> grams(String token) {
+        String padded = " " + token;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String lower = name.toLowerCase(Locale.ROOT).replace("'", "");
+        return NON_ALPHANUMERIC.matcher(lower).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,22 @@
+package com.workouttracker.coalesce;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read whose concurrent identical calls (same operation and arguments) should share
+ * one computation. The first argument should be the block id so writes to that block can
+ * detach in-flight computations. Results are shared between callers and must be treated as
+ * read-only.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesce {
+
+    /** Operation name used in the key and as the metrics tag. */
+    String value();
+}
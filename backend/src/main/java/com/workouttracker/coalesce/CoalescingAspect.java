@@ -0,0 +1,74 @@
+package com.workouttracker.coalesce;
+
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.tenancy.AthleteContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies {@link Coalesce}. Runs outside the transaction advice, so callers that coalesce open
+ * no transaction of their own. Callers that already hold a transaction always compute
+ * themselves, because a shared result could predate what their transaction has already read.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CoalescingAspect {
+
+    private final SingleFlight singleFlight;
+
+    @Value("${workout-tracker.coalescing.enabled:true}")
+    private boolean enabled;
+
+    public CoalescingAspect(MeterRegistry meterRegistry) {
+        this.singleFlight = new SingleFlight(meterRegistry);
+    }
+
+    @Around("@annotation(coalesce)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesce coalesce) throws Throwable {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        // The athlete goes last so the block id stays first for forget(); athletes never share a result
+        List<Object> args = new ArrayList<>(Arrays.asList(joinPoint.getArgs()));
+        AthleteContext.find().ifPresent(args::add);
+        SingleFlight.Key key = new SingleFlight.Key(coalesce.value(), args);
+        try {
+            return singleFlight.execute(key, () -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new CheckedFailure(ex);
+                }
+            });
+        } catch (CheckedFailure ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /** A reader arriving after a write commits must not join a computation that started before it. */
+    @TransactionalEventListener
+    public void onBlockChanged(BlockChangedEvent event) {
+        singleFlight.forget(event.getBlockId());
+    }
+
+    private static final class CheckedFailure extends RuntimeException {
+        private CheckedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
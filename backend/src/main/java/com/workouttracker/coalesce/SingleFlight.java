@@ -0,0 +1,103 @@
+package com.workouttracker.coalesce;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time. Callers that arrive while it runs wait for
+ * it and get the same result or exception. The entry is removed when the computation ends,
+ * so nothing is cached. The computation runs on the first caller's thread.
+ * <p>
+ * A waiting caller that is interrupted stops waiting without affecting the others. If the
+ * computing caller is interrupted, its waiters do not inherit that and one of them computes
+ * again.
+ */
+public class SingleFlight {
+
+    public record Key(String operation, List<Object> args) {
+    }
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("workout_tracker.single_flight.in_flight", inFlight, Map::size);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Key key, Supplier<T> computation) {
+        while (true) {
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                return (T) lead(key, mine, computation);
+            }
+            try {
+                Object result = existing.get();
+                counter(key, "coalesced").increment();
+                return (T) result;
+            } catch (CancellationException ex) {
+                // The computing caller was interrupted; compete to compute again
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                counter(key, "abandoned").increment();
+                throw new CancellationException("Interrupted while waiting for " + key.operation());
+            } catch (ExecutionException ex) {
+                counter(key, "coalesced").increment();
+                throw rethrow(ex.getCause());
+            }
+        }
+    }
+
+    /** Detaches in-flight computations whose first argument matches, e.g. after a write. */
+    public void forget(Object firstArg) {
+        inFlight.keySet().removeIf(key -> !key.args().isEmpty() && Objects.equals(key.args().get(0), firstArg));
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object lead(Key key, CompletableFuture<Object> future, Supplier<?> computation) {
+        counter(key, "computed").increment();
+        try {
+            Object result = computation.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            if (Thread.currentThread().isInterrupted() || ex instanceof CancellationException) {
+                future.cancel(false);
+            } else {
+                future.completeExceptionally(ex);
+            }
+            throw ex;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Counter counter(Key key, String outcome) {
+        return meterRegistry.counter("workout_tracker.single_flight.calls",
+                "operation", key.operation(), "outcome", outcome);
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,57 @@
+package com.workouttracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.admission.AdmissionControlFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class AdmissionControlConfig {
+
+    @Value("${workout-tracker.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${workout-tracker.admission.max-in-flight:40}")
+    private int maxInFlight;
+
+    @Value("${workout-tracker.admission.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${workout-tracker.admission.min-limit:2}")
+    private int minLimit;
+
+    @Value("${workout-tracker.admission.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${workout-tracker.admission.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${workout-tracker.admission.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${workout-tracker.admission.client-burst:40}")
+    private int clientBurst;
+
+    @Value("${workout-tracker.admission.client-rate-per-second:20}")
+    private double clientRatePerSecond;
+
+    @Value("${workout-tracker.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${workout-tracker.admission.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(ObjectMapper objectMapper) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionControlFilter.Settings(
+                enabled, maxInFlight, initialLimit, minLimit, maxLimit, latencyTolerance, smoothing,
+                clientBurst, clientRatePerSecond, retryAfterSeconds, trustForwardedFor), objectMapper);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        // After CORS so rejections still carry CORS headers and preflights are never shed
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
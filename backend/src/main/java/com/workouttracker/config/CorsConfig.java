@@ -1,7 +1,9 @@
 package com.workouttracker.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -13,7 +15,7 @@ import java.util.List;
 public class CorsConfig {
     
     @Bean
-    public CorsFilter corsFilter() {
+    public FilterRegistrationBean<CorsFilter> corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         CorsConfiguration config = new CorsConfiguration();
         
@@ -35,8 +37,8 @@ public class CorsConfig {
         // Allow all HTTP methods
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         
-        // Allow exposed headers
-        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        // Allow exposed headers (Upload-Offset and Content-Range drive video upload and playback)
+        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Upload-Offset", "Content-Range"));
         
         // Set max age for preflight requests
         config.setMaxAge(3600L);
@@ -44,7 +46,10 @@ public class CorsConfig {
         // Apply CORS configuration to all paths
         source.registerCorsConfiguration("/**", config);
         
-        return new CorsFilter(source);
+        // First in the chain so preflights and admission rejections get CORS headers
+        FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
 }
 
@@ -0,0 +1,42 @@
+package com.workouttracker.config;
+
+import com.workouttracker.graphql.GraphQlScalars;
+import com.workouttracker.graphql.PersistedQueries;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public RuntimeWiringConfigurer graphQlScalars() {
+        return wiring -> wiring
+                .scalar(GraphQlScalars.DECIMAL)
+                .scalar(GraphQlScalars.DATE)
+                .scalar(GraphQlScalars.DATE_TIME);
+    }
+
+    // Both limits are checked before any field is resolved, so a rejected query runs no SQL
+    @Bean
+    public MaxQueryDepthInstrumentation graphQlMaxDepth(@Value("${workout-tracker.graphql.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation graphQlMaxComplexity(
+            @Value("${workout-tracker.graphql.max-complexity:200}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer graphQlPersistedQueries(
+            @Value("${workout-tracker.graphql.persisted-query-cache-size:500}") int cacheSize) {
+        PersistedQueries persistedQueries = new PersistedQueries(cacheSize);
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(persistedQueries));
+    }
+}
@@ -0,0 +1,33 @@
+package com.workouttracker.config;
+
+import com.workouttracker.service.ActualSetPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exit point of the {@code migrate} profile. Liquibase and Hibernate schema validation have
+ * already run while the context started; this creates upcoming partitions and shuts down so
+ * the run can be used as a deploy step before regular instances start.
+ */
+@Component
+@Profile("migrate")
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationRunner implements ApplicationRunner {
+
+    private final ActualSetPartitionService actualSetPartitionService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        actualSetPartitionService.createFuturePartitions();
+        log.info("Migrations applied and schema validated; exiting");
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
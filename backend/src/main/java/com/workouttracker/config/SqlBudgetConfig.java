@@ -0,0 +1,35 @@
+package com.workouttracker.config;
+
+import com.workouttracker.sqlbudget.SqlBudgetFilter;
+import com.workouttracker.sqlbudget.SqlStatementRecorder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetFilter.Settings.class)
+public class SqlBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementRecorder(SqlBudgetFilter.Settings settings) {
+        return properties -> {
+            if (settings.enabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementRecorder());
+                // Instantiated per session; the recorder keeps its state per thread, not per instance
+                properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementRecorder.class.getName());
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlBudgetFilter.Settings settings) {
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(new SqlBudgetFilter(settings));
+        // Inside admission control, so shed requests are not measured
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
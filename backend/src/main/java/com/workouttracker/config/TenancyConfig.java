@@ -0,0 +1,23 @@
+package com.workouttracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.tenancy.AthleteFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AthleteFilter.Settings.class)
+public class TenancyConfig {
+
+    @Bean
+    public FilterRegistrationBean<AthleteFilter> athleteFilter(AthleteFilter.Settings settings, ObjectMapper objectMapper) {
+        FilterRegistrationBean<AthleteFilter> registration =
+                new FilterRegistrationBean<>(new AthleteFilter(settings, objectMapper));
+        // Inside the SQL budget so a request's statements are counted the same with or without the header
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
@@ -1,20 +1,44 @@
 package com.workouttracker.controller;
 
+import com.workouttracker.dto.BlockComparisonDto;
+import com.workouttracker.dto.BlockRestoreDto;
+import com.workouttracker.dto.CloneBlockRequest;
 import com.workouttracker.dto.CreateBlockRequest;
+import com.workouttracker.dto.ExerciseComplianceDto;
 import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.dto.WeekDto;
 import com.workouttracker.dto.WorkoutResponseDto;
+import com.workouttracker.service.BlockArchiveService;
+import com.workouttracker.service.BlockBackupService;
+import com.workouttracker.service.BlockCloneService;
+import com.workouttracker.service.BlockComparisonService;
+import com.workouttracker.service.BlockComplianceService;
+import com.workouttracker.service.BlockSnapshotService;
 import com.workouttracker.service.TrainingBlockService;
+import com.workouttracker.service.WeekSessionService;
 import com.workouttracker.service.WorkoutService;
+import com.workouttracker.streaming.BlockJsonStreamer;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/blocks")
@@ -24,6 +48,14 @@ public class BlockController {
     
     private final TrainingBlockService trainingBlockService;
     private final WorkoutService workoutService;
+    private final BlockSnapshotService blockSnapshotService;
+    private final BlockArchiveService blockArchiveService;
+    private final BlockBackupService blockBackupService;
+    private final BlockComparisonService blockComparisonService;
+    private final BlockCloneService blockCloneService;
+    private final WeekSessionService weekSessionService;
+    private final BlockComplianceService blockComplianceService;
+    private final BlockJsonStreamer blockJsonStreamer;
     
     @GetMapping
     @Operation(summary = "Get all training blocks")
@@ -39,20 +71,107 @@ public class BlockController {
         return ResponseEntity.status(HttpStatus.CREATED).body(block);
     }
     
+    @GetMapping("/compare")
+    @Operation(summary = "Compare progress of several blocks week by week")
+    public ResponseEntity<BlockComparisonDto> compareBlocks(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) Long timeoutMs) {
+        return ResponseEntity.ok(blockComparisonService.compare(ids, timeoutMs));
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get training block by ID with all nested data")
-    public ResponseEntity<TrainingBlockDto> getBlockById(@PathVariable Long id) {
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = TrainingBlockDto.class)))
+    public ResponseEntity<?> getBlockById(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        // A fresh snapshot is already the serialized TrainingBlockDto, so it is written as-is
+        Optional<byte[]> snapshot = blockSnapshotService.findFreshSnapshot(id);
+        if (snapshot.isPresent()) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot.get());
+        }
+        if (blockJsonStreamer.isEnabled()) {
+            Optional<StreamingResponseBody> body = blockJsonStreamer.streamBlock(id);
+            if (body.isPresent()) {
+                return stream(body.get(), response);
+            }
+        }
         TrainingBlockDto block = trainingBlockService.getTrainingBlockById(id);
         return ResponseEntity.ok(block);
     }
     
     @GetMapping("/{blockId}/progress")
     @Operation(summary = "Get all completed workouts for a block")
-    public ResponseEntity<List<WorkoutResponseDto>> getBlockProgress(@PathVariable Long blockId) {
+    @ApiResponse(responseCode = "200", content = @Content(
+            array = @ArraySchema(schema = @Schema(implementation = WorkoutResponseDto.class))))
+    public ResponseEntity<?> getBlockProgress(@PathVariable Long blockId, HttpServletResponse response)
+            throws IOException {
+        if (blockJsonStreamer.isEnabled()) {
+            Optional<StreamingResponseBody> body = blockJsonStreamer.streamProgress(blockId);
+            if (body.isPresent()) {
+                return stream(body.get(), response);
+            }
+        }
         List<WorkoutResponseDto> workouts = workoutService.getBlockProgress(blockId);
         return ResponseEntity.ok(workouts);
     }
     
+    @GetMapping("/{id}/weeks/{weekNumber}/sessions")
+    @Operation(summary = "Get every day of one week with its prescribed and logged sets")
+    public ResponseEntity<WeekDto> getWeekSessions(@PathVariable Long id, @PathVariable Integer weekNumber) {
+        return ResponseEntity.ok(weekSessionService.getWeekSessions(id, weekNumber));
+    }
+    
+    @GetMapping("/{id}/compliance")
+    @Operation(summary = "Compare logged sets with their prescriptions, per week and exercise")
+    public ResponseEntity<List<ExerciseComplianceDto>> getCompliance(@PathVariable Long id) {
+        return ResponseEntity.ok(blockComplianceService.getCompliance(id));
+    }
+    
+    @PostMapping("/{id}/clone")
+    @Operation(summary = "Copy a block's plan into a new block, optionally with a new start date and scaled loads")
+    public ResponseEntity<TrainingBlockDto> cloneBlock(@PathVariable Long id,
+                                                       @Valid @RequestBody(required = false) CloneBlockRequest request) {
+        TrainingBlockDto block = blockCloneService.cloneBlock(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(block);
+    }
+    
+    @PostMapping("/{id}/archive")
+    @Operation(summary = "Archive a training block to its compressed file and remove its rows")
+    public ResponseEntity<TrainingBlockDto> archiveBlock(@PathVariable Long id) {
+        return ResponseEntity.ok(blockArchiveService.archiveBlock(id));
+    }
+    
+    @PostMapping("/{id}/restore")
+    @Operation(summary = "Restore an archived training block into the database")
+    public ResponseEntity<TrainingBlockDto> restoreBlock(@PathVariable Long id) {
+        return ResponseEntity.ok(blockArchiveService.restoreBlock(id));
+    }
+    
+    @GetMapping("/{id}/backup")
+    @Operation(summary = "Download a block with all its rows as a backup file, dumped with COPY")
+    public ResponseEntity<?> backupBlock(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        StreamingResponseBody body = blockBackupService.backup(id);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"block-" + id + ".wtbk\"");
+        body.writeTo(response.getOutputStream());
+        return null;
+    }
+    
+    @PostMapping("/restore")
+    @Operation(summary = "Restore a backup file (raw request body) as a new block of the current athlete")
+    public ResponseEntity<BlockRestoreDto> restoreBackup(HttpServletRequest request) throws IOException {
+        BlockRestoreDto restored = blockBackupService.restore(request.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED).body(restored);
+    }
+    
+    // Written on the request thread; a null entity tells Spring the response is already handled
+    private static ResponseEntity<?> stream(StreamingResponseBody body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        body.writeTo(response.getOutputStream());
+        return null;
+    }
+    
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete training block by ID")
     public ResponseEntity<Void> deleteBlock(@PathVariable Long id) {
@@ -0,0 +1,99 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.model.ActualSet;
+import com.workouttracker.model.Exercise;
+import com.workouttracker.model.PrescribedSet;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.Week;
+import com.workouttracker.model.WorkoutDay;
+import com.workouttracker.service.BlockGraphService;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GraphQL API over the block tree ({@code POST /graphql}). Nested lists go through
+ * DataLoaders keyed by parent id: the loads of one level are collected while the level is
+ * resolved and then run as a single {@link BlockGraphService} call.
+ */
+@Controller
+public class BlockGraphController {
+
+    private final BlockGraphService blockGraphService;
+
+    public BlockGraphController(BlockGraphService blockGraphService, BatchLoaderRegistry registry) {
+        this.blockGraphService = blockGraphService;
+        registry.<Long, List<Week>>forName("weeksByBlockId")
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() -> blockGraphService.getWeeksByBlockIds(ids)));
+        registry.<Long, List<WorkoutDay>>forName("daysByWeekId")
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() -> blockGraphService.getDaysByWeekIds(ids)));
+        registry.<Long, List<Exercise>>forName("exercisesByDayId")
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() -> blockGraphService.getExercisesByDayIds(ids)));
+        registry.<Long, List<PrescribedSet>>forName("prescribedSetsByExerciseId")
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() -> blockGraphService.getPrescribedSetsByExerciseIds(ids)));
+        registry.<Long, List<ActualSet>>forName("actualSetsByExerciseId")
+                .registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() -> blockGraphService.getActualSetsByExerciseIds(ids)));
+    }
+
+    @QueryMapping
+    public List<TrainingBlock> blocks() {
+        return blockGraphService.getBlocks();
+    }
+
+    @QueryMapping
+    public TrainingBlock block(@Argument Long id) {
+        return blockGraphService.getBlock(id).orElse(null);
+    }
+
+    @QueryMapping
+    public WorkoutDay workoutDay(@Argument Long blockId, @Argument Integer weekNumber, @Argument Integer dayNumber) {
+        return blockGraphService.getDay(blockId, weekNumber, dayNumber).orElse(null);
+    }
+
+    @SchemaMapping(typeName = "TrainingBlock")
+    public CompletableFuture<List<Week>> weeks(TrainingBlock block, DataLoader<Long, List<Week>> weeksByBlockId) {
+        return weeksByBlockId.load(block.getId());
+    }
+
+    @SchemaMapping(typeName = "Week")
+    public CompletableFuture<List<WorkoutDay>> days(Week week, DataLoader<Long, List<WorkoutDay>> daysByWeekId) {
+        return daysByWeekId.load(week.getId());
+    }
+
+    @SchemaMapping(typeName = "WorkoutDay")
+    public CompletableFuture<List<Exercise>> exercises(WorkoutDay day,
+                                                      DataLoader<Long, List<Exercise>> exercisesByDayId) {
+        return exercisesByDayId.load(day.getId());
+    }
+
+    @SchemaMapping(typeName = "Exercise")
+    public CompletableFuture<List<PrescribedSet>> prescribedSets(
+            Exercise exercise, DataLoader<Long, List<PrescribedSet>> prescribedSetsByExerciseId) {
+        return prescribedSetsByExerciseId.load(exercise.getId());
+    }
+
+    @SchemaMapping(typeName = "Exercise")
+    public CompletableFuture<List<ActualSet>> actualSets(
+            Exercise exercise, DataLoader<Long, List<ActualSet>> actualSetsByExerciseId) {
+        return actualSetsByExerciseId.load(exercise.getId());
+    }
+
+    // Lazy references: reading the id does not load the referenced row
+
+    @SchemaMapping(typeName = "Exercise")
+    public Long definitionId(Exercise exercise) {
+        return exercise.getDefinition().getId();
+    }
+
+    @SchemaMapping(typeName = "ActualSet")
+    public Long prescribedSetId(ActualSet actualSet) {
+        return actualSet.getPrescribedSet() != null ? actualSet.getPrescribedSet().getId() : null;
+    }
+}
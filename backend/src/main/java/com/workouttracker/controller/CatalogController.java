@@ -0,0 +1,30 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.CatalogExerciseDto;
+import com.workouttracker.service.ExerciseCatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/catalog")
+@RequiredArgsConstructor
+@Tag(name = "Catalog", description = "Exercise name autocomplete")
+public class CatalogController {
+
+    private final ExerciseCatalogService exerciseCatalogService;
+
+    @GetMapping("/exercises")
+    @Operation(summary = "Search exercise names by word prefix, falling back to typo-tolerant matches; optional body part/equipment filters")
+    public ResponseEntity<List<CatalogExerciseDto>> searchExercises(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String bodyPart,
+            @RequestParam(required = false) String equipment,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(exerciseCatalogService.search(q, bodyPart, equipment, limit));
+    }
+}
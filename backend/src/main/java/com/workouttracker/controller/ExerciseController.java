@@ -1,5 +1,7 @@
 package com.workouttracker.controller;
 
+import com.workouttracker.dto.ExerciseHistoryDto;
+import com.workouttracker.service.ExerciseDefinitionService;
 import com.workouttracker.service.ExerciseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class ExerciseController {
 
     private final ExerciseService exerciseService;
+    private final ExerciseDefinitionService exerciseDefinitionService;
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete exercise by ID (removes from block/day, cascades to prescribed and actual sets)")
@@ -21,4 +24,12 @@ public class ExerciseController {
         exerciseService.deleteExercise(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/{definitionId}/history")
+    @Operation(summary = "Logged sets of one exercise definition across all blocks, newest first, paged by cursor")
+    public ResponseEntity<ExerciseHistoryDto> getHistory(@PathVariable Long definitionId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(exerciseDefinitionService.getHistory(definitionId, cursor, limit));
+    }
 }
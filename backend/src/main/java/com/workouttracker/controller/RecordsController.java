@@ -0,0 +1,26 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.ExerciseRecordsDto;
+import com.workouttracker.service.PersonalRecordService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/records")
+@RequiredArgsConstructor
+@Tag(name = "Records", description = "Personal record APIs")
+public class RecordsController {
+
+    private final PersonalRecordService personalRecordService;
+
+    @GetMapping
+    @Operation(summary = "Personal records per exercise: best weight per rep count and best estimated 1RM")
+    public ResponseEntity<List<ExerciseRecordsDto>> getRecords(@RequestParam(required = false) String exercise) {
+        return ResponseEntity.ok(personalRecordService.getRecords(exercise));
+    }
+}
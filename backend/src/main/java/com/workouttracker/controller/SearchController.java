@@ -0,0 +1,27 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.FeedbackSearchDto;
+import com.workouttracker.service.FeedbackSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Full-text search over logged sets")
+public class SearchController {
+
+    private final FeedbackSearchService feedbackSearchService;
+
+    @GetMapping("/feedback")
+    @Operation(summary = "Search set feedback notes, best match first, with highlighted fragments and a keyset cursor")
+    public ResponseEntity<FeedbackSearchDto> searchFeedback(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(feedbackSearchService.search(q, cursor, limit));
+    }
+}
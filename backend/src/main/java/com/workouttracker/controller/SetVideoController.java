@@ -0,0 +1,148 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.CreateVideoUploadRequest;
+import com.workouttracker.dto.SetVideoDto;
+import com.workouttracker.dto.VideoUploadDto;
+import com.workouttracker.service.SetVideoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RestController
+@RequestMapping("/actual-sets/{actualSetId}/video")
+@RequiredArgsConstructor
+@Tag(name = "Set Videos", description = "Resumable upload and range playback of set videos")
+public class SetVideoController {
+
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    // Tomcat's sendfile contract: when supported, the connector writes the named file region
+    // after the handler returns, straight from the page cache to the socket
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final SetVideoService setVideoService;
+
+    @PostMapping("/uploads")
+    @Operation(summary = "Start a resumable upload of a set's video, declaring its size and sha256")
+    public ResponseEntity<VideoUploadDto> createUpload(@PathVariable Long actualSetId,
+                                                       @Valid @RequestBody CreateVideoUploadRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(setVideoService.createUpload(actualSetId, request));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "Get an upload's current offset, to resume it after a dropped connection")
+    public ResponseEntity<VideoUploadDto> getUpload(@PathVariable Long actualSetId, @PathVariable String uploadId) {
+        VideoUploadDto upload = setVideoService.getUpload(actualSetId, uploadId);
+        return ResponseEntity.ok().header(UPLOAD_OFFSET, Long.toString(upload.getOffset())).body(upload);
+    }
+
+    @PatchMapping("/uploads/{uploadId}")
+    @Operation(summary = "Append the request body at Upload-Offset; the last chunk verifies and stores the video")
+    public ResponseEntity<VideoUploadDto> appendChunk(@PathVariable Long actualSetId, @PathVariable String uploadId,
+                                                      @RequestHeader(UPLOAD_OFFSET) long offset,
+                                                      HttpServletRequest request) throws IOException {
+        VideoUploadDto upload = setVideoService.appendChunk(actualSetId, uploadId, offset,
+                request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.ok().header(UPLOAD_OFFSET, Long.toString(upload.getOffset())).body(upload);
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(summary = "Cancel an upload and discard the bytes received so far")
+    public ResponseEntity<Void> cancelUpload(@PathVariable Long actualSetId, @PathVariable String uploadId) {
+        setVideoService.cancelUpload(actualSetId, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping
+    @Operation(summary = "Play a set's video; honours a single-range Range header with 206 Partial Content")
+    public void streamVideo(@PathVariable Long actualSetId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        SetVideoDto video = setVideoService.getVideo(actualSetId);
+        Path file = setVideoService.videoFile(video);
+        long length = video.getSizeBytes();
+        // Parsed before any header is set, so a malformed Range still gets the JSON 400
+        List<HttpRange> ranges = HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+
+        // Content-addressed, so the hash is a strong validator
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + video.getSha256() + "\"")) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long start = 0;
+        long end = length - 1;
+        // Several ranges would need a multipart body; sending the whole video instead is allowed
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException ex) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+        response.setContentType(video.getContentType());
+        response.setContentLengthLong(end - start + 1);
+        if (!"HEAD".equals(request.getMethod())) {
+            sendFile(file, start, end - start + 1, request, response);
+        }
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Remove a set's video")
+    public ResponseEntity<Void> deleteVideo(@PathVariable Long actualSetId) {
+        setVideoService.deleteVideo(actualSetId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Without connector sendfile, transferTo still moves the region in bounded chunks, never the whole file
+    private static void sendFile(Path file, long start, long count, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+}
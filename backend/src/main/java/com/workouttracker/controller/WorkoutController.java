@@ -3,13 +3,16 @@ package com.workouttracker.controller;
 import com.workouttracker.dto.CreateWorkoutRequest;
 import com.workouttracker.dto.WorkoutResponseDto;
 import com.workouttracker.service.WorkoutService;
+import com.workouttracker.service.WorkoutSessionBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/workouts")
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class WorkoutController {
     
     private final WorkoutService workoutService;
+    private final WorkoutSessionBroadcaster workoutSessionBroadcaster;
     
     @PostMapping
     @Operation(summary = "Log a completed workout")
@@ -36,6 +40,17 @@ public class WorkoutController {
         return ResponseEntity.ok(workout);
     }
     
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream set-level changes of a workout day as Server-Sent Events")
+    public SseEmitter streamWorkout(
+            @RequestParam Long blockId,
+            @RequestParam Integer weekNumber,
+            @RequestParam Integer dayNumber) {
+        // The one read of a stream: only the day's athlete may watch it
+        workoutService.findWorkoutDay(blockId, weekNumber, dayNumber);
+        return workoutSessionBroadcaster.subscribe(blockId, weekNumber, dayNumber);
+    }
+    
     @DeleteMapping
     @Operation(summary = "Delete a specific logged workout by block, week, and day")
     public ResponseEntity<Void> deleteWorkout(
@@ -0,0 +1,159 @@
+package com.workouttracker.dataset;
+
+import com.workouttracker.dataset.SyntheticDataset.Batch;
+import com.workouttracker.dataset.SyntheticDataset.Table;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.service.ActualSetPartitionService;
+import com.workouttracker.service.ExerciseDefinitionService;
+import com.workouttracker.service.PersonalRecordSql;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exit point of the {@code generate} profile: loads a {@link SyntheticDataset} of
+ * {@code workout-tracker.generator.blocks} blocks spread over the last {@code years} years and
+ * {@code athletes} athletes, then shuts down. Every {@code batch-blocks} blocks are rendered in
+ * memory and copied in with one {@code COPY ... FROM STDIN} per table in a single transaction,
+ * parents first.
+ * <p>
+ * Ids are taken past the current sequence values and the sequences are moved past the loaded
+ * rows at the end, so the run must not overlap with other writers. The same seed against the
+ * same starting ids always produces the same rows. COPY bypasses the application, so no events
+ * are published: personal records are refreshed with one set-based statement at the end, and
+ * the exercise catalog picks the names up on the next start.
+ */
+@Component
+@Profile("generate")
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGenerator implements ApplicationRunner {
+
+    // Raises only the records the loaded sets beat
+    private static final String REFRESH_RECORDS = PersonalRecordSql.upsertBestSets("", "a.id BETWEEN ? AND ?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExerciseDefinitionService exerciseDefinitionService;
+    private final ActualSetPartitionService actualSetPartitionService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${workout-tracker.generator.seed:42}")
+    private long seed;
+
+    @Value("${workout-tracker.generator.blocks:100}")
+    private int blocks;
+
+    @Value("${workout-tracker.generator.athletes:1}")
+    private int athletes;
+
+    @Value("${workout-tracker.generator.years:3}")
+    private int years;
+
+    @Value("${workout-tracker.generator.days-per-week:4}")
+    private int daysPerWeek;
+
+    @Value("${workout-tracker.generator.exercises-per-day:5}")
+    private int exercisesPerDay;
+
+    @Value("${workout-tracker.generator.skip-rate:0.1}")
+    private double skipRate;
+
+    @Value("${workout-tracker.generator.batch-blocks:20}")
+    private int batchBlocks;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    /** Loads the dataset; returns the rows copied per table. */
+    public Map<Table, Long> generate() {
+        LocalDate today = LocalDate.now();
+        SyntheticDataset.Settings settings = new SyntheticDataset.Settings(seed, blocks, athletes,
+                today.minusYears(years), today.minusWeeks(4), today, daysPerWeek, exercisesPerDay, skipRate);
+        Map<String, Long> definitionIds = transactionTemplate.execute(status -> resolveDefinitions());
+        actualSetPartitionService.createPartitionsFrom(settings.firstStart());
+
+        Map<Table, Long> firstIds = new EnumMap<>(Table.class);
+        for (Table table : Table.values()) {
+            firstIds.put(table, jdbcTemplate.queryForObject(
+                    "SELECT nextval(pg_get_serial_sequence(?, 'id'))", Long.class, table.tableName()));
+        }
+        SyntheticDataset.Ids ids = new SyntheticDataset.Ids(firstIds);
+        SyntheticDataset dataset = new SyntheticDataset(settings, definitionIds, ids);
+
+        Map<Table, Long> totals = new EnumMap<>(Table.class);
+        long started = System.nanoTime();
+        for (int from = 0; from < blocks; from += batchBlocks) {
+            Batch batch = dataset.generate(from, Math.min(blocks, from + batchBlocks));
+            transactionTemplate.executeWithoutResult(status -> copy(batch));
+            for (Table table : Table.values()) {
+                totals.merge(table, batch.count(table), Long::sum);
+            }
+            log.info("Loaded blocks {}-{} of {}", from + 1, Math.min(blocks, from + batchBlocks), blocks);
+        }
+        for (Table table : Table.values()) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?)", Long.class,
+                    table.tableName(), Math.max(ids.last(table), firstIds.get(table)));
+            jdbcTemplate.execute("ANALYZE " + table.tableName());
+        }
+
+        int records = jdbcTemplate.update(REFRESH_RECORDS, firstIds.get(Table.ACTUAL_SETS), ids.last(Table.ACTUAL_SETS));
+        log.info("Raised {} personal records", records);
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long rows = totals.values().stream().mapToLong(Long::longValue).sum();
+        log.info("Generated {} rows in {} s ({} rows/s): {}", rows, String.format("%.1f", seconds),
+                Math.round(rows / Math.max(seconds, 0.001)), totals);
+        return totals;
+    }
+
+    private Map<String, Long> resolveDefinitions() {
+        Map<String, Long> definitionIds = new LinkedHashMap<>();
+        for (Map.Entry<ExerciseCategory, List<String>> entry : SyntheticDataset.EXERCISE_NAMES.entrySet()) {
+            for (String name : entry.getValue()) {
+                definitionIds.put(name, exerciseDefinitionService.resolve(name, entry.getKey()).getId());
+            }
+        }
+        return definitionIds;
+    }
+
+    private void copy(Batch batch) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            for (Table table : Table.values()) {
+                if (batch.count(table) == 0) {
+                    continue;
+                }
+                try {
+                    copyManager.copyIn(table.copySql(), new StringReader(batch.rows(table)));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("COPY into " + table.tableName() + " failed", ex);
+                }
+            }
+            return null;
+        });
+    }
+}
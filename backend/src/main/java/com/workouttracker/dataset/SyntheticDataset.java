@@ -0,0 +1,296 @@
+package com.workouttracker.dataset;
+
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.model.WeekType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic training history for scale tests, rendered as PostgreSQL {@code COPY} text.
+ * Blocks start at even intervals between {@code firstStart} and {@code lastStart} and run 4–6
+ * weeks (base, progression, deload), with one main lift per day followed by its variation and
+ * accessories. Sets are logged for every day up to {@code today} except a {@code skipRate}
+ * share of missed sessions.
+ * <p>
+ * Block {@code i} draws from its own random stream derived from the seed, so its rows do not
+ * depend on how a run is split into batches. Ids are assigned from {@link Ids}, which the
+ * caller starts past the current sequence values. Blocks are dealt round-robin to athletes
+ * {@code 1..athletes}.
+ */
+public class SyntheticDataset {
+
+    public record Settings(long seed, int blocks, int athletes, LocalDate firstStart, LocalDate lastStart,
+                           LocalDate today, int daysPerWeek, int exercisesPerDay, double skipRate) {
+    }
+
+    /** Tables in load order, parents first, with the columns each row is written with. */
+    public enum Table {
+        TRAINING_BLOCKS("training_blocks",
+                "id, athlete_id, block_length, progression_rate, deload_rate, macrocycle, mesocycle, created_at"),
+        WEEKS("weeks", "id, block_id, week_number, week_type, start_date, end_date"),
+        WORKOUT_DAYS("workout_days", "id, week_id, day_number, day_name, rest_day"),
+        EXERCISES("exercises", "id, day_id, name, definition_id, category, order_in_workout"),
+        PRESCRIBED_SETS("prescribed_sets", "id, exercise_id, set_number, target_sets, target_reps, "
+                + "target_load_min, target_load_max, target_rpe, tempo, video_required"),
+        ACTUAL_SETS("actual_sets", "id, exercise_id, prescribed_set_id, set_number, actual_weight, actual_reps, "
+                + "actual_rpe, tempo_used, video_recorded, feedback, completed_at, definition_id, athlete_id");
+
+        private final String tableName;
+        private final String columns;
+
+        Table(String tableName, String columns) {
+            this.tableName = tableName;
+            this.columns = columns;
+        }
+
+        public String tableName() {
+            return tableName;
+        }
+
+        public String copySql() {
+            return "COPY " + tableName + " (" + columns + ") FROM STDIN";
+        }
+    }
+
+    /** Next id per table; plays the part of the sequences while rows are copied in. */
+    public static final class Ids {
+        private final Map<Table, Long> next = new EnumMap<>(Table.class);
+
+        public Ids(Map<Table, Long> firstIds) {
+            next.putAll(firstIds);
+        }
+
+        long take(Table table) {
+            return next.merge(table, 1L, Long::sum) - 1;
+        }
+
+        /** The last id handed out, or {@code first - 1} when the table got no rows. */
+        public long last(Table table) {
+            return next.get(table) - 1;
+        }
+    }
+
+    /** Rows of a run of blocks in COPY text format, one buffer per table. */
+    public static final class Batch {
+        private final Map<Table, StringBuilder> rows = new EnumMap<>(Table.class);
+        private final Map<Table, Long> counts = new EnumMap<>(Table.class);
+
+        private Batch() {
+            for (Table table : Table.values()) {
+                rows.put(table, new StringBuilder());
+                counts.put(table, 0L);
+            }
+        }
+
+        public String rows(Table table) {
+            return rows.get(table).toString();
+        }
+
+        public long count(Table table) {
+            return counts.get(table);
+        }
+
+        private void add(Table table, Object... values) {
+            StringBuilder out = rows.get(table);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append('\t');
+                }
+                appendValue(out, values[i]);
+            }
+            out.append('\n');
+            counts.merge(table, 1L, Long::sum);
+        }
+
+        private static void appendValue(StringBuilder out, Object value) {
+            if (value == null) {
+                out.append("\\N");
+                return;
+            }
+            String text = value instanceof LocalDateTime time ? time.toString().replace('T', ' ') : value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> out.append("\\\\");
+                    case '\t' -> out.append("\\t");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    default -> out.append(c);
+                }
+            }
+        }
+    }
+
+    /** Exercise names used per category; the first of each main category is that lift's competition variant. */
+    public static final Map<ExerciseCategory, List<String>> EXERCISE_NAMES = names();
+
+    private static final ExerciseCategory[] MAIN_LIFT_ROTATION = {
+            ExerciseCategory.SQUAT, ExerciseCategory.BENCH, ExerciseCategory.DEADLIFT, ExerciseCategory.BENCH};
+    private static final String[] MESOCYCLES = {"Hypertrophy", "Strength", "Peaking"};
+    private static final String[] FEEDBACK = {"Felt strong", "Grindy last rep", "Belt on", "Elbow a bit sore",
+            "Moved fast"};
+    private static final BigDecimal PLATE = new BigDecimal("2.5");
+
+    private final Settings settings;
+    private final Map<String, Long> definitionIds;
+    private final Ids ids;
+
+    /**
+     * @param definitionIds the {@code exercise_definitions} id of every name in {@link #EXERCISE_NAMES}
+     */
+    public SyntheticDataset(Settings settings, Map<String, Long> definitionIds, Ids ids) {
+        this.settings = settings;
+        this.definitionIds = definitionIds;
+        this.ids = ids;
+    }
+
+    /** Blocks {@code from} (inclusive) to {@code to} (exclusive); call with consecutive ranges. */
+    public Batch generate(int from, int to) {
+        Batch batch = new Batch();
+        for (int block = from; block < to; block++) {
+            writeBlock(batch, block);
+        }
+        return batch;
+    }
+
+    LocalDate blockStart(int block) {
+        long span = ChronoUnit.DAYS.between(settings.firstStart(), settings.lastStart());
+        long offset = settings.blocks() > 1 ? span * block / (settings.blocks() - 1) : 0;
+        return settings.firstStart().plusDays(offset).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    long athleteOf(int block) {
+        return block % settings.athletes() + 1;
+    }
+
+    private void writeBlock(Batch batch, int block) {
+        SplittableRandom random = new SplittableRandom(settings.seed() * 1_000_003L + block);
+        int weeks = 4 + random.nextInt(3);
+        BigDecimal progressionRate = BigDecimal.valueOf(200 + random.nextInt(301), 4);
+        BigDecimal deloadRate = BigDecimal.valueOf(60 + random.nextInt(21), 2);
+        LocalDate start = blockStart(block);
+        long blockId = ids.take(Table.TRAINING_BLOCKS);
+        long athleteId = athleteOf(block);
+        batch.add(Table.TRAINING_BLOCKS, blockId, athleteId, weeks, progressionRate, deloadRate,
+                "Macrocycle " + (block / 4 + 1), MESOCYCLES[block % MESOCYCLES.length],
+                start.minusDays(2).atTime(19, 0));
+
+        // Working loads drift up by about half a percent per block across the whole history
+        double trend = 1 + 0.005 * block;
+        Map<String, Double> baseLoads = new LinkedHashMap<>();
+        for (int week = 1; week <= weeks; week++) {
+            WeekType type = week == weeks ? WeekType.DELOAD : week == 1 ? WeekType.BASE : WeekType.PROGRESSION;
+            double weekFactor = type == WeekType.DELOAD ? deloadRate.doubleValue()
+                    : 1 + progressionRate.doubleValue() * (week - 1);
+            LocalDate weekStart = start.plusWeeks(week - 1);
+            long weekId = ids.take(Table.WEEKS);
+            batch.add(Table.WEEKS, weekId, blockId, week, type, weekStart, weekStart.plusDays(6));
+
+            for (int day = 1; day <= settings.daysPerWeek(); day++) {
+                LocalDate date = weekStart.plusDays((long) (day - 1) * 7 / settings.daysPerWeek());
+                long dayId = ids.take(Table.WORKOUT_DAYS);
+                batch.add(Table.WORKOUT_DAYS, dayId, weekId, day, "Day " + day, false);
+                boolean logged = !date.isAfter(settings.today()) && random.nextDouble() >= settings.skipRate();
+                LocalDateTime completedAt = date.atTime(17, random.nextInt(60));
+
+                List<Slot> slots = slots(day, block);
+                for (int order = 0; order < slots.size(); order++) {
+                    Slot slot = slots.get(order);
+                    double load = trend * weekFactor * baseLoads.computeIfAbsent(slot.name(),
+                            name -> slot.category() == ExerciseCategory.ACCESSORY
+                                    ? 20.0 + random.nextInt(61) : 100.0 + random.nextInt(81));
+                    completedAt = writeExercise(batch, random, athleteId, dayId, slot, order + 1, load, logged,
+                            completedAt);
+                }
+            }
+        }
+    }
+
+    private LocalDateTime writeExercise(Batch batch, SplittableRandom random, long athleteId, long dayId, Slot slot,
+                                        int order, double load, boolean logged, LocalDateTime completedAt) {
+        long exerciseId = ids.take(Table.EXERCISES);
+        Long definitionId = definitionIds.get(slot.name());
+        batch.add(Table.EXERCISES, exerciseId, dayId, slot.name(), definitionId, slot.category(), order);
+
+        boolean main = slot.category() != ExerciseCategory.ACCESSORY;
+        int prescriptions = main ? 1 + random.nextInt(2) : 1;
+        int setNumber = 1;
+        for (int prescription = 1; prescription <= prescriptions; prescription++) {
+            // A main lift's second prescription is lighter back-off work
+            double target = prescription == 1 ? load : load * 0.85;
+            int targetSets = main ? 1 + random.nextInt(5) : 3 + random.nextInt(2);
+            int targetReps = main ? 1 + random.nextInt(8) : 8 + random.nextInt(8);
+            int targetRpe = 6 + random.nextInt(4);
+            Tempo tempo = random.nextInt(5) == 0 ? Tempo.EXPLOSIVE : Tempo.CONTROLLED;
+            boolean videoRequired = main && prescription == 1;
+            long prescribedSetId = ids.take(Table.PRESCRIBED_SETS);
+            batch.add(Table.PRESCRIBED_SETS, prescribedSetId, exerciseId, prescription, targetSets, targetReps,
+                    plates(target * 0.97), plates(target), targetRpe, tempo, videoRequired);
+            if (!logged) {
+                continue;
+            }
+            for (int set = 0; set < targetSets; set++) {
+                completedAt = completedAt.plusMinutes(2 + random.nextInt(4));
+                batch.add(Table.ACTUAL_SETS, ids.take(Table.ACTUAL_SETS), exerciseId, prescribedSetId, setNumber++,
+                        plates(target + 2.5 * (random.nextInt(3) - 1)),
+                        Math.max(1, targetReps + random.nextInt(3) - 1),
+                        Math.min(10, targetRpe + random.nextInt(2)),
+                        tempo, videoRequired && random.nextInt(5) > 0,
+                        random.nextInt(20) == 0 ? FEEDBACK[random.nextInt(FEEDBACK.length)] : null,
+                        completedAt, definitionId, athleteId);
+            }
+        }
+        return completedAt;
+    }
+
+    private record Slot(String name, ExerciseCategory category) {
+    }
+
+    // The day's main lift, a variation of another main lift, then distinct accessories
+    private List<Slot> slots(int day, int block) {
+        ExerciseCategory main = MAIN_LIFT_ROTATION[(day - 1) % MAIN_LIFT_ROTATION.length];
+        ExerciseCategory secondary = MAIN_LIFT_ROTATION[day % MAIN_LIFT_ROTATION.length];
+        List<Slot> slots = new ArrayList<>();
+        slots.add(new Slot(EXERCISE_NAMES.get(main).get(0), main));
+        if (settings.exercisesPerDay() > 1) {
+            List<String> variations = EXERCISE_NAMES.get(secondary);
+            slots.add(new Slot(variations.get(1 + block % (variations.size() - 1)), secondary));
+        }
+        List<String> accessories = EXERCISE_NAMES.get(ExerciseCategory.ACCESSORY);
+        for (int i = 0; slots.size() < settings.exercisesPerDay() && i < accessories.size(); i++) {
+            slots.add(new Slot(accessories.get((day * 3 + block + i) % accessories.size()), ExerciseCategory.ACCESSORY));
+        }
+        return slots;
+    }
+
+    private static BigDecimal plates(double kilos) {
+        BigDecimal rounded = BigDecimal.valueOf(kilos).divide(PLATE, 0, RoundingMode.HALF_UP).multiply(PLATE);
+        return rounded.max(PLATE).setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    private static Map<ExerciseCategory, List<String>> names() {
+        Map<ExerciseCategory, List<String>> names = new EnumMap<>(ExerciseCategory.class);
+        names.put(ExerciseCategory.SQUAT, List.of("Back Squat", "Front Squat", "Pause Squat", "Safety Bar Squat"));
+        names.put(ExerciseCategory.BENCH, List.of("Bench Press", "Close Grip Bench Press", "Larsen Press",
+                "Spoto Press"));
+        names.put(ExerciseCategory.DEADLIFT, List.of("Deadlift", "Sumo Deadlift", "Romanian Deadlift",
+                "Deficit Deadlift"));
+        names.put(ExerciseCategory.ACCESSORY, List.of("Barbell Row", "Pull Up", "Overhead Press", "Leg Press",
+                "Dumbbell Row", "Lat Pulldown", "Hip Thrust", "Dips", "Face Pull", "Bulgarian Split Squat",
+                "Hamstring Curl", "Plank"));
+        return names;
+    }
+}
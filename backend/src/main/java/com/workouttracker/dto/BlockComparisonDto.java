@@ -0,0 +1,18 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlockComparisonDto {
+    private Integer weekCount;
+    private Boolean partial;
+    private List<BlockComparisonEntryDto> blocks;
+}
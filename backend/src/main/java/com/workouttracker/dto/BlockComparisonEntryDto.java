@@ -0,0 +1,30 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlockComparisonEntryDto {
+
+    public enum Status {
+        COMPLETE,
+        NOT_FOUND,
+        TIMED_OUT,
+        REJECTED,
+        FAILED
+    }
+
+    private Long blockId;
+    private Status status;
+    private String message;
+    private Integer blockLength;
+    private ProgressMetricsDto summary;
+    private List<ProgressMetricsDto> weeks;
+}
@@ -0,0 +1,24 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlockRestoreDto {
+    /** The new block; every row of the backup got a new id. */
+    private Long blockId;
+    /** The block's id in the database the backup was taken from. */
+    private Long sourceBlockId;
+    private Long weeks;
+    private Long workoutDays;
+    private Long exercises;
+    private Long prescribedSets;
+    private Long actualSets;
+    private Integer personalRecords;
+    private Long elapsedMs;
+}
@@ -0,0 +1,16 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogExerciseDto {
+    private String name;
+    private String bodyPart;
+    private String equipment;
+}
@@ -0,0 +1,25 @@
+package com.workouttracker.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CloneBlockRequest {
+    /** Start of the clone's first week; every week moves by the same number of days. Null keeps the dates. */
+    private LocalDate startDate;
+    
+    /** Applied to every prescribed load, rounded to 0.01. Null keeps the loads. */
+    @Positive(message = "Load multiplier must be positive")
+    @DecimalMax(value = "10", message = "Load multiplier must be at most 10")
+    private BigDecimal loadMultiplier;
+}
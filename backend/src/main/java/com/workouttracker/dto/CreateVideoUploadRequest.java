@@ -0,0 +1,29 @@
+package com.workouttracker.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateVideoUploadRequest {
+    @NotNull(message = "Size is required")
+    @Positive(message = "Size must be positive")
+    private Long sizeBytes;
+    
+    /** Hex sha256 of the whole file; the upload is verified against it once the last byte arrives */
+    @NotBlank(message = "sha256 is required")
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "sha256 must be 64 hex digits")
+    private String sha256;
+    
+    @NotBlank(message = "Content type is required")
+    @Pattern(regexp = "video/[\\w.+-]+", message = "Content type must be a video type")
+    private String contentType;
+}
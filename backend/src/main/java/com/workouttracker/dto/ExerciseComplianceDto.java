@@ -0,0 +1,30 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseComplianceDto {
+    private Integer weekNumber;
+    private Long definitionId;
+    private String exerciseName;
+    private Integer prescribedSets;
+    private Integer loggedSets;
+    /** Prescribed sets logged with at least their target reps */
+    private Integer completedSets;
+    private Integer missedSets;
+    private BigDecimal completionPercent;
+    /** Average signed distance of logged loads past the target range, in percent of the nearer bound; 0 inside it */
+    private BigDecimal loadDeviationPercent;
+    /** Average logged RPE minus target RPE */
+    private BigDecimal rpeDeviation;
+    /** Change of {@code rpeDeviation} since the previous week the lift was programmed */
+    private BigDecimal rpeDrift;
+}
@@ -16,6 +16,7 @@ public class ExerciseDto {
     private Long id;
     private Long dayId;
     private String name;
+    private Long definitionId;
     private ExerciseCategory category;
     private Integer orderInWorkout;
     private List<PrescribedSetDto> prescribedSets;
@@ -0,0 +1,23 @@
+package com.workouttracker.dto;
+
+import com.workouttracker.model.ExerciseCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseHistoryDto {
+    private Long definitionId;
+    private String name;
+    private ExerciseCategory category;
+    /** Logged sets across all live blocks, newest first */
+    private List<ExerciseHistoryEntryDto> entries;
+    /** Pass as {@code cursor} to get the next page; null on the last page */
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseHistoryEntryDto {
+    private Long actualSetId;
+    private Long blockId;
+    private Integer weekNumber;
+    private Integer dayNumber;
+    private Long exerciseId;
+    /** Name as written in that block, which may differ from the definition's name */
+    private String exerciseName;
+    private Integer setNumber;
+    private BigDecimal actualWeight;
+    private Integer actualReps;
+    private Integer actualRpe;
+    private LocalDateTime completedAt;
+}
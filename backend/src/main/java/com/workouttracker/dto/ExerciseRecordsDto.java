@@ -0,0 +1,18 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseRecordsDto {
+    private String exerciseName;
+    private PersonalRecordDto bestEstimatedOneRepMax;
+    private List<PersonalRecordDto> repMaxes;
+}
@@ -0,0 +1,32 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeedbackMatchDto {
+    private Long actualSetId;
+    private Long blockId;
+    private Integer weekNumber;
+    private Integer dayNumber;
+    private String dayName;
+    private Long exerciseId;
+    private String exerciseName;
+    private Integer setNumber;
+    private BigDecimal actualWeight;
+    private Integer actualReps;
+    private Integer actualRpe;
+    private String feedback;
+    /** Fragments of the feedback around the matched words, which are wrapped in {@code <mark>} */
+    private String highlight;
+    private Float rank;
+    private LocalDateTime completedAt;
+}
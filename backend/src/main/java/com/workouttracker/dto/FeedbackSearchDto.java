@@ -0,0 +1,20 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeedbackSearchDto {
+    private String query;
+    /** Logged sets of live blocks whose feedback matches, best match first */
+    private List<FeedbackMatchDto> matches;
+    /** Pass as {@code cursor} to get the next page; null on the last page */
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonalRecordDto {
+
+    public enum Type {
+        /** Heaviest weight lifted for {@code reps} */
+        REP_MAX,
+        /** Best estimated one-rep max across all rep counts */
+        ESTIMATED_ONE_REP_MAX
+    }
+
+    private Type type;
+    private String exerciseName;
+    private Integer reps;
+    private BigDecimal weight;
+    private BigDecimal estimatedOneRepMax;
+    /** Record beaten by this one (weight for REP_MAX, estimate otherwise); null for a first record */
+    private BigDecimal previousBest;
+    private Long actualSetId;
+    private LocalDateTime achievedAt;
+}
@@ -0,0 +1,22 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProgressMetricsDto {
+    private Integer weekNumber;
+    private Integer workoutsLogged;
+    private Integer totalSets;
+    private Integer totalReps;
+    private BigDecimal totalVolume;
+    private BigDecimal averageRpe;
+    private BigDecimal topSetWeight;
+}
@@ -0,0 +1,20 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SetVideoDto {
+    private Long actualSetId;
+    private String sha256;
+    private Long sizeBytes;
+    private String contentType;
+    private LocalDateTime uploadedAt;
+}
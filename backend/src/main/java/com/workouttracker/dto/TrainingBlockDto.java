@@ -22,6 +22,7 @@ public class TrainingBlockDto {
     private String mesocycle;
     private List<WeekDto> weeks;
     private LocalDateTime createdAt;
+    private LocalDateTime archivedAt;
 }
 
 
@@ -0,0 +1,25 @@
+package com.workouttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoUploadDto {
+    private String uploadId;
+    private Long actualSetId;
+    private Long sizeBytes;
+    private String sha256;
+    private String contentType;
+    /** Bytes received so far; send the next chunk with this as {@code Upload-Offset} */
+    private Long offset;
+    /** True once every byte arrived and matched the sha256; the upload no longer exists then */
+    private boolean complete;
+    private LocalDateTime createdAt;
+}
@@ -19,5 +19,7 @@ public class WorkoutResponseDto {
     private Integer dayNumber;
     private LocalDateTime completedAt;
     private List<WorkoutExerciseResponseDto> exercises;
+    /** Records set by this workout; only filled in the response to logging it */
+    private List<PersonalRecordDto> newPersonalRecords;
 }
 
@@ -0,0 +1,33 @@
+package com.workouttracker.event;
+
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.model.Exercise;
+import com.workouttracker.model.WorkoutDay;
+import lombok.Value;
+
+/**
+ * Set-level change published inside the writing transaction. The day coordinates are
+ * resolved at publish time so listeners never have to touch the database.
+ */
+@Value
+public class ActualSetChangedEvent {
+    
+    public enum Type {
+        LOGGED,
+        UPDATED,
+        DELETED
+    }
+    
+    Type type;
+    Long blockId;
+    Integer weekNumber;
+    Integer dayNumber;
+    String exerciseName;
+    ActualSetDto actualSet;
+    
+    public static ActualSetChangedEvent of(Type type, Exercise exercise, ActualSetDto actualSet) {
+        WorkoutDay day = exercise.getDay();
+        return new ActualSetChangedEvent(type, day.getWeek().getBlock().getId(), day.getWeek().getWeekNumber(),
+                day.getDayNumber(), exercise.getName(), actualSet);
+    }
+}
@@ -0,0 +1,12 @@
+package com.workouttracker.event;
+
+import lombok.Value;
+
+/**
+ * Published inside the writing transaction whenever anything that is part of a block's
+ * tree (weeks, days, exercises, prescribed or actual sets) changes.
+ */
+@Value
+public class BlockChangedEvent {
+    Long blockId;
+}
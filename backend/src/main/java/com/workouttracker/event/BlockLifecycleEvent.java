@@ -0,0 +1,19 @@
+package com.workouttracker.event;
+
+import lombok.Value;
+
+/**
+ * Published inside the writing transaction when a block is created (including clones) or
+ * deleted. Edits inside a block's tree publish {@link BlockChangedEvent} instead.
+ */
+@Value
+public class BlockLifecycleEvent {
+    
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+    
+    Type type;
+    Long blockId;
+}
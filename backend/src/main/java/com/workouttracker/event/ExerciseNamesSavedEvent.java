@@ -0,0 +1,14 @@
+package com.workouttracker.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published inside the writing transaction with the exercise names a write stored, so the
+ * catalog can index them after commit without reading them back.
+ */
+@Value
+public class ExerciseNamesSavedEvent {
+    Set<String> names;
+}
@@ -0,0 +1,15 @@
+package com.workouttracker.exception;
+
+import lombok.Getter;
+
+/** The server is at a configured concurrency limit; the client should retry after {@link #getRetryAfterSeconds()}. */
+@Getter
+public class CapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
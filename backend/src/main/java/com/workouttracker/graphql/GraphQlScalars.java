@@ -0,0 +1,84 @@
+package com.workouttracker.graphql;
+
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Scalars for the value types of the model, written the same way the REST API writes them:
+ * decimals as JSON numbers, dates and timestamps as ISO-8601 strings.
+ */
+public final class GraphQlScalars {
+
+    public static final GraphQLScalarType DECIMAL = scalar("Decimal", "Exact decimal, e.g. a load in kg",
+            BigDecimal.class, BigDecimal::new, value -> value);
+
+    public static final GraphQLScalarType DATE = scalar("Date", "ISO-8601 date, e.g. 2024-01-15",
+            LocalDate.class, LocalDate::parse, LocalDate::toString);
+
+    public static final GraphQLScalarType DATE_TIME = scalar("DateTime", "ISO-8601 local date-time, e.g. 2024-01-15T18:30:00",
+            LocalDateTime.class, LocalDateTime::parse, LocalDateTime::toString);
+
+    private GraphQlScalars() {
+    }
+
+    private static <T> GraphQLScalarType scalar(String name, String description, Class<T> type,
+                                                Function<String, T> parser, Function<T, Object> writer) {
+        return GraphQLScalarType.newScalar()
+                .name(name)
+                .description(description)
+                .coercing(new Coercing<T, Object>() {
+                    @Override
+                    public Object serialize(Object result, GraphQLContext context, Locale locale) {
+                        if (!type.isInstance(result)) {
+                            throw new CoercingSerializeException("Expected " + type.getSimpleName() + " for " + name);
+                        }
+                        return writer.apply(type.cast(result));
+                    }
+
+                    @Override
+                    public T parseValue(Object input, GraphQLContext context, Locale locale) {
+                        try {
+                            return parser.apply(input.toString());
+                        } catch (RuntimeException ex) {
+                            throw new CoercingParseValueException("Invalid " + name + ": " + input);
+                        }
+                    }
+
+                    @Override
+                    public T parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext context,
+                                          Locale locale) {
+                        String text;
+                        if (input instanceof StringValue string) {
+                            text = string.getValue();
+                        } else if (input instanceof IntValue integer) {
+                            text = integer.getValue().toString();
+                        } else if (input instanceof FloatValue decimal) {
+                            text = decimal.getValue().toString();
+                        } else {
+                            throw new CoercingParseLiteralException("Invalid " + name + " literal");
+                        }
+                        try {
+                            return parser.apply(text);
+                        } catch (RuntimeException ex) {
+                            throw new CoercingParseLiteralException("Invalid " + name + ": " + text);
+                        }
+                    }
+                })
+                .build();
+    }
+}
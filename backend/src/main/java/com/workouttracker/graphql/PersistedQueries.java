@@ -0,0 +1,98 @@
+package com.workouttracker.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps parsed and validated documents by the SHA-256 of their query text, so a query the
+ * server has seen skips parsing and validation. Clients may send the hash in
+ * {@code extensions.persistedQuery.sha256Hash} (Apollo automatic persisted queries); a request
+ * whose {@code query} is {@value #PERSISTED_QUERY_MARKER} then runs from the hash alone, or
+ * fails with {@code PersistedQueryNotFound} so the client resends the text. Without a hash the
+ * server computes it. At most {@code maxEntries} documents are kept, least recently used
+ * first out; documents with parse or validation errors are not kept.
+ */
+public class PersistedQueries extends ApolloPersistedQuerySupport {
+
+    public PersistedQueries(int maxEntries) {
+        super(new LruDocuments(maxEntries));
+    }
+
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> clientHash = super.getPersistedQueryId(executionInput);
+        if (clientHash.isPresent() || PERSISTED_QUERY_MARKER.equals(executionInput.getQuery())) {
+            return clientHash;
+        }
+        return Optional.of(sha256Hex(executionInput.getQuery()));
+    }
+
+    static String sha256Hex(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static final class LruDocuments implements PersistedQueryCache {
+
+        private final Map<Object, PreparsedDocumentEntry> entries;
+
+        LruDocuments(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, PreparsedDocumentEntry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        @Override
+        public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(
+                Object persistedQueryId, ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss)
+                throws PersistedQueryNotFound {
+            synchronized (entries) {
+                PreparsedDocumentEntry cached = entries.get(persistedQueryId);
+                if (cached != null) {
+                    return CompletableFuture.completedFuture(cached);
+                }
+            }
+            String query = executionInput.getQuery();
+            if (PERSISTED_QUERY_MARKER.equals(query)) {
+                throw new PersistedQueryNotFound(persistedQueryId);
+            }
+            // Parsed outside the lock; two racing misses parse twice and keep one result
+            PreparsedDocumentEntry entry = onCacheMiss.apply(query);
+            if (!entry.hasErrors()) {
+                synchronized (entries) {
+                    entries.put(persistedQueryId, entry);
+                }
+            }
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        /** Still abstract, and still what {@code PersistedQuerySupport} calls, in graphql-java 21. */
+        @Override
+        @Deprecated
+        public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId, ExecutionInput executionInput,
+                                                                PersistedQueryCacheMiss onCacheMiss)
+                throws PersistedQueryNotFound {
+            return getPersistedQueryDocumentAsync(persistedQueryId, executionInput, onCacheMiss).join();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.mapstruct.Mapping;
 @Mapper(componentModel = "spring", uses = {PrescribedSetMapper.class, ActualSetMapper.class})
 public interface ExerciseMapper {
     @Mapping(target = "dayId", source = "day.id")
+    @Mapping(target = "definitionId", source = "definition.id")
     ExerciseDto toDto(Exercise exercise);
 }
 
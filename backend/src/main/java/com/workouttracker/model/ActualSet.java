@@ -25,6 +25,14 @@ public class ActualSet {
     @JoinColumn(name = "exercise_id", nullable = false)
     private Exercise exercise;
     
+    // Copy of exercise.definition.id so a lift's history is one index range across all blocks
+    @Column(name = "definition_id", nullable = false)
+    private Long definitionId;
+    
+    // Copy of the block's athlete_id, so per-athlete history leads with the tenant
+    @Column(name = "athlete_id", nullable = false, updatable = false)
+    private Long athleteId;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "prescribed_set_id")
     private PrescribedSet prescribedSet;
@@ -51,7 +59,8 @@ public class ActualSet {
     @Column(columnDefinition = "TEXT")
     private String feedback;
     
-    @Column(name = "completed_at")
+    // Partition key of actual_sets (monthly ranges), hence mandatory
+    @Column(name = "completed_at", nullable = false)
     private LocalDateTime completedAt;
 }
 
@@ -28,6 +28,10 @@ public class Exercise {
     @Column(nullable = false)
     private String name;
     
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "definition_id", nullable = false)
+    private ExerciseDefinition definition;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ExerciseCategory category;
@@ -0,0 +1,39 @@
+package com.workouttracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One lift, shared by every {@link Exercise} row that names it in any day of any block.
+ * Names that normalize to the same {@link ExerciseNames#normalize(String) key} share a definition.
+ */
+@Entity
+@Table(name = "exercise_definitions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExerciseDefinition {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(name = "normalized_name", nullable = false, unique = true)
+    private String normalizedName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExerciseCategory category;
+    
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.workouttracker.model;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization of free-text exercise names into {@code exercise_definitions.normalized_name}.
+ * Case, punctuation, spacing and a plural "s" are ignored, so "Back Squats", "back-squat" and
+ * "BackSquat" all map to {@code backsquat}; "Press" keeps its double "s".
+ * <p>
+ * Changesets 018 and 030 compute the same key in SQL for their backfills; they must stay identical.
+ */
+public final class ExerciseNames {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern PLURAL_S = Pattern.compile("([a-z][a-rt-z])s( |$)");
+
+    private ExerciseNames() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String words = NON_ALPHANUMERIC.matcher(name.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return PLURAL_S.matcher(words).replaceAll("$1$2").replace(" ", "");
+    }
+}
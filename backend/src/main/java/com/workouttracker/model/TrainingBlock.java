@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,6 +14,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "training_blocks")
+// Soft-deleted blocks are invisible to every entity read until BlockReaper removes them
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +26,10 @@ public class TrainingBlock {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Owner of the block and everything under it; never changes once the block exists
+    @Column(name = "athlete_id", nullable = false, updatable = false)
+    private Long athleteId;
+    
     @Column(name = "block_length", nullable = false)
     private Integer blockLength;
     
@@ -45,6 +52,15 @@ public class TrainingBlock {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+    
+    @Column(name = "archive_path", length = 512)
+    private String archivePath;
+    
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
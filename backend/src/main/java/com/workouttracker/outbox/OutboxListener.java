@@ -0,0 +1,17 @@
+package com.workouttracker.outbox;
+
+import java.util.List;
+
+/**
+ * Receives committed domain events from {@link OutboxRelay}, in id order, a batch at a time.
+ * Delivery is at least once: a batch that throws is retried message by message, so listeners
+ * must be idempotent and ignore event types they do not handle.
+ * <p>
+ * Listeners run inside the relay's transaction while the rows are locked. A listener that
+ * writes through a transactional service should use {@code REQUIRES_NEW}, so its own failure
+ * cannot roll back the delivery bookkeeping.
+ */
+public interface OutboxListener {
+
+    void onMessages(List<OutboxMessage> messages);
+}
@@ -0,0 +1,13 @@
+package com.workouttracker.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of {@code outbox_events} as handed to {@link OutboxListener}s. {@code eventType} is
+ * {@code SET_LOGGED}, {@code SET_UPDATED}, {@code SET_DELETED}, {@code BLOCK_CREATED},
+ * {@code BLOCK_DELETED} or {@code BLOCK_CHANGED}; {@code aggregateId} is the block id and {@code payload} the JSON of the
+ * domain event. {@code attempt} is 1 on first delivery.
+ */
+public record OutboxMessage(Long id, String eventType, Long aggregateId, String payload, LocalDateTime createdAt,
+                            int attempt) {
+}
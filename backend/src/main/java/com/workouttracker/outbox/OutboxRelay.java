@@ -0,0 +1,179 @@
+package com.workouttracker.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers {@code outbox_events} to the {@link OutboxListener} beans. Each poll claims up to
+ * {@code batch-size} pending rows with {@code FOR UPDATE SKIP LOCKED}, so several instances can
+ * relay at once without delivering the same row twice, hands them to every listener and marks
+ * them delivered in the same transaction.
+ * <p>
+ * When a listener throws on the batch, the messages are retried one by one to isolate the bad
+ * ones. Those are rescheduled with exponential backoff and marked {@code FAILED} after
+ * {@code max-attempts}. Delivered rows are deleted once older than {@code retention-hours}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM =
+            "SELECT id, event_type, aggregate_id, payload::text AS payload, created_at, attempts FROM outbox_events " +
+            "WHERE status = 'PENDING' AND available_at <= now() ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_DELIVERED =
+            "UPDATE outbox_events SET status = 'DELIVERED', delivered_at = now(), attempts = attempts + 1, " +
+            "last_error = NULL WHERE id IN (:ids)";
+
+    private static final String MARK_RETRY =
+            "UPDATE outbox_events SET attempts = attempts + 1, last_error = :error, " +
+            "status = CASE WHEN attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END, " +
+            "available_at = now() + LEAST(:backoffMs * power(2, attempts), :maxBackoffMs) * interval '1 millisecond' " +
+            "WHERE id = :id";
+
+    private static final String DELETE_DELIVERED =
+            "DELETE FROM outbox_events WHERE id IN (SELECT id FROM outbox_events " +
+            "WHERE status = 'DELIVERED' AND delivered_at < :cutoff LIMIT :limit)";
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getObject("aggregate_id", Long.class),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getInt("attempts") + 1);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OutboxListener> listeners;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${workout-tracker.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workout-tracker.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${workout-tracker.outbox.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${workout-tracker.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${workout-tracker.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${workout-tracker.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${workout-tracker.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    public OutboxRelay(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                       ObjectProvider<OutboxListener> listeners, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = listeners;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${workout-tracker.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                Integer claimed = transactionTemplate.execute(status -> relayBatch());
+                if (claimed == null || claimed < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay poll failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Claims, delivers and records one batch in the caller's transaction; returns the rows claimed. */
+    int relayBatch() {
+        List<OutboxMessage> batch = jdbcTemplate.query(CLAIM,
+                new MapSqlParameterSource("batchSize", batchSize), ROW_MAPPER);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> delivered = new ArrayList<>(batch.size());
+        try {
+            dispatch(batch);
+            delivered.addAll(batch);
+        } catch (RuntimeException batchFailure) {
+            log.debug("Outbox batch of {} failed, retrying singly: {}", batch.size(), batchFailure.getMessage());
+            for (OutboxMessage message : batch) {
+                try {
+                    dispatch(List.of(message));
+                    delivered.add(message);
+                } catch (RuntimeException ex) {
+                    reschedule(message, ex);
+                }
+            }
+        }
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.update(MARK_DELIVERED, new MapSqlParameterSource("ids",
+                    delivered.stream().map(OutboxMessage::id).toList()));
+            meterRegistry.counter("workout_tracker.outbox.messages", "outcome", "delivered").increment(delivered.size());
+        }
+        return batch.size();
+    }
+
+    @Scheduled(cron = "${workout-tracker.outbox.cleanup-cron:0 30 * * * *}")
+    public void deleteDelivered() {
+        if (!enabled) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", LocalDateTime.now().minusHours(retentionHours))
+                .addValue("limit", 1000);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(DELETE_DELIVERED, params);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("Deleted {} delivered outbox events older than {} h", total, retentionHours);
+        }
+    }
+
+    private void dispatch(List<OutboxMessage> messages) {
+        listeners.orderedStream().forEach(listener -> listener.onMessages(messages));
+    }
+
+    private void reschedule(OutboxMessage message, RuntimeException ex) {
+        boolean giveUp = message.attempt() >= maxAttempts;
+        jdbcTemplate.update(MARK_RETRY, new MapSqlParameterSource()
+                .addValue("id", message.id())
+                .addValue("error", String.valueOf(ex.getMessage()))
+                .addValue("maxAttempts", maxAttempts)
+                .addValue("backoffMs", retryBackoffMs)
+                .addValue("maxBackoffMs", maxBackoffMs));
+        meterRegistry.counter("workout_tracker.outbox.messages", "outcome", giveUp ? "failed" : "retried").increment();
+        if (giveUp) {
+            log.error("Outbox event {} ({}) failed after {} attempts: {}", message.id(), message.eventType(),
+                    message.attempt(), ex.getMessage());
+        } else {
+            log.warn("Outbox event {} ({}) failed on attempt {}: {}", message.id(), message.eventType(),
+                    message.attempt(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.workouttracker.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.event.ActualSetChangedEvent;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.event.BlockLifecycleEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns domain events into {@code outbox_events} rows in the publishing transaction. Events are
+ * collected while the transaction runs and written just before it commits as one multi-row
+ * INSERT, so logging a whole workout costs one extra statement, and a rolled-back write leaves
+ * no event behind. A block changed several times in one transaction gets one
+ * {@code BLOCK_CHANGED} row.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    // Three bind parameters per row; well under PostgreSQL's 65535 per statement
+    private static final int MAX_ROWS_PER_INSERT = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private record PendingEvent(String eventType, Long aggregateId, String payload) {
+    }
+
+    @EventListener
+    public void onActualSetChanged(ActualSetChangedEvent event) {
+        append("SET_" + event.getType().name(), event.getBlockId(), event);
+    }
+
+    @EventListener
+    public void onBlockLifecycle(BlockLifecycleEvent event) {
+        append("BLOCK_" + event.getType().name(), event.getBlockId(), event);
+    }
+
+    @EventListener
+    public void onBlockChanged(BlockChangedEvent event) {
+        if (pending("BLOCK_CHANGED").changedBlockIds.add(event.getBlockId())) {
+            append("BLOCK_CHANGED", event.getBlockId(), event);
+        }
+    }
+
+    private void append(String eventType, Long aggregateId, Object event) {
+        pending(eventType).events.add(new PendingEvent(eventType, aggregateId, toJson(event)));
+    }
+
+    private PendingEvents pending(String eventType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Outbox event " + eventType + " published outside a transaction");
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox event " + event, ex);
+        }
+    }
+
+    private void insert(List<PendingEvent> events) {
+        StringBuilder sql = new StringBuilder("INSERT INTO outbox_events (event_type, aggregate_id, payload) VALUES ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < events.size(); i++) {
+            PendingEvent event = events.get(i);
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:type").append(i).append(", :aggregate").append(i)
+                    .append(", CAST(:payload").append(i).append(" AS jsonb))");
+            params.addValue("type" + i, event.eventType())
+                    .addValue("aggregate" + i, event.aggregateId())
+                    .addValue("payload" + i, event.payload());
+        }
+        jdbcTemplate.update(sql.toString(), params);
+    }
+
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<PendingEvent> events = new ArrayList<>();
+        private final Set<Long> changedBlockIds = new HashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (int from = 0; from < events.size(); from += MAX_ROWS_PER_INSERT) {
+                insert(events.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, events.size())));
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+        }
+    }
+}
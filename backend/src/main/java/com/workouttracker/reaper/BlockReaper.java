@@ -0,0 +1,200 @@
+package com.workouttracker.reaper;
+
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.service.PersonalRecordService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Physically removes blocks that {@code DELETE /blocks/{id}} only marked with {@code deleted_at}.
+ * The tree is deleted bottom-up, children before parents so no foreign key is ever violated,
+ * in chunks of at most {@code chunk-size} rows. Every chunk is its own short transaction and
+ * the reaper sleeps {@code pause-ms} between chunks, so a block with years of logged sets never
+ * holds locks or bloats WAL the way one cascading delete would. A run stops after
+ * {@code max-chunks-per-run} chunks and the next one picks up where it left off: each phase
+ * simply deletes whatever of the block is still there.
+ * <p>
+ * Each chunk of {@code actual_sets} also drops the personal records its sets held and refills
+ * them from the athlete's live sets; the athlete's cached record index reloads after commit.
+ * <p>
+ * Progress is kept in memory and served by {@link BlockReaperEndpoint}; rows removed are
+ * counted in {@code workout_tracker.reaper.rows}.
+ */
+@Component
+@Slf4j
+public class BlockReaper {
+
+    private record Phase(String table, String sql) {
+    }
+
+    private static final String EXERCISES_OF_BLOCK = "SELECT e.id FROM exercises e " +
+            "JOIN workout_days d ON d.id = e.day_id JOIN weeks w ON w.id = d.week_id WHERE w.block_id = :blockId";
+
+    // actual_sets is partitioned on completed_at, so rows are addressed by the whole primary key
+    private static final Phase ACTUAL_SETS = new Phase("actual_sets",
+            "DELETE FROM actual_sets WHERE (id, completed_at) IN (" +
+                    "SELECT id, completed_at FROM actual_sets WHERE exercise_id IN (" + EXERCISES_OF_BLOCK + ") " +
+                    "LIMIT :limit) RETURNING athlete_id, id");
+
+    private static final List<Phase> PHASES = List.of(
+            ACTUAL_SETS,
+            new Phase("prescribed_sets", "DELETE FROM prescribed_sets WHERE id IN (" +
+                    "SELECT id FROM prescribed_sets WHERE exercise_id IN (" + EXERCISES_OF_BLOCK + ") LIMIT :limit)"),
+            new Phase("exercises", "DELETE FROM exercises WHERE id IN (" + EXERCISES_OF_BLOCK + " LIMIT :limit)"),
+            new Phase("workout_days", "DELETE FROM workout_days WHERE id IN (SELECT d.id FROM workout_days d " +
+                    "JOIN weeks w ON w.id = d.week_id WHERE w.block_id = :blockId LIMIT :limit)"),
+            new Phase("weeks", "DELETE FROM weeks WHERE id IN (" +
+                    "SELECT id FROM weeks WHERE block_id = :blockId LIMIT :limit)"));
+
+    private static final String DELETE_BLOCK =
+            "DELETE FROM training_blocks WHERE id = :blockId AND deleted_at IS NOT NULL RETURNING archive_path";
+
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final PersonalRecordService personalRecordService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, ReaperProgress> progress = new ConcurrentHashMap<>();
+
+    @Value("${workout-tracker.reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workout-tracker.reaper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${workout-tracker.reaper.pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${workout-tracker.reaper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${workout-tracker.reaper.blocks-per-run:10}")
+    private int blocksPerRun;
+
+    public BlockReaper(TrainingBlockRepository trainingBlockRepository, PersonalRecordService personalRecordService,
+                       NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.trainingBlockRepository = trainingBlockRepository;
+        this.personalRecordService = personalRecordService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${workout-tracker.reaper.interval-ms:30000}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int budget = maxChunksPerRun;
+            for (Long blockId : trainingBlockRepository.findDeletedBlockIds(PageRequest.of(0, blocksPerRun))) {
+                budget = reapBlock(blockId, budget);
+                if (budget <= 0) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Block reaper run failed: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Deleted blocks whose row is still in the table, including those in progress. */
+    public long countPending() {
+        return trainingBlockRepository.countDeletedBlocks();
+    }
+
+    /** Blocks the reaper has started on and not finished, by id. */
+    public List<ReaperProgress> getProgress() {
+        List<ReaperProgress> snapshot = new ArrayList<>(progress.values());
+        snapshot.sort(Comparator.comparing(ReaperProgress::blockId));
+        return snapshot;
+    }
+
+    /** Deletes chunks of one block until it is gone or the budget runs out; returns the chunks left. */
+    int reapBlock(Long blockId, int budget) throws InterruptedException {
+        progress.putIfAbsent(blockId, ReaperProgress.start(blockId));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("blockId", blockId)
+                .addValue("limit", chunkSize);
+        for (Phase phase : PHASES) {
+            int deleted;
+            do {
+                if (budget-- <= 0) {
+                    return 0;
+                }
+                deleted = inTransaction(() -> phase == ACTUAL_SETS
+                        ? deleteSets(params)
+                        : jdbcTemplate.update(phase.sql(), params));
+                record(blockId, phase.table(), deleted);
+                pause();
+            } while (deleted >= chunkSize);
+        }
+        if (budget-- <= 0) {
+            return 0;
+        }
+        List<String> archivePaths = inTransaction(() -> jdbcTemplate.queryForList(DELETE_BLOCK, params, String.class));
+        record(blockId, "training_blocks", archivePaths.size());
+        progress.remove(blockId);
+        archivePaths.stream().filter(path -> path != null).forEach(this::deleteArchive);
+        log.info("Reaped deleted block {}", blockId);
+        return budget;
+    }
+
+    // Records held by the chunk's sets go in the same transaction, so none points at a missing set
+    private int deleteSets(MapSqlParameterSource params) {
+        Map<Long, List<Long>> setIdsByAthlete = new HashMap<>();
+        jdbcTemplate.query(ACTUAL_SETS.sql(), params, rs -> {
+            setIdsByAthlete.computeIfAbsent(rs.getLong("athlete_id"), athleteId -> new ArrayList<>())
+                    .add(rs.getLong("id"));
+        });
+        setIdsByAthlete.forEach(personalRecordService::removeDeletedSets);
+        return setIdsByAthlete.values().stream().mapToInt(List::size).sum();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private void record(Long blockId, String table, int rows) {
+        progress.computeIfPresent(blockId, (id, current) -> current.plus(table, rows));
+        if (rows > 0) {
+            meterRegistry.counter("workout_tracker.reaper.rows", "table", table).increment(rows);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMs > 0) {
+            Thread.sleep(pauseMs);
+        }
+    }
+
+    // The file of an archived block is the only copy of its tree; it goes once the row is gone
+    private void deleteArchive(String archivePath) {
+        try {
+            Files.deleteIfExists(Path.of(archivePath));
+        } catch (IOException ex) {
+            log.warn("Could not delete archive file {}: {}", archivePath, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.workouttracker.reaper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** {@code GET /actuator/reaper}: deleted blocks still waiting to be purged and the ones in progress. */
+@Component
+@Endpoint(id = "reaper")
+@RequiredArgsConstructor
+public class BlockReaperEndpoint {
+
+    public record Status(long pendingBlocks, List<ReaperProgress> inProgress) {
+    }
+
+    private final BlockReaper blockReaper;
+
+    @ReadOperation
+    public Status status() {
+        return new Status(blockReaper.countPending(), blockReaper.getProgress());
+    }
+}
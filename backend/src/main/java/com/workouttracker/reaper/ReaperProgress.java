@@ -0,0 +1,24 @@
+package com.workouttracker.reaper;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How far {@link BlockReaper} has got with one deleted block: the table it is working on and
+ * the rows removed from each table so far.
+ */
+public record ReaperProgress(Long blockId, LocalDateTime startedAt, String phase,
+                             Map<String, Long> rowsDeleted, LocalDateTime lastChunkAt) {
+
+    static ReaperProgress start(Long blockId) {
+        return new ReaperProgress(blockId, LocalDateTime.now(), "started", Map.of(), null);
+    }
+
+    ReaperProgress plus(String table, int rows) {
+        Map<String, Long> totals = new LinkedHashMap<>(rowsDeleted);
+        totals.merge(table, (long) rows, Long::sum);
+        return new ReaperProgress(blockId, startedAt, table, Collections.unmodifiableMap(totals), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,148 @@
+package com.workouttracker.records;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Committed personal records per exercise: the heaviest set for each rep count, and the best
+ * estimated one-rep max among them. The estimate grows with weight at a fixed rep count, so the
+ * best estimate is always one of the rep-count records and never needs its own history.
+ * <p>
+ * Exercises are keyed by their {@code exercise_definitions} id, so "Back Squats" in one block and
+ * "back squat" in another share records. Lookups and {@link #offer} are O(1); {@link #replace} rescans the rep counts
+ * of one exercise only when it has to demote its best estimate.
+ */
+public class PersonalRecordIndex {
+
+    /** Above this many reps the Epley estimate is too loose to count as a one-rep max record. */
+    public static final int MAX_ESTIMATE_REPS = 12;
+
+    private static final BigDecimal EPLEY_DIVISOR = BigDecimal.valueOf(30);
+
+    public record RepRecord(String exerciseName, int reps, BigDecimal weight, BigDecimal estimatedOneRepMax,
+                            Long actualSetId, LocalDateTime achievedAt) {
+    }
+
+    private static final class ExerciseRecords {
+        private final Map<Integer, RepRecord> byReps = new HashMap<>();
+        private RepRecord bestEstimate;
+    }
+
+    private final Map<Long, ExerciseRecords> byExercise = new ConcurrentHashMap<>();
+
+    /** Epley, {@code weight * (1 + reps / 30)}; a single is its own one-rep max. */
+    public static BigDecimal estimateOneRepMax(BigDecimal weight, int reps) {
+        if (reps < 1 || reps > MAX_ESTIMATE_REPS) {
+            return null;
+        }
+        if (reps == 1) {
+            return weight.setScale(2, RoundingMode.HALF_UP);
+        }
+        return weight.multiply(BigDecimal.valueOf(30L + reps)).divide(EPLEY_DIVISOR, 2, RoundingMode.HALF_UP);
+    }
+
+    public Optional<RepRecord> get(Long definitionId, int reps) {
+        ExerciseRecords records = byExercise.get(definitionId);
+        if (records == null) {
+            return Optional.empty();
+        }
+        synchronized (records) {
+            return Optional.ofNullable(records.byReps.get(reps));
+        }
+    }
+
+    public Optional<RepRecord> bestEstimate(Long definitionId) {
+        ExerciseRecords records = byExercise.get(definitionId);
+        if (records == null) {
+            return Optional.empty();
+        }
+        synchronized (records) {
+            return Optional.ofNullable(records.bestEstimate);
+        }
+    }
+
+    /** Keeps the record if it is heavier than the current one for its rep count; ties keep the older. */
+    public boolean offer(Long definitionId, RepRecord record) {
+        ExerciseRecords records = byExercise.computeIfAbsent(definitionId, id -> new ExerciseRecords());
+        synchronized (records) {
+            RepRecord current = records.byReps.get(record.reps());
+            if (current != null && record.weight().compareTo(current.weight()) <= 0) {
+                return false;
+            }
+            records.byReps.put(record.reps(), record);
+            if (isBetterEstimate(record, records.bestEstimate)) {
+                records.bestEstimate = record;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Replaces the record for {@code reps} with {@code replacement} (or removes it when null), but
+     * only while {@code holderSetId} still holds it; a heavier set committed meanwhile stays.
+     */
+    public void replace(Long definitionId, int reps, Long holderSetId, RepRecord replacement) {
+        ExerciseRecords records = byExercise.get(definitionId);
+        if (records == null) {
+            if (replacement != null) {
+                offer(definitionId, replacement);
+            }
+            return;
+        }
+        synchronized (records) {
+            RepRecord current = records.byReps.get(reps);
+            if (current != null && !current.actualSetId().equals(holderSetId)) {
+                return;
+            }
+            if (replacement != null) {
+                records.byReps.put(reps, replacement);
+            } else {
+                records.byReps.remove(reps);
+            }
+            if (records.bestEstimate != null && records.bestEstimate.reps() == reps) {
+                records.bestEstimate = null;
+                for (RepRecord candidate : records.byReps.values()) {
+                    if (isBetterEstimate(candidate, records.bestEstimate)) {
+                        records.bestEstimate = candidate;
+                    }
+                }
+            } else if (replacement != null && isBetterEstimate(replacement, records.bestEstimate)) {
+                records.bestEstimate = replacement;
+            }
+        }
+    }
+
+    public Collection<Long> definitionIds() {
+        return List.copyOf(byExercise.keySet());
+    }
+
+    /** Rep-count records of one exercise, fewest reps first. */
+    public List<RepRecord> repRecords(Long definitionId) {
+        ExerciseRecords records = byExercise.get(definitionId);
+        if (records == null) {
+            return List.of();
+        }
+        List<RepRecord> result;
+        synchronized (records) {
+            result = new ArrayList<>(records.byReps.values());
+        }
+        result.sort(Comparator.comparingInt(RepRecord::reps));
+        return result;
+    }
+
+    private static boolean isBetterEstimate(RepRecord candidate, RepRecord current) {
+        if (candidate.estimatedOneRepMax() == null) {
+            return false;
+        }
+        return current == null || candidate.estimatedOneRepMax().compareTo(current.estimatedOneRepMax()) > 0;
+    }
+}
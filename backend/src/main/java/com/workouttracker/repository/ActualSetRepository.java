@@ -1,17 +1,25 @@
 package com.workouttracker.repository;
 
 import com.workouttracker.model.ActualSet;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ActualSetRepository extends JpaRepository<ActualSet, Long> {
-    List<ActualSet> findByExerciseId(Long exerciseId);
+    List<ActualSet> findByExerciseIdAndAthleteId(Long exerciseId, Long athleteId);
+    
+    Optional<ActualSet> findByIdAndAthleteId(Long id, Long athleteId);
+    
+    List<ActualSet> findByExerciseIdInOrderBySetNumberAscIdAsc(Collection<Long> exerciseIds);
     
     @Query("SELECT a FROM ActualSet a WHERE a.completedAt >= :startDate AND a.completedAt <= :endDate")
     List<ActualSet> findByCompletedAtBetween(@Param("startDate") LocalDateTime startDate, 
@@ -19,11 +27,119 @@ public interface ActualSetRepository extends JpaRepository<ActualSet, Long> {
     
     @Query("SELECT a FROM ActualSet a WHERE a.exercise.day.week.block.id = :blockId " +
            "AND a.exercise.day.week.weekNumber = :weekNumber " +
-           "AND a.exercise.day.dayNumber = :dayNumber")
+           "AND a.exercise.day.dayNumber = :dayNumber " +
+           "AND a.exercise.day.week.block.deletedAt IS NULL AND a.athleteId = :athleteId")
     List<ActualSet> findByBlockIdAndWeekNumberAndDayNumber(@Param("blockId") Long blockId,
                                                              @Param("weekNumber") Integer weekNumber,
-                                                             @Param("dayNumber") Integer dayNumber);
+                                                             @Param("dayNumber") Integer dayNumber,
+                                                             @Param("athleteId") Long athleteId);
+    
+    @Query("SELECT a FROM ActualSet a WHERE a.exercise.day.week.block.id = :blockId " +
+           "AND a.exercise.day.week.block.deletedAt IS NULL AND a.athleteId = :athleteId")
+    List<ActualSet> findByBlockId(@Param("blockId") Long blockId, @Param("athleteId") Long athleteId);
+    
+    // Walks idx_actual_sets_athlete_history newest first; the tree joins only touch the rows of the page
+    @Query(value = "SELECT a.id AS \"actualSetId\", w.block_id AS \"blockId\", w.week_number AS \"weekNumber\", " +
+                   "d.day_number AS \"dayNumber\", e.id AS \"exerciseId\", e.name AS \"exerciseName\", a.set_number AS \"setNumber\", " +
+                   "a.actual_weight AS \"actualWeight\", a.actual_reps AS \"actualReps\", a.actual_rpe AS \"actualRpe\", " +
+                   "a.completed_at AS \"completedAt\" " +
+                   "FROM actual_sets a " +
+                   "JOIN exercises e ON e.id = a.exercise_id " +
+                   "JOIN workout_days d ON d.id = e.day_id " +
+                   "JOIN weeks w ON w.id = d.week_id " +
+                   "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL " +
+                   "WHERE a.athlete_id = :athleteId AND a.definition_id = :definitionId " +
+                   "AND (a.completed_at, a.id) < (:beforeCompletedAt, :beforeId) " +
+                   "ORDER BY a.completed_at DESC, a.id DESC",
+           nativeQuery = true)
+    List<HistoryView> findHistoryPage(@Param("athleteId") Long athleteId,
+                                      @Param("definitionId") Long definitionId,
+                                      @Param("beforeCompletedAt") LocalDateTime beforeCompletedAt,
+                                      @Param("beforeId") Long beforeId,
+                                      Pageable pageable);
+    
+    @Query(value = "SELECT a.id AS \"id\", a.exercise_id AS \"exerciseId\", a.prescribed_set_id AS \"prescribedSetId\", " +
+                   "a.set_number AS \"setNumber\", a.actual_weight AS \"actualWeight\", a.actual_reps AS \"actualReps\", " +
+                   "a.actual_rpe AS \"actualRpe\", a.tempo_used AS \"tempoUsed\", a.video_recorded AS \"videoRecorded\", " +
+                   "a.feedback AS \"feedback\", a.completed_at AS \"completedAt\" " +
+                   "FROM actual_sets a " +
+                   "JOIN exercises e ON e.id = a.exercise_id " +
+                   "JOIN workout_days d ON d.id = e.day_id " +
+                   "JOIN weeks w ON w.id = d.week_id " +
+                   "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL " +
+                   "WHERE w.block_id = :blockId AND w.week_number = :weekNumber AND a.athlete_id = :athleteId " +
+                   "ORDER BY a.exercise_id, a.set_number, a.id",
+           nativeQuery = true)
+    List<SessionActualRow> findSessionActualRows(@Param("blockId") Long blockId, @Param("weekNumber") Integer weekNumber,
+                                                 @Param("athleteId") Long athleteId);
+    
+    interface SessionActualRow {
+        Long getId();
+        Long getExerciseId();
+        Long getPrescribedSetId();
+        Integer getSetNumber();
+        BigDecimal getActualWeight();
+        Integer getActualReps();
+        Integer getActualRpe();
+        String getTempoUsed();
+        Boolean getVideoRecorded();
+        String getFeedback();
+        LocalDateTime getCompletedAt();
+    }
+    
+    // Matches come from idx_actual_sets_feedback_search; the headline is computed only for the rows of
+    // the page, as PostgreSQL evaluates an expensive select-list expression after the sort and limit
+    @Query(value = "SELECT a.id AS \"actualSetId\", w.block_id AS \"blockId\", w.week_number AS \"weekNumber\", " +
+                   "d.day_number AS \"dayNumber\", d.day_name AS \"dayName\", e.id AS \"exerciseId\", " +
+                   "e.name AS \"exerciseName\", a.set_number AS \"setNumber\", a.actual_weight AS \"actualWeight\", " +
+                   "a.actual_reps AS \"actualReps\", a.actual_rpe AS \"actualRpe\", a.feedback AS \"feedback\", " +
+                   "ts_headline('english', a.feedback, q.query, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2') " +
+                   "AS \"highlight\", ts_rank(a.feedback_tsv, q.query) AS \"rank\", a.completed_at AS \"completedAt\" " +
+                   "FROM actual_sets a " +
+                   "CROSS JOIN websearch_to_tsquery('english', :text) AS q(query) " +
+                   "JOIN exercises e ON e.id = a.exercise_id " +
+                   "JOIN workout_days d ON d.id = e.day_id " +
+                   "JOIN weeks w ON w.id = d.week_id " +
+                   "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL " +
+                   "WHERE a.feedback IS NOT NULL AND a.feedback_tsv @@ q.query AND a.athlete_id = :athleteId " +
+                   "AND (ts_rank(a.feedback_tsv, q.query), a.id) < (CAST(:beforeRank AS real), :beforeId) " +
+                   "ORDER BY ts_rank(a.feedback_tsv, q.query) DESC, a.id DESC",
+           nativeQuery = true)
+    List<FeedbackMatchView> searchFeedback(@Param("athleteId") Long athleteId,
+                                           @Param("text") String text,
+                                           @Param("beforeRank") Float beforeRank,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable pageable);
+    
+    interface FeedbackMatchView {
+        Long getActualSetId();
+        Long getBlockId();
+        Integer getWeekNumber();
+        Integer getDayNumber();
+        String getDayName();
+        Long getExerciseId();
+        String getExerciseName();
+        Integer getSetNumber();
+        BigDecimal getActualWeight();
+        Integer getActualReps();
+        Integer getActualRpe();
+        String getFeedback();
+        String getHighlight();
+        Float getRank();
+        LocalDateTime getCompletedAt();
+    }
     
-    @Query("SELECT a FROM ActualSet a WHERE a.exercise.day.week.block.id = :blockId")
-    List<ActualSet> findByBlockId(@Param("blockId") Long blockId);
+    interface HistoryView {
+        Long getActualSetId();
+        Long getBlockId();
+        Integer getWeekNumber();
+        Integer getDayNumber();
+        Long getExerciseId();
+        String getExerciseName();
+        Integer getSetNumber();
+        BigDecimal getActualWeight();
+        Integer getActualReps();
+        Integer getActualRpe();
+        LocalDateTime getCompletedAt();
+    }
 }
@@ -0,0 +1,25 @@
+package com.workouttracker.repository;
+
+import com.workouttracker.model.ExerciseDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExerciseDefinitionRepository extends JpaRepository<ExerciseDefinition, Long> {
+    
+    Optional<ExerciseDefinition> findByNormalizedName(String normalizedName);
+    
+    // Concurrent writers creating the same definition both succeed; the loser's insert is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO exercise_definitions (name, normalized_name, category) " +
+                   "VALUES (:name, :normalizedName, :category) ON CONFLICT (normalized_name) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name,
+                       @Param("normalizedName") String normalizedName,
+                       @Param("category") String category);
+}
@@ -2,15 +2,18 @@ package com.workouttracker.repository;
 
 import com.workouttracker.model.Exercise;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
     List<Exercise> findByDayId(Long dayId);
-}
-
-
 
+    List<Exercise> findByDayIdInOrderByOrderInWorkoutAsc(Collection<Long> dayIds);
 
+    @Query("SELECT DISTINCT e.name FROM Exercise e WHERE e.name IS NOT NULL")
+    List<String> findDistinctNames();
+}
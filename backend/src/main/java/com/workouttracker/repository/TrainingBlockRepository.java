@@ -1,13 +1,81 @@
 package com.workouttracker.repository;
 
 import com.workouttracker.model.TrainingBlock;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TrainingBlockRepository extends JpaRepository<TrainingBlock, Long> {
+    
+    // Request paths look blocks up with the athlete; findById and findAll are for jobs working across athletes
+    
+    List<TrainingBlock> findByAthleteIdOrderById(Long athleteId);
+    
+    Optional<TrainingBlock> findByIdAndAthleteId(Long id, Long athleteId);
+    
+    // Snapshot columns are intentionally not mapped on TrainingBlock so loading a block never drags the bytes along
+    
+    @Query(value = "SELECT snapshot FROM training_blocks WHERE id = :id AND athlete_id = :athleteId " +
+                   "AND snapshot_stale = false AND deleted_at IS NULL", nativeQuery = true)
+    Optional<SnapshotView> findFreshSnapshot(@Param("id") Long id, @Param("athleteId") Long athleteId);
+    
+    @Query(value = "SELECT snapshot_version AS \"version\", athlete_id AS \"athleteId\" FROM training_blocks " +
+                   "WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    Optional<SnapshotVersionView> findSnapshotVersion(@Param("id") Long id);
+    
+    @Query(value = "SELECT id FROM training_blocks WHERE snapshot_stale = true AND deleted_at IS NULL ORDER BY id", nativeQuery = true)
+    List<Long> findStaleSnapshotIds(Pageable pageable);
+    
+    @Modifying
+    @Query(value = "UPDATE training_blocks SET snapshot_stale = true, snapshot_version = snapshot_version + 1 " +
+                   "WHERE id = :id", nativeQuery = true)
+    int markSnapshotStale(@Param("id") Long id);
+    
+    @Modifying
+    @Query(value = "UPDATE training_blocks SET snapshot = :snapshot, snapshot_stale = false, snapshot_built_at = now() " +
+                   "WHERE id = :id AND snapshot_version = :version", nativeQuery = true)
+    int storeSnapshot(@Param("id") Long id, @Param("version") Long version, @Param("snapshot") byte[] snapshot);
+    
+    @Query(value = "SELECT b.id FROM training_blocks b JOIN weeks w ON w.block_id = b.id " +
+                   "WHERE b.archived_at IS NULL AND b.deleted_at IS NULL GROUP BY b.id HAVING max(w.end_date) < :cutoff ORDER BY b.id",
+           nativeQuery = true)
+    List<Long> findArchivableBlockIds(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TrainingBlock b SET b.archivedAt = :archivedAt, b.archivePath = :archivePath WHERE b.id = :id")
+    int updateArchiveState(@Param("id") Long id,
+                           @Param("archivedAt") LocalDateTime archivedAt,
+                           @Param("archivePath") String archivePath);
+    
+    // Native so the entity's deleted_at restriction does not apply; a second delete matches nothing
+    @Modifying
+    @Query(value = "UPDATE training_blocks SET deleted_at = :deletedAt " +
+                   "WHERE id = :id AND athlete_id = :athleteId AND deleted_at IS NULL",
+           nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("athleteId") Long athleteId, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    @Query(value = "SELECT id FROM training_blocks WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id",
+           nativeQuery = true)
+    List<Long> findDeletedBlockIds(Pageable pageable);
+    
+    @Query(value = "SELECT count(*) FROM training_blocks WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countDeletedBlocks();
+    
+    interface SnapshotView {
+        byte[] getSnapshot();
+    }
+    
+    interface SnapshotVersionView {
+        Long getVersion();
+        Long getAthleteId();
+    }
 }
-
-
-
-
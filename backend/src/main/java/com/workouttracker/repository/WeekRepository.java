@@ -2,13 +2,144 @@ package com.workouttracker.repository;
 
 import com.workouttracker.model.Week;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface WeekRepository extends JpaRepository<Week, Long> {
     List<Week> findByBlockId(Long blockId);
+
+    List<Week> findByBlockIdInOrderByWeekNumberAsc(Collection<Long> blockIds);
+
+    // The week's whole plan as one flat result; days without exercises and exercises without sets keep a row
+    @Query(value = "SELECT w.id AS \"weekId\", w.block_id AS \"blockId\", w.week_number AS \"weekNumber\", " +
+                   "w.week_type AS \"weekType\", w.start_date AS \"startDate\", w.end_date AS \"endDate\", " +
+                   "d.id AS \"dayId\", d.day_number AS \"dayNumber\", d.day_name AS \"dayName\", d.rest_day AS \"restDay\", " +
+                   "e.id AS \"exerciseId\", e.name AS \"exerciseName\", e.definition_id AS \"definitionId\", " +
+                   "e.category AS \"category\", e.order_in_workout AS \"orderInWorkout\", " +
+                   "p.id AS \"prescribedSetId\", p.set_number AS \"setNumber\", p.target_sets AS \"targetSets\", " +
+                   "p.target_reps AS \"targetReps\", p.target_load_min AS \"targetLoadMin\", p.target_load_max AS \"targetLoadMax\", " +
+                   "p.target_rpe AS \"targetRpe\", p.tempo AS \"tempo\", p.video_required AS \"videoRequired\" " +
+                   "FROM weeks w " +
+                   "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL AND b.athlete_id = :athleteId " +
+                   "LEFT JOIN workout_days d ON d.week_id = w.id " +
+                   "LEFT JOIN exercises e ON e.day_id = d.id " +
+                   "LEFT JOIN prescribed_sets p ON p.exercise_id = e.id " +
+                   "WHERE w.block_id = :blockId AND w.week_number = :weekNumber " +
+                   "ORDER BY d.day_number, d.id, e.order_in_workout, e.id, p.set_number, p.id",
+           nativeQuery = true)
+    List<SessionPlanRow> findSessionPlanRows(@Param("blockId") Long blockId, @Param("weekNumber") Integer weekNumber,
+                                             @Param("athleteId") Long athleteId);
+
+    // One row per week and lift: each logged set is numbered within its prescription, each prescription
+    // is totalled, then its lift's prescriptions in the week are. Load deviation is 0 inside the target range
+    // and the signed fraction past the nearer bound outside it; RPE drift is the change since the lift's
+    // previous week.
+    @Query(value = """
+            WITH logged AS (
+                SELECT w.week_number, e.definition_id, e.name, d.day_number, e.order_in_workout,
+                       p.id AS prescribed_set_id, COALESCE(p.target_sets, 1) AS target_sets, p.target_reps,
+                       a.id AS actual_set_id, a.actual_reps,
+                       row_number() OVER (PARTITION BY p.id ORDER BY a.set_number, a.id) AS nth,
+                       CASE WHEN a.actual_weight IS NULL OR COALESCE(p.target_load_min, p.target_load_max) IS NULL
+                            THEN NULL
+                            WHEN a.actual_weight > COALESCE(p.target_load_max, p.target_load_min)
+                            THEN (a.actual_weight - COALESCE(p.target_load_max, p.target_load_min))
+                                 / NULLIF(COALESCE(p.target_load_max, p.target_load_min), 0)
+                            WHEN a.actual_weight < COALESCE(p.target_load_min, p.target_load_max)
+                            THEN (a.actual_weight - COALESCE(p.target_load_min, p.target_load_max))
+                                 / NULLIF(COALESCE(p.target_load_min, p.target_load_max), 0)
+                            ELSE 0
+                       END AS load_deviation,
+                       a.actual_rpe - p.target_rpe AS rpe_deviation
+                  FROM weeks w
+                  JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL AND b.athlete_id = :athleteId
+                  JOIN workout_days d ON d.week_id = w.id
+                  JOIN exercises e ON e.day_id = d.id
+                  JOIN prescribed_sets p ON p.exercise_id = e.id
+                  LEFT JOIN actual_sets a ON a.prescribed_set_id = p.id
+                 WHERE w.block_id = :blockId
+            ), prescriptions AS (
+                SELECT week_number, definition_id, min(name) AS name, min(day_number) AS day_number,
+                       min(order_in_workout) AS order_in_workout, min(target_sets) AS target_sets,
+                       count(actual_set_id) AS logged_sets,
+                       count(actual_set_id) FILTER (WHERE nth <= target_sets
+                                                      AND actual_reps >= COALESCE(target_reps, 1)) AS completed_sets,
+                       sum(load_deviation) AS load_deviation_sum, count(load_deviation) AS load_deviation_count,
+                       sum(rpe_deviation) AS rpe_deviation_sum, count(rpe_deviation) AS rpe_deviation_count
+                  FROM logged
+                 GROUP BY prescribed_set_id, week_number, definition_id
+            ), lifts AS (
+                SELECT week_number, definition_id, min(name) AS name, min(day_number) AS day_number,
+                       min(order_in_workout) AS order_in_workout,
+                       sum(target_sets) AS prescribed_sets, sum(logged_sets) AS logged_sets,
+                       sum(completed_sets) AS completed_sets,
+                       sum(GREATEST(target_sets - logged_sets, 0)) AS missed_sets,
+                       sum(load_deviation_sum) / NULLIF(sum(load_deviation_count), 0) AS load_deviation,
+                       sum(rpe_deviation_sum) / NULLIF(sum(rpe_deviation_count), 0) AS rpe_deviation
+                  FROM prescriptions
+                 GROUP BY week_number, definition_id
+            )
+            SELECT week_number AS "weekNumber", definition_id AS "definitionId", name AS "exerciseName",
+                   CAST(prescribed_sets AS INTEGER) AS "prescribedSets", CAST(logged_sets AS INTEGER) AS "loggedSets",
+                   CAST(completed_sets AS INTEGER) AS "completedSets", CAST(missed_sets AS INTEGER) AS "missedSets",
+                   round(100.0 * completed_sets / NULLIF(prescribed_sets, 0), 1) AS "completionPercent",
+                   round(100 * load_deviation, 1) AS "loadDeviationPercent",
+                   round(rpe_deviation, 2) AS "rpeDeviation",
+                   round(rpe_deviation - lag(rpe_deviation) OVER (PARTITION BY definition_id ORDER BY week_number), 2)
+                       AS "rpeDrift"
+              FROM lifts
+             ORDER BY week_number, day_number, order_in_workout, definition_id
+            """,
+           nativeQuery = true)
+    List<ComplianceRow> findComplianceRows(@Param("blockId") Long blockId, @Param("athleteId") Long athleteId);
+
+    interface ComplianceRow {
+        Integer getWeekNumber();
+        Long getDefinitionId();
+        String getExerciseName();
+        Integer getPrescribedSets();
+        Integer getLoggedSets();
+        Integer getCompletedSets();
+        Integer getMissedSets();
+        BigDecimal getCompletionPercent();
+        BigDecimal getLoadDeviationPercent();
+        BigDecimal getRpeDeviation();
+        BigDecimal getRpeDrift();
+    }
+
+    interface SessionPlanRow {
+        Long getWeekId();
+        Long getBlockId();
+        Integer getWeekNumber();
+        String getWeekType();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        Long getDayId();
+        Integer getDayNumber();
+        String getDayName();
+        Boolean getRestDay();
+        Long getExerciseId();
+        String getExerciseName();
+        Long getDefinitionId();
+        String getCategory();
+        Integer getOrderInWorkout();
+        Long getPrescribedSetId();
+        Integer getSetNumber();
+        Integer getTargetSets();
+        Integer getTargetReps();
+        BigDecimal getTargetLoadMin();
+        BigDecimal getTargetLoadMax();
+        Integer getTargetRpe();
+        String getTempo();
+        Boolean getVideoRequired();
+    }
 }
 
 
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +14,13 @@ import java.util.Optional;
 public interface WorkoutDayRepository extends JpaRepository<WorkoutDay, Long> {
     List<WorkoutDay> findByWeekId(Long weekId);
     
+    List<WorkoutDay> findByWeekIdInOrderByDayNumberAsc(Collection<Long> weekIds);
+    
     @Query("SELECT d FROM WorkoutDay d WHERE d.week.block.id = :blockId " +
-           "AND d.week.weekNumber = :weekNumber AND d.dayNumber = :dayNumber")
+           "AND d.week.weekNumber = :weekNumber AND d.dayNumber = :dayNumber " +
+           "AND d.week.block.deletedAt IS NULL AND d.week.block.athleteId = :athleteId")
     Optional<WorkoutDay> findByBlockIdAndWeekNumberAndDayNumber(@Param("blockId") Long blockId,
                                                                   @Param("weekNumber") Integer weekNumber,
-                                                                  @Param("dayNumber") Integer dayNumber);
+                                                                  @Param("dayNumber") Integer dayNumber,
+                                                                  @Param("athleteId") Long athleteId);
 }
@@ -0,0 +1,102 @@
+package com.workouttracker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly {@code actual_sets} partitions: creates partitions ahead of time so
+ * new sets never land in the default partition, and optionally detaches partitions older
+ * than the retention window. Detached partitions stay in the database as plain tables
+ * ({@code actual_sets_YYYY_MM}) to be archived or dropped by hand.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActualSetPartitionService {
+
+    private static final String PARTITION_PREFIX = "actual_sets_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${workout-tracker.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${workout-tracker.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${workout-tracker.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            createFuturePartitions();
+            if (retentionMonths > 0) {
+                detachPartitionsBefore(YearMonth.now().minusMonths(retentionMonths));
+            }
+        } catch (RuntimeException ex) {
+            log.error("actual_sets partition maintenance failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    public int createFuturePartitions() {
+        return createPartitionsFrom(LocalDate.now());
+    }
+
+    /** Creates every missing monthly partition from the month of {@code from} to {@code months-ahead}. */
+    public int createPartitionsFrom(LocalDate from) {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_actual_sets_partitions(?, ?)", Integer.class, from, monthsAhead);
+        if (created != null && created > 0) {
+            log.info("Created {} actual_sets partition(s)", created);
+        }
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Detaches every monthly partition that ends on or before the start of {@code cutoff}.
+     * Returns the names of the detached tables.
+     */
+    public List<String> detachPartitionsBefore(YearMonth cutoff) {
+        List<String> detached = new ArrayList<>();
+        for (String partition : listMonthlyPartitions()) {
+            YearMonth month = parseMonth(partition);
+            if (month != null && month.isBefore(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE actual_sets DETACH PARTITION " + partition);
+                detached.add(partition);
+                log.info("Detached actual_sets partition {}", partition);
+            }
+        }
+        return detached;
+    }
+
+    public List<String> listMonthlyPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'actual_sets'::regclass AND c.relname <> 'actual_sets_default' ORDER BY c.relname",
+                String.class);
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
@@ -2,15 +2,20 @@ package com.workouttracker.service;
 
 import com.workouttracker.dto.ActualSetDto;
 import com.workouttracker.dto.CreateActualSetRequest;
+import com.workouttracker.event.ActualSetChangedEvent;
+import com.workouttracker.event.BlockChangedEvent;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.mapper.ActualSetMapper;
 import com.workouttracker.model.ActualSet;
 import com.workouttracker.model.Exercise;
 import com.workouttracker.model.PrescribedSet;
+import com.workouttracker.model.TrainingBlock;
 import com.workouttracker.repository.ActualSetRepository;
 import com.workouttracker.repository.ExerciseRepository;
 import com.workouttracker.repository.PrescribedSetRepository;
+import com.workouttracker.tenancy.AthleteContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,25 +32,32 @@ public class ActualSetService {
     private final ExerciseRepository exerciseRepository;
     private final PrescribedSetRepository prescribedSetRepository;
     private final ActualSetMapper actualSetMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PersonalRecordService personalRecordService;
+    private final BlockArchiveService blockArchiveService;
     
     public List<ActualSetDto> getActualSetsByExercise(Long exerciseId) {
-        return actualSetRepository.findByExerciseId(exerciseId).stream()
+        return actualSetRepository.findByExerciseIdAndAthleteId(exerciseId, AthleteContext.currentAthleteId()).stream()
                 .map(actualSetMapper::toDto)
                 .collect(Collectors.toList());
     }
     
     public ActualSetDto getActualSetById(Long id) {
-        ActualSet actualSet = actualSetRepository.findById(id)
+        ActualSet actualSet = actualSetRepository.findByIdAndAthleteId(id, AthleteContext.currentAthleteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Actual set not found with id: " + id));
         return actualSetMapper.toDto(actualSet);
     }
     
     public ActualSetDto createActualSet(CreateActualSetRequest request) {
         Exercise exercise = exerciseRepository.findById(request.getExerciseId())
+                .filter(ActualSetService::inOwnLiveBlock)
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise not found with id: " + request.getExerciseId()));
+        blockArchiveService.lockForSetWrite(blockIdOf(exercise));
         
         ActualSet actualSet = actualSetMapper.toEntity(request);
         actualSet.setExercise(exercise);
+        actualSet.setDefinitionId(exercise.getDefinition().getId());
+        actualSet.setAthleteId(AthleteContext.currentAthleteId());
         
         if (request.getPrescribedSetId() != null) {
             PrescribedSet prescribedSet = prescribedSetRepository.findById(request.getPrescribedSetId())
@@ -55,17 +67,27 @@ public class ActualSetService {
         
         actualSet.setCompletedAt(LocalDateTime.now());
         ActualSet savedSet = actualSetRepository.save(actualSet);
-        return actualSetMapper.toDto(savedSet);
+        personalRecordService.recordSets(List.of(PersonalRecordService.LoggedSet.of(savedSet)));
+        ActualSetDto savedDto = actualSetMapper.toDto(savedSet);
+        eventPublisher.publishEvent(new BlockChangedEvent(blockIdOf(exercise)));
+        eventPublisher.publishEvent(ActualSetChangedEvent.of(ActualSetChangedEvent.Type.LOGGED, exercise, savedDto));
+        return savedDto;
     }
     
     public ActualSetDto updateActualSet(Long id, CreateActualSetRequest request) {
-        ActualSet actualSet = actualSetRepository.findById(id)
+        ActualSet actualSet = actualSetRepository.findByIdAndAthleteId(id, AthleteContext.currentAthleteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Actual set not found with id: " + id));
         
+        Exercise previousExercise = actualSet.getExercise();
+        blockArchiveService.lockForSetWrite(blockIdOf(previousExercise));
+        PersonalRecordService.LoggedSet before = PersonalRecordService.LoggedSet.of(actualSet);
         if (request.getExerciseId() != null && !request.getExerciseId().equals(actualSet.getExercise().getId())) {
             Exercise exercise = exerciseRepository.findById(request.getExerciseId())
+                    .filter(ActualSetService::inOwnLiveBlock)
                     .orElseThrow(() -> new ResourceNotFoundException("Exercise not found with id: " + request.getExerciseId()));
+            blockArchiveService.lockForSetWrite(blockIdOf(exercise));
             actualSet.setExercise(exercise);
+            actualSet.setDefinitionId(exercise.getDefinition().getId());
         }
         
         if (request.getPrescribedSetId() != null) {
@@ -97,14 +119,42 @@ public class ActualSetService {
         }
         
         ActualSet updatedSet = actualSetRepository.save(actualSet);
-        return actualSetMapper.toDto(updatedSet);
+        personalRecordService.updateSet(before, PersonalRecordService.LoggedSet.of(updatedSet));
+        ActualSetDto updatedDto = actualSetMapper.toDto(updatedSet);
+        Exercise exercise = updatedSet.getExercise();
+        Long blockId = blockIdOf(exercise);
+        eventPublisher.publishEvent(new BlockChangedEvent(blockId));
+        if (!blockId.equals(blockIdOf(previousExercise))) {
+            eventPublisher.publishEvent(new BlockChangedEvent(blockIdOf(previousExercise)));
+        }
+        if (!exercise.getDay().getId().equals(previousExercise.getDay().getId())) {
+            // The set moved to another day: watchers of the old day see it disappear
+            eventPublisher.publishEvent(ActualSetChangedEvent.of(ActualSetChangedEvent.Type.DELETED, previousExercise, updatedDto));
+        }
+        eventPublisher.publishEvent(ActualSetChangedEvent.of(ActualSetChangedEvent.Type.UPDATED, exercise, updatedDto));
+        return updatedDto;
     }
     
     public void deleteActualSet(Long id) {
-        if (!actualSetRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Actual set not found with id: " + id);
-        }
-        actualSetRepository.deleteById(id);
+        ActualSet actualSet = actualSetRepository.findByIdAndAthleteId(id, AthleteContext.currentAthleteId())
+                .orElseThrow(() -> new ResourceNotFoundException("Actual set not found with id: " + id));
+        Exercise exercise = actualSet.getExercise();
+        blockArchiveService.lockForSetWrite(blockIdOf(exercise));
+        ActualSetDto deletedDto = actualSetMapper.toDto(actualSet);
+        actualSetRepository.delete(actualSet);
+        personalRecordService.removeSets(List.of(PersonalRecordService.LoggedSet.of(actualSet)));
+        eventPublisher.publishEvent(new BlockChangedEvent(blockIdOf(exercise)));
+        eventPublisher.publishEvent(ActualSetChangedEvent.of(ActualSetChangedEvent.Type.DELETED, exercise, deletedDto));
+    }
+    
+    // Exercises of a deleted block stay in the table until the reaper gets to them; other athletes' are never visible
+    static boolean inOwnLiveBlock(Exercise exercise) {
+        TrainingBlock block = exercise.getDay().getWeek().getBlock();
+        return block.getDeletedAt() == null && AthleteContext.currentAthleteId().equals(block.getAthleteId());
+    }
+    
+    private static Long blockIdOf(Exercise exercise) {
+        return exercise.getDay().getWeek().getBlock().getId();
     }
 }
 
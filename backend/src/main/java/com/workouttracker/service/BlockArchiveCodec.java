@@ -0,0 +1,307 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.*;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.model.WeekType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact binary form of a whole block tree (weeks, days, exercises, prescribed and actual
+ * sets) used for archived blocks. Parent ids are implied by nesting, nullable values carry a
+ * one-byte presence flag, and the stream is gzip-compressed.
+ */
+final class BlockArchiveCodec {
+
+    private static final int MAGIC = 0x57544241; // "WTBA"
+    private static final byte VERSION = 1;
+
+    private BlockArchiveCodec() {
+    }
+
+    static void write(TrainingBlockDto block, OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target, 8192);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(block.getId());
+        writeInteger(out, block.getBlockLength());
+        writeDecimal(out, block.getProgressionRate());
+        writeDecimal(out, block.getDeloadRate());
+        writeString(out, block.getMacrocycle());
+        writeString(out, block.getMesocycle());
+        writeDateTime(out, block.getCreatedAt());
+        List<WeekDto> weeks = nonNull(block.getWeeks());
+        out.writeInt(weeks.size());
+        for (WeekDto week : weeks) {
+            out.writeLong(week.getId());
+            writeInteger(out, week.getWeekNumber());
+            writeString(out, week.getWeekType() != null ? week.getWeekType().name() : null);
+            writeDate(out, week.getStartDate());
+            writeDate(out, week.getEndDate());
+            List<WorkoutDayDto> days = nonNull(week.getDays());
+            out.writeInt(days.size());
+            for (WorkoutDayDto day : days) {
+                out.writeLong(day.getId());
+                writeInteger(out, day.getDayNumber());
+                writeString(out, day.getDayName());
+                writeBoolean(out, day.getRestDay());
+                List<ExerciseDto> exercises = nonNull(day.getExercises());
+                out.writeInt(exercises.size());
+                for (ExerciseDto exercise : exercises) {
+                    writeExercise(out, exercise);
+                }
+            }
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    static TrainingBlockDto read(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(source, 8192));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a block archive");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported block archive version " + version);
+        }
+        TrainingBlockDto block = TrainingBlockDto.builder()
+                .id(in.readLong())
+                .blockLength(readInteger(in))
+                .progressionRate(readDecimal(in))
+                .deloadRate(readDecimal(in))
+                .macrocycle(readString(in))
+                .mesocycle(readString(in))
+                .createdAt(readDateTime(in))
+                .build();
+        int weekCount = in.readInt();
+        List<WeekDto> weeks = new ArrayList<>(weekCount);
+        for (int w = 0; w < weekCount; w++) {
+            WeekDto week = WeekDto.builder()
+                    .id(in.readLong())
+                    .blockId(block.getId())
+                    .weekNumber(readInteger(in))
+                    .weekType(readEnum(in, WeekType.class))
+                    .startDate(readDate(in))
+                    .endDate(readDate(in))
+                    .build();
+            int dayCount = in.readInt();
+            List<WorkoutDayDto> days = new ArrayList<>(dayCount);
+            for (int d = 0; d < dayCount; d++) {
+                WorkoutDayDto day = WorkoutDayDto.builder()
+                        .id(in.readLong())
+                        .weekId(week.getId())
+                        .dayNumber(readInteger(in))
+                        .dayName(readString(in))
+                        .restDay(readBoolean(in))
+                        .build();
+                int exerciseCount = in.readInt();
+                List<ExerciseDto> exercises = new ArrayList<>(exerciseCount);
+                for (int e = 0; e < exerciseCount; e++) {
+                    exercises.add(readExercise(in, day.getId()));
+                }
+                day.setExercises(exercises);
+                days.add(day);
+            }
+            week.setDays(days);
+            weeks.add(week);
+        }
+        block.setWeeks(weeks);
+        return block;
+    }
+
+    private static void writeExercise(DataOutputStream out, ExerciseDto exercise) throws IOException {
+        out.writeLong(exercise.getId());
+        writeString(out, exercise.getName());
+        writeString(out, exercise.getCategory() != null ? exercise.getCategory().name() : null);
+        writeInteger(out, exercise.getOrderInWorkout());
+        List<PrescribedSetDto> prescribedSets = nonNull(exercise.getPrescribedSets());
+        out.writeInt(prescribedSets.size());
+        for (PrescribedSetDto set : prescribedSets) {
+            out.writeLong(set.getId());
+            writeInteger(out, set.getSetNumber());
+            writeInteger(out, set.getTargetSets());
+            writeInteger(out, set.getTargetReps());
+            writeDecimal(out, set.getTargetLoadMin());
+            writeDecimal(out, set.getTargetLoadMax());
+            writeInteger(out, set.getTargetRPE());
+            writeString(out, set.getTempo() != null ? set.getTempo().name() : null);
+            writeBoolean(out, set.getVideoRequired());
+        }
+        List<ActualSetDto> actualSets = nonNull(exercise.getActualSets());
+        out.writeInt(actualSets.size());
+        for (ActualSetDto set : actualSets) {
+            out.writeLong(set.getId());
+            writeLong(out, set.getPrescribedSetId());
+            writeInteger(out, set.getSetNumber());
+            writeDecimal(out, set.getActualWeight());
+            writeInteger(out, set.getActualReps());
+            writeInteger(out, set.getActualRPE());
+            writeString(out, set.getTempoUsed() != null ? set.getTempoUsed().name() : null);
+            writeBoolean(out, set.getVideoRecorded());
+            writeString(out, set.getFeedback());
+            writeDateTime(out, set.getCompletedAt());
+        }
+    }
+
+    private static ExerciseDto readExercise(DataInputStream in, Long dayId) throws IOException {
+        ExerciseDto exercise = ExerciseDto.builder()
+                .id(in.readLong())
+                .dayId(dayId)
+                .name(readString(in))
+                .category(readEnum(in, ExerciseCategory.class))
+                .orderInWorkout(readInteger(in))
+                .build();
+        int prescribedCount = in.readInt();
+        List<PrescribedSetDto> prescribedSets = new ArrayList<>(prescribedCount);
+        for (int i = 0; i < prescribedCount; i++) {
+            prescribedSets.add(PrescribedSetDto.builder()
+                    .id(in.readLong())
+                    .exerciseId(exercise.getId())
+                    .setNumber(readInteger(in))
+                    .targetSets(readInteger(in))
+                    .targetReps(readInteger(in))
+                    .targetLoadMin(readDecimal(in))
+                    .targetLoadMax(readDecimal(in))
+                    .targetRPE(readInteger(in))
+                    .tempo(readEnum(in, Tempo.class))
+                    .videoRequired(readBoolean(in))
+                    .build());
+        }
+        int actualCount = in.readInt();
+        List<ActualSetDto> actualSets = new ArrayList<>(actualCount);
+        for (int i = 0; i < actualCount; i++) {
+            actualSets.add(ActualSetDto.builder()
+                    .id(in.readLong())
+                    .exerciseId(exercise.getId())
+                    .prescribedSetId(readLong(in))
+                    .setNumber(readInteger(in))
+                    .actualWeight(readDecimal(in))
+                    .actualReps(readInteger(in))
+                    .actualRPE(readInteger(in))
+                    .tempoUsed(readEnum(in, Tempo.class))
+                    .videoRecorded(readBoolean(in))
+                    .feedback(readString(in))
+                    .completedAt(readDateTime(in))
+                    .build());
+        }
+        exercise.setPrescribedSets(prescribedSets);
+        exercise.setActualSets(actualSets);
+        return exercise;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(DataInputStream in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+
+    /** Length-prefixed UTF-8; writeUTF would cap feedback text at 64 KB. */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        String name = readString(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    /** Unscaled value and scale; NUMERIC(6,2) columns always fit in a long. */
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeByte(value.scale());
+            out.writeLong(value.unscaledValue().longValueExact());
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readByte();
+        return new BigDecimal(BigInteger.valueOf(in.readLong()), scale);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt((int) value.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readInt()) : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
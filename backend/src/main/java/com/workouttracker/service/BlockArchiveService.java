@@ -0,0 +1,293 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.*;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.event.ExerciseNamesSavedEvent;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.mapper.TrainingBlockMapper;
+import com.workouttracker.model.ExerciseNames;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Moves finished blocks out of the OLTP tables into one compressed file per block
+ * ({@link BlockArchiveCodec}). Only the {@code training_blocks} row stays behind, carrying
+ * {@code archived_at} and {@code archive_path}; reads of an archived block decode the file,
+ * and {@link #restoreBlock(Long)} re-inserts the tree with its original ids.
+ * <p>
+ * The file is written and fsynced before the rows are deleted in the same transaction, so a
+ * failed delete leaves a harmless orphan file rather than a block with no data. Archiving locks
+ * the block row {@code FOR UPDATE} before reading the tree, and every write to a block's sets
+ * first calls {@link #lockForSetWrite(Long)}, so a set is either committed before the tree is
+ * read (and archived with it) or rejected once the block is archived; none is deleted unread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlockArchiveService {
+
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final TrainingBlockMapper trainingBlockMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExerciseDefinitionService exerciseDefinitionService;
+
+    @Value("${workout-tracker.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${workout-tracker.archive.directory:data/archive}")
+    private String directory;
+
+    @Value("${workout-tracker.archive.threshold-days:90}")
+    private int thresholdDays;
+
+    @Value("${workout-tracker.archive.batch-size:20}")
+    private int batchSize;
+
+    /** Archives blocks whose last week ended more than {@code threshold-days} ago, whoever they belong to. */
+    @Scheduled(cron = "${workout-tracker.archive.cron:0 45 3 * * *}")
+    public void archiveCompletedBlocks() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(thresholdDays);
+        List<Long> blockIds = trainingBlockRepository.findArchivableBlockIds(cutoff, PageRequest.of(0, batchSize));
+        for (Long blockId : blockIds) {
+            try {
+                archive(blockId, () -> trainingBlockRepository.findById(blockId));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to archive block {}: {}", blockId, ex.getMessage());
+            }
+        }
+    }
+
+    public TrainingBlockDto archiveBlock(Long blockId) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        return archive(blockId, () -> trainingBlockRepository.findByIdAndAthleteId(blockId, athleteId));
+    }
+
+    private TrainingBlockDto archive(Long blockId, Supplier<Optional<TrainingBlock>> lookup) {
+        return transactionTemplate.execute(status -> {
+            // Waits for set writes in flight on this block; the tree is read only after they commit
+            jdbcTemplate.queryForList("SELECT id FROM training_blocks WHERE id = ? FOR UPDATE", Long.class, blockId);
+            TrainingBlock block = lookup.get()
+                    .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + blockId));
+            if (block.getArchivedAt() != null) {
+                throw new IllegalArgumentException("Training block " + blockId + " is already archived");
+            }
+            TrainingBlockDto dto = trainingBlockMapper.toDto(block);
+            Path file = writeArchive(dto);
+            deleteTree(blockId);
+            LocalDateTime archivedAt = LocalDateTime.now();
+            trainingBlockRepository.updateArchiveState(blockId, archivedAt, file.toString());
+            eventPublisher.publishEvent(new BlockChangedEvent(blockId));
+            dto.setArchivedAt(archivedAt);
+            log.info("Archived block {} to {}", blockId, file);
+            return dto;
+        });
+    }
+
+    public TrainingBlockDto restoreBlock(Long blockId) {
+        return transactionTemplate.execute(status -> {
+            TrainingBlock block = findBlock(blockId);
+            if (block.getArchivedAt() == null) {
+                throw new IllegalArgumentException("Training block " + blockId + " is not archived");
+            }
+            TrainingBlockDto dto = readArchivedBlock(block);
+            Set<String> exerciseNames = insertTree(dto, block.getAthleteId());
+            trainingBlockRepository.updateArchiveState(blockId, null, null);
+            eventPublisher.publishEvent(new BlockChangedEvent(blockId));
+            if (!exerciseNames.isEmpty()) {
+                eventPublisher.publishEvent(new ExerciseNamesSavedEvent(exerciseNames));
+            }
+            deleteFileAfterCommit(Path.of(block.getArchivePath()));
+            dto.setArchivedAt(null);
+            log.info("Restored block {} from {}", blockId, block.getArchivePath());
+            return dto;
+        });
+    }
+
+    /**
+     * Takes a key-share lock on the block row for the rest of the caller's transaction and
+     * rejects the write if the block is archived. The lock conflicts only with the archive's
+     * {@code FOR UPDATE}, so concurrent set writes (which also update the row's snapshot
+     * columns) do not wait on each other.
+     */
+    public void lockForSetWrite(Long blockId) {
+        Boolean archived = jdbcTemplate.query(
+                "SELECT archived_at IS NOT NULL FROM training_blocks WHERE id = ? FOR KEY SHARE",
+                rs -> rs.next() ? rs.getBoolean(1) : null, blockId);
+        if (Boolean.TRUE.equals(archived)) {
+            throw new IllegalArgumentException("Training block " + blockId + " is archived; restore it before " +
+                    "changing its sets");
+        }
+    }
+
+    /** Decodes the archive of a block row that has {@code archived_at} set. */
+    public TrainingBlockDto readArchivedBlock(TrainingBlock block) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(block.getArchivePath())))) {
+            TrainingBlockDto dto = BlockArchiveCodec.read(in);
+            dto.setArchivedAt(block.getArchivedAt());
+            return dto;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Archive for block " + block.getId() + " is unreadable", ex);
+        }
+    }
+
+    public Optional<TrainingBlockDto> findArchivedBlock(Long blockId) {
+        return trainingBlockRepository.findByIdAndAthleteId(blockId, AthleteContext.currentAthleteId())
+                .filter(block -> block.getArchivedAt() != null)
+                .map(this::readArchivedBlock);
+    }
+
+    private TrainingBlock findBlock(Long blockId) {
+        return trainingBlockRepository.findByIdAndAthleteId(blockId, AthleteContext.currentAthleteId())
+                .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + blockId));
+    }
+
+    private Path writeArchive(TrainingBlockDto dto) {
+        try {
+            Path dir = Path.of(directory).toAbsolutePath();
+            Files.createDirectories(dir);
+            Path target = dir.resolve("block-" + dto.getId() + ".wtba");
+            Path temp = Files.createTempFile(dir, "block-" + dto.getId() + "-", ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                BlockArchiveCodec.write(dto, out);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write archive for block " + dto.getId(), ex);
+        }
+    }
+
+    private void deleteTree(Long blockId) {
+        jdbcTemplate.update("DELETE FROM actual_sets WHERE exercise_id IN (SELECT e.id FROM exercises e " +
+                "JOIN workout_days d ON d.id = e.day_id JOIN weeks w ON w.id = d.week_id WHERE w.block_id = ?)", blockId);
+        jdbcTemplate.update("DELETE FROM prescribed_sets WHERE exercise_id IN (SELECT e.id FROM exercises e " +
+                "JOIN workout_days d ON d.id = e.day_id JOIN weeks w ON w.id = d.week_id WHERE w.block_id = ?)", blockId);
+        jdbcTemplate.update("DELETE FROM exercises WHERE day_id IN (SELECT d.id FROM workout_days d " +
+                "JOIN weeks w ON w.id = d.week_id WHERE w.block_id = ?)", blockId);
+        jdbcTemplate.update("DELETE FROM workout_days WHERE week_id IN (SELECT id FROM weeks WHERE block_id = ?)", blockId);
+        jdbcTemplate.update("DELETE FROM weeks WHERE block_id = ?", blockId);
+    }
+
+    /**
+     * Re-inserts the tree with its original ids, one batch per table, parents first.
+     *
+     * @return the exercise names that were re-inserted
+     */
+    private Set<String> insertTree(TrainingBlockDto block, Long athleteId) {
+        Set<String> exerciseNames = new LinkedHashSet<>();
+        List<Object[]> weeks = new ArrayList<>();
+        List<Object[]> days = new ArrayList<>();
+        List<Object[]> exercises = new ArrayList<>();
+        List<Object[]> prescribedSets = new ArrayList<>();
+        List<Object[]> actualSets = new ArrayList<>();
+        // Files written before definitions existed carry none, so they are always resolved by name
+        Map<String, Long> definitionIds = new HashMap<>();
+        for (WeekDto week : nonNull(block.getWeeks())) {
+            weeks.add(new Object[]{week.getId(), block.getId(), week.getWeekNumber(), name(week.getWeekType()),
+                    week.getStartDate(), week.getEndDate()});
+            for (WorkoutDayDto day : nonNull(week.getDays())) {
+                days.add(new Object[]{day.getId(), week.getId(), day.getDayNumber(), day.getDayName(), day.getRestDay()});
+                for (ExerciseDto exercise : nonNull(day.getExercises())) {
+                    Long definitionId = definitionIds.computeIfAbsent(ExerciseNames.normalize(exercise.getName()),
+                            key -> exerciseDefinitionService.resolve(exercise.getName(), exercise.getCategory()).getId());
+                    exercises.add(new Object[]{exercise.getId(), day.getId(), exercise.getName(), definitionId,
+                            name(exercise.getCategory()), exercise.getOrderInWorkout()});
+                    exerciseNames.add(exercise.getName());
+                    for (PrescribedSetDto set : nonNull(exercise.getPrescribedSets())) {
+                        prescribedSets.add(new Object[]{set.getId(), exercise.getId(), set.getSetNumber(),
+                                set.getTargetSets(), set.getTargetReps(), set.getTargetLoadMin(), set.getTargetLoadMax(),
+                                set.getTargetRPE(), name(set.getTempo()), set.getVideoRequired()});
+                    }
+                    for (ActualSetDto set : nonNull(exercise.getActualSets())) {
+                        actualSets.add(new Object[]{set.getId(), exercise.getId(), definitionId, athleteId, set.getPrescribedSetId(),
+                                set.getSetNumber(), set.getActualWeight(), set.getActualReps(), set.getActualRPE(),
+                                name(set.getTempoUsed()), set.getVideoRecorded(), set.getFeedback(), set.getCompletedAt()});
+                    }
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO weeks (id, block_id, week_number, week_type, start_date, end_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", weeks);
+        jdbcTemplate.batchUpdate("INSERT INTO workout_days (id, week_id, day_number, day_name, rest_day) " +
+                "VALUES (?, ?, ?, ?, ?)", days);
+        jdbcTemplate.batchUpdate("INSERT INTO exercises (id, day_id, name, definition_id, category, order_in_workout) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", exercises);
+        jdbcTemplate.batchUpdate("INSERT INTO prescribed_sets (id, exercise_id, set_number, target_sets, target_reps, " +
+                "target_load_min, target_load_max, target_rpe, tempo, video_required) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", prescribedSets);
+        jdbcTemplate.batchUpdate("INSERT INTO actual_sets (id, exercise_id, definition_id, athlete_id, prescribed_set_id, " +
+                "set_number, actual_weight, actual_reps, actual_rpe, tempo_used, video_recorded, feedback, completed_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", actualSets);
+        return exerciseNames;
+    }
+
+    private void deleteFileAfterCommit(Path file) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFile(file);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteFile(file);
+            }
+        });
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete archive file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
@@ -0,0 +1,280 @@
+package com.workouttracker.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Layout of a block backup ({@code .wtbk}): a gzip stream with a short header, then one section
+ * per table in parent-first order. A section names its table and columns and carries the rows
+ * exactly as {@code COPY ... TO STDOUT} wrote them (text format), cut into length-prefixed
+ * chunks and ended by an empty chunk, so restore hands each section to {@code COPY ... FROM
+ * STDIN} without parsing a row.
+ * <p>
+ * Ids are the source database's; restore uses them only to rejoin children to their parents.
+ */
+final class BlockBackupFormat {
+
+    private static final int MAGIC = 0x5754424B; // "WTBK"
+    private static final byte VERSION = 1;
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    /** The backed-up columns of each table, in section order. */
+    enum Section {
+        TRAINING_BLOCK("training_blocks",
+                "id, block_length, progression_rate, deload_rate, macrocycle, mesocycle, created_at"),
+        WEEKS("weeks", "id, week_number, week_type, start_date, end_date"),
+        WORKOUT_DAYS("workout_days", "id, week_id, day_number, day_name, rest_day"),
+        // Definitions are per database, so restore resolves them by name
+        EXERCISES("exercises", "id, day_id, name, category, order_in_workout"),
+        PRESCRIBED_SETS("prescribed_sets", "id, exercise_id, set_number, target_sets, target_reps, " +
+                "target_load_min, target_load_max, target_rpe, tempo, video_required"),
+        // Not definition_id and athlete_id, which restore sets, nor the generated feedback_tsv
+        ACTUAL_SETS("actual_sets", "id, exercise_id, prescribed_set_id, set_number, actual_weight, actual_reps, " +
+                "actual_rpe, tempo_used, video_recorded, feedback, completed_at");
+
+        private final String table;
+        private final String columns;
+
+        Section(String table, String columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+
+        String table() {
+            return table;
+        }
+
+        String columns() {
+            return columns;
+        }
+    }
+
+    /**
+     * @param firstSetAt when the earliest logged set was completed, so restore can create the
+     *                   {@code actual_sets} partitions before loading; null for a block without sets
+     */
+    record Header(long sourceBlockId, LocalDateTime firstSetAt) {
+    }
+
+    private BlockBackupFormat() {
+    }
+
+    static Writer write(OutputStream target, Header header) throws IOException {
+        return new Writer(target, header);
+    }
+
+    static Reader read(InputStream source) throws IOException {
+        return new Reader(source);
+    }
+
+    static final class Writer {
+
+        private final GZIPOutputStream gzip;
+        private final DataOutputStream out;
+        private int nextSection;
+
+        private Writer(OutputStream target, Header header) throws IOException {
+            gzip = new GZIPOutputStream(target, 8192);
+            out = new DataOutputStream(gzip);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(header.sourceBlockId());
+            out.writeBoolean(header.firstSetAt() != null);
+            if (header.firstSetAt() != null) {
+                out.writeLong(header.firstSetAt().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(header.firstSetAt().getNano());
+            }
+        }
+
+        /** The next section's row stream; closing it ends the section, not the backup. */
+        OutputStream section(Section section) throws IOException {
+            if (section.ordinal() != nextSection) {
+                throw new IllegalStateException("Section " + section + " written out of order");
+            }
+            nextSection++;
+            out.writeUTF(section.name());
+            out.writeUTF(section.columns());
+            return new ChunkedOutputStream(out);
+        }
+
+        void finish() throws IOException {
+            if (nextSection != Section.values().length) {
+                throw new IllegalStateException("Backup finished after " + nextSection + " sections");
+            }
+            out.flush();
+            gzip.finish();
+        }
+    }
+
+    static final class Reader {
+
+        private final DataInputStream in;
+        private final Header header;
+        private ChunkedInputStream current;
+
+        private Reader(InputStream source) throws IOException {
+            in = new DataInputStream(new GZIPInputStream(source, 8192));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a block backup");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported block backup version " + version);
+            }
+            long sourceBlockId = in.readLong();
+            LocalDateTime firstSetAt = in.readBoolean()
+                    ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC)
+                    : null;
+            header = new Header(sourceBlockId, firstSetAt);
+        }
+
+        Header header() {
+            return header;
+        }
+
+        /**
+         * The rows of the next section, which must be {@code expected} with the same columns.
+         * Reading it to the end positions the reader at the following section.
+         */
+        InputStream section(Section expected) throws IOException {
+            if (current != null && !current.done) {
+                throw new IllegalStateException("Previous section was not read to the end");
+            }
+            String name = in.readUTF();
+            String columns = in.readUTF();
+            if (!expected.name().equals(name) || !expected.columns().equals(columns)) {
+                throw new IOException("Expected section " + expected + " (" + expected.columns() + "), found " +
+                        name + " (" + columns + ")");
+            }
+            current = new ChunkedInputStream(in);
+            return current;
+        }
+    }
+
+    /** Buffers writes into chunks of up to {@link #CHUNK_BYTES}; close writes the empty end chunk. */
+    private static final class ChunkedOutputStream extends FilterOutputStream {
+
+        private final DataOutputStream out;
+        private final byte[] buffer = new byte[CHUNK_BYTES];
+        private int count;
+        private boolean closed;
+
+        ChunkedOutputStream(DataOutputStream out) {
+            super(out);
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() {
+            // Chunks are cut at CHUNK_BYTES or at close; flushing the backup stream is the writer's job
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushChunk();
+            out.writeInt(0);
+        }
+
+        private void flushChunk() throws IOException {
+            if (count > 0) {
+                out.writeInt(count);
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+    }
+
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final DataInputStream in;
+        private int remaining;
+        private boolean done;
+
+        ChunkedInputStream(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            remaining--;
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int n = in.read(b, off, Math.min(len, remaining));
+            if (n < 0) {
+                throw new EOFException("Block backup ends inside a section");
+            }
+            remaining -= n;
+            return n;
+        }
+
+        // Closing the section is a no-op: the backup stream stays open for the next one
+        @Override
+        public void close() {
+        }
+
+        private boolean nextChunk() throws IOException {
+            while (remaining == 0) {
+                if (done) {
+                    return false;
+                }
+                int length = in.readInt();
+                if (length < 0 || length > CHUNK_BYTES) {
+                    throw new IOException("Corrupt block backup: chunk of " + length + " bytes");
+                }
+                if (length == 0) {
+                    done = true;
+                    return false;
+                }
+                remaining = length;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.BlockRestoreDto;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.event.BlockLifecycleEvent;
+import com.workouttracker.event.ExerciseNamesSavedEvent;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.ExerciseNames;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.service.BlockBackupFormat.Section;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Backs up a block to a portable file and restores such a file as a new block, using the COPY
+ * protocol in both directions so rows move in bulk instead of one statement each.
+ * <p>
+ * A backup is one {@code COPY (SELECT ...) TO STDOUT} per table, all in one read-only
+ * repeatable-read transaction so the tables agree with each other. Restore loads each section
+ * with {@code COPY ... FROM STDIN} into a temporary staging table, then moves the staged rows
+ * into the real tables with one statement that gives every row a new id, as
+ * {@link BlockCloneService} does. The restored block belongs to the current athlete, whoever
+ * the backup came from. Personal records are raised from the restored sets with one set-based
+ * upsert; set videos are not part of a backup.
+ */
+@Service
+@Slf4j
+public class BlockBackupService {
+
+    private static final String FIRST_SET = """
+            SELECT min(a.completed_at)
+              FROM actual_sets a
+              JOIN exercises e ON e.id = a.exercise_id
+              JOIN workout_days d ON d.id = e.day_id
+              JOIN weeks w ON w.id = d.week_id
+             WHERE w.block_id = ? AND a.athlete_id = ?
+            """;
+
+    // COPY takes no bind parameters, so the ids (longs) are formatted in: %1$d block, %2$d athlete
+    private static final Map<Section, String> SOURCE = Map.of(
+            Section.TRAINING_BLOCK, "WHERE id = %1$d",
+            Section.WEEKS, "WHERE block_id = %1$d",
+            Section.WORKOUT_DAYS, "WHERE week_id IN (SELECT id FROM weeks WHERE block_id = %1$d)",
+            Section.EXERCISES, "WHERE day_id IN (SELECT d.id FROM workout_days d JOIN weeks w ON w.id = d.week_id " +
+                    "WHERE w.block_id = %1$d)",
+            Section.PRESCRIBED_SETS, "WHERE exercise_id IN (SELECT e.id FROM exercises e " +
+                    "JOIN workout_days d ON d.id = e.day_id JOIN weeks w ON w.id = d.week_id WHERE w.block_id = %1$d)",
+            Section.ACTUAL_SETS, "WHERE athlete_id = %2$d AND exercise_id IN (SELECT e.id FROM exercises e " +
+                    "JOIN workout_days d ON d.id = e.day_id JOIN weeks w ON w.id = d.week_id WHERE w.block_id = %1$d)");
+
+    // Same statement shape as BlockCloneService.CLONE: the *_map CTEs pair each staged id with a
+    // new one from the table's sequence and every level joins its parent's mapping. Actual sets
+    // are referenced by nothing in the backup, so they take their ids from the column default.
+    private static final String RESTORE = """
+            WITH new_block AS (
+                INSERT INTO training_blocks (athlete_id, block_length, progression_rate, deload_rate, macrocycle, mesocycle,
+                                             created_at)
+                SELECT :athleteId, block_length, progression_rate, deload_rate, macrocycle, mesocycle, created_at
+                  FROM restore_training_blocks
+                RETURNING id
+            ), week_map AS (
+                SELECT id AS old_id, nextval(pg_get_serial_sequence('weeks', 'id')) AS new_id
+                  FROM restore_weeks
+            ), new_weeks AS (
+                INSERT INTO weeks (id, block_id, week_number, week_type, start_date, end_date)
+                SELECT m.new_id, b.id, w.week_number, w.week_type, w.start_date, w.end_date
+                  FROM restore_weeks w JOIN week_map m ON m.old_id = w.id CROSS JOIN new_block b
+                RETURNING id
+            ), day_map AS (
+                SELECT d.id AS old_id, nextval(pg_get_serial_sequence('workout_days', 'id')) AS new_id
+                  FROM restore_workout_days d JOIN week_map m ON m.old_id = d.week_id
+            ), new_days AS (
+                INSERT INTO workout_days (id, week_id, day_number, day_name, rest_day)
+                SELECT dm.new_id, wm.new_id, d.day_number, d.day_name, d.rest_day
+                  FROM restore_workout_days d JOIN day_map dm ON dm.old_id = d.id JOIN week_map wm ON wm.old_id = d.week_id
+                RETURNING id
+            ), exercise_map AS (
+                SELECT e.id AS old_id, nextval(pg_get_serial_sequence('exercises', 'id')) AS new_id
+                  FROM restore_exercises e JOIN day_map m ON m.old_id = e.day_id
+            ), new_exercises AS (
+                INSERT INTO exercises (id, day_id, name, definition_id, category, order_in_workout)
+                SELECT em.new_id, dm.new_id, e.name, e.definition_id, e.category, e.order_in_workout
+                  FROM restore_exercises e JOIN exercise_map em ON em.old_id = e.id JOIN day_map dm ON dm.old_id = e.day_id
+                RETURNING id
+            ), prescribed_map AS (
+                SELECT p.id AS old_id, nextval(pg_get_serial_sequence('prescribed_sets', 'id')) AS new_id
+                  FROM restore_prescribed_sets p JOIN exercise_map m ON m.old_id = p.exercise_id
+            ), new_prescribed AS (
+                INSERT INTO prescribed_sets (id, exercise_id, set_number, target_sets, target_reps, target_load_min,
+                                             target_load_max, target_rpe, tempo, video_required)
+                SELECT pm.new_id, em.new_id, p.set_number, p.target_sets, p.target_reps, p.target_load_min,
+                       p.target_load_max, p.target_rpe, p.tempo, p.video_required
+                  FROM restore_prescribed_sets p JOIN prescribed_map pm ON pm.old_id = p.id
+                  JOIN exercise_map em ON em.old_id = p.exercise_id
+                RETURNING id
+            ), new_actual AS (
+                INSERT INTO actual_sets (exercise_id, definition_id, athlete_id, prescribed_set_id, set_number, actual_weight,
+                                         actual_reps, actual_rpe, tempo_used, video_recorded, feedback, completed_at)
+                SELECT em.new_id, e.definition_id, :athleteId, pm.new_id, a.set_number, a.actual_weight, a.actual_reps,
+                       a.actual_rpe, a.tempo_used, a.video_recorded, a.feedback, a.completed_at
+                  FROM restore_actual_sets a JOIN exercise_map em ON em.old_id = a.exercise_id
+                  JOIN restore_exercises e ON e.id = a.exercise_id
+                  LEFT JOIN prescribed_map pm ON pm.old_id = a.prescribed_set_id
+                RETURNING id
+            )
+            SELECT b.id,
+                   (SELECT count(*) FROM new_weeks) AS weeks,
+                   (SELECT count(*) FROM new_days) AS workout_days,
+                   (SELECT count(*) FROM new_exercises) AS exercises,
+                   (SELECT count(*) FROM new_prescribed) AS prescribed_sets,
+                   (SELECT count(*) FROM new_actual) AS actual_sets
+              FROM new_block b
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final ExerciseDefinitionService exerciseDefinitionService;
+    private final ActualSetPartitionService actualSetPartitionService;
+    private final PersonalRecordService personalRecordService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate snapshot;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${workout-tracker.backup.max-size-bytes:268435456}")
+    private long maxSizeBytes;
+
+    public BlockBackupService(JdbcTemplate jdbcTemplate,
+                              NamedParameterJdbcTemplate namedJdbcTemplate,
+                              TrainingBlockRepository trainingBlockRepository,
+                              ExerciseDefinitionService exerciseDefinitionService,
+                              ActualSetPartitionService actualSetPartitionService,
+                              PersonalRecordService personalRecordService,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.trainingBlockRepository = trainingBlockRepository;
+        this.exerciseDefinitionService = exerciseDefinitionService;
+        this.actualSetPartitionService = actualSetPartitionService;
+        this.personalRecordService = personalRecordService;
+        this.eventPublisher = eventPublisher;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Checks the block now, so an unknown (404) or archived (400) block fails before the
+     * response starts; the returned body runs the dump.
+     */
+    public StreamingResponseBody backup(Long blockId) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        TrainingBlock block = trainingBlockRepository.findByIdAndAthleteId(blockId, athleteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + blockId));
+        if (block.getArchivedAt() != null) {
+            throw new IllegalArgumentException("Training block " + blockId + " is archived; restore it before backing it up");
+        }
+        return out -> {
+            try {
+                snapshot.executeWithoutResult(status -> dump(blockId, athleteId, out));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+    }
+
+    /**
+     * Restores a backup as a new block of the current athlete. The upload is spooled to a
+     * temporary file first, so no database connection waits on the client's bytes; spooling
+     * stops with a 400 once it passes {@code backup.max-size-bytes}.
+     */
+    public BlockRestoreDto restore(InputStream body) throws IOException {
+        Path spool = Files.createTempFile("block-restore-", ".wtbk");
+        try {
+            spool(body, spool);
+            try (InputStream source = Files.newInputStream(spool)) {
+                return restoreFrom(readable(() -> BlockBackupFormat.read(source)));
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void spool(InputStream body, Path spool) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(spool)) {
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                total += read;
+                if (total > maxSizeBytes) {
+                    throw new IllegalArgumentException("Block backups are limited to " + maxSizeBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private BlockRestoreDto restoreFrom(BlockBackupFormat.Reader reader) {
+        long started = System.nanoTime();
+        Long athleteId = AthleteContext.currentAthleteId();
+        BlockBackupFormat.Header header = reader.header();
+        // Partitions are DDL outside the load transaction, as the dataset generator does it
+        if (header.firstSetAt() != null) {
+            actualSetPartitionService.createPartitionsFrom(header.firstSetAt().toLocalDate());
+        }
+        return transactionTemplate.execute(status -> {
+            Map<Section, Long> rows = load(reader);
+            if (rows.get(Section.TRAINING_BLOCK) != 1) {
+                throw new IllegalArgumentException("Block backup holds " + rows.get(Section.TRAINING_BLOCK) +
+                        " blocks, not 1");
+            }
+            Set<String> exerciseNames = resolveDefinitions();
+            Map<Section, Long> restored = new EnumMap<>(Section.class);
+            Long blockId = namedJdbcTemplate.queryForObject(RESTORE, new MapSqlParameterSource("athleteId", athleteId),
+                    (rs, rowNum) -> {
+                        restored.put(Section.TRAINING_BLOCK, 1L);
+                        for (Section section : Section.values()) {
+                            if (section != Section.TRAINING_BLOCK) {
+                                restored.put(section, rs.getLong(section.table()));
+                            }
+                        }
+                        return rs.getLong("id");
+                    });
+            // Rows whose parent is not in the backup join nothing in RESTORE; the block would come back short
+            for (Section section : Section.values()) {
+                if (!restored.get(section).equals(rows.get(section))) {
+                    throw new IllegalArgumentException("Block backup is inconsistent: only " + restored.get(section) +
+                            " of its " + rows.get(section) + " " + section.table() + " rows belong to the block");
+                }
+            }
+            int records = personalRecordService.recordBlockSets(athleteId, blockId);
+
+            eventPublisher.publishEvent(new BlockChangedEvent(blockId));
+            eventPublisher.publishEvent(new BlockLifecycleEvent(BlockLifecycleEvent.Type.CREATED, blockId));
+            if (!exerciseNames.isEmpty()) {
+                eventPublisher.publishEvent(new ExerciseNamesSavedEvent(exerciseNames));
+            }
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            log.info("Restored backup of block {} as block {} in {} ms: {}", header.sourceBlockId(), blockId,
+                    elapsedMs, restored);
+            return BlockRestoreDto.builder()
+                    .blockId(blockId)
+                    .sourceBlockId(header.sourceBlockId())
+                    .weeks(restored.get(Section.WEEKS))
+                    .workoutDays(restored.get(Section.WORKOUT_DAYS))
+                    .exercises(restored.get(Section.EXERCISES))
+                    .prescribedSets(restored.get(Section.PRESCRIBED_SETS))
+                    .actualSets(restored.get(Section.ACTUAL_SETS))
+                    .personalRecords(records)
+                    .elapsedMs(elapsedMs)
+                    .build();
+        });
+    }
+
+    private void dump(Long blockId, Long athleteId, OutputStream out) {
+        Timestamp firstSetAt = jdbcTemplate.queryForObject(FIRST_SET, Timestamp.class, blockId, athleteId);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                BlockBackupFormat.Writer writer = BlockBackupFormat.write(out, new BlockBackupFormat.Header(
+                        blockId, firstSetAt != null ? firstSetAt.toLocalDateTime() : null));
+                for (Section section : Section.values()) {
+                    try (OutputStream rows = writer.section(section)) {
+                        copyManager.copyOut("COPY (SELECT " + section.columns() + " FROM " + section.table() + " " +
+                                String.format(SOURCE.get(section), blockId, athleteId) + ") TO STDOUT", rows);
+                    }
+                }
+                writer.finish();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not write backup of block " + blockId, ex);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Stages every section in a temporary table dropped at commit. Exercises get an extra
+     * {@code definition_id} column for {@link #resolveDefinitions()} to fill.
+     *
+     * @return rows loaded per section
+     */
+    private Map<Section, Long> load(BlockBackupFormat.Reader reader) {
+        Map<Section, Long> rows = new EnumMap<>(Section.class);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try (Statement statement = connection.createStatement()) {
+                for (Section section : Section.values()) {
+                    // Copies the real column types, so COPY parses exactly what it would there
+                    statement.execute("CREATE TEMP TABLE " + staging(section) + " ON COMMIT DROP AS SELECT " +
+                            section.columns() + (section == Section.EXERCISES ? ", definition_id" : "") +
+                            " FROM " + section.table() + " WITH NO DATA");
+                }
+                for (Section section : Section.values()) {
+                    InputStream data = readable(() -> reader.section(section));
+                    try {
+                        rows.put(section, copyManager.copyIn("COPY " + staging(section) + " (" + section.columns() +
+                                ") FROM STDIN", data));
+                    } catch (SQLException ex) {
+                        // Class 22 is bad data (a malformed value or wrong column count), so the file is at fault
+                        if (ex.getSQLState() != null && ex.getSQLState().startsWith("22")) {
+                            throw new IllegalArgumentException("Block backup section " + section + " does not load: " +
+                                    ex.getMessage(), ex);
+                        }
+                        throw ex;
+                    } catch (IOException ex) {
+                        throw new IllegalArgumentException("Not a readable block backup: " + ex.getMessage(), ex);
+                    }
+                }
+                // Temporary tables have no statistics until analyzed, and the restore joins them on every level
+                for (Section section : Section.values()) {
+                    statement.execute("ANALYZE " + staging(section));
+                }
+            }
+            return null;
+        });
+        return rows;
+    }
+
+    /**
+     * Fills the staged exercises' definitions by name, creating missing ones, and returns the names.
+     * Staging tables carry no constraints, so an exercise without a name is rejected here rather
+     * than failing the restore on the NOT NULL of {@code definition_id}.
+     */
+    private Set<String> resolveDefinitions() {
+        Set<String> exerciseNames = new LinkedHashSet<>();
+        Map<String, Long> definitionIds = new HashMap<>();
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT DISTINCT name, category FROM restore_exercises", rs -> {
+            String name = rs.getString("name");
+            if (name == null) {
+                throw new IllegalArgumentException("Block backup has an exercise without a name");
+            }
+            String category = rs.getString("category");
+            Long definitionId = definitionIds.computeIfAbsent(ExerciseNames.normalize(name),
+                    key -> exerciseDefinitionService.resolve(name,
+                            category != null ? ExerciseCategory.valueOf(category) : null).getId());
+            if (exerciseNames.add(name)) {
+                updates.add(new Object[]{definitionId, name});
+            }
+        });
+        jdbcTemplate.batchUpdate("UPDATE restore_exercises SET definition_id = ? WHERE name = ?", updates);
+        return exerciseNames;
+    }
+
+    private static String staging(Section section) {
+        return "restore_" + section.table();
+    }
+
+    private interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    // A stream that is not a backup, or is cut short, is the client's error
+    private static <T> T readable(IoCall<T> call) {
+        try {
+            return call.call();
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Not a readable block backup: " + ex.getMessage(), ex);
+        }
+    }
+}
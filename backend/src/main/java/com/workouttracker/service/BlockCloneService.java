@@ -0,0 +1,119 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.CloneBlockRequest;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.event.BlockLifecycleEvent;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.mapper.TrainingBlockMapper;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+
+/**
+ * Copies a block's plan (weeks, days, exercises, prescribed sets) inside the database. The
+ * source graph is never loaded: one statement allocates new ids for every source row, keeps the
+ * old-to-new pairs in CTEs and inserts each level joined to its parent's mapping. Logged sets and
+ * workouts are not copied.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BlockCloneService {
+
+    // Data-modifying CTEs all run against the same snapshot, and foreign keys are checked at the
+    // end of the statement, so children can reference parents inserted by the same statement.
+    // The *_map CTEs call nextval, which keeps PostgreSQL from inlining them: each is evaluated
+    // once and every reference sees the same ids.
+    private static final String CLONE = """
+            WITH shift AS (
+                SELECT COALESCE(CAST(:startDate AS DATE) - MIN(start_date), 0) AS days
+                  FROM weeks WHERE block_id = :sourceId
+            ), new_block AS (
+                INSERT INTO training_blocks (athlete_id, block_length, progression_rate, deload_rate, macrocycle, mesocycle,
+                                             created_at)
+                SELECT athlete_id, block_length, progression_rate, deload_rate, macrocycle, mesocycle, now()
+                  FROM training_blocks WHERE id = :sourceId
+                RETURNING id
+            ), week_map AS (
+                SELECT id AS old_id, nextval(pg_get_serial_sequence('weeks', 'id')) AS new_id
+                  FROM weeks WHERE block_id = :sourceId
+            ), new_weeks AS (
+                INSERT INTO weeks (id, block_id, week_number, week_type, start_date, end_date)
+                SELECT m.new_id, b.id, w.week_number, w.week_type, w.start_date + s.days, w.end_date + s.days
+                  FROM weeks w JOIN week_map m ON m.old_id = w.id CROSS JOIN new_block b CROSS JOIN shift s
+                RETURNING id
+            ), day_map AS (
+                SELECT d.id AS old_id, nextval(pg_get_serial_sequence('workout_days', 'id')) AS new_id
+                  FROM workout_days d JOIN week_map m ON m.old_id = d.week_id
+            ), new_days AS (
+                INSERT INTO workout_days (id, week_id, day_number, day_name, rest_day)
+                SELECT dm.new_id, wm.new_id, d.day_number, d.day_name, d.rest_day
+                  FROM workout_days d JOIN day_map dm ON dm.old_id = d.id JOIN week_map wm ON wm.old_id = d.week_id
+                RETURNING id
+            ), exercise_map AS (
+                SELECT e.id AS old_id, nextval(pg_get_serial_sequence('exercises', 'id')) AS new_id
+                  FROM exercises e JOIN day_map m ON m.old_id = e.day_id
+            ), new_exercises AS (
+                INSERT INTO exercises (id, day_id, name, definition_id, category, order_in_workout)
+                SELECT em.new_id, dm.new_id, e.name, e.definition_id, e.category, e.order_in_workout
+                  FROM exercises e JOIN exercise_map em ON em.old_id = e.id JOIN day_map dm ON dm.old_id = e.day_id
+                RETURNING id
+            ), new_sets AS (
+                INSERT INTO prescribed_sets (exercise_id, set_number, target_sets, target_reps, target_load_min,
+                                             target_load_max, target_rpe, tempo, video_required)
+                SELECT em.new_id, p.set_number, p.target_sets, p.target_reps,
+                       round(p.target_load_min * :loadMultiplier, 2), round(p.target_load_max * :loadMultiplier, 2),
+                       p.target_rpe, p.tempo, p.video_required
+                  FROM prescribed_sets p JOIN exercise_map em ON em.old_id = p.exercise_id
+                RETURNING id
+            )
+            SELECT b.id
+              FROM new_block b
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final TrainingBlockMapper trainingBlockMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The clone belongs to the source's athlete, which is the current one.
+     *
+     * @param request optional start date and load multiplier; null copies the plan unchanged
+     * @return the new block with its whole tree
+     */
+    public TrainingBlockDto cloneBlock(Long sourceId, CloneBlockRequest request) {
+        TrainingBlock source = trainingBlockRepository.findByIdAndAthleteId(sourceId, AthleteContext.currentAthleteId())
+                .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + sourceId));
+        if (source.getArchivedAt() != null) {
+            throw new IllegalArgumentException("Training block " + sourceId + " is archived; restore it before cloning");
+        }
+        BigDecimal loadMultiplier = request != null && request.getLoadMultiplier() != null
+                ? request.getLoadMultiplier() : BigDecimal.ONE;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sourceId", sourceId)
+                .addValue("startDate", request != null ? request.getStartDate() : null, Types.DATE)
+                .addValue("loadMultiplier", loadMultiplier, Types.NUMERIC);
+        Long cloneId = jdbcTemplate.queryForObject(CLONE, params, Long.class);
+
+        eventPublisher.publishEvent(new BlockChangedEvent(cloneId));
+        eventPublisher.publishEvent(new BlockLifecycleEvent(BlockLifecycleEvent.Type.CREATED, cloneId));
+        log.info("Cloned block {} into {}", sourceId, cloneId);
+        TrainingBlock clone = trainingBlockRepository.findById(cloneId)
+                .orElseThrow(() -> new IllegalStateException("Cloned block " + cloneId + " is not visible"));
+        return trainingBlockMapper.toDto(clone);
+    }
+}
@@ -0,0 +1,230 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.*;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Computes progress for several blocks side by side. Each block is loaded in its own
+ * read-only transaction on a small shared pool, so the pool size is the global cap on
+ * concurrent comparison work regardless of how many requests arrive. Blocks that miss the
+ * request deadline, or that the full pool rejects, come back with a status instead of data.
+ */
+@Service
+@Slf4j
+public class BlockComparisonService {
+
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final WorkoutService workoutService;
+    private final PlatformTransactionManager transactionManager;
+    private final ThreadPoolExecutor executor;
+    private final int maxBlocks;
+    private final long timeoutMs;
+
+    public BlockComparisonService(
+            TrainingBlockRepository trainingBlockRepository,
+            WorkoutService workoutService,
+            PlatformTransactionManager transactionManager,
+            @Value("${workout-tracker.compare.threads:4}") int threads,
+            @Value("${workout-tracker.compare.queue-capacity:32}") int queueCapacity,
+            @Value("${workout-tracker.compare.max-blocks:8}") int maxBlocks,
+            @Value("${workout-tracker.compare.timeout-ms:5000}") long timeoutMs) {
+        this.trainingBlockRepository = trainingBlockRepository;
+        this.workoutService = workoutService;
+        this.transactionManager = transactionManager;
+        this.maxBlocks = maxBlocks;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "block-compare-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @param requestedTimeoutMs optional per-request deadline; it can only shorten the
+     *                           configured {@code workout-tracker.compare.timeout-ms}
+     */
+    public BlockComparisonDto compare(List<Long> blockIds, Long requestedTimeoutMs) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(Optional.ofNullable(blockIds).orElse(List.of())));
+        ids.removeIf(Objects::isNull);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one block id is required");
+        }
+        if (ids.size() > maxBlocks) {
+            throw new IllegalArgumentException("At most " + maxBlocks + " blocks can be compared at once");
+        }
+        long budgetMs = requestedTimeoutMs != null && requestedTimeoutMs > 0
+                ? Math.min(requestedTimeoutMs, timeoutMs)
+                : timeoutMs;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(budgetMs + 999)));
+
+        // The pool threads load as the requesting athlete, so other athletes' blocks come back NOT_FOUND
+        Long athleteId = AthleteContext.currentAthleteId();
+        Map<Long, Future<Optional<BlockProgress>>> futures = new LinkedHashMap<>();
+        Map<Long, BlockComparisonEntryDto> rejected = new LinkedHashMap<>();
+        for (Long id : ids) {
+            try {
+                futures.put(id, executor.submit(() -> AthleteContext.callAs(athleteId,
+                        () -> readOnly.execute(status -> loadProgress(id, athleteId)))));
+            } catch (RejectedExecutionException ex) {
+                rejected.put(id, failed(id, BlockComparisonEntryDto.Status.REJECTED, "Comparison capacity exhausted"));
+            }
+        }
+
+        Map<Long, BlockProgress> loaded = new LinkedHashMap<>();
+        Map<Long, BlockComparisonEntryDto> entries = new LinkedHashMap<>(rejected);
+        for (Map.Entry<Long, Future<Optional<BlockProgress>>> entry : futures.entrySet()) {
+            Long id = entry.getKey();
+            try {
+                long remaining = deadline - System.nanoTime();
+                Optional<BlockProgress> progress = entry.getValue().get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                if (progress.isPresent()) {
+                    loaded.put(id, progress.get());
+                } else {
+                    entries.put(id, failed(id, BlockComparisonEntryDto.Status.NOT_FOUND,
+                            "Training block not found with id: " + id));
+                }
+            } catch (TimeoutException ex) {
+                entry.getValue().cancel(true);
+                entries.put(id, failed(id, BlockComparisonEntryDto.Status.TIMED_OUT,
+                        "Not finished within " + budgetMs + " ms"));
+            } catch (ExecutionException ex) {
+                log.warn("Comparison of block {} failed: {}", id, ex.getCause().getMessage());
+                entries.put(id, failed(id, BlockComparisonEntryDto.Status.FAILED, ex.getCause().getMessage()));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                entry.getValue().cancel(true);
+                entries.put(id, failed(id, BlockComparisonEntryDto.Status.FAILED, "Interrupted"));
+            }
+        }
+
+        // Every completed block gets the same week axis so series line up for charting
+        int weekCount = loaded.values().stream().mapToInt(BlockProgress::weekCount).max().orElse(0);
+        loaded.forEach((id, progress) -> entries.put(id, toEntry(id, progress, weekCount)));
+
+        List<BlockComparisonEntryDto> ordered = ids.stream().map(entries::get).collect(Collectors.toList());
+        return BlockComparisonDto.builder()
+                .weekCount(weekCount)
+                .partial(loaded.size() < ids.size())
+                .blocks(ordered)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Optional<BlockProgress> loadProgress(Long blockId, Long athleteId) {
+        Optional<TrainingBlock> block = trainingBlockRepository.findByIdAndAthleteId(blockId, athleteId);
+        if (block.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlockProgress(block.get().getBlockLength(), workoutService.getBlockProgress(blockId)));
+    }
+
+    private static BlockComparisonEntryDto toEntry(Long blockId, BlockProgress progress, int weekCount) {
+        Map<Integer, List<WorkoutResponseDto>> byWeek = progress.workouts().stream()
+                .collect(Collectors.groupingBy(WorkoutResponseDto::getWeekNumber));
+        List<ProgressMetricsDto> weeks = new ArrayList<>(weekCount);
+        for (int week = 1; week <= weekCount; week++) {
+            weeks.add(metrics(week, byWeek.getOrDefault(week, List.of())));
+        }
+        return BlockComparisonEntryDto.builder()
+                .blockId(blockId)
+                .status(BlockComparisonEntryDto.Status.COMPLETE)
+                .blockLength(progress.blockLength())
+                .summary(metrics(null, progress.workouts()))
+                .weeks(weeks)
+                .build();
+    }
+
+    private static ProgressMetricsDto metrics(Integer weekNumber, List<WorkoutResponseDto> workouts) {
+        int sets = 0;
+        int reps = 0;
+        int rpeSum = 0;
+        int rpeCount = 0;
+        BigDecimal volume = BigDecimal.ZERO;
+        BigDecimal topSet = null;
+        for (WorkoutResponseDto workout : workouts) {
+            for (WorkoutExerciseResponseDto exercise : workout.getExercises()) {
+                for (ActualSetDto set : exercise.getActualSets()) {
+                    sets++;
+                    if (set.getActualReps() != null) {
+                        reps += set.getActualReps();
+                    }
+                    if (set.getActualRPE() != null) {
+                        rpeSum += set.getActualRPE();
+                        rpeCount++;
+                    }
+                    if (set.getActualWeight() != null) {
+                        if (set.getActualReps() != null) {
+                            volume = volume.add(set.getActualWeight().multiply(BigDecimal.valueOf(set.getActualReps())));
+                        }
+                        if (topSet == null || set.getActualWeight().compareTo(topSet) > 0) {
+                            topSet = set.getActualWeight();
+                        }
+                    }
+                }
+            }
+        }
+        return ProgressMetricsDto.builder()
+                .weekNumber(weekNumber)
+                .workoutsLogged(workouts.size())
+                .totalSets(sets)
+                .totalReps(reps)
+                .totalVolume(volume)
+                .averageRpe(rpeCount > 0
+                        ? BigDecimal.valueOf(rpeSum).divide(BigDecimal.valueOf(rpeCount), 2, RoundingMode.HALF_UP)
+                        : null)
+                .topSetWeight(topSet)
+                .build();
+    }
+
+    private static BlockComparisonEntryDto failed(Long blockId, BlockComparisonEntryDto.Status status, String message) {
+        return BlockComparisonEntryDto.builder()
+                .blockId(blockId)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private record BlockProgress(Integer blockLength, List<WorkoutResponseDto> workouts) {
+        int weekCount() {
+            int logged = workouts.stream().mapToInt(WorkoutResponseDto::getWeekNumber).max().orElse(0);
+            return Math.max(blockLength != null ? blockLength : 0, logged);
+        }
+    }
+}
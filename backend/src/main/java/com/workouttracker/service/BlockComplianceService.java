@@ -0,0 +1,65 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseComplianceDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.repository.WeekRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Prescribed-versus-logged summary of a block, one row per week and lift. The database
+ * aggregates the sets in one query and only the summary rows come back, so the report costs
+ * the same whether the block has a hundred logged sets or ten thousand.
+ * <p>
+ * A set counts against the prescription it was logged for; sets logged without one are not
+ * part of the report. Sets past a prescription's {@code targetSets} count as logged but do not
+ * raise its completion.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BlockComplianceService {
+
+    private final WeekRepository weekRepository;
+    private final TrainingBlockRepository trainingBlockRepository;
+
+    public List<ExerciseComplianceDto> getCompliance(Long blockId) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        List<WeekRepository.ComplianceRow> rows = weekRepository.findComplianceRows(blockId, athleteId);
+        if (rows.isEmpty()) {
+            checkEmptyBlock(blockId, athleteId);
+        }
+        return rows.stream().map(BlockComplianceService::toDto).toList();
+    }
+
+    // No rows: the block is missing or another athlete's, archived (tree only in its file), or prescribes nothing
+    private void checkEmptyBlock(Long blockId, Long athleteId) {
+        TrainingBlock block = trainingBlockRepository.findByIdAndAthleteId(blockId, athleteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + blockId));
+        if (block.getArchivedAt() != null) {
+            throw new IllegalArgumentException("Training block " + blockId + " is archived; restore it to report on it");
+        }
+    }
+
+    private static ExerciseComplianceDto toDto(WeekRepository.ComplianceRow row) {
+        return ExerciseComplianceDto.builder()
+                .weekNumber(row.getWeekNumber())
+                .definitionId(row.getDefinitionId())
+                .exerciseName(row.getExerciseName())
+                .prescribedSets(row.getPrescribedSets())
+                .loggedSets(row.getLoggedSets())
+                .completedSets(row.getCompletedSets())
+                .missedSets(row.getMissedSets())
+                .completionPercent(row.getCompletionPercent())
+                .loadDeviationPercent(row.getLoadDeviationPercent())
+                .rpeDeviation(row.getRpeDeviation())
+                .rpeDrift(row.getRpeDrift())
+                .build();
+    }
+}
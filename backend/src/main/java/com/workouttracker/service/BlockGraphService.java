@@ -0,0 +1,98 @@
+package com.workouttracker.service;
+
+import com.workouttracker.model.ActualSet;
+import com.workouttracker.model.Exercise;
+import com.workouttracker.model.PrescribedSet;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.Week;
+import com.workouttracker.model.WorkoutDay;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.repository.ExerciseRepository;
+import com.workouttracker.repository.PrescribedSetRepository;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.repository.WeekRepository;
+import com.workouttracker.repository.WorkoutDayRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reads for the GraphQL block tree. Every child lookup takes the ids of a whole level of parents
+ * and runs one {@code IN} query, so a query costs one statement per nesting level whatever the
+ * number of blocks, weeks or days it touches. Parents are matched by the foreign key on the
+ * child's lazy reference, which never initializes the parent.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BlockGraphService {
+
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final WeekRepository weekRepository;
+    private final WorkoutDayRepository workoutDayRepository;
+    private final ExerciseRepository exerciseRepository;
+    private final PrescribedSetRepository prescribedSetRepository;
+    private final ActualSetRepository actualSetRepository;
+
+    // Only the roots are scoped to the athlete; every child lookup starts from a root already checked
+
+    public List<TrainingBlock> getBlocks() {
+        return trainingBlockRepository.findByAthleteIdOrderById(AthleteContext.currentAthleteId());
+    }
+
+    public Optional<TrainingBlock> getBlock(Long id) {
+        return trainingBlockRepository.findByIdAndAthleteId(id, AthleteContext.currentAthleteId());
+    }
+
+    public Optional<WorkoutDay> getDay(Long blockId, Integer weekNumber, Integer dayNumber) {
+        return workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber,
+                AthleteContext.currentAthleteId());
+    }
+
+    public Map<Long, List<Week>> getWeeksByBlockIds(Collection<Long> blockIds) {
+        return groupByParent(blockIds, weekRepository.findByBlockIdInOrderByWeekNumberAsc(blockIds),
+                week -> week.getBlock().getId());
+    }
+
+    public Map<Long, List<WorkoutDay>> getDaysByWeekIds(Collection<Long> weekIds) {
+        return groupByParent(weekIds, workoutDayRepository.findByWeekIdInOrderByDayNumberAsc(weekIds),
+                day -> day.getWeek().getId());
+    }
+
+    public Map<Long, List<Exercise>> getExercisesByDayIds(Collection<Long> dayIds) {
+        return groupByParent(dayIds, exerciseRepository.findByDayIdInOrderByOrderInWorkoutAsc(dayIds),
+                exercise -> exercise.getDay().getId());
+    }
+
+    public Map<Long, List<PrescribedSet>> getPrescribedSetsByExerciseIds(Collection<Long> exerciseIds) {
+        return groupByParent(exerciseIds, prescribedSetRepository.findByExerciseIdInOrderBySetNumberAsc(exerciseIds),
+                set -> set.getExercise().getId());
+    }
+
+    public Map<Long, List<ActualSet>> getActualSetsByExerciseIds(Collection<Long> exerciseIds) {
+        return groupByParent(exerciseIds, actualSetRepository.findByExerciseIdInOrderBySetNumberAscIdAsc(exerciseIds),
+                set -> set.getExercise().getId());
+    }
+
+    // Every requested parent gets an entry, so parents without children resolve to an empty list
+    private static <T> Map<Long, List<T>> groupByParent(Collection<Long> parentIds, List<T> children,
+                                                        Function<T, Long> parentId) {
+        Map<Long, List<T>> byParent = new LinkedHashMap<>();
+        for (Long id : parentIds) {
+            byParent.put(id, new ArrayList<>());
+        }
+        for (T child : children) {
+            byParent.computeIfAbsent(parentId.apply(child), id -> new ArrayList<>()).add(child);
+        }
+        return byParent;
+    }
+}
@@ -0,0 +1,114 @@
+package com.workouttracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps a pre-serialized copy of each block's {@code TrainingBlockDto} on its
+ * {@code training_blocks} row so {@code GET /blocks/{id}} can return the stored bytes
+ * without loading or mapping the entity graph.
+ * <p>
+ * Every write marks the snapshot stale in the writing transaction and leaves a
+ * {@code BLOCK_CHANGED} outbox event; {@link SnapshotRebuildListener} rebuilds the block
+ * once the relay delivers it. A periodic sweep catches blocks whose rebuild kept failing
+ * or that predate the feature.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlockSnapshotService {
+    
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final TrainingBlockService trainingBlockService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${workout-tracker.snapshots.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${workout-tracker.snapshots.sweep-batch-size:50}")
+    private int sweepBatchSize;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<byte[]> findFreshSnapshot(Long blockId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return trainingBlockRepository.findFreshSnapshot(blockId, AthleteContext.currentAthleteId())
+                .map(TrainingBlockRepository.SnapshotView::getSnapshot);
+    }
+    
+    /**
+     * Runs synchronously in the publisher's transaction. Marking happens even when the
+     * option is off so snapshots built while it was on can never be served stale later.
+     */
+    @EventListener
+    @Transactional
+    public void markStale(BlockChangedEvent event) {
+        trainingBlockRepository.markSnapshotStale(event.getBlockId());
+    }
+    
+    @Scheduled(fixedDelayString = "${workout-tracker.snapshots.sweep-interval-ms:60000}")
+    public void rebuildStaleSnapshots() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> staleIds = trainingBlockRepository.findStaleSnapshotIds(PageRequest.of(0, sweepBatchSize));
+        // One broken block must not keep the rest of the batch stale; it stays stale for the next sweep
+        for (Long blockId : staleIds) {
+            try {
+                rebuild(blockId);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to rebuild snapshot for block {}: {}", blockId, ex.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Serializes the block as of the version read at the start; if another write bumps the
+     * version meanwhile, the conditional update matches nothing and the snapshot stays stale.
+     * Failures propagate, so the outbox records the cause and retries the delivery.
+     */
+    public void rebuild(Long blockId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<TrainingBlockRepository.SnapshotVersionView> version =
+                    trainingBlockRepository.findSnapshotVersion(blockId);
+            if (version.isEmpty()) {
+                return;
+            }
+            // Goes through the service, as the block's owner, so archived blocks are read from their archive file
+            byte[] snapshot = serialize(AthleteContext.callAs(version.get().getAthleteId(),
+                    () -> trainingBlockService.getTrainingBlockById(blockId)));
+            int updated = trainingBlockRepository.storeSnapshot(blockId, version.get().getVersion(), snapshot);
+            log.debug("Snapshot for block {} {} ({} bytes)", blockId,
+                    updated == 1 ? "rebuilt" : "superseded by a newer write", snapshot.length);
+        });
+    }
+    
+    private byte[] serialize(Object dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize block snapshot", ex);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.workouttracker.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.catalog.ExerciseCatalogIndex;
+import com.workouttracker.dto.CatalogExerciseDto;
+import com.workouttracker.event.ExerciseNamesSavedEvent;
+import com.workouttracker.repository.ExerciseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Exercise name autocomplete. The index starts from the bundled seed catalog, picks up every
+ * distinct name already stored once the application is ready, and then adds names as blocks
+ * that use them are committed. Names only ever enter the catalog; deleting an exercise does
+ * not remove its name.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExerciseCatalogService {
+
+    private final ExerciseRepository exerciseRepository;
+    private final ObjectMapper objectMapper;
+    private final ExerciseCatalogIndex index = new ExerciseCatalogIndex();
+
+    @Value("${workout-tracker.catalog.seed:classpath:catalog/exercises.json}")
+    private Resource seed;
+
+    @Value("${workout-tracker.catalog.max-results:100}")
+    private int maxResults;
+
+    @Value("${workout-tracker.catalog.min-similarity:0.4}")
+    private double minSimilarity;
+
+    @PostConstruct
+    public void loadSeed() {
+        try (InputStream in = seed.getInputStream()) {
+            List<CatalogExerciseDto> exercises = objectMapper.readValue(in, new TypeReference<>() {
+            });
+            int added = index.addAll(exercises.stream()
+                    .map(e -> new ExerciseCatalogIndex.Entry(e.getName(), e.getBodyPart(), e.getEquipment()))
+                    .toList());
+            log.info("Loaded {} exercises into the catalog from {}", added, seed.getDescription());
+        } catch (IOException ex) {
+            log.warn("Could not load exercise catalog seed {}: {}", seed.getDescription(), ex.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStoredNames() {
+        try {
+            int added = addNames(exerciseRepository.findDistinctNames());
+            log.info("Added {} stored exercise names to the catalog", added);
+        } catch (RuntimeException ex) {
+            log.warn("Could not load stored exercise names into the catalog: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExerciseNamesSaved(ExerciseNamesSavedEvent event) {
+        addNames(event.getNames());
+    }
+
+    /**
+     * @param limit optional; capped at {@code workout-tracker.catalog.max-results}
+     */
+    public List<CatalogExerciseDto> search(String query, String bodyPart, String equipment, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        int effectiveLimit = limit != null ? Math.min(limit, maxResults) : maxResults;
+        return index.search(query, bodyPart, equipment, effectiveLimit, minSimilarity).stream()
+                .map(e -> CatalogExerciseDto.builder()
+                        .name(e.name())
+                        .bodyPart(e.bodyPart())
+                        .equipment(e.equipment())
+                        .build())
+                .toList();
+    }
+
+    // Names typed by users carry no body part or equipment, so body part/equipment filters skip them
+    private int addNames(Collection<String> names) {
+        return index.addAll(names.stream()
+                .map(name -> new ExerciseCatalogIndex.Entry(name, null, null))
+                .toList());
+    }
+}
@@ -0,0 +1,127 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseHistoryDto;
+import com.workouttracker.dto.ExerciseHistoryEntryDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.model.ExerciseNames;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.repository.ExerciseDefinitionRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Maps exercise names onto shared {@link ExerciseDefinition}s and reads a lift's logged sets
+ * across every block through {@code idx_actual_sets_definition_history}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ExerciseDefinitionService {
+
+    // Sorts after every real (completed_at, id), so the first page needs no special query
+    private static final LocalDateTime FIRST_PAGE_COMPLETED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final char CURSOR_SEPARATOR = '_';
+
+    private final ExerciseDefinitionRepository exerciseDefinitionRepository;
+    private final ActualSetRepository actualSetRepository;
+
+    @Value("${workout-tracker.history.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${workout-tracker.history.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Returns the definition for {@code name}, creating it with {@code category} if no name with
+     * the same normalized key exists yet. An existing definition keeps its name and category.
+     */
+    public ExerciseDefinition resolve(String name, ExerciseCategory category) {
+        String normalizedName = ExerciseNames.normalize(name);
+        if (normalizedName.isEmpty()) {
+            throw new IllegalArgumentException("Exercise name must contain letters or digits: " + name);
+        }
+        return exerciseDefinitionRepository.findByNormalizedName(normalizedName)
+                .orElseGet(() -> {
+                    exerciseDefinitionRepository.insertIfAbsent(name.trim(), normalizedName, category.name());
+                    return exerciseDefinitionRepository.findByNormalizedName(normalizedName)
+                            .orElseThrow(() -> new IllegalStateException(
+                                    "Exercise definition " + normalizedName + " was not created"));
+                });
+    }
+
+    /**
+     * One page of logged sets for a definition, newest first. Sets of archived blocks are not
+     * included.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     * @param limit  optional; capped at {@code workout-tracker.history.max-page-size}
+     */
+    @Transactional(readOnly = true)
+    public ExerciseHistoryDto getHistory(Long definitionId, String cursor, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        ExerciseDefinition definition = exerciseDefinitionRepository.findById(definitionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exercise definition not found with id: " + definitionId));
+        int pageSize = limit != null ? Math.min(limit, maxPageSize) : defaultPageSize;
+
+        LocalDateTime beforeCompletedAt = FIRST_PAGE_COMPLETED_AT;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            try {
+                beforeCompletedAt = LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0)));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+            }
+        }
+
+        // One extra row tells whether another page follows without a count query
+        List<ActualSetRepository.HistoryView> rows = actualSetRepository.findHistoryPage(
+                AthleteContext.currentAthleteId(), definitionId, beforeCompletedAt, beforeId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ExerciseHistoryEntryDto> entries = rows.stream()
+                .limit(pageSize)
+                .map(ExerciseDefinitionService::toEntry)
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            ExerciseHistoryEntryDto last = entries.get(entries.size() - 1);
+            nextCursor = last.getCompletedAt().toString() + CURSOR_SEPARATOR + last.getActualSetId();
+        }
+        return ExerciseHistoryDto.builder()
+                .definitionId(definition.getId())
+                .name(definition.getName())
+                .category(definition.getCategory())
+                .entries(entries)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static ExerciseHistoryEntryDto toEntry(ActualSetRepository.HistoryView row) {
+        return ExerciseHistoryEntryDto.builder()
+                .actualSetId(row.getActualSetId())
+                .blockId(row.getBlockId())
+                .weekNumber(row.getWeekNumber())
+                .dayNumber(row.getDayNumber())
+                .exerciseId(row.getExerciseId())
+                .exerciseName(row.getExerciseName())
+                .setNumber(row.getSetNumber())
+                .actualWeight(row.getActualWeight())
+                .actualReps(row.getActualReps())
+                .actualRpe(row.getActualRpe())
+                .completedAt(row.getCompletedAt())
+                .build();
+    }
+}
@@ -1,21 +1,38 @@
 package com.workouttracker.service;
 
+import com.workouttracker.event.BlockChangedEvent;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.repository.ExerciseRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ExerciseService {
 
     private final ExerciseRepository exerciseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockArchiveService blockArchiveService;
+    private final PersonalRecordService personalRecordService;
 
     public void deleteExercise(Long id) {
         var exercise = exerciseRepository.findById(id)
+                .filter(ActualSetService::inOwnLiveBlock)
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise not found with id: " + id));
+        Long blockId = exercise.getDay().getWeek().getBlock().getId();
+        blockArchiveService.lockForSetWrite(blockId);
+        // Captured before the cascade removes the sets, so records they hold move to the next best set
+        List<PersonalRecordService.LoggedSet> removedSets = exercise.getActualSets().stream()
+                .map(PersonalRecordService.LoggedSet::of)
+                .collect(Collectors.toList());
         exerciseRepository.delete(exercise); // load then delete so cascade/orphanRemoval runs
+        personalRecordService.removeSets(removedSets);
+        eventPublisher.publishEvent(new BlockChangedEvent(blockId));
     }
 }
@@ -0,0 +1,102 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.FeedbackMatchDto;
+import com.workouttracker.dto.FeedbackSearchDto;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Full-text search over the feedback notes of the current athlete's logged sets. Queries use
+ * web search syntax ({@code knee pain}, {@code "felt heavy"}, {@code elbow -warmup}) against
+ * the generated {@code feedback_tsv} column, so only sets whose notes contain the words are
+ * read, however long the history. Matches are ranked with {@code ts_rank} and paged by keyset
+ * on (rank, id), so a page costs the same wherever it starts.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class FeedbackSearchService {
+
+    private static final float FIRST_PAGE_RANK = Float.MAX_VALUE;
+    private static final char CURSOR_SEPARATOR = '_';
+
+    private final ActualSetRepository actualSetRepository;
+
+    @Value("${workout-tracker.search.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${workout-tracker.search.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first one
+     */
+    public FeedbackSearchDto search(String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        int pageSize = limit != null ? Math.min(limit, maxPageSize) : defaultPageSize;
+
+        float beforeRank = FIRST_PAGE_RANK;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            try {
+                beforeRank = Float.parseFloat(cursor.substring(0, Math.max(separator, 0)));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+        }
+
+        // One extra row tells whether another page follows without a count query
+        List<ActualSetRepository.FeedbackMatchView> rows = actualSetRepository.searchFeedback(
+                AthleteContext.currentAthleteId(), query.trim(), beforeRank, beforeId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<FeedbackMatchDto> matches = rows.stream()
+                .limit(pageSize)
+                .map(FeedbackSearchService::toMatch)
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            FeedbackMatchDto last = matches.get(matches.size() - 1);
+            // Float.toString round-trips exactly, so the next page starts right after this row
+            nextCursor = Float.toString(last.getRank()) + CURSOR_SEPARATOR + last.getActualSetId();
+        }
+        return FeedbackSearchDto.builder()
+                .query(query.trim())
+                .matches(matches)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static FeedbackMatchDto toMatch(ActualSetRepository.FeedbackMatchView row) {
+        return FeedbackMatchDto.builder()
+                .actualSetId(row.getActualSetId())
+                .blockId(row.getBlockId())
+                .weekNumber(row.getWeekNumber())
+                .dayNumber(row.getDayNumber())
+                .dayName(row.getDayName())
+                .exerciseId(row.getExerciseId())
+                .exerciseName(row.getExerciseName())
+                .setNumber(row.getSetNumber())
+                .actualWeight(row.getActualWeight())
+                .actualReps(row.getActualReps())
+                .actualRpe(row.getActualRpe())
+                .feedback(row.getFeedback())
+                .highlight(row.getHighlight())
+                .rank(row.getRank())
+                .completedAt(row.getCompletedAt())
+                .build();
+    }
+}
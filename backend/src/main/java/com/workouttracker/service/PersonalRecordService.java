@@ -0,0 +1,423 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseRecordsDto;
+import com.workouttracker.dto.PersonalRecordDto;
+import com.workouttracker.model.ActualSet;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.model.ExerciseNames;
+import com.workouttracker.records.PersonalRecordIndex;
+import com.workouttracker.records.PersonalRecordIndex.RepRecord;
+import com.workouttracker.repository.ExerciseDefinitionRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@code personal_records} and its in-memory {@link PersonalRecordIndex} in step with
+ * logged sets, so checking a set against its exercise's history is a map lookup instead of a
+ * scan of {@code actual_sets}. Records are kept per exercise definition, the same identity as
+ * an exercise's history, so every spelling of a lift shares one set of records.
+ * <p>
+ * Records belong to an athlete and each athlete has their own index, loaded on first use. Only
+ * the {@code cached-athletes} most recently used indexes are kept; an evicted one is simply
+ * read back from the table, so memory follows active athletes rather than all of them.
+ * <p>
+ * The table is written inside the caller's transaction with statements that can only raise a
+ * record, or replace one still held by the set being removed. The index follows after commit.
+ * Removing a set that holds a record re-queries that one definition and rep count; removing any
+ * other set costs nothing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PersonalRecordService {
+
+    /** The record-relevant part of an actual set, captured before the entity is changed. */
+    public record LoggedSet(Long athleteId, Long definitionId, String exerciseName, Long id, Integer reps,
+                            BigDecimal weight, LocalDateTime completedAt) {
+
+        public static LoggedSet of(ActualSet set) {
+            return new LoggedSet(set.getAthleteId(), set.getDefinitionId(), set.getExercise().getName(), set.getId(),
+                    set.getActualReps(), set.getActualWeight(), set.getCompletedAt());
+        }
+
+        // Bodyweight sets and sets without reps cannot hold a weight record
+        boolean counts() {
+            return definitionId != null && exerciseName != null && !exerciseName.isBlank() && reps != null && reps > 0
+                    && weight != null && weight.signum() > 0;
+        }
+
+        Bucket bucket() {
+            return new Bucket(athleteId, definitionId, reps);
+        }
+    }
+
+    private record Bucket(Long athleteId, Long definitionId, int reps) {
+    }
+
+    /** One athlete's index; readers wait for the load, committed changes are applied at any time. */
+    private static final class AthleteRecords {
+        private final PersonalRecordIndex index = new PersonalRecordIndex();
+        private volatile boolean loaded;
+    }
+
+    private static final String UPSERT = "INSERT INTO personal_records (athlete_id, definition_id, exercise_name, reps, " +
+            "weight, estimated_one_rep_max, actual_set_id, achieved_at) " +
+            "VALUES (:athleteId, :definitionId, :name, :reps, :weight, :estimate, :setId, :achievedAt) " +
+            "ON CONFLICT (athlete_id, definition_id, reps) DO UPDATE SET exercise_name = EXCLUDED.exercise_name, " +
+            "weight = EXCLUDED.weight, estimated_one_rep_max = EXCLUDED.estimated_one_rep_max, " +
+            "actual_set_id = EXCLUDED.actual_set_id, achieved_at = EXCLUDED.achieved_at " +
+            "WHERE personal_records.weight < EXCLUDED.weight";
+
+    // For sets that never pass through the index
+    private static final String RECORD_BLOCK = PersonalRecordSql.upsertBestSets("""
+              JOIN workout_days d ON d.id = e.day_id
+              JOIN weeks w ON w.id = d.week_id
+            """, "w.block_id = :blockId AND a.athlete_id = :athleteId");
+
+    private static final String SETS_OF_BLOCK = "SELECT a.id FROM actual_sets a " +
+            "JOIN exercises e ON e.id = a.exercise_id " +
+            "JOIN workout_days d ON d.id = e.day_id " +
+            "JOIN weeks w ON w.id = d.week_id " +
+            "WHERE w.block_id = :blockId AND a.athlete_id = :athleteId";
+
+    // Refills dropped records from the sets that are still live
+    private static final String REFILL = PersonalRecordSql.upsertBestSets("""
+              JOIN workout_days d ON d.id = e.day_id
+              JOIN weeks w ON w.id = d.week_id
+              JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL
+            """, "a.athlete_id = :athleteId AND (a.definition_id, a.actual_reps) IN (:buckets)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ExerciseDefinitionRepository exerciseDefinitionRepository;
+
+    @Value("${workout-tracker.records.cached-athletes:1000}")
+    private int cachedAthletes;
+
+    // Access-ordered, so the least recently used athlete is evicted first
+    private final Map<Long, AthleteRecords> athletes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, AthleteRecords> eldest) {
+            return size() > cachedAthletes;
+        }
+    };
+
+    /**
+     * Records of the current athlete.
+     *
+     * @param exerciseName optional; matched to its definition like a new exercise's name, so
+     *                     case, punctuation and a plural "s" are ignored
+     */
+    public List<ExerciseRecordsDto> getRecords(String exerciseName) {
+        PersonalRecordIndex index = indexFor(AthleteContext.currentAthleteId());
+        Collection<Long> definitionIds = exerciseName != null && !exerciseName.isBlank()
+                ? exerciseDefinitionRepository.findByNormalizedName(ExerciseNames.normalize(exerciseName))
+                        .map(ExerciseDefinition::getId)
+                        .map(List::of)
+                        .orElse(List.of())
+                : index.definitionIds();
+        return definitionIds.stream()
+                .map(definitionId -> {
+                    List<RepRecord> repRecords = index.repRecords(definitionId);
+                    if (repRecords.isEmpty()) {
+                        return null;
+                    }
+                    return ExerciseRecordsDto.builder()
+                            .exerciseName(repRecords.get(0).exerciseName())
+                            .bestEstimatedOneRepMax(index.bestEstimate(definitionId)
+                                    .map(record -> toDto(PersonalRecordDto.Type.ESTIMATED_ONE_REP_MAX, record, null))
+                                    .orElse(null))
+                            .repMaxes(repRecords.stream()
+                                    .map(record -> toDto(PersonalRecordDto.Type.REP_MAX, record, null))
+                                    .collect(Collectors.toList()))
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ExerciseRecordsDto::getExerciseName, String.CASE_INSENSITIVE_ORDER))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records newly saved sets and returns the records they set. Within one call only the heaviest
+     * set per exercise and rep count (the earliest on ties) can set a record, and at most one
+     * estimated one-rep max record is reported per exercise.
+     */
+    public List<PersonalRecordDto> recordSets(List<LoggedSet> sets) {
+        Map<Bucket, LoggedSet> heaviest = new LinkedHashMap<>();
+        for (LoggedSet set : sets) {
+            if (set.counts()) {
+                heaviest.merge(set.bucket(), set, (a, b) -> b.weight().compareTo(a.weight()) > 0 ? b : a);
+            }
+        }
+        if (heaviest.isEmpty()) {
+            return List.of();
+        }
+        List<PersonalRecordDto> records = new ArrayList<>();
+        Map<Bucket, PersonalRecordDto> estimates = new LinkedHashMap<>();
+        heaviest.forEach((bucket, set) -> {
+            PersonalRecordIndex index = indexFor(bucket.athleteId());
+            Optional<RepRecord> previous = index.get(bucket.definitionId(), bucket.reps());
+            if (previous.isPresent() && set.weight().compareTo(previous.get().weight()) <= 0) {
+                return;
+            }
+            RepRecord record = toRecord(set);
+            BigDecimal bestEstimate = index.bestEstimate(bucket.definitionId()).map(RepRecord::estimatedOneRepMax).orElse(null);
+            jdbcTemplate.update(UPSERT, params(bucket, record));
+            afterCommit(() -> cached(bucket.athleteId()).ifPresent(cached -> cached.offer(bucket.definitionId(), record)));
+            records.add(toDto(PersonalRecordDto.Type.REP_MAX, record, previous.map(RepRecord::weight).orElse(null)));
+
+            if (record.estimatedOneRepMax() != null
+                    && (bestEstimate == null || record.estimatedOneRepMax().compareTo(bestEstimate) > 0)) {
+                estimates.merge(new Bucket(bucket.athleteId(), bucket.definitionId(), 0),
+                        toDto(PersonalRecordDto.Type.ESTIMATED_ONE_REP_MAX, record, bestEstimate),
+                        (a, b) -> b.getEstimatedOneRepMax().compareTo(a.getEstimatedOneRepMax()) > 0 ? b : a);
+            }
+        });
+        records.addAll(estimates.values());
+        return records;
+    }
+
+    /**
+     * Raises records from every set of a block written in bulk (a restored backup), with one
+     * set-based upsert instead of a lookup per set. Nothing is reported, and the athlete's cached
+     * index is dropped after commit so it reloads with the new records.
+     *
+     * @return the records inserted or raised
+     */
+    public int recordBlockSets(Long athleteId, Long blockId) {
+        int raised = jdbcTemplate.update(RECORD_BLOCK, new MapSqlParameterSource()
+                .addValue("athleteId", athleteId)
+                .addValue("blockId", blockId));
+        if (raised > 0) {
+            evictAfterCommit(athleteId);
+        }
+        return raised;
+    }
+
+    /**
+     * Call after marking a block deleted: records held by its sets are dropped and refilled from
+     * the athlete's remaining live sets, and the cached index is dropped after commit.
+     */
+    public void removeBlockSets(Long athleteId, Long blockId) {
+        replaceDropped(athleteId, "actual_set_id IN (" + SETS_OF_BLOCK + ")", new MapSqlParameterSource()
+                .addValue("athleteId", athleteId)
+                .addValue("blockId", blockId));
+    }
+
+    /**
+     * Like {@link #removeSets}, for sets deleted in bulk by SQL whose names and weights are gone:
+     * any record still held by one of them is dropped and refilled from the remaining live sets.
+     */
+    public void removeDeletedSets(Long athleteId, Collection<Long> setIds) {
+        if (setIds.isEmpty()) {
+            return;
+        }
+        replaceDropped(athleteId, "actual_set_id IN (:setIds)", new MapSqlParameterSource()
+                .addValue("athleteId", athleteId)
+                .addValue("setIds", setIds));
+    }
+
+    private void replaceDropped(Long athleteId, String holders, MapSqlParameterSource params) {
+        List<Object[]> buckets = jdbcTemplate.query("DELETE FROM personal_records WHERE athlete_id = :athleteId " +
+                        "AND " + holders + " RETURNING definition_id, reps", params,
+                (rs, rowNum) -> new Object[]{rs.getLong("definition_id"), rs.getInt("reps")});
+        if (buckets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(REFILL, new MapSqlParameterSource()
+                .addValue("athleteId", athleteId)
+                .addValue("buckets", buckets));
+        evictAfterCommit(athleteId);
+    }
+
+    /** Call with every set deleted in the transaction, before or after the delete is flushed. */
+    public void removeSets(List<LoggedSet> sets) {
+        Set<Long> removedIds = sets.stream().map(LoggedSet::id).collect(Collectors.toSet());
+        Set<Bucket> buckets = sets.stream()
+                .filter(LoggedSet::counts)
+                .map(LoggedSet::bucket)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (Bucket bucket : buckets) {
+            PersonalRecordIndex index = indexFor(bucket.athleteId());
+            index.get(bucket.definitionId(), bucket.reps())
+                    .filter(holder -> removedIds.contains(holder.actualSetId()))
+                    .ifPresent(holder -> replaceHolder(bucket, holder, findBestRemaining(bucket, removedIds)));
+        }
+    }
+
+    /** Updates never report records: an edited set corrects history rather than setting a new best. */
+    public void updateSet(LoggedSet before, LoggedSet after) {
+        boolean sameBucket = before.counts() && after.counts() && before.bucket().equals(after.bucket());
+        if (sameBucket && before.weight().compareTo(after.weight()) == 0) {
+            return;
+        }
+        if (before.counts()) {
+            Bucket bucket = before.bucket();
+            PersonalRecordIndex index = indexFor(bucket.athleteId());
+            Optional<RepRecord> holder = index.get(bucket.definitionId(), bucket.reps())
+                    .filter(record -> record.actualSetId().equals(before.id()));
+            if (holder.isPresent()) {
+                Optional<RepRecord> replacement = findBestRemaining(bucket, Set.of(before.id()));
+                if (sameBucket && (replacement.isEmpty()
+                        || after.weight().compareTo(replacement.get().weight()) > 0)) {
+                    replacement = Optional.of(toRecord(after));
+                }
+                replaceHolder(bucket, holder.get(), replacement);
+                if (sameBucket) {
+                    return;
+                }
+            }
+        }
+        recordSets(List.of(after));
+    }
+
+    private Optional<RepRecord> findBestRemaining(Bucket bucket, Set<Long> excludedIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("athleteId", bucket.athleteId())
+                .addValue("definitionId", bucket.definitionId())
+                .addValue("reps", bucket.reps())
+                .addValue("excluded", excludedIds);
+        List<RepRecord> best = jdbcTemplate.query(
+                "SELECT a.id, a.actual_weight, a.completed_at, e.name FROM actual_sets a " +
+                        "JOIN exercises e ON e.id = a.exercise_id " +
+                        "JOIN workout_days d ON d.id = e.day_id " +
+                        "JOIN weeks w ON w.id = d.week_id " +
+                        "JOIN training_blocks b ON b.id = w.block_id AND b.deleted_at IS NULL " +
+                        "WHERE a.athlete_id = :athleteId AND a.definition_id = :definitionId " +
+                        "AND a.actual_reps = :reps AND a.actual_weight > 0 " +
+                        "AND a.id NOT IN (:excluded) " +
+                        "ORDER BY a.actual_weight DESC, a.completed_at, a.id LIMIT 1",
+                params,
+                (rs, rowNum) -> toRecord(new LoggedSet(bucket.athleteId(), bucket.definitionId(), rs.getString("name"), rs.getLong("id"),
+                        bucket.reps(), rs.getBigDecimal("actual_weight"),
+                        rs.getTimestamp("completed_at").toLocalDateTime())));
+        return best.stream().findFirst();
+    }
+
+    // Guarded by the holder id so a heavier set committed by another transaction is never overwritten
+    private void replaceHolder(Bucket bucket, RepRecord holder, Optional<RepRecord> replacement) {
+        if (replacement.isPresent()) {
+            jdbcTemplate.update("UPDATE personal_records SET exercise_name = :name, weight = :weight, " +
+                            "estimated_one_rep_max = :estimate, actual_set_id = :setId, achieved_at = :achievedAt " +
+                            "WHERE athlete_id = :athleteId AND definition_id = :definitionId AND reps = :reps " +
+                            "AND actual_set_id = :holderId",
+                    params(bucket, replacement.get()).addValue("holderId", holder.actualSetId()));
+        } else {
+            jdbcTemplate.update("DELETE FROM personal_records WHERE athlete_id = :athleteId " +
+                            "AND definition_id = :definitionId AND reps = :reps AND actual_set_id = :holderId",
+                    new MapSqlParameterSource()
+                            .addValue("athleteId", bucket.athleteId())
+                            .addValue("definitionId", bucket.definitionId())
+                            .addValue("reps", bucket.reps())
+                            .addValue("holderId", holder.actualSetId()));
+        }
+        afterCommit(() -> cached(bucket.athleteId()).ifPresent(cached ->
+                cached.replace(bucket.definitionId(), bucket.reps(), holder.actualSetId(), replacement.orElse(null))));
+    }
+
+    /** The athlete's index, loaded from the primary key range of {@code personal_records} on first use. */
+    private PersonalRecordIndex indexFor(Long athleteId) {
+        AthleteRecords records;
+        synchronized (athletes) {
+            records = athletes.computeIfAbsent(athleteId, id -> new AthleteRecords());
+        }
+        if (records.loaded) {
+            return records.index;
+        }
+        synchronized (records) {
+            if (!records.loaded) {
+                jdbcTemplate.getJdbcTemplate().query("SELECT definition_id, exercise_name, reps, weight, " +
+                        "estimated_one_rep_max, actual_set_id, achieved_at FROM personal_records " +
+                        "WHERE athlete_id = ?", rs -> {
+                    records.index.offer(rs.getLong("definition_id"), new RepRecord(rs.getString("exercise_name"),
+                            rs.getInt("reps"), rs.getBigDecimal("weight"), rs.getBigDecimal("estimated_one_rep_max"),
+                            rs.getLong("actual_set_id"), rs.getTimestamp("achieved_at").toLocalDateTime()));
+                }, athleteId);
+                records.loaded = true;
+                log.debug("Loaded personal records of athlete {} for {} exercises", athleteId,
+                        records.index.definitionIds().size());
+            }
+        }
+        return records.index;
+    }
+
+    // Committed changes go to the athlete's index if it is cached, even mid-load; an evicted one reloads them
+    private Optional<PersonalRecordIndex> cached(Long athleteId) {
+        synchronized (athletes) {
+            return Optional.ofNullable(athletes.get(athleteId)).map(records -> records.index);
+        }
+    }
+
+    private static RepRecord toRecord(LoggedSet set) {
+        return new RepRecord(set.exerciseName().trim(), set.reps(), set.weight(),
+                PersonalRecordIndex.estimateOneRepMax(set.weight(), set.reps()), set.id(), set.completedAt());
+    }
+
+    private static MapSqlParameterSource params(Bucket bucket, RepRecord record) {
+        return new MapSqlParameterSource()
+                .addValue("athleteId", bucket.athleteId())
+                .addValue("definitionId", bucket.definitionId())
+                .addValue("name", record.exerciseName())
+                .addValue("reps", record.reps())
+                .addValue("weight", record.weight())
+                .addValue("estimate", record.estimatedOneRepMax())
+                .addValue("setId", record.actualSetId())
+                .addValue("achievedAt", record.achievedAt() != null ? Timestamp.valueOf(record.achievedAt()) : null);
+    }
+
+    private static PersonalRecordDto toDto(PersonalRecordDto.Type type, RepRecord record, BigDecimal previousBest) {
+        return PersonalRecordDto.builder()
+                .type(type)
+                .exerciseName(record.exerciseName())
+                .reps(record.reps())
+                .weight(record.weight())
+                .estimatedOneRepMax(record.estimatedOneRepMax())
+                .previousBest(previousBest)
+                .actualSetId(record.actualSetId())
+                .achievedAt(record.achievedAt())
+                .build();
+    }
+
+    // For changes made in bulk, which are cheaper to reload than to replay into the index
+    private void evictAfterCommit(Long athleteId) {
+        afterCommit(() -> {
+            synchronized (athletes) {
+                athletes.remove(athleteId);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.workouttracker.service;
+
+/**
+ * The set-based personal-record upsert shared by every statement that raises records from
+ * stored sets. It is the 016 backfill generalized over athletes and keyed like changeset 030:
+ * the heaviest set per athlete, exercise definition and rep count wins, earliest first on ties, and the estimate mirrors
+ * {@code PersonalRecordIndex.estimateOneRepMax} (Epley up to 12 reps, a single is its own max).
+ * Sets without weight or reps and exercises with a blank name never hold a record.
+ */
+public final class PersonalRecordSql {
+
+    private PersonalRecordSql() {
+    }
+
+    /**
+     * @param joins joins added to {@code actual_sets a JOIN exercises e}, may be empty
+     * @param where the caller's filter on those tables, ANDed with the shared conditions
+     */
+    public static String upsertBestSets(String joins, String where) {
+        return """
+                INSERT INTO personal_records (athlete_id, definition_id, exercise_name, reps, weight,
+                                              estimated_one_rep_max, actual_set_id, achieved_at)
+                SELECT DISTINCT ON (a.athlete_id, a.definition_id, a.actual_reps)
+                       a.athlete_id, a.definition_id, trim(e.name), a.actual_reps, a.actual_weight,
+                       CASE WHEN a.actual_reps = 1 THEN a.actual_weight
+                            WHEN a.actual_reps <= 12 THEN round(a.actual_weight * (30 + a.actual_reps) / 30, 2)
+                       END,
+                       a.id, a.completed_at
+                  FROM actual_sets a
+                  JOIN exercises e ON e.id = a.exercise_id
+                %s
+                 WHERE (%s) AND a.actual_weight > 0 AND a.actual_reps > 0 AND trim(e.name) <> ''
+                 ORDER BY a.athlete_id, a.definition_id, a.actual_reps, a.actual_weight DESC, a.completed_at, a.id
+                ON CONFLICT (athlete_id, definition_id, reps) DO UPDATE SET exercise_name = EXCLUDED.exercise_name,
+                       weight = EXCLUDED.weight, estimated_one_rep_max = EXCLUDED.estimated_one_rep_max,
+                       actual_set_id = EXCLUDED.actual_set_id, achieved_at = EXCLUDED.achieved_at
+                 WHERE personal_records.weight < EXCLUDED.weight
+                """.formatted(joins.strip(), where);
+    }
+}
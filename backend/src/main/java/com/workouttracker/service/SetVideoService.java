@@ -0,0 +1,339 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.CreateVideoUploadRequest;
+import com.workouttracker.dto.SetVideoDto;
+import com.workouttracker.dto.VideoUploadDto;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.exception.CapacityExceededException;
+import com.workouttracker.exception.ConflictException;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.tenancy.AthleteContext;
+import com.workouttracker.video.VideoStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Resumable uploads and lookups of set videos. A client declares the size and sha256 of a
+ * video for one of its logged sets, sends it in chunks at increasing {@code Upload-Offset}s, and
+ * may ask for the current offset after a dropped connection. When the last byte arrives the
+ * file is verified and moved into the {@link VideoStore}, and the set is linked to it.
+ * <p>
+ * Chunks are written without a database connection or transaction; at most
+ * {@code max-concurrent-uploads} chunks (and final checksums) run at once across all athletes,
+ * and each athlete keeps at most {@code max-open-uploads} uploads open.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SetVideoService {
+
+    private static final String OWN_LIVE_SET_BLOCK = """
+            SELECT w.block_id
+              FROM actual_sets a
+              JOIN exercises e ON e.id = a.exercise_id
+              JOIN workout_days d ON d.id = e.day_id
+              JOIN weeks w ON w.id = d.week_id
+              JOIN training_blocks b ON b.id = w.block_id
+             WHERE a.id = ? AND a.athlete_id = ? AND b.deleted_at IS NULL
+            """;
+
+    private static final String UPLOAD = "SELECT id, actual_set_id, size_bytes, sha256, content_type, created_at " +
+            "FROM video_uploads WHERE id = ? AND actual_set_id = ? AND athlete_id = ?";
+
+    private static final String LINK_VIDEO = """
+            INSERT INTO set_videos (actual_set_id, athlete_id, block_id, sha256, size_bytes, content_type, uploaded_at)
+            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (actual_set_id) DO UPDATE SET block_id = EXCLUDED.block_id, sha256 = EXCLUDED.sha256,
+                   size_bytes = EXCLUDED.size_bytes, content_type = EXCLUDED.content_type,
+                   uploaded_at = EXCLUDED.uploaded_at
+            """;
+
+    // Sets of an archived block are out of actual_sets until it is restored, and keep their video meanwhile
+    private static final String VIDEO = """
+            SELECT v.actual_set_id, v.sha256, v.size_bytes, v.content_type, v.uploaded_at
+              FROM set_videos v
+              JOIN training_blocks b ON b.id = v.block_id
+             WHERE v.actual_set_id = ? AND v.athlete_id = ? AND b.deleted_at IS NULL
+               AND (b.archived_at IS NOT NULL OR EXISTS (SELECT 1 FROM actual_sets a WHERE a.id = v.actual_set_id))
+            """;
+
+    // Walked in key ranges, so no single statement scans and locks the whole table
+    private static final String NEXT_VIDEO_CHUNK = "SELECT max(actual_set_id) FROM (SELECT actual_set_id " +
+            "FROM set_videos WHERE actual_set_id > ? ORDER BY actual_set_id LIMIT ?) chunk";
+
+    private static final String DELETE_ORPHANED_VIDEOS = """
+            DELETE FROM set_videos v
+             WHERE v.actual_set_id > ? AND v.actual_set_id <= ?
+               AND NOT EXISTS (SELECT 1 FROM actual_sets a WHERE a.id = v.actual_set_id)
+               AND NOT EXISTS (SELECT 1 FROM training_blocks b
+                                WHERE b.id = v.block_id AND b.archived_at IS NOT NULL AND b.deleted_at IS NULL)
+            """;
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VideoStore videoStore;
+
+    @Value("${workout-tracker.videos.max-size-bytes:1073741824}")
+    private long maxSizeBytes;
+
+    @Value("${workout-tracker.videos.max-concurrent-uploads:4}")
+    private int maxConcurrentUploads;
+
+    @Value("${workout-tracker.videos.max-open-uploads:3}")
+    private int maxOpenUploads;
+
+    @Value("${workout-tracker.videos.upload-expiry-hours:24}")
+    private int uploadExpiryHours;
+
+    @Value("${workout-tracker.videos.orphan-grace-hours:1}")
+    private int orphanGraceHours;
+
+    private Semaphore uploadSlots;
+
+    private record Upload(String id, Long actualSetId, long sizeBytes, String sha256, String contentType,
+                          LocalDateTime createdAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        uploadSlots = new Semaphore(maxConcurrentUploads);
+    }
+
+    public VideoUploadDto createUpload(Long actualSetId, CreateVideoUploadRequest request) {
+        if (request.getSizeBytes() > maxSizeBytes) {
+            throw new IllegalArgumentException("Videos are limited to " + maxSizeBytes + " bytes");
+        }
+        Long athleteId = AthleteContext.currentAthleteId();
+        blockIdOf(actualSetId, athleteId);
+        Integer open = jdbcTemplate.queryForObject("SELECT count(*) FROM video_uploads WHERE athlete_id = ?",
+                Integer.class, athleteId);
+        if (open != null && open >= maxOpenUploads) {
+            throw new ConflictException("At most " + maxOpenUploads + " video uploads can be open at once; " +
+                    "finish or cancel one first");
+        }
+        Upload upload = new Upload(UUID.randomUUID().toString(), actualSetId, request.getSizeBytes(),
+                request.getSha256().toLowerCase(Locale.ROOT), request.getContentType(), LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO video_uploads (id, athlete_id, actual_set_id, size_bytes, sha256, content_type, " +
+                        "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", upload.id(), athleteId, actualSetId,
+                upload.sizeBytes(), upload.sha256(), upload.contentType(), upload.createdAt(), upload.createdAt());
+        return toDto(upload, 0, false);
+    }
+
+    public VideoUploadDto getUpload(Long actualSetId, String uploadId) {
+        Upload upload = findUpload(actualSetId, uploadId, AthleteContext.currentAthleteId());
+        return toDto(upload, videoStore.received(uploadId), false);
+    }
+
+    /**
+     * Writes one chunk. {@code offset} must equal the bytes received so far; a stale offset is
+     * a 409 and the client should ask for the current one. The chunk that completes the upload
+     * also verifies the checksum and links the video to the set. {@code length} is -1 for a
+     * chunked body, which is read up to the rest of the declared size.
+     */
+    public VideoUploadDto appendChunk(Long actualSetId, String uploadId, long offset, long length, InputStream body) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        Upload upload = findUpload(actualSetId, uploadId, athleteId);
+        if (offset < 0 || offset > upload.sizeBytes() || (length >= 0 && offset + length > upload.sizeBytes())) {
+            throw new IllegalArgumentException("Chunk of " + length + " bytes at offset " + offset +
+                    " runs past the declared size of " + upload.sizeBytes());
+        }
+        if (!uploadSlots.tryAcquire()) {
+            throw new CapacityExceededException("All " + maxConcurrentUploads + " video upload slots are busy", 1);
+        }
+        long received;
+        try {
+            // A chunked body has no Content-Length: take what arrives, up to the rest of the declared size
+            received = videoStore.append(uploadId, offset, body, length >= 0 ? length : upload.sizeBytes() - offset);
+            if (length < 0 && received == upload.sizeBytes() && hasMore(body)) {
+                throw new IllegalArgumentException("Chunk at offset " + offset + " runs past the declared size of " +
+                        upload.sizeBytes());
+            }
+            if (received == upload.sizeBytes()) {
+                publish(upload);
+            }
+        } finally {
+            uploadSlots.release();
+        }
+        if (received < upload.sizeBytes()) {
+            jdbcTemplate.update("UPDATE video_uploads SET updated_at = ? WHERE id = ?", LocalDateTime.now(), uploadId);
+            return toDto(upload, received, false);
+        }
+        link(upload, athleteId);
+        return toDto(upload, received, true);
+    }
+
+    public void cancelUpload(Long actualSetId, String uploadId) {
+        findUpload(actualSetId, uploadId, AthleteContext.currentAthleteId());
+        jdbcTemplate.update("DELETE FROM video_uploads WHERE id = ?", uploadId);
+        videoStore.deletePart(uploadId);
+    }
+
+    public SetVideoDto getVideo(Long actualSetId) {
+        return jdbcTemplate.query(VIDEO, SetVideoService::mapVideo, actualSetId, AthleteContext.currentAthleteId())
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Video not found for actual set: " + actualSetId));
+    }
+
+    public Path videoFile(SetVideoDto video) {
+        Path file = videoStore.objectFile(video.getSha256());
+        if (!Files.isRegularFile(file)) {
+            log.error("Video file {} of actual set {} is missing", file, video.getActualSetId());
+            throw new ResourceNotFoundException("Video not found for actual set: " + video.getActualSetId());
+        }
+        return file;
+    }
+
+    /** Unlinks the set's video; the file goes with the next sweep once no other set uses it. */
+    public void deleteVideo(Long actualSetId) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> blockIds = jdbcTemplate.queryForList("DELETE FROM set_videos WHERE actual_set_id = ? " +
+                    "AND athlete_id = ? RETURNING block_id", Long.class, actualSetId, athleteId);
+            if (blockIds.isEmpty()) {
+                throw new ResourceNotFoundException("Video not found for actual set: " + actualSetId);
+            }
+            jdbcTemplate.update("UPDATE actual_sets SET video_recorded = FALSE WHERE id = ? AND athlete_id = ?",
+                    actualSetId, athleteId);
+            eventPublisher.publishEvent(new BlockChangedEvent(blockIds.get(0)));
+        });
+    }
+
+    /**
+     * Drops uploads idle for {@code upload-expiry-hours}, links of sets that no longer exist
+     * (outside archived blocks), and object files no link uses. Objects written or reused within
+     * {@code orphan-grace-hours} are kept, so an upload finishing during the sweep keeps its file.
+     */
+    @Scheduled(cron = "${workout-tracker.videos.sweep-cron:0 15 4 * * *}")
+    public void sweep() {
+        List<String> expired = jdbcTemplate.queryForList("DELETE FROM video_uploads WHERE updated_at < ? RETURNING id",
+                String.class, LocalDateTime.now().minusHours(uploadExpiryHours));
+        expired.forEach(videoStore::deletePart);
+        int unlinked = 0;
+        Long after = 0L;
+        Long upTo;
+        while ((upTo = jdbcTemplate.queryForObject(NEXT_VIDEO_CHUNK, Long.class, after, SWEEP_BATCH_SIZE)) != null) {
+            unlinked += jdbcTemplate.update(DELETE_ORPHANED_VIDEOS, after, upTo);
+            after = upTo;
+        }
+
+        List<String> candidates = videoStore.objectsOlderThan(Instant.now().minus(Duration.ofHours(orphanGraceHours)));
+        int deleted = 0;
+        for (int from = 0; from < candidates.size(); from += SWEEP_BATCH_SIZE) {
+            List<String> batch = candidates.subList(from, Math.min(candidates.size(), from + SWEEP_BATCH_SIZE));
+            Set<String> referenced = new HashSet<>(namedJdbcTemplate.queryForList(
+                    "SELECT DISTINCT sha256 FROM set_videos WHERE sha256 IN (:hashes)", Map.of("hashes", batch), String.class));
+            for (String sha256 : batch) {
+                if (!referenced.contains(sha256)) {
+                    videoStore.deleteObject(sha256);
+                    deleted++;
+                }
+            }
+        }
+        if (!expired.isEmpty() || unlinked > 0 || deleted > 0) {
+            log.info("Video sweep: {} expired uploads, {} orphaned links, {} unused files", expired.size(), unlinked, deleted);
+        }
+    }
+
+    private static boolean hasMore(InputStream body) {
+        try {
+            return body.read() >= 0;
+        } catch (IOException ex) {
+            // The client went away after the last byte; the checksum decides whether the upload is whole
+            return false;
+        }
+    }
+
+    private void publish(Upload upload) {
+        try {
+            videoStore.publish(upload.id(), upload.sha256());
+        } catch (IllegalArgumentException ex) {
+            // The bytes are gone, so the upload cannot be resumed either
+            jdbcTemplate.update("DELETE FROM video_uploads WHERE id = ?", upload.id());
+            throw ex;
+        }
+    }
+
+    // A set deleted while its video was uploading leaves the upload row for the expiry sweep
+    private void link(Upload upload, Long athleteId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long blockId = blockIdOf(upload.actualSetId(), athleteId);
+            jdbcTemplate.update(LINK_VIDEO, upload.actualSetId(), athleteId, blockId, upload.sha256(),
+                    upload.sizeBytes(), upload.contentType());
+            jdbcTemplate.update("UPDATE actual_sets SET video_recorded = TRUE WHERE id = ? AND athlete_id = ?",
+                    upload.actualSetId(), athleteId);
+            jdbcTemplate.update("DELETE FROM video_uploads WHERE id = ?", upload.id());
+            eventPublisher.publishEvent(new BlockChangedEvent(blockId));
+        });
+        log.info("Stored video {} ({} bytes) for actual set {}", upload.sha256(), upload.sizeBytes(), upload.actualSetId());
+    }
+
+    private Long blockIdOf(Long actualSetId, Long athleteId) {
+        return jdbcTemplate.queryForList(OWN_LIVE_SET_BLOCK, Long.class, actualSetId, athleteId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Actual set not found with id: " + actualSetId));
+    }
+
+    private Upload findUpload(Long actualSetId, String uploadId, Long athleteId) {
+        return jdbcTemplate.query(UPLOAD, SetVideoService::mapUpload, uploadId, actualSetId, athleteId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Video upload not found with id: " + uploadId));
+    }
+
+    private static Upload mapUpload(ResultSet rs, int rowNum) throws SQLException {
+        return new Upload(rs.getString("id"), rs.getLong("actual_set_id"), rs.getLong("size_bytes"),
+                rs.getString("sha256"), rs.getString("content_type"), rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    private static SetVideoDto mapVideo(ResultSet rs, int rowNum) throws SQLException {
+        return SetVideoDto.builder()
+                .actualSetId(rs.getLong("actual_set_id"))
+                .sha256(rs.getString("sha256"))
+                .sizeBytes(rs.getLong("size_bytes"))
+                .contentType(rs.getString("content_type"))
+                .uploadedAt(rs.getObject("uploaded_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static VideoUploadDto toDto(Upload upload, long offset, boolean complete) {
+        return VideoUploadDto.builder()
+                .uploadId(upload.id())
+                .actualSetId(upload.actualSetId())
+                .sizeBytes(upload.sizeBytes())
+                .sha256(upload.sha256())
+                .contentType(upload.contentType())
+                .offset(offset)
+                .complete(complete)
+                .createdAt(upload.createdAt())
+                .build();
+    }
+}
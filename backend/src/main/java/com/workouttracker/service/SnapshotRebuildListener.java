@@ -0,0 +1,45 @@
+package com.workouttracker.service;
+
+import com.workouttracker.outbox.OutboxListener;
+import com.workouttracker.outbox.OutboxMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Rebuilds block snapshots from committed {@code BLOCK_CHANGED} outbox events. Unlike an
+ * after-commit callback, a rebuild is not lost when the instance stops right after the write,
+ * and with several instances each change is rebuilt by the one that claimed it.
+ * <p>
+ * Each block of a batch is rebuilt once, in its own transaction, so a failed rebuild cannot
+ * roll back the relay's bookkeeping. Its exception propagates and fails the delivery, which the
+ * relay retries with the cause kept in {@code last_error}.
+ */
+@Component
+public class SnapshotRebuildListener implements OutboxListener {
+
+    private final BlockSnapshotService blockSnapshotService;
+    private final TransactionTemplate requiresNew;
+
+    public SnapshotRebuildListener(BlockSnapshotService blockSnapshotService,
+                                   PlatformTransactionManager transactionManager) {
+        this.blockSnapshotService = blockSnapshotService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void onMessages(List<OutboxMessage> messages) {
+        if (!blockSnapshotService.isEnabled()) {
+            return;
+        }
+        messages.stream()
+                .filter(message -> "BLOCK_CHANGED".equals(message.eventType()))
+                .map(OutboxMessage::aggregateId)
+                .distinct()
+                .forEach(blockId -> requiresNew.executeWithoutResult(status -> blockSnapshotService.rebuild(blockId)));
+    }
+}
@@ -1,15 +1,26 @@
 package com.workouttracker.service;
 
+import com.workouttracker.coalesce.Coalesce;
 import com.workouttracker.dto.*;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.event.BlockLifecycleEvent;
+import com.workouttracker.event.ExerciseNamesSavedEvent;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.mapper.TrainingBlockMapper;
 import com.workouttracker.model.*;
 import com.workouttracker.repository.*;
+import com.workouttracker.tenancy.AthleteContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,21 +30,27 @@ public class TrainingBlockService {
     
     private final TrainingBlockRepository trainingBlockRepository;
     private final TrainingBlockMapper trainingBlockMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockArchiveService blockArchiveService;
+    private final ExerciseDefinitionService exerciseDefinitionService;
+    private final PersonalRecordService personalRecordService;
     
     public List<TrainingBlockDto> getAllTrainingBlocks() {
-        return trainingBlockRepository.findAll().stream()
-                .map(trainingBlockMapper::toDto)
+        return trainingBlockRepository.findByAthleteIdOrderById(AthleteContext.currentAthleteId()).stream()
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
     
+    @Coalesce("training-block")
     public TrainingBlockDto getTrainingBlockById(Long id) {
-        TrainingBlock block = trainingBlockRepository.findById(id)
+        TrainingBlock block = trainingBlockRepository.findByIdAndAthleteId(id, AthleteContext.currentAthleteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + id));
-        return trainingBlockMapper.toDto(block);
+        return toDto(block);
     }
     
     public TrainingBlockDto createTrainingBlock(CreateTrainingBlockRequest request) {
         TrainingBlock block = TrainingBlock.builder()
+                .athleteId(AthleteContext.currentAthleteId())
                 .blockLength(request.getBlockLength())
                 .progressionRate(request.getProgressionRate())
                 .deloadRate(request.getDeloadRate())
@@ -42,24 +59,37 @@ public class TrainingBlockService {
                 .build();
         
         TrainingBlock savedBlock = trainingBlockRepository.save(block);
+        eventPublisher.publishEvent(new BlockChangedEvent(savedBlock.getId()));
+        eventPublisher.publishEvent(new BlockLifecycleEvent(BlockLifecycleEvent.Type.CREATED, savedBlock.getId()));
         return trainingBlockMapper.toDto(savedBlock);
     }
     
+    /**
+     * Hides the block at once; {@link com.workouttracker.reaper.BlockReaper} removes its tree
+     * and the row in the background.
+     */
     public void deleteTrainingBlock(Long id) {
-        if (!trainingBlockRepository.existsById(id)) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        if (trainingBlockRepository.markDeleted(id, athleteId, LocalDateTime.now()) == 0) {
             throw new ResourceNotFoundException("Training block not found with id: " + id);
         }
-        trainingBlockRepository.deleteById(id);
+        // The block's sets stop counting now, not when the reaper removes them
+        personalRecordService.removeBlockSets(athleteId, id);
+        eventPublisher.publishEvent(new BlockLifecycleEvent(BlockLifecycleEvent.Type.DELETED, id));
     }
     
     public TrainingBlockDto createBlockWithWeeks(CreateBlockRequest request) {
         TrainingBlock block = TrainingBlock.builder()
+                .athleteId(AthleteContext.currentAthleteId())
                 .blockLength(request.getBlockLength())
                 .progressionRate(request.getProgressionRate())
                 .deloadRate(request.getDeloadRate())
                 .macrocycle("Default")
                 .mesocycle("Default")
                 .build();
+        Set<String> exerciseNames = new LinkedHashSet<>();
+        // Every week repeats the same lifts; resolve each definition once per block
+        Map<String, ExerciseDefinition> definitions = new HashMap<>();
         
         // Create weeks
         for (CreateWeekRequest weekRequest : request.getWeeks()) {
@@ -87,6 +117,10 @@ public class TrainingBlockService {
                             Exercise exercise = Exercise.builder()
                                     .day(day)
                                     .name(exerciseRequest.getName())
+                                    .definition(definitions.computeIfAbsent(
+                                            ExerciseNames.normalize(exerciseRequest.getName()),
+                                            key -> exerciseDefinitionService.resolve(
+                                                    exerciseRequest.getName(), exerciseRequest.getCategory())))
                                     .category(exerciseRequest.getCategory())
                                     .orderInWorkout(exerciseRequest.getOrderInWorkout())
                                     .build();
@@ -111,6 +145,7 @@ public class TrainingBlockService {
                             }
                             // Add exercise to day's exercises list
                             day.getExercises().add(exercise);
+                            exerciseNames.add(exercise.getName());
                         }
                     }
                     // Add day to week's days list
@@ -123,8 +158,20 @@ public class TrainingBlockService {
         
         // Save the block (cascade will save all nested entities)
         TrainingBlock savedBlock = trainingBlockRepository.save(block);
+        eventPublisher.publishEvent(new BlockChangedEvent(savedBlock.getId()));
+        eventPublisher.publishEvent(new BlockLifecycleEvent(BlockLifecycleEvent.Type.CREATED, savedBlock.getId()));
+        if (!exerciseNames.isEmpty()) {
+            eventPublisher.publishEvent(new ExerciseNamesSavedEvent(exerciseNames));
+        }
         return trainingBlockMapper.toDto(savedBlock);
     }
+    
+    // Archived blocks keep only their row; the tree comes from the archive file
+    private TrainingBlockDto toDto(TrainingBlock block) {
+        return block.getArchivedAt() != null
+                ? blockArchiveService.readArchivedBlock(block)
+                : trainingBlockMapper.toDto(block);
+    }
 }
 
 
@@ -0,0 +1,149 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.dto.ExerciseDto;
+import com.workouttracker.dto.PrescribedSetDto;
+import com.workouttracker.dto.WeekDto;
+import com.workouttracker.dto.WorkoutDayDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.WeekType;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.repository.WeekRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One week of a block as the app renders it: every day with its exercises, their prescribed
+ * sets and the sets logged against them. The plan and the logged sets are each one flat query;
+ * the tree is assembled from the rows, so no entity and no lazy collection is loaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class WeekSessionService {
+
+    private final WeekRepository weekRepository;
+    private final ActualSetRepository actualSetRepository;
+    private final TrainingBlockRepository trainingBlockRepository;
+    private final BlockArchiveService blockArchiveService;
+
+    public WeekDto getWeekSessions(Long blockId, Integer weekNumber) {
+        Long athleteId = AthleteContext.currentAthleteId();
+        List<WeekRepository.SessionPlanRow> planRows = weekRepository.findSessionPlanRows(blockId, weekNumber, athleteId);
+        if (planRows.isEmpty()) {
+            return getArchivedWeek(blockId, weekNumber, athleteId);
+        }
+
+        WeekRepository.SessionPlanRow first = planRows.get(0);
+        WeekDto week = WeekDto.builder()
+                .id(first.getWeekId())
+                .blockId(first.getBlockId())
+                .weekNumber(first.getWeekNumber())
+                .weekType(WeekType.valueOf(first.getWeekType()))
+                .startDate(first.getStartDate())
+                .endDate(first.getEndDate())
+                .days(new ArrayList<>())
+                .build();
+        Map<Long, WorkoutDayDto> days = new LinkedHashMap<>();
+        Map<Long, ExerciseDto> exercises = new LinkedHashMap<>();
+        for (WeekRepository.SessionPlanRow row : planRows) {
+            if (row.getDayId() == null) {
+                continue;
+            }
+            WorkoutDayDto day = days.computeIfAbsent(row.getDayId(), id -> {
+                WorkoutDayDto dto = WorkoutDayDto.builder()
+                        .id(id)
+                        .weekId(row.getWeekId())
+                        .dayNumber(row.getDayNumber())
+                        .dayName(row.getDayName())
+                        .restDay(row.getRestDay())
+                        .exercises(new ArrayList<>())
+                        .build();
+                week.getDays().add(dto);
+                return dto;
+            });
+            if (row.getExerciseId() == null) {
+                continue;
+            }
+            ExerciseDto exercise = exercises.computeIfAbsent(row.getExerciseId(), id -> {
+                ExerciseDto dto = ExerciseDto.builder()
+                        .id(id)
+                        .dayId(row.getDayId())
+                        .name(row.getExerciseName())
+                        .definitionId(row.getDefinitionId())
+                        .category(ExerciseCategory.valueOf(row.getCategory()))
+                        .orderInWorkout(row.getOrderInWorkout())
+                        .prescribedSets(new ArrayList<>())
+                        .actualSets(new ArrayList<>())
+                        .build();
+                day.getExercises().add(dto);
+                return dto;
+            });
+            if (row.getPrescribedSetId() != null) {
+                exercise.getPrescribedSets().add(PrescribedSetDto.builder()
+                        .id(row.getPrescribedSetId())
+                        .exerciseId(row.getExerciseId())
+                        .setNumber(row.getSetNumber())
+                        .targetSets(row.getTargetSets())
+                        .targetReps(row.getTargetReps())
+                        .targetLoadMin(row.getTargetLoadMin())
+                        .targetLoadMax(row.getTargetLoadMax())
+                        .targetRPE(row.getTargetRpe())
+                        .tempo(Tempo.valueOf(row.getTempo()))
+                        .videoRequired(row.getVideoRequired())
+                        .build());
+            }
+        }
+
+        for (ActualSetRepository.SessionActualRow row : actualSetRepository.findSessionActualRows(blockId, weekNumber, athleteId)) {
+            ExerciseDto exercise = exercises.get(row.getExerciseId());
+            if (exercise == null) {
+                // Logged between the two queries against an exercise created in the meantime
+                continue;
+            }
+            exercise.getActualSets().add(ActualSetDto.builder()
+                    .id(row.getId())
+                    .exerciseId(row.getExerciseId())
+                    .prescribedSetId(row.getPrescribedSetId())
+                    .setNumber(row.getSetNumber())
+                    .actualWeight(row.getActualWeight())
+                    .actualReps(row.getActualReps())
+                    .actualRPE(row.getActualRpe())
+                    .tempoUsed(row.getTempoUsed() != null ? Tempo.valueOf(row.getTempoUsed()) : null)
+                    .videoRecorded(row.getVideoRecorded())
+                    .feedback(row.getFeedback())
+                    .completedAt(row.getCompletedAt())
+                    .build());
+        }
+        return week;
+    }
+
+    // No plan rows: the block is missing or another athlete's, archived (tree only in its file), or has no such week
+    private WeekDto getArchivedWeek(Long blockId, Integer weekNumber, Long athleteId) {
+        TrainingBlock block = trainingBlockRepository.findByIdAndAthleteId(blockId, athleteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + blockId));
+        if (block.getArchivedAt() != null) {
+            return blockArchiveService.readArchivedBlock(block).getWeeks().stream()
+                    .filter(week -> weekNumber.equals(week.getWeekNumber()))
+                    .findFirst()
+                    .orElseThrow(() -> weekNotFound(blockId, weekNumber));
+        }
+        throw weekNotFound(blockId, weekNumber);
+    }
+
+    private static ResourceNotFoundException weekNotFound(Long blockId, Integer weekNumber) {
+        return new ResourceNotFoundException(
+                String.format("Week %d not found for block %d", weekNumber, blockId));
+    }
+}
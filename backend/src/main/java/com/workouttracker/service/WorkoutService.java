@@ -1,15 +1,21 @@
 package com.workouttracker.service;
 
+import com.workouttracker.coalesce.Coalesce;
 import com.workouttracker.dto.*;
+import com.workouttracker.event.ActualSetChangedEvent;
+import com.workouttracker.event.BlockChangedEvent;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.mapper.ActualSetMapper;
 import com.workouttracker.model.*;
 import com.workouttracker.repository.*;
+import com.workouttracker.tenancy.AthleteContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -23,16 +29,17 @@ public class WorkoutService {
     private final ExerciseRepository exerciseRepository;
     private final WorkoutDayRepository workoutDayRepository;
     private final ActualSetMapper actualSetMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockArchiveService blockArchiveService;
+    private final PersonalRecordService personalRecordService;
     
     public WorkoutResponseDto logWorkout(CreateWorkoutRequest request) {
-        // Find the workout day
-        WorkoutDay workoutDay = workoutDayRepository
-                .findByBlockIdAndWeekNumberAndDayNumber(request.getBlockId(), request.getWeekNumber(), request.getDayNumber())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Workout day not found for block %d, week %d, day %d",
-                                request.getBlockId(), request.getWeekNumber(), request.getDayNumber())));
+        WorkoutDay workoutDay = findWorkoutDay(request.getBlockId(), request.getWeekNumber(), request.getDayNumber());
+        blockArchiveService.lockForSetWrite(request.getBlockId());
+        Long athleteId = AthleteContext.currentAthleteId();
         
         LocalDateTime completedAt = LocalDateTime.now();
+        List<PersonalRecordService.LoggedSet> loggedSets = new ArrayList<>();
         
         // Process each exercise in the workout
         for (CreateWorkoutExerciseRequest exerciseRequest : request.getExercises()) {
@@ -49,6 +56,8 @@ public class WorkoutService {
             for (CreateWorkoutActualSetRequest setRequest : exerciseRequest.getActualSets()) {
                 ActualSet actualSet = ActualSet.builder()
                         .exercise(exercise)
+                        .definitionId(exercise.getDefinition().getId())
+                        .athleteId(athleteId)
                         .prescribedSet(setRequest.getPrescribedSetId() != null 
                                 ? PrescribedSet.builder().id(setRequest.getPrescribedSetId()).build() 
                                 : null)
@@ -62,26 +71,41 @@ public class WorkoutService {
                         .completedAt(completedAt)
                         .build();
                 
-                actualSetRepository.save(actualSet);
+                ActualSet savedSet = actualSetRepository.save(actualSet);
+                loggedSets.add(PersonalRecordService.LoggedSet.of(savedSet));
+                eventPublisher.publishEvent(new ActualSetChangedEvent(ActualSetChangedEvent.Type.LOGGED,
+                        request.getBlockId(), request.getWeekNumber(), request.getDayNumber(),
+                        exercise.getName(), actualSetMapper.toDto(savedSet)));
             }
         }
         
+        eventPublisher.publishEvent(new BlockChangedEvent(request.getBlockId()));
+        List<PersonalRecordDto> newRecords = personalRecordService.recordSets(loggedSets);
+        
         // Return the saved workout
-        return getWorkout(request.getBlockId(), request.getWeekNumber(), request.getDayNumber());
+        WorkoutResponseDto workout = getWorkout(request.getBlockId(), request.getWeekNumber(), request.getDayNumber());
+        workout.setNewPersonalRecords(newRecords);
+        return workout;
     }
     
+    /** The day of one of the current athlete's live blocks; another athlete's day is not found. */
     @Transactional(readOnly = true)
-    public WorkoutResponseDto getWorkout(Long blockId, Integer weekNumber, Integer dayNumber) {
-        // Verify the workout day exists
-        workoutDayRepository
-                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber)
+    public WorkoutDay findWorkoutDay(Long blockId, Integer weekNumber, Integer dayNumber) {
+        return workoutDayRepository
+                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber, AthleteContext.currentAthleteId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Workout day not found for block %d, week %d, day %d",
                                 blockId, weekNumber, dayNumber)));
+    }
+    
+    @Transactional(readOnly = true)
+    public WorkoutResponseDto getWorkout(Long blockId, Integer weekNumber, Integer dayNumber) {
+        // Verify the workout day exists
+        findWorkoutDay(blockId, weekNumber, dayNumber);
         
         // Get all actual sets for this day
         List<ActualSet> allActualSets = actualSetRepository
-                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber);
+                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber, AthleteContext.currentAthleteId());
         
         // Get the most recent completion time (assuming all sets in a workout are completed at the same time)
         LocalDateTime completedAt = allActualSets.stream()
@@ -120,10 +144,17 @@ public class WorkoutService {
                 .build();
     }
     
+    @Coalesce("block-progress")
     @Transactional(readOnly = true)
     public List<WorkoutResponseDto> getBlockProgress(Long blockId) {
         // Get all actual sets for this block
-        List<ActualSet> allActualSets = actualSetRepository.findByBlockId(blockId);
+        List<ActualSet> allActualSets = actualSetRepository.findByBlockId(blockId, AthleteContext.currentAthleteId());
+        if (allActualSets.isEmpty()) {
+            // Archived blocks have no rows left; their progress is rebuilt from the archive file
+            return blockArchiveService.findArchivedBlock(blockId)
+                    .map(this::progressFromArchive)
+                    .orElse(List.of());
+        }
         
         // Group by block/week/day combination
         Map<String, List<ActualSet>> groupedSets = allActualSets.stream()
@@ -182,20 +213,58 @@ public class WorkoutService {
                 .collect(Collectors.toList());
     }
     
+    private List<WorkoutResponseDto> progressFromArchive(TrainingBlockDto block) {
+        List<WorkoutResponseDto> workouts = new ArrayList<>();
+        for (WeekDto week : block.getWeeks()) {
+            for (WorkoutDayDto day : week.getDays()) {
+                List<WorkoutExerciseResponseDto> exercises = day.getExercises().stream()
+                        .filter(exercise -> !exercise.getActualSets().isEmpty())
+                        .map(exercise -> WorkoutExerciseResponseDto.builder()
+                                .exerciseId(exercise.getId())
+                                .exerciseName(exercise.getName())
+                                .actualSets(exercise.getActualSets())
+                                .build())
+                        .collect(Collectors.toList());
+                if (exercises.isEmpty()) {
+                    continue;
+                }
+                LocalDateTime completedAt = exercises.stream()
+                        .flatMap(exercise -> exercise.getActualSets().stream())
+                        .map(ActualSetDto::getCompletedAt)
+                        .filter(date -> date != null)
+                        .max(LocalDateTime::compareTo)
+                        .orElse(null);
+                workouts.add(WorkoutResponseDto.builder()
+                        .blockId(block.getId())
+                        .weekNumber(week.getWeekNumber())
+                        .dayNumber(day.getDayNumber())
+                        .completedAt(completedAt)
+                        .exercises(exercises)
+                        .build());
+            }
+        }
+        return workouts;
+    }
+    
     public void deleteWorkout(Long blockId, Integer weekNumber, Integer dayNumber) {
         // Verify the workout day exists
-        workoutDayRepository
-                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Workout day not found for block %d, week %d, day %d",
-                                blockId, weekNumber, dayNumber)));
+        findWorkoutDay(blockId, weekNumber, dayNumber);
+        blockArchiveService.lockForSetWrite(blockId);
         
         // Get all actual sets for this workout day
         List<ActualSet> actualSets = actualSetRepository
-                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber);
+                .findByBlockIdAndWeekNumberAndDayNumber(blockId, weekNumber, dayNumber, AthleteContext.currentAthleteId());
         
         // Delete all actual sets for this workout
         actualSetRepository.deleteAll(actualSets);
+        personalRecordService.removeSets(actualSets.stream()
+                .map(PersonalRecordService.LoggedSet::of)
+                .collect(Collectors.toList()));
+        eventPublisher.publishEvent(new BlockChangedEvent(blockId));
+        for (ActualSet actualSet : actualSets) {
+            eventPublisher.publishEvent(new ActualSetChangedEvent(ActualSetChangedEvent.Type.DELETED,
+                    blockId, weekNumber, dayNumber, actualSet.getExercise().getName(), actualSetMapper.toDto(actualSet)));
+        }
     }
 }
 
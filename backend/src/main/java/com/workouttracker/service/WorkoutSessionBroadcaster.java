@@ -0,0 +1,250 @@
+package com.workouttracker.service;
+
+import com.workouttracker.event.ActualSetChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * In-process fan-out of committed set changes to Server-Sent Event subscribers of a
+ * block/week/day. Publishing only enqueues into each subscriber's bounded buffer; a small
+ * dispatch pool drains the buffers, so a slow watcher never delays the writing request
+ * and watchers never cause database reads.
+ * <p>
+ * At most one drain per subscriber is queued or running, and it sends at most one buffer's
+ * worth before yielding its thread. A send that blocks longer than {@code write-timeout-ms}
+ * is interrupted and the stream closed, so a stalled client holds a dispatch thread for a
+ * bounded time.
+ */
+@Service
+@Slf4j
+public class WorkoutSessionBroadcaster {
+
+    public enum SlowConsumerPolicy {
+        /** Discard the oldest buffered event to make room for the new one. */
+        DROP_OLDEST,
+        /** Close the stream; the client reconnects and re-reads the workout once. */
+        DISCONNECT
+    }
+
+    private static final Message HEARTBEAT = new Message(null, null, null);
+
+    private final Map<SessionKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final ExecutorService dispatchExecutor;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long writeTimeoutNanos;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final LongFunction<SseEmitter> emitterFactory;
+
+    public WorkoutSessionBroadcaster(
+            @Value("${workout-tracker.live-sessions.buffer-size:64}") int bufferSize,
+            @Value("${workout-tracker.live-sessions.timeout-ms:1800000}") long timeoutMs,
+            @Value("${workout-tracker.live-sessions.write-timeout-ms:10000}") long writeTimeoutMs,
+            @Value("${workout-tracker.live-sessions.dispatch-threads:4}") int dispatchThreads,
+            @Value("${workout-tracker.live-sessions.slow-consumer-policy:DROP_OLDEST}") SlowConsumerPolicy slowConsumerPolicy) {
+        this(bufferSize, timeoutMs, writeTimeoutMs, slowConsumerPolicy, dispatchPool(dispatchThreads), SseEmitter::new);
+    }
+
+    WorkoutSessionBroadcaster(int bufferSize, long timeoutMs, long writeTimeoutMs, SlowConsumerPolicy slowConsumerPolicy,
+                              ExecutorService dispatchExecutor, LongFunction<SseEmitter> emitterFactory) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.dispatchExecutor = dispatchExecutor;
+        this.emitterFactory = emitterFactory;
+    }
+
+    private static ExecutorService dispatchPool(int dispatchThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long blockId, Integer weekNumber, Integer dayNumber) {
+        SessionKey key = new SessionKey(blockId, weekNumber, dayNumber);
+        SseEmitter emitter = emitterFactory.apply(timeoutMs);
+        Subscriber subscriber = new Subscriber(key, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onActualSetChanged(ActualSetChangedEvent event) {
+        Set<Subscriber> watchers = subscribers.get(new SessionKey(event.getBlockId(), event.getWeekNumber(), event.getDayNumber()));
+        if (watchers == null) {
+            return;
+        }
+        Message message = new Message(Long.toString(eventSequence.incrementAndGet()),
+                event.getType().name().toLowerCase(), event);
+        watchers.forEach(subscriber -> enqueue(subscriber, message));
+    }
+
+    /** Comment-only frames keep proxies from closing idle streams and surface dead connections. */
+    @Scheduled(fixedDelayString = "${workout-tracker.live-sessions.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(watchers -> watchers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    /** Interrupts sends stuck on a client that stopped reading and closes those streams. */
+    @Scheduled(fixedDelayString = "${workout-tracker.live-sessions.write-timeout-check-ms:1000}")
+    public void disconnectStalledSubscribers() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(watchers -> watchers.forEach(subscriber -> {
+            if (subscriber.interruptIfStalled(now, writeTimeoutNanos)) {
+                log.debug("Live-session write for {} timed out, disconnecting", subscriber.key);
+                disconnect(subscriber);
+            }
+        }));
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(watchers -> watchers.forEach(subscriber -> subscriber.emitter.complete()));
+        dispatchExecutor.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        while (!subscriber.buffer.offer(message)) {
+            if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+                log.debug("Disconnecting slow live-session subscriber for {}", subscriber.key);
+                disconnect(subscriber);
+                return;
+            }
+            subscriber.buffer.poll();
+            subscriber.dropped.incrementAndGet();
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        boolean failed = false;
+        try {
+            Message message;
+            for (int sent = 0; sent < bufferSize && !subscriber.closed.get()
+                    && (message = subscriber.buffer.poll()) != null; sent++) {
+                subscriber.send(message);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away, the emitter already completed, or a stalled send was interrupted
+            failed = true;
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed.get()) {
+            // Completing waits for any send in progress, so a disconnect leaves it to the drain
+            subscriber.emitter.complete();
+        } else if (!failed && !subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            // Events arrived after the last poll, or this drain used up its turn
+            dispatchExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.closed.set(true);
+        if (!subscriber.draining.get()) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (key, watchers) -> {
+            watchers.remove(subscriber);
+            return watchers.isEmpty() ? null : watchers;
+        });
+        if (subscriber.dropped.get() > 0) {
+            log.debug("Live-session subscriber for {} dropped {} events", subscriber.key, subscriber.dropped.get());
+        }
+    }
+
+    private record SessionKey(Long blockId, Integer weekNumber, Integer dayNumber) {
+    }
+
+    /** Event builders are stateful, so each subscriber builds its own frame from this. */
+    private record Message(String id, String name, Object data) {
+        SseEmitter.SseEventBuilder toSseEvent() {
+            if (data == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SessionKey key;
+        private final SseEmitter emitter;
+        private final Queue<Message> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicInteger dropped = new AtomicInteger();
+        private Thread sender;
+        private long sendStartedNanos;
+
+        private Subscriber(SessionKey key, SseEmitter emitter, Queue<Message> buffer) {
+            this.key = key;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        private void send(Message message) throws IOException {
+            synchronized (this) {
+                sender = Thread.currentThread();
+                sendStartedNanos = System.nanoTime();
+            }
+            try {
+                emitter.send(message.toSseEvent());
+            } finally {
+                synchronized (this) {
+                    sender = null;
+                    if (closed.get()) {
+                        // Don't leave an interrupt meant for this send on the pooled thread
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private synchronized boolean interruptIfStalled(long now, long timeoutNanos) {
+            if (sender == null || now - sendStartedNanos < timeoutNanos || !closed.compareAndSet(false, true)) {
+                return false;
+            }
+            sender.interrupt();
+            return true;
+        }
+    }
+}
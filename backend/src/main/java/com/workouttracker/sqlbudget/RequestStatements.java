@@ -0,0 +1,68 @@
+package com.workouttracker.sqlbudget;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Statements issued through Hibernate while one request was being handled: how many, how long
+ * they spent executing, and how often each statement shape repeated. Only ever touched by the
+ * request's own thread.
+ */
+public final class RequestStatements {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    public record RepeatedShape(String shape, int count) {
+    }
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int statements;
+    private long executionNanos;
+    private long executionStartedAt;
+
+    void statement(String sql) {
+        statements++;
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    void executionStarted(long now) {
+        executionStartedAt = now;
+    }
+
+    void executionFinished(long now) {
+        if (executionStartedAt != 0) {
+            executionNanos += now - executionStartedAt;
+            executionStartedAt = 0;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long executionMillis() {
+        return executionNanos / 1_000_000;
+    }
+
+    /** SELECT shapes issued at least {@code threshold} times, most repeated first. */
+    public List<RepeatedShape> repeatedSelects(int threshold) {
+        return shapes.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold && e.getKey().startsWith("select"))
+                .map(e -> new RepeatedShape(e.getKey(), e.getValue()))
+                .sorted((a, b) -> Integer.compare(b.count(), a.count()))
+                .toList();
+    }
+
+    /**
+     * Hibernate already binds values as parameters, so a statement's shape is its text with
+     * whitespace collapsed and IN lists of any length folded into one.
+     */
+    static String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return PARAMETER_LIST.matcher(collapsed).replaceAll("?...");
+    }
+}
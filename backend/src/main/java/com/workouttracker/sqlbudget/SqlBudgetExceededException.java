@@ -0,0 +1,9 @@
+package com.workouttracker.sqlbudget;
+
+/** Thrown at the end of a request that broke its statement budget, when budgets are enforced. */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
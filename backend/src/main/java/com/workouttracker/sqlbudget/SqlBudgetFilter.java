@@ -0,0 +1,117 @@
+package com.workouttracker.sqlbudget;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Opens a {@link RequestStatements} for each request and checks it against the endpoint's budget
+ * once the handler is done. A request breaks its budget when it runs more statements than allowed,
+ * or when one SELECT shape repeats {@code repeated-statement-threshold} times, which is what lazy
+ * loading inside a loop (N+1) looks like. Violations are logged, or thrown with
+ * {@code fail-on-violation} so tests fail on them.
+ * <p>
+ * Headers go out through {@link SqlBudgetResponseAdvice} just before the body is written, and
+ * here for responses without a body. Statements run while the body is serialized still count
+ * toward the budget and the log line.
+ */
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    static final String HEADERS_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".statements";
+
+    /**
+     * @param endpoints budgets per route, keyed like {@code "GET /blocks/{id}"}; in YAML the keys
+     *                  need brackets, e.g. {@code "[GET /blocks/{id}]": 40}
+     */
+    @ConfigurationProperties("workout-tracker.sql-budget")
+    public record Settings(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("true") boolean headers,
+            @DefaultValue("50") int defaultMaxStatements,
+            @DefaultValue("10") int repeatedStatementThreshold,
+            @DefaultValue("false") boolean failOnViolation,
+            Map<String, Integer> endpoints) {
+
+        public Settings {
+            endpoints = endpoints != null ? Map.copyOf(endpoints) : Map.of();
+        }
+    }
+
+    private final Settings settings;
+
+    public SqlBudgetFilter(Settings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!settings.enabled()) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/swagger-ui") || path.startsWith("/api-docs") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatements statements = SqlStatementRecorder.beginRequest();
+        if (settings.headers()) {
+            request.setAttribute(HEADERS_ATTRIBUTE, statements);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementRecorder.endRequest();
+        }
+        if (settings.headers() && !response.isCommitted()) {
+            response.setHeader(STATEMENTS_HEADER, String.valueOf(statements.statements()));
+            response.setHeader(TIME_HEADER, String.valueOf(statements.executionMillis()));
+        }
+        check(routeOf(request), statements);
+    }
+
+    private void check(String route, RequestStatements statements) {
+        int budget = settings.endpoints().getOrDefault(route, settings.defaultMaxStatements());
+        List<RequestStatements.RepeatedShape> repeated =
+                statements.repeatedSelects(settings.repeatedStatementThreshold());
+        if (statements.statements() <= budget && repeated.isEmpty()) {
+            log.debug("{}: {} statements, {} ms", route, statements.statements(), statements.executionMillis());
+            return;
+        }
+        StringBuilder message = new StringBuilder(route).append(": ").append(statements.statements())
+                .append(" statements (budget ").append(budget).append("), ")
+                .append(statements.executionMillis()).append(" ms");
+        if (!repeated.isEmpty()) {
+            message.append("; possible N+1: ").append(repeated.stream()
+                    .map(r -> r.count() + "x " + r.shape())
+                    .collect(Collectors.joining("; ")));
+        }
+        if (settings.failOnViolation()) {
+            throw new SqlBudgetExceededException(message.toString());
+        }
+        log.warn("SQL budget exceeded for {}", message);
+    }
+
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null
+                ? pattern.toString()
+                : request.getRequestURI().substring(request.getContextPath().length());
+        return request.getMethod() + " " + path;
+    }
+}
@@ -0,0 +1,36 @@
+package com.workouttracker.sqlbudget;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the statement headers while they can still be sent: message converters flush, and so
+ * commit the response, as soon as the body is written.
+ */
+@ControllerAdvice
+public class SqlBudgetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlBudgetFilter.HEADERS_ATTRIBUTE)
+                instanceof RequestStatements statements) {
+            response.getHeaders().set(SqlBudgetFilter.STATEMENTS_HEADER, String.valueOf(statements.statements()));
+            response.getHeaders().set(SqlBudgetFilter.TIME_HEADER, String.valueOf(statements.executionMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,61 @@
+package com.workouttracker.sqlbudget;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Attributes Hibernate statements to the request running on the current thread. Registered
+ * twice with Hibernate: as the session factory's {@link StatementInspector}, which sees every
+ * statement before it is prepared, and as an automatic {@link SessionEventListener}, which times
+ * its execution. Statements outside a request, on other threads, or issued through
+ * {@code JdbcTemplate} are not recorded.
+ */
+public class SqlStatementRecorder implements StatementInspector, SessionEventListener {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    static RequestStatements beginRequest() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static void endRequest() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.statement(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.executionStarted(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.executionFinished(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
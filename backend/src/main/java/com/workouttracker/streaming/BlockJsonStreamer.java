@@ -0,0 +1,257 @@
+package com.workouttracker.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.dto.PrescribedSetDto;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.tenancy.AthleteContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams {@code GET /blocks/{id}} and {@code GET /blocks/{id}/progress} straight from one
+ * ordered flat query each. Rows are fetched through a cursor ({@code fetch-size} at a time,
+ * inside a read-only transaction) and written as they arrive, so neither entities nor a DTO
+ * tree are built and the first bytes go out before the last row is read. The JSON matches
+ * the regular DTO responses.
+ * <p>
+ * The block row is read before the response starts, so a missing block (or another athlete's)
+ * is still a 404, and the tree queries only ever run for a block the current athlete owns.
+ * Archived blocks have no rows to stream and are left to the regular path.
+ * <p>
+ * A query that fails after the first bytes went out aborts the response, so the client sees
+ * a broken transfer rather than valid JSON that is missing sets.
+ */
+@Service
+public class BlockJsonStreamer {
+
+    private static final String BLOCK = "SELECT id, block_length, progression_rate, deload_rate, macrocycle, " +
+            "mesocycle, created_at, archived_at FROM training_blocks WHERE id = ? AND athlete_id = ? AND deleted_at IS NULL";
+
+    // Prescribed (kind 0) and logged (kind 1) sets share one column list so an exercise's sets
+    // come back as one ordered run instead of the product of the two
+    private static final String TREE = """
+            SELECT w.id AS week_id, w.week_number, w.week_type, w.start_date, w.end_date,
+                   d.id AS day_id, d.day_number, d.day_name, d.rest_day,
+                   e.id AS exercise_id, e.name AS exercise_name, e.definition_id, e.category, e.order_in_workout,
+                   s.kind, s.id AS set_id, s.set_number, s.prescribed_set_id, s.target_sets, s.target_reps,
+                   s.target_load_min, s.target_load_max, s.target_rpe, s.tempo, s.video_required,
+                   s.actual_weight, s.actual_reps, s.actual_rpe, s.video_recorded, s.feedback, s.completed_at
+              FROM weeks w
+              LEFT JOIN workout_days d ON d.week_id = w.id
+              LEFT JOIN exercises e ON e.day_id = d.id
+              LEFT JOIN (
+                    SELECT 0 AS kind, p.exercise_id, p.id, p.set_number, CAST(NULL AS BIGINT) AS prescribed_set_id,
+                           p.target_sets, p.target_reps, p.target_load_min, p.target_load_max, p.target_rpe,
+                           p.tempo, p.video_required, CAST(NULL AS NUMERIC) AS actual_weight,
+                           CAST(NULL AS INTEGER) AS actual_reps, CAST(NULL AS INTEGER) AS actual_rpe,
+                           CAST(NULL AS BOOLEAN) AS video_recorded, CAST(NULL AS TEXT) AS feedback,
+                           CAST(NULL AS TIMESTAMP) AS completed_at
+                      FROM prescribed_sets p
+                    UNION ALL
+                    SELECT 1, a.exercise_id, a.id, a.set_number, a.prescribed_set_id,
+                           NULL, NULL, NULL, NULL, NULL, a.tempo_used, NULL, a.actual_weight,
+                           a.actual_reps, a.actual_rpe, a.video_recorded, a.feedback, a.completed_at
+                      FROM actual_sets a
+                   ) s ON s.exercise_id = e.id
+             WHERE w.block_id = ?
+             ORDER BY w.week_number, w.id, d.day_number, d.id, e.order_in_workout, e.id, s.kind, s.set_number, s.id
+            """;
+
+    private static final String PROGRESS = """
+            SELECT w.week_number, d.id AS day_id, d.day_number, e.id AS exercise_id, e.name AS exercise_name,
+                   a.id AS set_id, a.prescribed_set_id, a.set_number, a.actual_weight, a.actual_reps, a.actual_rpe,
+                   a.tempo_used AS tempo, a.video_recorded, a.feedback, a.completed_at
+              FROM weeks w
+              JOIN workout_days d ON d.week_id = w.id
+              JOIN exercises e ON e.day_id = d.id
+              JOIN actual_sets a ON a.exercise_id = e.id
+             WHERE w.block_id = ?
+             ORDER BY w.week_number, d.day_number, d.id, e.order_in_workout, e.id, a.set_number, a.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final int fetchSize;
+
+    public BlockJsonStreamer(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${workout-tracker.streaming.enabled:false}") boolean enabled,
+                             @Value("${workout-tracker.streaming.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Empty for archived blocks; throws {@link ResourceNotFoundException} for unknown ones. */
+    public Optional<StreamingResponseBody> streamBlock(Long id) {
+        TrainingBlockDto block = findBlock(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Training block not found with id: " + id));
+        if (block.getArchivedAt() != null) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> write(out, generator -> {
+            BlockTreeJsonWriter writer = new BlockTreeJsonWriter(generator, block);
+            writer.start();
+            query(TREE, id, rs -> writer.row(treeRow(rs)));
+            writer.finish();
+        }));
+    }
+
+    /** Empty for archived blocks; unknown blocks have no progress, as on the regular path. */
+    public Optional<StreamingResponseBody> streamProgress(Long blockId) {
+        Optional<TrainingBlockDto> block = findBlock(blockId);
+        if (block.isPresent() && block.get().getArchivedAt() != null) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> write(out, generator -> {
+            ProgressJsonWriter writer = new ProgressJsonWriter(generator, blockId);
+            writer.start();
+            if (block.isPresent()) {
+                query(PROGRESS, blockId, rs -> writer.row(progressRow(rs)));
+            }
+            writer.finish();
+        }));
+    }
+
+    private interface JsonWork {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private interface RowWork {
+        void accept(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Closes the generator only after the whole document is written. On a failure the generator
+     * is left as it is and the exception reaches the container, which aborts the committed
+     * response instead of ending it; closing would append the missing brackets and hand the
+     * client a truncated but well-formed document.
+     */
+    private void write(OutputStream out, JsonWork work) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        try {
+            work.write(generator);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        generator.close();
+    }
+
+    // A cursor only streams inside a transaction; with autocommit the driver reads every row first
+    private void query(String sql, Long blockId, RowWork work) {
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, blockId);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                work.accept(rs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }));
+    }
+
+    private Optional<TrainingBlockDto> findBlock(Long id) {
+        List<TrainingBlockDto> blocks = jdbcTemplate.query(BLOCK, (rs, rowNum) -> TrainingBlockDto.builder()
+                .id(rs.getLong("id"))
+                .blockLength(rs.getInt("block_length"))
+                .progressionRate(rs.getBigDecimal("progression_rate"))
+                .deloadRate(rs.getBigDecimal("deload_rate"))
+                .macrocycle(rs.getString("macrocycle"))
+                .mesocycle(rs.getString("mesocycle"))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .archivedAt(rs.getObject("archived_at", LocalDateTime.class))
+                .build(), id, AthleteContext.currentAthleteId());
+        return blocks.stream().findFirst();
+    }
+
+    private static BlockTreeJsonWriter.Row treeRow(ResultSet rs) throws SQLException {
+        Integer kind = rs.getObject("kind", Integer.class);
+        PrescribedSetDto prescribedSet = null;
+        ActualSetDto actualSet = null;
+        if (kind != null && kind == 0) {
+            prescribedSet = PrescribedSetDto.builder()
+                    .id(rs.getLong("set_id"))
+                    .exerciseId(rs.getLong("exercise_id"))
+                    .setNumber(rs.getObject("set_number", Integer.class))
+                    .targetSets(rs.getObject("target_sets", Integer.class))
+                    .targetReps(rs.getObject("target_reps", Integer.class))
+                    .targetLoadMin(rs.getBigDecimal("target_load_min"))
+                    .targetLoadMax(rs.getBigDecimal("target_load_max"))
+                    .targetRPE(rs.getObject("target_rpe", Integer.class))
+                    .tempo(tempo(rs))
+                    .videoRequired(rs.getObject("video_required", Boolean.class))
+                    .build();
+        } else if (kind != null) {
+            actualSet = actualSet(rs);
+        }
+        return new BlockTreeJsonWriter.Row(
+                rs.getLong("week_id"), rs.getInt("week_number"), rs.getString("week_type"),
+                rs.getObject("start_date", LocalDate.class), rs.getObject("end_date", LocalDate.class),
+                rs.getObject("day_id", Long.class), rs.getObject("day_number", Integer.class),
+                rs.getString("day_name"), rs.getObject("rest_day", Boolean.class),
+                rs.getObject("exercise_id", Long.class), rs.getString("exercise_name"),
+                rs.getObject("definition_id", Long.class), rs.getString("category"),
+                rs.getObject("order_in_workout", Integer.class),
+                prescribedSet, actualSet);
+    }
+
+    private static ProgressJsonWriter.Row progressRow(ResultSet rs) throws SQLException {
+        return new ProgressJsonWriter.Row(rs.getInt("week_number"), rs.getLong("day_id"), rs.getInt("day_number"),
+                rs.getLong("exercise_id"), rs.getString("exercise_name"), actualSet(rs));
+    }
+
+    private static ActualSetDto actualSet(ResultSet rs) throws SQLException {
+        return ActualSetDto.builder()
+                .id(rs.getLong("set_id"))
+                .exerciseId(rs.getLong("exercise_id"))
+                .prescribedSetId(rs.getObject("prescribed_set_id", Long.class))
+                .setNumber(rs.getObject("set_number", Integer.class))
+                .actualWeight(rs.getBigDecimal("actual_weight"))
+                .actualReps(rs.getObject("actual_reps", Integer.class))
+                .actualRPE(rs.getObject("actual_rpe", Integer.class))
+                .tempoUsed(tempo(rs))
+                .videoRecorded(rs.getObject("video_recorded", Boolean.class))
+                .feedback(rs.getString("feedback"))
+                .completedAt(rs.getObject("completed_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static Tempo tempo(ResultSet rs) throws SQLException {
+        String tempo = rs.getString("tempo");
+        return tempo != null ? Tempo.valueOf(tempo) : null;
+    }
+}
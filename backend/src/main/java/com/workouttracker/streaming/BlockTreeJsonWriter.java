@@ -0,0 +1,165 @@
+package com.workouttracker.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.dto.PrescribedSetDto;
+import com.workouttracker.dto.TrainingBlockDto;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Writes the JSON of a {@link TrainingBlockDto} from the rows of its tree, ordered by week,
+ * day, exercise and then prescribed sets before actual sets. Only the ids of the open week,
+ * day and exercise are kept, so memory does not grow with the block. Leaves go through the
+ * generator's codec, which keeps the output identical to serializing the DTO.
+ */
+class BlockTreeJsonWriter {
+
+    /**
+     * One row of the flat join. Week, day and exercise columns are null where the parent has no
+     * children; at most one of the two sets is present.
+     */
+    record Row(Long weekId, Integer weekNumber, String weekType, LocalDate startDate, LocalDate endDate,
+               Long dayId, Integer dayNumber, String dayName, Boolean restDay,
+               Long exerciseId, String exerciseName, Long definitionId, String category, Integer orderInWorkout,
+               PrescribedSetDto prescribedSet, ActualSetDto actualSet) {
+    }
+
+    private final JsonGenerator generator;
+    private final TrainingBlockDto block;
+    private Long weekId;
+    private Long dayId;
+    private Long exerciseId;
+    private boolean inActualSets;
+
+    /** @param block the block's own columns; its {@code weeks} are ignored */
+    BlockTreeJsonWriter(JsonGenerator generator, TrainingBlockDto block) {
+        this.generator = generator;
+        this.block = block;
+    }
+
+    void start() throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectField("id", block.getId());
+        generator.writeObjectField("blockLength", block.getBlockLength());
+        generator.writeObjectField("progressionRate", block.getProgressionRate());
+        generator.writeObjectField("deloadRate", block.getDeloadRate());
+        generator.writeObjectField("macrocycle", block.getMacrocycle());
+        generator.writeObjectField("mesocycle", block.getMesocycle());
+        generator.writeArrayFieldStart("weeks");
+    }
+
+    void row(Row row) throws IOException {
+        if (!Objects.equals(row.weekId(), weekId)) {
+            closeWeek();
+            openWeek(row);
+        }
+        if (row.dayId() == null) {
+            return;
+        }
+        if (!row.dayId().equals(dayId)) {
+            closeDay();
+            openDay(row);
+        }
+        if (row.exerciseId() == null) {
+            return;
+        }
+        if (!row.exerciseId().equals(exerciseId)) {
+            closeExercise();
+            openExercise(row);
+        }
+        if (row.prescribedSet() != null) {
+            generator.writeObject(row.prescribedSet());
+        } else if (row.actualSet() != null) {
+            if (!inActualSets) {
+                switchToActualSets();
+            }
+            generator.writeObject(row.actualSet());
+        }
+    }
+
+    void finish() throws IOException {
+        closeWeek();
+        generator.writeEndArray();
+        generator.writeObjectField("createdAt", block.getCreatedAt());
+        generator.writeObjectField("archivedAt", block.getArchivedAt());
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private void openWeek(Row row) throws IOException {
+        weekId = row.weekId();
+        generator.writeStartObject();
+        generator.writeObjectField("id", row.weekId());
+        generator.writeObjectField("blockId", block.getId());
+        generator.writeObjectField("weekNumber", row.weekNumber());
+        generator.writeObjectField("weekType", row.weekType());
+        generator.writeObjectField("startDate", row.startDate());
+        generator.writeObjectField("endDate", row.endDate());
+        generator.writeArrayFieldStart("days");
+    }
+
+    private void closeWeek() throws IOException {
+        if (weekId == null) {
+            return;
+        }
+        closeDay();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        weekId = null;
+    }
+
+    private void openDay(Row row) throws IOException {
+        dayId = row.dayId();
+        generator.writeStartObject();
+        generator.writeObjectField("id", row.dayId());
+        generator.writeObjectField("weekId", row.weekId());
+        generator.writeObjectField("dayNumber", row.dayNumber());
+        generator.writeObjectField("dayName", row.dayName());
+        generator.writeObjectField("restDay", row.restDay());
+        generator.writeArrayFieldStart("exercises");
+    }
+
+    private void closeDay() throws IOException {
+        if (dayId == null) {
+            return;
+        }
+        closeExercise();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        dayId = null;
+    }
+
+    private void openExercise(Row row) throws IOException {
+        exerciseId = row.exerciseId();
+        inActualSets = false;
+        generator.writeStartObject();
+        generator.writeObjectField("id", row.exerciseId());
+        generator.writeObjectField("dayId", row.dayId());
+        generator.writeObjectField("name", row.exerciseName());
+        generator.writeObjectField("definitionId", row.definitionId());
+        generator.writeObjectField("category", row.category());
+        generator.writeObjectField("orderInWorkout", row.orderInWorkout());
+        generator.writeArrayFieldStart("prescribedSets");
+    }
+
+    private void switchToActualSets() throws IOException {
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("actualSets");
+        inActualSets = true;
+    }
+
+    private void closeExercise() throws IOException {
+        if (exerciseId == null) {
+            return;
+        }
+        if (!inActualSets) {
+            switchToActualSets();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        exerciseId = null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.workouttracker.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.dto.WorkoutResponseDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a block's progress as the JSON array of {@link WorkoutResponseDto} from its logged
+ * sets, ordered by day and exercise. {@code completedAt}, the latest completion time of the
+ * day, precedes the exercises in the DTO, so the rows of one day are held until the next day
+ * starts. A day is a few dozen sets; the query stays an ordered scan without a window sort.
+ */
+class ProgressJsonWriter {
+
+    record Row(Integer weekNumber, Long dayId, Integer dayNumber, Long exerciseId, String exerciseName,
+               ActualSetDto actualSet) {
+    }
+
+    private final JsonGenerator generator;
+    private final Long blockId;
+    private final List<Row> day = new ArrayList<>();
+
+    ProgressJsonWriter(JsonGenerator generator, Long blockId) {
+        this.generator = generator;
+        this.blockId = blockId;
+    }
+
+    void start() throws IOException {
+        generator.writeStartArray();
+    }
+
+    void row(Row row) throws IOException {
+        if (!day.isEmpty() && !row.dayId().equals(day.get(0).dayId())) {
+            writeDay();
+        }
+        day.add(row);
+    }
+
+    void finish() throws IOException {
+        writeDay();
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    private void writeDay() throws IOException {
+        if (day.isEmpty()) {
+            return;
+        }
+        Row first = day.get(0);
+        LocalDateTime completedAt = day.stream()
+                .map(row -> row.actualSet().getCompletedAt())
+                .filter(date -> date != null)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        generator.writeStartObject();
+        generator.writeObjectField("id", null);
+        generator.writeObjectField("blockId", blockId);
+        generator.writeObjectField("weekNumber", first.weekNumber());
+        generator.writeObjectField("dayNumber", first.dayNumber());
+        generator.writeObjectField("completedAt", completedAt);
+        generator.writeArrayFieldStart("exercises");
+        Long exerciseId = null;
+        for (Row row : day) {
+            if (!row.exerciseId().equals(exerciseId)) {
+                if (exerciseId != null) {
+                    closeExercise();
+                }
+                exerciseId = row.exerciseId();
+                generator.writeStartObject();
+                generator.writeObjectField("exerciseId", row.exerciseId());
+                generator.writeObjectField("exerciseName", row.exerciseName());
+                generator.writeArrayFieldStart("actualSets");
+            }
+            generator.writeObject(row.actualSet());
+        }
+        closeExercise();
+        generator.writeEndArray();
+        generator.writeObjectField("newPersonalRecords", null);
+        generator.writeEndObject();
+        day.clear();
+    }
+
+    private void closeExercise() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
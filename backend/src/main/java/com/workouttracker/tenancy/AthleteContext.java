@@ -0,0 +1,62 @@
+package com.workouttracker.tenancy;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The athlete whose data the current thread works on. {@link AthleteFilter} binds it for every
+ * API request; scheduled jobs run unbound and use the unscoped repository methods, or bind the
+ * owner of the block they work on with {@link #callAs}.
+ */
+public final class AthleteContext {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private AthleteContext() {
+    }
+
+    /** @throws IllegalStateException when no athlete is bound, i.e. outside a request */
+    public static Long currentAthleteId() {
+        Long athleteId = CURRENT.get();
+        if (athleteId == null) {
+            throw new IllegalStateException("No athlete is bound to this thread");
+        }
+        return athleteId;
+    }
+
+    public static Optional<Long> find() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /** Runs {@code action} with {@code athleteId} bound, then restores whatever was bound before. */
+    public static <T> T callAs(Long athleteId, Supplier<T> action) {
+        Long previous = bind(athleteId);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(Long athleteId, Runnable action) {
+        callAs(athleteId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** @return the athlete bound before, to hand back to {@link #restore} */
+    static Long bind(Long athleteId) {
+        Long previous = CURRENT.get();
+        CURRENT.set(athleteId);
+        return previous;
+    }
+
+    static void restore(Long previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
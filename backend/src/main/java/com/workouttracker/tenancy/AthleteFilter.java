@@ -0,0 +1,97 @@
+package com.workouttracker.tenancy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Resolves the athlete of each API request from the {@code header} (by default
+ * {@code X-Athlete-Id}) and binds it to {@link AthleteContext} while the request is handled.
+ * Without the header the request belongs to {@code default-athlete-id}, so a single-lifter
+ * deployment and clients that predate tenancy keep working; set {@code require-header} once
+ * every client sends it. A malformed id is rejected with 400 before any handler runs.
+ * <p>
+ * The athlete is only a query parameter: every athlete shares the connection pool and the
+ * caches, so the number of athletes an instance serves is bounded by data, not by setup.
+ */
+public class AthleteFilter extends OncePerRequestFilter {
+
+    @ConfigurationProperties("workout-tracker.tenancy")
+    public record Settings(
+            @DefaultValue("X-Athlete-Id") String header,
+            @DefaultValue("1") long defaultAthleteId,
+            @DefaultValue("false") boolean requireHeader) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+
+    public AthleteFilter(Settings settings, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/swagger-ui") || path.startsWith("/api-docs") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(settings.header());
+        Long athleteId;
+        if (header == null || header.isBlank()) {
+            if (settings.requireHeader()) {
+                reject(response, "Missing " + settings.header() + " header");
+                return;
+            }
+            athleteId = settings.defaultAthleteId();
+        } else {
+            athleteId = parse(header.trim());
+            if (athleteId == null) {
+                reject(response, "Invalid " + settings.header() + " header: " + header);
+                return;
+            }
+        }
+        Long previous = AthleteContext.bind(athleteId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            AthleteContext.restore(previous);
+        }
+    }
+
+    private static Long parse(String value) {
+        try {
+            long athleteId = Long.parseLong(value);
+            return athleteId > 0 ? athleteId : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(message)
+                .build();
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,33 @@
+package com.workouttracker.tenancy;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Lets context propagation carry the bound athlete across threads. Spring for GraphQL captures it
+ * when a request arrives and restores it around each data fetcher, wherever that runs. Registered
+ * through {@code META-INF/services}.
+ */
+public class AthleteThreadLocalAccessor implements ThreadLocalAccessor<Long> {
+
+    public static final String KEY = "workout-tracker.athlete";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public Long getValue() {
+        return AthleteContext.find().orElse(null);
+    }
+
+    @Override
+    public void setValue(Long athleteId) {
+        AthleteContext.bind(athleteId);
+    }
+
+    @Override
+    public void setValue() {
+        AthleteContext.restore(null);
+    }
+}
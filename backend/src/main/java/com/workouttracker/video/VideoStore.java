@@ -0,0 +1,214 @@
+package com.workouttracker.video;
+
+import com.workouttracker.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Files behind set videos. Finished videos are content-addressed: one file per sha256 under
+ * {@code objects/}, shared by every set that uploaded the same bytes. An upload in progress is
+ * one {@code uploads/<id>.part} file whose length is the resume offset, so an interrupted
+ * upload continues where the last fsynced chunk ended, across restarts as well.
+ * <p>
+ * Bytes move between the request and the file through channels ({@code transferFrom} into the
+ * part file, {@code transferTo} out of an object), never as whole-file arrays on the heap.
+ */
+@Component
+@Slf4j
+public class VideoStore {
+
+    private static final int HASH_BUFFER_BYTES = 64 * 1024;
+
+    @Value("${workout-tracker.videos.directory:data/videos}")
+    private String directory;
+
+    /** Bytes of the upload received so far; 0 before its first chunk. */
+    public long received(String uploadId) {
+        try {
+            return Files.size(partFile(uploadId));
+        } catch (NoSuchFileException ex) {
+            return 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read upload " + uploadId, ex);
+        }
+    }
+
+    /**
+     * Appends up to {@code length} bytes of {@code body} at {@code offset}, which must be the
+     * bytes received so far. The part file is locked for the duration, so a second chunk for the
+     * same upload (a client retrying before the first attempt gave up) is rejected rather than
+     * interleaved. Whatever arrived before a broken connection is kept.
+     *
+     * @return the bytes received after this chunk
+     */
+    public long append(String uploadId, long offset, InputStream body, long length) {
+        Path part = partFile(uploadId);
+        try {
+            Files.createDirectories(part.getParent());
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = lockOrConflict(channel, uploadId)) {
+                if (channel.size() != offset) {
+                    throw new ConflictException("Upload " + uploadId + " is at offset " + channel.size() +
+                            ", not " + offset);
+                }
+                ReadableByteChannel source = Channels.newChannel(body);
+                long written = 0;
+                try {
+                    while (written < length) {
+                        long transferred = channel.transferFrom(source, offset + written, length - written);
+                        if (transferred <= 0) {
+                            break;
+                        }
+                        written += transferred;
+                    }
+                } finally {
+                    // Also after a dropped connection, so the reported offset never runs ahead of the disk
+                    channel.force(false);
+                }
+                return offset + written;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write upload " + uploadId, ex);
+        }
+    }
+
+    /**
+     * Verifies a complete upload against its declared sha256 and moves it into the object store.
+     * A mismatched upload is deleted. If the object already exists the part file is dropped and
+     * the object's modification time refreshed, which keeps the orphan sweep off it.
+     */
+    public void publish(String uploadId, String sha256) {
+        Path part = partFile(uploadId);
+        String actual = sha256(part);
+        if (!actual.equals(sha256)) {
+            deletePart(uploadId);
+            throw new IllegalArgumentException("Upload " + uploadId + " has sha256 " + actual +
+                    ", not the declared " + sha256 + "; it was discarded");
+        }
+        Path object = objectFile(sha256);
+        try {
+            Files.createDirectories(object.getParent());
+            if (Files.exists(object)) {
+                Files.setLastModifiedTime(object, FileTime.from(Instant.now()));
+                Files.delete(part);
+                return;
+            }
+            Files.move(part, object, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            deletePart(uploadId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store upload " + uploadId, ex);
+        }
+    }
+
+    public Path objectFile(String sha256) {
+        return objects().resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    public void deletePart(String uploadId) {
+        delete(partFile(uploadId));
+    }
+
+    public void deleteObject(String sha256) {
+        delete(objectFile(sha256));
+    }
+
+    /** Hashes of objects last written or reused before {@code cutoff}, the candidates for the orphan sweep. */
+    public List<String> objectsOlderThan(Instant cutoff) {
+        if (!Files.isDirectory(objects())) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(objects(), 2)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> lastModified(file).isBefore(cutoff))
+                    .map(file -> file.getFileName().toString())
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list video objects", ex);
+        }
+    }
+
+    static String sha256(Path file) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not hash " + file, ex);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path partFile(String uploadId) {
+        return root().resolve("uploads").resolve(uploadId + ".part");
+    }
+
+    private Path objects() {
+        return root().resolve("objects");
+    }
+
+    private Path root() {
+        return Path.of(directory).toAbsolutePath();
+    }
+
+    private static FileLock lockOrConflict(FileChannel channel, String uploadId) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException ex) {
+            // Held by another request thread of this process
+        }
+        throw new ConflictException("Upload " + uploadId + " is already receiving a chunk");
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException ex) {
+            return Instant.now();
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete video file {}: {}", file, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.workouttracker.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private AdmissionControlFilter filter(int maxInFlight, int clientBurst) {
+        return new AdmissionControlFilter(new AdmissionControlFilter.Settings(
+                true, maxInFlight, 10, 1, 50, 2.0, 0.2, clientBurst, 1.0, 1, false), objectMapper, clock::get);
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        return request;
+    }
+
+    private static MockHttpServletResponse run(AdmissionControlFilter filter, MockHttpServletRequest request,
+                                               FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Nested
+    @DisplayName("client token buckets")
+    class TokenBuckets {
+
+        @Test
+        @DisplayName("returns 429 with Retry-After once the client's burst is spent")
+        void rejectsOverRate() throws Exception {
+            AdmissionControlFilter filter = filter(10, 2);
+
+            assertThat(run(filter, request("GET", "/blocks"), new MockFilterChain()).getStatus()).isEqualTo(200);
+            assertThat(run(filter, request("GET", "/blocks"), new MockFilterChain()).getStatus()).isEqualTo(200);
+            MockHttpServletResponse rejected = run(filter, request("GET", "/blocks"), new MockFilterChain());
+
+            assertThat(rejected.getStatus()).isEqualTo(429);
+            assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+            assertThat(rejected.getContentAsString()).contains("\"status\":429");
+        }
+
+        @Test
+        @DisplayName("refills over time and keeps clients independent")
+        void refillsPerClient() throws Exception {
+            AdmissionControlFilter filter = filter(10, 1);
+            MockHttpServletRequest other = request("GET", "/blocks");
+            other.setRemoteAddr("10.0.0.2");
+
+            assertThat(run(filter, request("GET", "/blocks"), new MockFilterChain()).getStatus()).isEqualTo(200);
+            assertThat(run(filter, request("GET", "/blocks"), new MockFilterChain()).getStatus()).isEqualTo(429);
+            assertThat(run(filter, other, new MockFilterChain()).getStatus()).isEqualTo(200);
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            assertThat(run(filter, request("GET", "/blocks"), new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Nested
+    @DisplayName("priorities")
+    class Priorities {
+
+        @Test
+        @DisplayName("sheds analytics reads with 503 while workout logging is still admitted")
+        void shedsAnalyticsFirst() throws Exception {
+            AdmissionControlFilter filter = filter(2, 100);
+            AtomicReference<MockHttpServletResponse> analytics = new AtomicReference<>();
+            AtomicReference<MockHttpServletResponse> logging = new AtomicReference<>();
+
+            // The outer request is still in flight while the nested ones arrive
+            run(filter, request("POST", "/workouts"), (req, res) -> {
+                analytics.set(run(filter, request("GET", "/blocks/7/progress"), new MockFilterChain()));
+                logging.set(run(filter, request("POST", "/workouts"), new MockFilterChain()));
+            });
+
+            assertThat(analytics.get().getStatus()).isEqualTo(503);
+            assertThat(analytics.get().getHeader("Retry-After")).isEqualTo("1");
+            assertThat(logging.get().getStatus()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("sheds backups and GraphQL queries while a new set is still admitted")
+        void shedsExportsBeforeNewSets() throws Exception {
+            AdmissionControlFilter filter = filter(2, 100);
+            AtomicReference<MockHttpServletResponse> backup = new AtomicReference<>();
+            AtomicReference<MockHttpServletResponse> graphql = new AtomicReference<>();
+            AtomicReference<MockHttpServletResponse> newSet = new AtomicReference<>();
+
+            run(filter, request("POST", "/workouts"), (req, res) -> {
+                backup.set(run(filter, request("GET", "/blocks/7/backup"), new MockFilterChain()));
+                graphql.set(run(filter, request("POST", "/graphql"), new MockFilterChain()));
+                newSet.set(run(filter, request("POST", "/actual-sets"), new MockFilterChain()));
+            });
+
+            assertThat(backup.get().getStatus()).isEqualTo(503);
+            assertThat(graphql.get().getStatus()).isEqualTo(503);
+            assertThat(newSet.get().getStatus()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("classifies requests by method and normalized path")
+        void classifiesRequests() {
+            assertThat(RequestPriority.of("POST", "/workouts")).isEqualTo(RequestPriority.CRITICAL);
+            assertThat(RequestPriority.of("POST", "/actual-sets")).isEqualTo(RequestPriority.CRITICAL);
+            assertThat(RequestPriority.of("PUT", "/actual-sets/{id}")).isEqualTo(RequestPriority.CRITICAL);
+            assertThat(RequestPriority.of("GET", "/blocks/{id}/progress")).isEqualTo(RequestPriority.ANALYTICS);
+            assertThat(RequestPriority.of("GET", "/blocks/compare")).isEqualTo(RequestPriority.ANALYTICS);
+            assertThat(RequestPriority.of("GET", "/blocks/{id}/compliance")).isEqualTo(RequestPriority.ANALYTICS);
+            assertThat(RequestPriority.of("GET", "/blocks/{id}/backup")).isEqualTo(RequestPriority.ANALYTICS);
+            assertThat(RequestPriority.of("GET", "/search/feedback")).isEqualTo(RequestPriority.ANALYTICS);
+            assertThat(RequestPriority.of("POST", "/graphql")).isEqualTo(RequestPriority.ANALYTICS);
+            assertThat(RequestPriority.of("GET", "/blocks/{id}")).isEqualTo(RequestPriority.STANDARD);
+        }
+    }
+
+    @Nested
+    @DisplayName("adaptive concurrency limit")
+    class AdaptiveLimit {
+
+        @Test
+        @DisplayName("shrinks as latency rises above the no-load latency and grows back when it recovers")
+        void followsLatency() {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, 1.5, 0.5);
+            for (int i = 0; i < 5; i++) {
+                assertThat(limiter.tryAcquire()).isTrue();
+                limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            int steady = limiter.getLimit();
+
+            for (int i = 0; i < 20; i++) {
+                limiter.tryAcquire();
+                limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(200));
+            }
+            int congested = limiter.getLimit();
+
+            for (int i = 0; i < 20; i++) {
+                limiter.tryAcquire();
+                limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+
+            assertThat(congested).isLessThan(steady);
+            assertThat(limiter.getLimit()).isGreaterThan(congested);
+        }
+
+        @Test
+        @DisplayName("rejects requests beyond the current limit")
+        void rejectsOverLimit() {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.2);
+
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire()).isFalse();
+            limiter.onIgnore();
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
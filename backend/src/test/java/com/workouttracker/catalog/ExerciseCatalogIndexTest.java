@@ -0,0 +1,78 @@
+package com.workouttracker.catalog;
+
+import com.workouttracker.catalog.ExerciseCatalogIndex.Entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExerciseCatalogIndexTest {
+
+    private final ExerciseCatalogIndex index = new ExerciseCatalogIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.addAll(List.of(
+                new Entry("Barbell Bench Press", "Chest", "Barbell"),
+                new Entry("Dumbbell Bench Press", "Chest", "Dumbbell"),
+                new Entry("Bench Dip", "Upper Arms", "Body Weight"),
+                new Entry("Barbell Full Squat", "Upper Legs", "Barbell"),
+                new Entry("Dumbbell Goblet Squat", "Upper Legs", "Dumbbell"),
+                new Entry("Farmer's Walk", "Lower Arms", "Dumbbell")));
+    }
+
+    private static List<String> names(List<Entry> entries) {
+        return entries.stream().map(Entry::name).toList();
+    }
+
+    @Test
+    @DisplayName("matches every query word as a word prefix, whole-name prefixes first")
+    void prefixSearch() {
+        assertThat(names(index.search("bench", null, null, 10, 0.5)))
+                .containsExactly("Bench Dip", "Barbell Bench Press", "Dumbbell Bench Press");
+        assertThat(names(index.search("db bench", null, null, 10, 0.9))).isEmpty();
+        assertThat(names(index.search("dumb pre", null, null, 10, 0.9))).containsExactly("Dumbbell Bench Press");
+    }
+
+    @Test
+    @DisplayName("falls back to bigram similarity for misspelled words")
+    void fuzzySearch() {
+        List<String> result = names(index.search("benhc pres", null, null, 10, 0.5));
+
+        assertThat(result).startsWith("Barbell Bench Press", "Dumbbell Bench Press").doesNotContain("Farmer's Walk");
+    }
+
+    @Test
+    @DisplayName("applies body part and equipment filters case-insensitively")
+    void filters() {
+        assertThat(names(index.search("squat", "upper legs", "dumbbell", 10, 0.5)))
+                .containsExactly("Dumbbell Goblet Squat");
+        assertThat(names(index.search("", null, "Dumbbell", 10, 0.5)))
+                .containsExactly("Dumbbell Bench Press", "Dumbbell Goblet Squat", "Farmer's Walk");
+    }
+
+    @Test
+    @DisplayName("adds names incrementally and ignores spellings of names already indexed")
+    void incrementalAdd() {
+        int added = index.addAll(List.of(
+                new Entry("barbell bench-press", null, null),
+                new Entry("Spoto Press", null, null),
+                new Entry("  ", null, null)));
+
+        assertThat(added).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(7);
+        assertThat(index.contains("farmers walk")).isTrue();
+        assertThat(names(index.search("spo", null, null, 10, 0.5))).containsExactly("Spoto Press");
+        assertThat(index.search("barbell bench", null, null, 10, 0.5).get(0).bodyPart()).isEqualTo("Chest");
+    }
+
+    @Test
+    @DisplayName("returns at most limit results")
+    void limit() {
+        assertThat(index.search("", null, null, 2, 0.5)).hasSize(2);
+        assertThat(index.search("b", null, null, 1, 0.5)).hasSize(1);
+    }
+}
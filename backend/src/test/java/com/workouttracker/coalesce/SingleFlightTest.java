@@ -0,0 +1,151 @@
+package com.workouttracker.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final SingleFlight.Key key = new SingleFlight.Key("training-block", List.of(1L));
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("workout_tracker.single_flight.calls",
+                "operation", "training-block", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("concurrent callers share one computation and nothing is reused afterwards")
+    void sharesInFlightComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> singleFlight.execute(key, () -> {
+            computations.incrementAndGet();
+            block(release);
+            return "block-1";
+        }));
+        await().until(() -> singleFlight.inFlightCount() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute(key, () -> {
+            computations.incrementAndGet();
+            return "unexpected";
+        }));
+        Thread.sleep(100);
+
+        release.countDown();
+
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("block-1");
+        assertThat(follower.get(1, TimeUnit.SECONDS)).isEqualTo("block-1");
+        assertThat(computations).hasValue(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+        assertThat(singleFlight.execute(key, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("waiters receive the leader's exception")
+    void propagatesFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> singleFlight.execute(key, () -> {
+            block(release);
+            throw new IllegalArgumentException("boom");
+        }));
+        await().until(() -> singleFlight.inFlightCount() == 1);
+        Future<Object> follower = executor.submit(() -> singleFlight.execute(key, () -> "unexpected"));
+        Thread.sleep(100);
+
+        release.countDown();
+
+        assertThatThrownBy(() -> follower.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> leader.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("an interrupted waiter gives up without affecting the computation")
+    void interruptedWaiterLeaves() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.execute(key, () -> {
+            block(release);
+            return "block-1";
+        }));
+        await().until(() -> singleFlight.inFlightCount() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute(key, () -> "unexpected"));
+        Thread.sleep(100);
+
+        follower.cancel(true);
+        await().until(() -> count("abandoned") == 1);
+        release.countDown();
+
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("block-1");
+    }
+
+    @Test
+    @DisplayName("waiters recompute when the leader is cancelled")
+    void recomputesAfterLeaderCancellation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> singleFlight.execute(key, () -> {
+            block(release);
+            throw new CancellationException("request aborted");
+        }));
+        await().until(() -> singleFlight.inFlightCount() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute(key, () -> "recomputed"));
+        Thread.sleep(100);
+
+        release.countDown();
+
+        assertThat(follower.get(1, TimeUnit.SECONDS)).isEqualTo("recomputed");
+        assertThat(count("computed")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("forget detaches in-flight computations for a block")
+    void forgetDetaches() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = executor.submit(() -> singleFlight.execute(key, () -> {
+            block(release);
+            return "before-write";
+        }));
+        await().until(() -> singleFlight.inFlightCount() == 1);
+
+        singleFlight.forget(1L);
+
+        assertThat(singleFlight.execute(key, () -> "after-write")).isEqualTo("after-write");
+        release.countDown();
+        assertThat(stale.get(1, TimeUnit.SECONDS)).isEqualTo("before-write");
+    }
+
+    private static void block(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted");
+        }
+    }
+}
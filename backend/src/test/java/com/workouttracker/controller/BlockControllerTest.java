@@ -1,28 +1,52 @@
 package com.workouttracker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.dto.BlockComparisonDto;
+import com.workouttracker.dto.BlockComparisonEntryDto;
+import com.workouttracker.dto.BlockRestoreDto;
+import com.workouttracker.dto.CloneBlockRequest;
 import com.workouttracker.dto.CreateBlockRequest;
+import com.workouttracker.dto.ExerciseComplianceDto;
 import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.dto.WeekDto;
+import com.workouttracker.dto.WorkoutDayDto;
 import com.workouttracker.dto.WorkoutResponseDto;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.exception.GlobalExceptionHandler;
+import com.workouttracker.service.BlockArchiveService;
+import com.workouttracker.service.BlockBackupService;
+import com.workouttracker.service.BlockCloneService;
+import com.workouttracker.service.BlockComparisonService;
+import com.workouttracker.service.BlockComplianceService;
+import com.workouttracker.service.BlockSnapshotService;
 import com.workouttracker.service.TrainingBlockService;
+import com.workouttracker.service.WeekSessionService;
 import com.workouttracker.service.WorkoutService;
+import com.workouttracker.streaming.BlockJsonStreamer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,6 +67,30 @@ class BlockControllerTest {
     @MockBean
     private WorkoutService workoutService;
 
+    @MockBean
+    private BlockSnapshotService blockSnapshotService;
+
+    @MockBean
+    private BlockArchiveService blockArchiveService;
+
+    @MockBean
+    private BlockBackupService blockBackupService;
+
+    @MockBean
+    private BlockComparisonService blockComparisonService;
+
+    @MockBean
+    private BlockCloneService blockCloneService;
+
+    @MockBean
+    private WeekSessionService weekSessionService;
+
+    @MockBean
+    private BlockComplianceService blockComplianceService;
+
+    @MockBean
+    private BlockJsonStreamer blockJsonStreamer;
+
     @Nested
     @DisplayName("GET /blocks")
     class GetAllBlocks {
@@ -104,6 +152,59 @@ class BlockControllerTest {
             verify(trainingBlockService).getTrainingBlockById(1L);
         }
 
+        @Test
+        @DisplayName("returns stored snapshot bytes without assembling the block")
+        void returnsSnapshot() throws Exception {
+            byte[] snapshot = "{\"id\":1,\"blockLength\":5,\"weeks\":[]}".getBytes(StandardCharsets.UTF_8);
+            when(blockSnapshotService.findFreshSnapshot(1L)).thenReturn(Optional.of(snapshot));
+
+            mockMvc.perform(get("/blocks/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().bytes(snapshot));
+
+            verify(trainingBlockService, never()).getTrainingBlockById(any());
+        }
+
+        @Test
+        @DisplayName("streams the block when streaming is enabled")
+        void streamsBlock() throws Exception {
+            StreamingResponseBody body = out -> out.write("{\"id\":1,\"weeks\":[]}".getBytes(StandardCharsets.UTF_8));
+            when(blockJsonStreamer.isEnabled()).thenReturn(true);
+            when(blockJsonStreamer.streamBlock(1L)).thenReturn(Optional.of(body));
+
+            mockMvc.perform(get("/blocks/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.id").value(1));
+
+            verify(trainingBlockService, never()).getTrainingBlockById(any());
+        }
+
+        @Test
+        @DisplayName("falls back to the assembled block when the streamer skips an archived block")
+        void fallsBackForArchivedBlock() throws Exception {
+            TrainingBlockDto dto = TrainingBlockDto.builder().id(1L).archivedAt(LocalDateTime.now()).build();
+            when(blockJsonStreamer.isEnabled()).thenReturn(true);
+            when(blockJsonStreamer.streamBlock(1L)).thenReturn(Optional.empty());
+            when(trainingBlockService.getTrainingBlockById(1L)).thenReturn(dto);
+
+            mockMvc.perform(get("/blocks/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+
+        @Test
+        @DisplayName("returns 404 from the streaming path before the body starts")
+        void streamingReturns404() throws Exception {
+            when(blockJsonStreamer.isEnabled()).thenReturn(true);
+            when(blockJsonStreamer.streamBlock(99L))
+                    .thenThrow(new ResourceNotFoundException("Training block not found with id: 99"));
+
+            mockMvc.perform(get("/blocks/99"))
+                    .andExpect(status().isNotFound());
+        }
+
         @Test
         @DisplayName("returns 404 when block not found")
         void returns404WhenNotFound() throws Exception {
@@ -141,6 +242,136 @@ class BlockControllerTest {
 
             verify(workoutService).getBlockProgress(1L);
         }
+
+        @Test
+        @DisplayName("streams progress when streaming is enabled")
+        void streamsProgress() throws Exception {
+            StreamingResponseBody body = out -> out.write("[{\"blockId\":1}]".getBytes(StandardCharsets.UTF_8));
+            when(blockJsonStreamer.isEnabled()).thenReturn(true);
+            when(blockJsonStreamer.streamProgress(1L)).thenReturn(Optional.of(body));
+
+            mockMvc.perform(get("/blocks/1/progress"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].blockId").value(1));
+
+            verify(workoutService, never()).getBlockProgress(any());
+        }
+
+        @Test
+        @DisplayName("does not append an error body when streaming fails after the response started")
+        void abortsFailedStream() {
+            StreamingResponseBody body = out -> {
+                out.write("[{\"blockId\":1".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                throw new DataAccessResourceFailureException("Connection lost");
+            };
+            when(blockJsonStreamer.isEnabled()).thenReturn(true);
+            when(blockJsonStreamer.streamProgress(1L)).thenReturn(Optional.of(body));
+
+            assertThatThrownBy(() -> mockMvc.perform(get("/blocks/1/progress")))
+                    .hasCauseInstanceOf(DataAccessResourceFailureException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /blocks/{id}/weeks/{weekNumber}/sessions")
+    class GetWeekSessions {
+
+        @Test
+        @DisplayName("returns 200 and every day of the week")
+        void returnsWeek() throws Exception {
+            WeekDto week = WeekDto.builder()
+                    .id(10L)
+                    .blockId(1L)
+                    .weekNumber(2)
+                    .days(List.of(
+                            WorkoutDayDto.builder().id(100L).dayNumber(1).exercises(List.of()).build(),
+                            WorkoutDayDto.builder().id(101L).dayNumber(2).exercises(List.of()).build()))
+                    .build();
+            when(weekSessionService.getWeekSessions(1L, 2)).thenReturn(week);
+
+            mockMvc.perform(get("/blocks/1/weeks/2/sessions"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.weekNumber").value(2))
+                    .andExpect(jsonPath("$.days", hasSize(2)))
+                    .andExpect(jsonPath("$.days[1].dayNumber").value(2));
+        }
+
+        @Test
+        @DisplayName("returns 404 when the week does not exist")
+        void returns404() throws Exception {
+            when(weekSessionService.getWeekSessions(1L, 9))
+                    .thenThrow(new ResourceNotFoundException("Week 9 not found for block 1"));
+
+            mockMvc.perform(get("/blocks/1/weeks/9/sessions"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /blocks/{id}/compliance")
+    class GetCompliance {
+
+        @Test
+        @DisplayName("returns 200 with one summary row per week and exercise")
+        void returnsRows() throws Exception {
+            when(blockComplianceService.getCompliance(1L)).thenReturn(List.of(
+                    ExerciseComplianceDto.builder().weekNumber(1).exerciseName("Squat").prescribedSets(4)
+                            .completedSets(3).missedSets(1).completionPercent(new BigDecimal("75.0")).build(),
+                    ExerciseComplianceDto.builder().weekNumber(2).exerciseName("Squat").prescribedSets(4)
+                            .completedSets(4).missedSets(0).rpeDrift(new BigDecimal("0.50")).build()));
+
+            mockMvc.perform(get("/blocks/1/compliance"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].completionPercent").value(75.0))
+                    .andExpect(jsonPath("$[1].rpeDrift").value(0.5));
+        }
+
+        @Test
+        @DisplayName("returns 400 for archived blocks")
+        void returns400ForArchived() throws Exception {
+            when(blockComplianceService.getCompliance(1L))
+                    .thenThrow(new IllegalArgumentException("Training block 1 is archived; restore it to report on it"));
+
+            mockMvc.perform(get("/blocks/1/compliance"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /blocks/compare")
+    class CompareBlocks {
+
+        @Test
+        @DisplayName("returns 200 with one entry per requested block")
+        void comparesBlocks() throws Exception {
+            BlockComparisonDto comparison = BlockComparisonDto.builder()
+                    .weekCount(4)
+                    .partial(true)
+                    .blocks(List.of(
+                            BlockComparisonEntryDto.builder().blockId(2L).status(BlockComparisonEntryDto.Status.COMPLETE).build(),
+                            BlockComparisonEntryDto.builder().blockId(1L).status(BlockComparisonEntryDto.Status.TIMED_OUT).build()))
+                    .build();
+            when(blockComparisonService.compare(List.of(2L, 1L), null)).thenReturn(comparison);
+
+            mockMvc.perform(get("/blocks/compare").param("ids", "2,1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.partial").value(true))
+                    .andExpect(jsonPath("$.blocks", hasSize(2)))
+                    .andExpect(jsonPath("$.blocks[1].status").value("TIMED_OUT"));
+        }
+
+        @Test
+        @DisplayName("returns 400 when too many blocks are requested")
+        void rejectsTooManyBlocks() throws Exception {
+            when(blockComparisonService.compare(any(), any()))
+                    .thenThrow(new IllegalArgumentException("At most 8 blocks can be compared at once"));
+
+            mockMvc.perform(get("/blocks/compare").param("ids", "1,2,3,4,5,6,7,8,9"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -175,6 +406,33 @@ class BlockControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /blocks/{id}/archive and /restore")
+    class ArchiveBlock {
+
+        @Test
+        @DisplayName("returns 200 and the archived block")
+        void archivesBlock() throws Exception {
+            TrainingBlockDto dto = TrainingBlockDto.builder().id(1L).archivedAt(LocalDateTime.now()).build();
+            when(blockArchiveService.archiveBlock(1L)).thenReturn(dto);
+
+            mockMvc.perform(post("/blocks/1/archive"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1))
+                    .andExpect(jsonPath("$.archivedAt").exists());
+        }
+
+        @Test
+        @DisplayName("returns 400 when restoring a block that is not archived")
+        void restoreRejectsLiveBlock() throws Exception {
+            when(blockArchiveService.restoreBlock(1L))
+                    .thenThrow(new IllegalArgumentException("Training block 1 is not archived"));
+
+            mockMvc.perform(post("/blocks/1/restore"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /blocks/{id}")
     class DeleteBlock {
@@ -202,4 +460,113 @@ class BlockControllerTest {
             verify(trainingBlockService).deleteTrainingBlock(99L);
         }
     }
+
+    @Nested
+    @DisplayName("POST /blocks/{id}/clone")
+    class CloneBlock {
+
+        @Test
+        @DisplayName("returns 201 with the new block")
+        void clonesBlock() throws Exception {
+            CloneBlockRequest request = CloneBlockRequest.builder()
+                    .startDate(LocalDate.of(2025, 3, 3))
+                    .loadMultiplier(new BigDecimal("1.025"))
+                    .build();
+            when(blockCloneService.cloneBlock(eq(1L), any(CloneBlockRequest.class)))
+                    .thenReturn(TrainingBlockDto.builder().id(2L).blockLength(5).build());
+
+            mockMvc.perform(post("/blocks/1/clone")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(2));
+
+            verify(blockCloneService).cloneBlock(1L, request);
+        }
+
+        @Test
+        @DisplayName("accepts a missing body")
+        void clonesWithoutBody() throws Exception {
+            when(blockCloneService.cloneBlock(1L, null)).thenReturn(TrainingBlockDto.builder().id(2L).build());
+
+            mockMvc.perform(post("/blocks/1/clone"))
+                    .andExpect(status().isCreated());
+        }
+
+        @Test
+        @DisplayName("returns 400 for a non-positive load multiplier")
+        void rejectsNegativeMultiplier() throws Exception {
+            mockMvc.perform(post("/blocks/1/clone")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"loadMultiplier\": -1}"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(blockCloneService);
+        }
+
+        @Test
+        @DisplayName("returns 404 when the source block does not exist")
+        void returns404() throws Exception {
+            when(blockCloneService.cloneBlock(99L, null))
+                    .thenThrow(new ResourceNotFoundException("Training block not found with id: 99"));
+
+            mockMvc.perform(post("/blocks/99/clone"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /blocks/{id}/backup and POST /blocks/restore")
+    class BackupBlock {
+
+        @Test
+        @DisplayName("streams the backup as an attachment")
+        void streamsBackup() throws Exception {
+            StreamingResponseBody body = out -> out.write(new byte[]{0x1f, (byte) 0x8b, 8});
+            when(blockBackupService.backup(1L)).thenReturn(body);
+
+            mockMvc.perform(get("/blocks/1/backup"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"block-1.wtbk\""))
+                    .andExpect(content().bytes(new byte[]{0x1f, (byte) 0x8b, 8}));
+        }
+
+        @Test
+        @DisplayName("returns 404 before writing anything when the block does not exist")
+        void backupReturns404() throws Exception {
+            when(blockBackupService.backup(99L))
+                    .thenThrow(new ResourceNotFoundException("Training block not found with id: 99"));
+
+            mockMvc.perform(get("/blocks/99/backup"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().doesNotExist("Content-Disposition"));
+        }
+
+        @Test
+        @DisplayName("returns 201 with the new block id and row counts")
+        void restoresBackup() throws Exception {
+            BlockRestoreDto restored = BlockRestoreDto.builder()
+                    .blockId(42L).sourceBlockId(7L).weeks(4L).actualSets(1200L).personalRecords(3).build();
+            when(blockBackupService.restore(any(InputStream.class))).thenReturn(restored);
+
+            mockMvc.perform(post("/blocks/restore")
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                            .content(new byte[]{1, 2, 3}))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.blockId").value(42))
+                    .andExpect(jsonPath("$.sourceBlockId").value(7))
+                    .andExpect(jsonPath("$.actualSets").value(1200));
+        }
+
+        @Test
+        @DisplayName("returns 400 for a body that is not a backup")
+        void rejectsUnreadableBackup() throws Exception {
+            when(blockBackupService.restore(any(InputStream.class)))
+                    .thenThrow(new IllegalArgumentException("Not a readable block backup: Not in GZIP format"));
+
+            mockMvc.perform(post("/blocks/restore").content("not a backup"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
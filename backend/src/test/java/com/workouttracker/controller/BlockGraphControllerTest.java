@@ -0,0 +1,204 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.config.GraphQlConfig;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.model.Exercise;
+import com.workouttracker.model.PrescribedSet;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.Week;
+import com.workouttracker.model.WeekType;
+import com.workouttracker.model.WorkoutDay;
+import com.workouttracker.service.BlockGraphService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@GraphQlTest(BlockGraphController.class)
+@Import(GraphQlConfig.class)
+class BlockGraphControllerTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockBean
+    private BlockGraphService blockGraphService;
+
+    private static TrainingBlock block(long id) {
+        return TrainingBlock.builder()
+                .id(id)
+                .blockLength(4)
+                .progressionRate(new BigDecimal("0.0250"))
+                .deloadRate(new BigDecimal("0.8000"))
+                .macrocycle("Strength")
+                .mesocycle("Accumulation")
+                .createdAt(LocalDateTime.of(2025, 1, 6, 9, 0))
+                .build();
+    }
+
+    private static Week week(long id, TrainingBlock block) {
+        return Week.builder().id(id).block(block).weekNumber(1).weekType(WeekType.BASE)
+                .startDate(LocalDate.of(2025, 1, 6)).endDate(LocalDate.of(2025, 1, 12)).build();
+    }
+
+    private static WorkoutDay day(long id, Week week) {
+        return WorkoutDay.builder().id(id).week(week).dayNumber(1).dayName("Monday").restDay(false).build();
+    }
+
+    @Nested
+    @DisplayName("batching")
+    class Batching {
+
+        @Test
+        @DisplayName("resolves each nesting level with one call for all parents")
+        void oneCallPerLevel() {
+            TrainingBlock first = block(1L);
+            TrainingBlock second = block(2L);
+            Week week1 = week(10L, first);
+            Week week2 = week(20L, second);
+            when(blockGraphService.getBlocks()).thenReturn(List.of(first, second));
+            when(blockGraphService.getWeeksByBlockIds(anyCollection()))
+                    .thenReturn(Map.of(1L, List.of(week1), 2L, List.of(week2)));
+            when(blockGraphService.getDaysByWeekIds(anyCollection()))
+                    .thenReturn(Map.of(10L, List.of(day(100L, week1)), 20L, List.of(day(200L, week2))));
+
+            graphQlTester.document("{ blocks { id weeks { id days { id dayName } } } }")
+                    .execute()
+                    .path("blocks[*].weeks[*].days[*].id").entityList(String.class).containsExactly("100", "200");
+
+            verify(blockGraphService).getWeeksByBlockIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))));
+            verify(blockGraphService).getDaysByWeekIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(10L, 20L))));
+            verify(blockGraphService, never()).getExercisesByDayIds(anyCollection());
+        }
+
+        @Test
+        @DisplayName("returns one day with its prescriptions and scalars in REST format")
+        void dayView() {
+            Week week = week(10L, block(1L));
+            WorkoutDay day = day(100L, week);
+            Exercise squat = Exercise.builder().id(1000L).day(day).name("Squat").category(ExerciseCategory.SQUAT)
+                    .definition(ExerciseDefinition.builder().id(7L).build()).orderInWorkout(1).build();
+            PrescribedSet set = PrescribedSet.builder().id(5000L).exercise(squat).setNumber(1).targetSets(3)
+                    .targetReps(5).targetLoadMin(new BigDecimal("100.00")).tempo(Tempo.CONTROLLED)
+                    .videoRequired(false).build();
+            when(blockGraphService.getDay(1L, 1, 1)).thenReturn(Optional.of(day));
+            when(blockGraphService.getExercisesByDayIds(anyCollection())).thenReturn(Map.of(100L, List.of(squat)));
+            when(blockGraphService.getPrescribedSetsByExerciseIds(anyCollection())).thenReturn(Map.of(1000L, List.of(set)));
+
+            GraphQlTester.Response response = graphQlTester.document("""
+                    { workoutDay(blockId: 1, weekNumber: 1, dayNumber: 1) {
+                        dayName exercises { name definitionId prescribedSets { targetLoadMin tempo } } } }
+                    """).execute();
+
+            response.path("workoutDay.exercises[0].definitionId").entity(String.class).isEqualTo("7");
+            response.path("workoutDay.exercises[0].prescribedSets[0].targetLoadMin").entity(BigDecimal.class)
+                    .isEqualTo(new BigDecimal("100.00"));
+            response.path("workoutDay.exercises[0].prescribedSets[0].tempo").entity(String.class).isEqualTo("CONTROLLED");
+            verify(blockGraphService, never()).getActualSetsByExerciseIds(anyCollection());
+        }
+
+        @Test
+        @DisplayName("returns null for an unknown block")
+        void unknownBlock() {
+            when(blockGraphService.getBlock(99L)).thenReturn(Optional.empty());
+
+            graphQlTester.document("{ block(id: 99) { id createdAt } }")
+                    .execute()
+                    .path("block").valueIsNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("limits")
+    class Limits {
+
+        @Test
+        @DisplayName("rejects queries nested deeper than max-depth before resolving anything")
+        void rejectsDeepQuery() {
+            graphQlTester.document("{ __schema { types { fields { type { ofType { ofType { ofType { ofType { name } } } } } } } } }")
+                    .execute()
+                    .errors().satisfy(errors -> assertThat(errors).anyMatch(e -> e.getMessage().contains("depth")));
+            verifyNoInteractions(blockGraphService);
+        }
+
+        @Test
+        @DisplayName("rejects queries selecting more fields than max-complexity, also when cached")
+        void rejectsComplexQuery() {
+            StringBuilder query = new StringBuilder("{ ");
+            for (int i = 0; i < 70; i++) {
+                query.append("b").append(i).append(": block(id: ").append(i).append(") { id macrocycle } ");
+            }
+            String document = query.append("}").toString();
+            // The second run reuses the cached document, which must not skip the check
+            for (int run = 0; run < 2; run++) {
+                graphQlTester.document(document)
+                        .execute()
+                        .errors().satisfy(errors -> assertThat(errors).anyMatch(e -> e.getMessage().contains("complexity")));
+            }
+            verifyNoInteractions(blockGraphService);
+        }
+    }
+
+    @Nested
+    @DisplayName("persisted queries")
+    class PersistedQueries {
+
+        private static final String QUERY = "{ blocks { id mesocycle } }";
+
+        @Test
+        @DisplayName("runs a query from its hash once the text has been seen")
+        void runsFromHash() throws Exception {
+            when(blockGraphService.getBlocks()).thenReturn(List.of(block(1L)));
+            String hash = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(QUERY.getBytes(StandardCharsets.UTF_8)));
+            Map<String, Object> extension = Map.of("version", 1, "sha256Hash", hash);
+
+            graphQlTester.document(QUERY).extension("persistedQuery", extension)
+                    .execute().path("blocks[0].mesocycle").entity(String.class).isEqualTo("Accumulation");
+            graphQlTester.document("PersistedQueryMarker").extension("persistedQuery", extension)
+                    .execute().path("blocks[0].id").entity(String.class).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("asks for the text when the hash is unknown")
+        void unknownHash() {
+            graphQlTester.document("PersistedQueryMarker")
+                    .extension("persistedQuery", Map.of("version", 1, "sha256Hash", "0".repeat(64)))
+                    .execute()
+                    .errors().satisfy(errors -> assertThat(errors)
+                            .anyMatch(e -> "PersistedQueryNotFound".equals(e.getMessage())));
+        }
+
+        @Test
+        @DisplayName("rejects a hash that does not match the query text")
+        void mismatchedHash() {
+            graphQlTester.document(QUERY)
+                    .extension("persistedQuery", Map.of("version", 1, "sha256Hash", "0".repeat(64)))
+                    .execute()
+                    .errors().satisfy(errors -> assertThat(errors)
+                            .anyMatch(e -> "PersistedQueryIdInvalid".equals(e.getMessage())));
+            verifyNoInteractions(blockGraphService);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.CatalogExerciseDto;
+import com.workouttracker.exception.GlobalExceptionHandler;
+import com.workouttracker.service.ExerciseCatalogService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CatalogController.class)
+@Import(GlobalExceptionHandler.class)
+class CatalogControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExerciseCatalogService exerciseCatalogService;
+
+    @Nested
+    @DisplayName("GET /catalog/exercises")
+    class SearchExercises {
+
+        @Test
+        @DisplayName("returns 200 with matching exercises")
+        void returnsMatches() throws Exception {
+            when(exerciseCatalogService.search("bench", "Chest", null, 5)).thenReturn(List.of(
+                    CatalogExerciseDto.builder().name("Barbell Bench Press").bodyPart("Chest").equipment("Barbell").build()));
+
+            mockMvc.perform(get("/catalog/exercises").param("q", "bench").param("bodyPart", "Chest").param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].name").value("Barbell Bench Press"))
+                    .andExpect(jsonPath("$[0].equipment").value("Barbell"));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an invalid limit")
+        void returns400ForInvalidLimit() throws Exception {
+            when(exerciseCatalogService.search(null, null, null, 0))
+                    .thenThrow(new IllegalArgumentException("limit must be at least 1"));
+
+            mockMvc.perform(get("/catalog/exercises").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.workouttracker.controller;
 
+import com.workouttracker.dto.ExerciseHistoryDto;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.exception.GlobalExceptionHandler;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.service.ExerciseDefinitionService;
 import com.workouttracker.service.ExerciseService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,8 +15,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ExerciseController.class)
@@ -26,6 +33,9 @@ class ExerciseControllerTest {
     @MockBean
     private ExerciseService exerciseService;
 
+    @MockBean
+    private ExerciseDefinitionService exerciseDefinitionService;
+
     @Nested
     @DisplayName("DELETE /exercises/{id}")
     class DeleteExercise {
@@ -53,4 +63,32 @@ class ExerciseControllerTest {
             verify(exerciseService).deleteExercise(99L);
         }
     }
+
+    @Nested
+    @DisplayName("GET /exercises/{definitionId}/history")
+    class GetHistory {
+
+        @Test
+        @DisplayName("returns 200 with the page and its cursor")
+        void returnsHistory() throws Exception {
+            when(exerciseDefinitionService.getHistory(7L, "2025-03-07T18:00_20", 25)).thenReturn(
+                    ExerciseHistoryDto.builder().definitionId(7L).name("Back Squat").category(ExerciseCategory.SQUAT)
+                            .entries(List.of()).nextCursor(null).build());
+
+            mockMvc.perform(get("/exercises/7/history").param("cursor", "2025-03-07T18:00_20").param("limit", "25"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Back Squat"))
+                    .andExpect(jsonPath("$.category").value("SQUAT"));
+        }
+
+        @Test
+        @DisplayName("returns 400 for a malformed cursor")
+        void returns400ForBadCursor() throws Exception {
+            when(exerciseDefinitionService.getHistory(7L, "bad", null))
+                    .thenThrow(new IllegalArgumentException("Invalid history cursor: bad"));
+
+            mockMvc.perform(get("/exercises/7/history").param("cursor", "bad"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.FeedbackMatchDto;
+import com.workouttracker.dto.FeedbackSearchDto;
+import com.workouttracker.exception.GlobalExceptionHandler;
+import com.workouttracker.service.FeedbackSearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+@Import(GlobalExceptionHandler.class)
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FeedbackSearchService feedbackSearchService;
+
+    @Nested
+    @DisplayName("GET /search/feedback")
+    class SearchFeedback {
+
+        @Test
+        @DisplayName("returns 200 with highlighted matches and the next cursor")
+        void returnsMatches() throws Exception {
+            when(feedbackSearchService.search("knee pain", "0.5_9", 10)).thenReturn(FeedbackSearchDto.builder()
+                    .query("knee pain")
+                    .matches(List.of(FeedbackMatchDto.builder().actualSetId(8L).weekNumber(2).exerciseName("Back Squat")
+                            .highlight("<mark>knee</mark> <mark>pain</mark>").build()))
+                    .nextCursor("0.4_8")
+                    .build());
+
+            mockMvc.perform(get("/search/feedback").param("q", "knee pain").param("cursor", "0.5_9").param("limit", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.matches", hasSize(1)))
+                    .andExpect(jsonPath("$.matches[0].exerciseName").value("Back Squat"))
+                    .andExpect(jsonPath("$.matches[0].highlight").value("<mark>knee</mark> <mark>pain</mark>"))
+                    .andExpect(jsonPath("$.nextCursor").value("0.4_8"));
+        }
+
+        @Test
+        @DisplayName("returns 400 without a query")
+        void returns400WithoutQuery() throws Exception {
+            when(feedbackSearchService.search(null, null, null))
+                    .thenThrow(new IllegalArgumentException("q must not be blank"));
+
+            mockMvc.perform(get("/search/feedback"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("q must not be blank"));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.workouttracker.controller;
+
+import com.workouttracker.dto.SetVideoDto;
+import com.workouttracker.dto.VideoUploadDto;
+import com.workouttracker.exception.CapacityExceededException;
+import com.workouttracker.exception.GlobalExceptionHandler;
+import com.workouttracker.service.SetVideoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SetVideoController.class)
+@Import(GlobalExceptionHandler.class)
+class SetVideoControllerTest {
+
+    private static final byte[] VIDEO = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+    private static final String SHA256 = "ab".repeat(32);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SetVideoService setVideoService;
+
+    @TempDir
+    Path videoDir;
+
+    @Nested
+    @DisplayName("GET /actual-sets/{id}/video")
+    class StreamVideo {
+
+        @BeforeEach
+        void storedVideo() throws Exception {
+            SetVideoDto video = SetVideoDto.builder()
+                    .actualSetId(40L).sha256(SHA256).sizeBytes((long) VIDEO.length).contentType("video/mp4").build();
+            Path file = Files.write(videoDir.resolve(SHA256), VIDEO);
+            when(setVideoService.getVideo(40L)).thenReturn(video);
+            when(setVideoService.videoFile(video)).thenReturn(file);
+        }
+
+        @Test
+        @DisplayName("returns the whole video with Accept-Ranges and the sha256 as ETag")
+        void wholeVideo() throws Exception {
+            mockMvc.perform(get("/actual-sets/40/video"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + SHA256 + "\""))
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, VIDEO.length))
+                    .andExpect(content().contentType("video/mp4"))
+                    .andExpect(content().bytes(VIDEO));
+        }
+
+        @Test
+        @DisplayName("returns 206 with only the requested bytes for a Range request")
+        void partialContent() throws Exception {
+            mockMvc.perform(get("/actual-sets/40/video").header(HttpHeaders.RANGE, "bytes=5-9"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+                    .andExpect(content().bytes("56789".getBytes(StandardCharsets.UTF_8)));
+
+            mockMvc.perform(get("/actual-sets/40/video").header(HttpHeaders.RANGE, "bytes=-3"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 17-19/20"))
+                    .andExpect(content().bytes("hij".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Test
+        @DisplayName("returns 416 for a range past the end and 304 for a matching If-None-Match")
+        void unsatisfiableAndNotModified() throws Exception {
+            mockMvc.perform(get("/actual-sets/40/video").header(HttpHeaders.RANGE, "bytes=20-"))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+
+            mockMvc.perform(get("/actual-sets/40/video").header(HttpHeaders.IF_NONE_MATCH, "\"" + SHA256 + "\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().bytes(new byte[0]));
+        }
+    }
+
+    @Nested
+    @DisplayName("PATCH /actual-sets/{id}/video/uploads/{uploadId}")
+    class AppendChunk {
+
+        @Test
+        @DisplayName("appends the body at Upload-Offset and echoes the new offset")
+        void appendsChunk() throws Exception {
+            when(setVideoService.appendChunk(eq(40L), eq("u1"), eq(10L), eq(5L), any(InputStream.class)))
+                    .thenReturn(VideoUploadDto.builder().uploadId("u1").actualSetId(40L).offset(15L).build());
+
+            mockMvc.perform(patch("/actual-sets/40/video/uploads/u1")
+                            .header(SetVideoController.UPLOAD_OFFSET, "10")
+                            .contentType("application/offset+octet-stream")
+                            .content("abcde"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(SetVideoController.UPLOAD_OFFSET, "15"))
+                    .andExpect(jsonPath("$.offset").value(15));
+        }
+
+        @Test
+        @DisplayName("passes a chunked body on with an unknown length")
+        void chunkedBody() throws Exception {
+            when(setVideoService.appendChunk(eq(40L), eq("u1"), eq(10L), eq(-1L), any(InputStream.class)))
+                    .thenReturn(VideoUploadDto.builder().uploadId("u1").actualSetId(40L).offset(15L).build());
+
+            mockMvc.perform(patch("/actual-sets/40/video/uploads/u1")
+                            .header(SetVideoController.UPLOAD_OFFSET, "10")
+                            .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                            .contentType("application/offset+octet-stream"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(SetVideoController.UPLOAD_OFFSET, "15"));
+        }
+
+        @Test
+        @DisplayName("returns 503 with Retry-After when every upload slot is busy")
+        void busy() throws Exception {
+            when(setVideoService.appendChunk(eq(40L), eq("u1"), eq(0L), eq(5L), any(InputStream.class)))
+                    .thenThrow(new CapacityExceededException("All 4 video upload slots are busy", 1));
+
+            mockMvc.perform(patch("/actual-sets/40/video/uploads/u1")
+                            .header(SetVideoController.UPLOAD_OFFSET, "0")
+                            .contentType("application/offset+octet-stream")
+                            .content("abcde"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.workouttracker.dto.WorkoutResponseDto;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.exception.GlobalExceptionHandler;
 import com.workouttracker.service.WorkoutService;
+import com.workouttracker.service.WorkoutSessionBroadcaster;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Collections;
 import java.util.List;
@@ -34,6 +36,9 @@ class WorkoutControllerTest {
     @MockBean
     private WorkoutService workoutService;
 
+    @MockBean
+    private WorkoutSessionBroadcaster workoutSessionBroadcaster;
+
     @Nested
     @DisplayName("POST /workouts")
     class LogWorkout {
@@ -110,6 +115,41 @@ class WorkoutControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /workouts/stream")
+    class StreamWorkout {
+
+        @Test
+        @DisplayName("opens an event stream subscribed to the requested day once it is found")
+        void subscribesToDay() throws Exception {
+            when(workoutSessionBroadcaster.subscribe(1L, 2, 3)).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/workouts/stream")
+                            .param("blockId", "1")
+                            .param("weekNumber", "2")
+                            .param("dayNumber", "3"))
+                    .andExpect(request().asyncStarted());
+
+            verify(workoutService).findWorkoutDay(1L, 2, 3);
+            verify(workoutSessionBroadcaster).subscribe(1L, 2, 3);
+        }
+
+        @Test
+        @DisplayName("returns 404 without subscribing when the day is not the athlete's")
+        void rejectsOtherAthletesDay() throws Exception {
+            when(workoutService.findWorkoutDay(1L, 2, 3))
+                    .thenThrow(new ResourceNotFoundException("Workout day not found"));
+
+            mockMvc.perform(get("/workouts/stream")
+                            .param("blockId", "1")
+                            .param("weekNumber", "2")
+                            .param("dayNumber", "3"))
+                    .andExpect(status().isNotFound());
+
+            verifyNoInteractions(workoutSessionBroadcaster);
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /workouts")
     class DeleteWorkout {
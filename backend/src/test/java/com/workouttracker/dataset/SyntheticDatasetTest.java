@@ -0,0 +1,132 @@
+package com.workouttracker.dataset;
+
+import com.workouttracker.dataset.SyntheticDataset.Batch;
+import com.workouttracker.dataset.SyntheticDataset.Table;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDatasetTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private static SyntheticDataset dataset(long seed, int blocks) {
+        return dataset(seed, blocks, 1);
+    }
+
+    private static SyntheticDataset dataset(long seed, int blocks, int athletes) {
+        SyntheticDataset.Settings settings = new SyntheticDataset.Settings(seed, blocks, athletes,
+                TODAY.minusYears(1), TODAY.minusWeeks(4), TODAY, 4, 5, 0.1);
+        Map<String, Long> definitionIds = new HashMap<>();
+        long id = 1;
+        for (List<String> names : SyntheticDataset.EXERCISE_NAMES.values()) {
+            for (String name : names) {
+                definitionIds.put(name, id++);
+            }
+        }
+        Map<Table, Long> firstIds = new EnumMap<>(Table.class);
+        for (Table table : Table.values()) {
+            firstIds.put(table, 1L);
+        }
+        return new SyntheticDataset(settings, definitionIds, new SyntheticDataset.Ids(firstIds));
+    }
+
+    private static List<String[]> rows(Batch batch, Table table) {
+        return batch.rows(table).lines().map(line -> line.split("\t", -1)).toList();
+    }
+
+    @Test
+    @DisplayName("same seed produces the same rows however the run is batched")
+    void deterministicAcrossBatching() {
+        Batch whole = dataset(7, 6).generate(0, 6);
+        SyntheticDataset split = dataset(7, 6);
+        Batch first = split.generate(0, 2);
+        Batch second = split.generate(2, 6);
+
+        for (Table table : Table.values()) {
+            assertThat(first.rows(table) + second.rows(table)).isEqualTo(whole.rows(table));
+        }
+        assertThat(dataset(8, 6).generate(0, 6).rows(Table.ACTUAL_SETS)).isNotEqualTo(whole.rows(Table.ACTUAL_SETS));
+    }
+
+    @Test
+    @DisplayName("blocks run 4-6 weeks from a base week to a deload week")
+    void blockShape() {
+        Batch batch = dataset(1, 10).generate(0, 10);
+
+        List<String[]> blocks = rows(batch, Table.TRAINING_BLOCKS);
+        List<String[]> weeks = rows(batch, Table.WEEKS);
+        assertThat(blocks).hasSize(10);
+        assertThat(blocks).allSatisfy(block -> assertThat(Integer.parseInt(block[2])).isBetween(4, 6));
+        assertThat(weeks).hasSize(blocks.stream().mapToInt(block -> Integer.parseInt(block[2])).sum());
+        for (String[] block : blocks) {
+            List<String> types = weeks.stream().filter(week -> week[1].equals(block[0])).map(week -> week[3]).toList();
+            assertThat(types.get(0)).isEqualTo("BASE");
+            assertThat(types.get(types.size() - 1)).isEqualTo("DELOAD");
+            assertThat(types.subList(1, types.size() - 1)).containsOnly("PROGRESSION");
+        }
+        assertThat(rows(batch, Table.WORKOUT_DAYS)).hasSize(weeks.size() * 4);
+        assertThat(rows(batch, Table.EXERCISES)).hasSize(weeks.size() * 4 * 5)
+                .extracting(exercise -> exercise[4])
+                .contains("SQUAT", "BENCH", "DEADLIFT", "ACCESSORY");
+    }
+
+    @Test
+    @DisplayName("logs sets only up to today, each pointing at an exercise and prescription of the batch")
+    void actualSetsReferenceTheTree() {
+        Batch batch = dataset(3, 8).generate(0, 8);
+
+        List<String> exerciseIds = rows(batch, Table.EXERCISES).stream().map(row -> row[0]).toList();
+        List<String> prescribedSetIds = rows(batch, Table.PRESCRIBED_SETS).stream().map(row -> row[0]).toList();
+        List<String[]> actualSets = rows(batch, Table.ACTUAL_SETS);
+        assertThat(actualSets).isNotEmpty();
+        assertThat(actualSets).allSatisfy(set -> {
+            assertThat(exerciseIds).contains(set[1]);
+            assertThat(prescribedSetIds).contains(set[2]);
+            assertThat(LocalDateTime.parse(set[10].replace(' ', 'T'))).isBefore(TODAY.plusDays(1).atStartOfDay());
+            assertThat(set[11]).isNotEqualTo("\\N");
+        });
+        assertThat(actualSets.stream().map(set -> set[0]).distinct()).hasSize(actualSets.size());
+    }
+
+    @Test
+    @DisplayName("writes COPY text with escaped values and \\N for nulls")
+    void copyFormat() {
+        Batch batch = dataset(5, 3).generate(0, 3);
+
+        assertThat(rows(batch, Table.ACTUAL_SETS))
+                .allSatisfy(set -> assertThat(set).hasSize(13))
+                .anySatisfy(set -> assertThat(set[9]).isEqualTo("\\N"));
+        assertThat(Arrays.asList(Table.values())).extracting(Table::copySql)
+                .allSatisfy(sql -> assertThat(sql).startsWith("COPY ").endsWith(" FROM STDIN"));
+    }
+
+    @Test
+    @DisplayName("deals blocks round-robin to athletes and copies the owner onto every logged set")
+    void athletes() {
+        Batch batch = dataset(2, 6, 3).generate(0, 6);
+
+        Map<String, String> blockAthletes = new HashMap<>();
+        rows(batch, Table.TRAINING_BLOCKS).forEach(block -> blockAthletes.put(block[0], block[1]));
+        assertThat(rows(batch, Table.TRAINING_BLOCKS)).extracting(block -> block[1])
+                .containsExactly("1", "2", "3", "1", "2", "3");
+
+        Map<String, String> weekBlocks = new HashMap<>();
+        rows(batch, Table.WEEKS).forEach(week -> weekBlocks.put(week[0], week[1]));
+        Map<String, String> dayWeeks = new HashMap<>();
+        rows(batch, Table.WORKOUT_DAYS).forEach(day -> dayWeeks.put(day[0], day[1]));
+        Map<String, String> exerciseDays = new HashMap<>();
+        rows(batch, Table.EXERCISES).forEach(exercise -> exerciseDays.put(exercise[0], exercise[1]));
+        assertThat(rows(batch, Table.ACTUAL_SETS)).isNotEmpty().allSatisfy(set -> assertThat(set[12])
+                .isEqualTo(blockAthletes.get(weekBlocks.get(dayWeeks.get(exerciseDays.get(set[1]))))));
+    }
+}
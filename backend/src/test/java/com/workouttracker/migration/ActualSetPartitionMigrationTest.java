@@ -0,0 +1,73 @@
+package com.workouttracker.migration;
+
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the whole changelog against a real PostgreSQL database and then exercises the partition
+ * function, which plain unit tests cannot reach. Point {@code MIGRATION_TEST_DATABASE_URL} (with
+ * {@code MIGRATION_TEST_DATABASE_USERNAME} / {@code _PASSWORD}) at an empty scratch database;
+ * the test drops and recreates its {@code public} schema.
+ */
+@EnabledIfEnvironmentVariable(named = "MIGRATION_TEST_DATABASE_URL", matches = ".+")
+class ActualSetPartitionMigrationTest {
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        connection = DriverManager.getConnection(System.getenv("MIGRATION_TEST_DATABASE_URL"),
+                System.getenv("MIGRATION_TEST_DATABASE_USERNAME"), System.getenv("MIGRATION_TEST_DATABASE_PASSWORD"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA public CASCADE");
+            statement.execute("CREATE SCHEMA public");
+        }
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        new Liquibase("db/changelog/db.changelog-master.yaml", new ClassLoaderResourceAccessor(), database)
+                .update(new Contexts());
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("creates a monthly partition after feedback_tsv became a generated column")
+    void createsPartitionAfterGeneratedColumn() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT ensure_actual_sets_partitions(DATE '2001-01-01', 0)");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            assertThat(rs.getInt(1)).isPositive();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT attgenerated FROM pg_attribute " +
+                        "WHERE attrelid = 'actual_sets_2001_01'::regclass AND attname = 'feedback_tsv'");
+             ResultSet rs = statement.executeQuery()) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getString(1)).isEqualTo("s");
+        }
+    }
+}
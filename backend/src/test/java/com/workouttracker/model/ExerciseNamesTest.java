@@ -0,0 +1,28 @@
+package com.workouttracker.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExerciseNamesTest {
+
+    @Test
+    @DisplayName("ignores case, punctuation, spacing and a plural s")
+    void mergesNearDuplicates() {
+        assertThat(ExerciseNames.normalize("Back Squats")).isEqualTo("backsquat");
+        assertThat(ExerciseNames.normalize(" back-squat ")).isEqualTo("backsquat");
+        assertThat(ExerciseNames.normalize("BackSquat")).isEqualTo("backsquat");
+        assertThat(ExerciseNames.normalize("Pull-Ups")).isEqualTo("pullup");
+        assertThat(ExerciseNames.normalize("pull up")).isEqualTo("pullup");
+    }
+
+    @Test
+    @DisplayName("keeps a double s and short words")
+    void keepsNonPlurals() {
+        assertThat(ExerciseNames.normalize("Bench Press")).isEqualTo("benchpress");
+        assertThat(ExerciseNames.normalize("Close Grip Bench Press")).isEqualTo("closegripbenchpress");
+        assertThat(ExerciseNames.normalize("Front Squat")).isNotEqualTo(ExerciseNames.normalize("Back Squat"));
+        assertThat(ExerciseNames.normalize(null)).isEmpty();
+    }
+}
@@ -0,0 +1,143 @@
+package com.workouttracker.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.service.BlockSnapshotService;
+import com.workouttracker.service.SnapshotRebuildListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Follows a block change from the writing transaction through the outbox table to the
+ * snapshot listener, with the table kept in memory behind the mocked JDBC template.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxDeliveryTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<OutboxListener> listeners;
+
+    @Mock
+    private BlockSnapshotService blockSnapshotService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<OutboxMessage> pending = new ArrayList<>();
+    private OutboxWriter writer;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        writer = new OutboxWriter(jdbcTemplate, new ObjectMapper().registerModule(new JavaTimeModule()));
+        relay = new OutboxRelay(jdbcTemplate, transactionTemplate, listeners, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerPoll", 5);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+
+        SnapshotRebuildListener listener = new SnapshotRebuildListener(blockSnapshotService, transactionManager);
+        lenient().when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+        lenient().when(blockSnapshotService.isEnabled()).thenReturn(true);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO outbox_events"), any(MapSqlParameterSource.class)))
+                .thenAnswer(invocation -> {
+                    MapSqlParameterSource params = invocation.getArgument(1);
+                    for (int i = 0; params.hasValue("type" + i); i++) {
+                        pending.add(new OutboxMessage((long) pending.size() + 1, (String) params.getValue("type" + i),
+                                (Long) params.getValue("aggregate" + i), (String) params.getValue("payload" + i),
+                                LocalDateTime.now(), 1));
+                    }
+                    return pending.size();
+                });
+        lenient().when(jdbcTemplate.query(contains("SKIP LOCKED"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.copyOf(pending));
+        lenient().when(jdbcTemplate.update(contains("'DELIVERED'"), any(MapSqlParameterSource.class)))
+                .thenAnswer(invocation -> {
+                    Collection<?> ids = (Collection<?>) invocation.<MapSqlParameterSource>getArgument(1).getValue("ids");
+                    pending.removeIf(message -> ids.contains(message.id()));
+                    return ids.size();
+                });
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void write(int status, BlockChangedEvent... events) {
+        TransactionSynchronizationManager.initSynchronization();
+        for (BlockChangedEvent event : events) {
+            writer.onBlockChanged(event);
+        }
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(sync -> sync.beforeCommit(false));
+        }
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("rebuilds the snapshot of a committed change exactly once")
+    void committedChangeRebuiltOnce() {
+        write(TransactionSynchronization.STATUS_COMMITTED, new BlockChangedEvent(5L), new BlockChangedEvent(5L));
+
+        relay.relay();
+        relay.relay();
+
+        verify(blockSnapshotService, times(1)).rebuild(5L);
+    }
+
+    @Test
+    @DisplayName("never rebuilds for a rolled-back change")
+    void rolledBackChangeNeverRebuilt() {
+        write(TransactionSynchronization.STATUS_ROLLED_BACK, new BlockChangedEvent(5L));
+
+        relay.relay();
+
+        verify(blockSnapshotService, never()).rebuild(anyLong());
+    }
+}
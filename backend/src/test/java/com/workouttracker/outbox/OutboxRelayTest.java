@@ -0,0 +1,123 @@
+package com.workouttracker.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<OutboxListener> listeners;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<OutboxMessage>> received = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(jdbcTemplate, transactionTemplate, listeners, meterRegistry);
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerPoll", 5);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static OutboxMessage message(long id, int attempt) {
+        return new OutboxMessage(id, "SET_LOGGED", 1L, "{}", LocalDateTime.now(), attempt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claim(List<OutboxMessage>... batches) {
+        var stubbing = when(jdbcTemplate.query(contains("SKIP LOCKED"), any(MapSqlParameterSource.class), any(RowMapper.class)));
+        for (List<OutboxMessage> batch : batches) {
+            stubbing = stubbing.thenReturn(batch);
+        }
+    }
+
+    private void listen(OutboxListener listener) {
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("workout_tracker.outbox.messages", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("delivers full batches until the backlog is drained and marks them delivered")
+    void drainsBacklog() {
+        claim(List.of(message(1, 1), message(2, 1)), List.of(message(3, 1)));
+        listen(received::add);
+
+        relay.relay();
+
+        assertThat(received).extracting(List::size).containsExactly(2, 1);
+        verify(jdbcTemplate, times(2)).update(contains("'DELIVERED'"), any(MapSqlParameterSource.class));
+        assertThat(count("delivered")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("retries a failed batch message by message and reschedules only the bad one")
+    void isolatesFailingMessage() {
+        claim(List.of(message(1, 1), message(2, 3)), List.of());
+        listen(messages -> {
+            if (messages.stream().anyMatch(m -> m.id() == 2)) {
+                throw new IllegalStateException("boom");
+            }
+            received.add(messages);
+        });
+
+        relay.relay();
+
+        assertThat(received).extracting(batch -> batch.get(0).id()).containsExactly(1L);
+        ArgumentCaptor<MapSqlParameterSource> retry = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).update(contains("last_error = :error"), retry.capture());
+        assertThat(retry.getValue().getValue("id")).isEqualTo(2L);
+        ArgumentCaptor<MapSqlParameterSource> delivered = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).update(contains("'DELIVERED'"), delivered.capture());
+        assertThat(delivered.getValue().getValue("ids")).isEqualTo(List.of(1L));
+        assertThat(count("failed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("does nothing when disabled")
+    void disabled() {
+        ReflectionTestUtils.setField(relay, "enabled", false);
+
+        relay.relay();
+
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+        verify(jdbcTemplate, never()).update(anyString(), any(MapSqlParameterSource.class));
+    }
+}
@@ -0,0 +1,115 @@
+package com.workouttracker.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.event.ActualSetChangedEvent;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.event.BlockLifecycleEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private OutboxWriter writer() {
+        return new OutboxWriter(jdbcTemplate, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ActualSetChangedEvent setLogged(long setId) {
+        return new ActualSetChangedEvent(ActualSetChangedEvent.Type.LOGGED, 1L, 2, 3, "Squat",
+                ActualSetDto.builder().id(setId).actualWeight(new BigDecimal("100.00")).build());
+    }
+
+    @Test
+    @DisplayName("writes every event of a transaction in one INSERT just before commit")
+    void oneInsertPerTransaction() {
+        OutboxWriter writer = writer();
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.onActualSetChanged(setLogged(10L));
+        writer.onActualSetChanged(setLogged(11L));
+        writer.onBlockLifecycle(new BlockLifecycleEvent(BlockLifecycleEvent.Type.CREATED, 5L));
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate, times(1)).update(anyString(), params.capture());
+        assertThat(params.getValue().getValue("type0")).isEqualTo("SET_LOGGED");
+        assertThat(params.getValue().getValue("type2")).isEqualTo("BLOCK_CREATED");
+        assertThat(params.getValue().getValue("aggregate2")).isEqualTo(5L);
+        assertThat((String) params.getValue().getValue("payload1")).contains("\"exerciseName\":\"Squat\"").contains("\"id\":11");
+        assertThat(TransactionSynchronizationManager.getResource(writer)).isNull();
+    }
+
+    @Test
+    @DisplayName("writes one BLOCK_CHANGED row per block however often it changed")
+    void oneChangePerBlock() {
+        OutboxWriter writer = writer();
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.onBlockChanged(new BlockChangedEvent(5L));
+        writer.onBlockChanged(new BlockChangedEvent(6L));
+        writer.onBlockChanged(new BlockChangedEvent(5L));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).update(anyString(), params.capture());
+        assertThat(params.getValue().getValue("type0")).isEqualTo("BLOCK_CHANGED");
+        assertThat(params.getValue().getValue("aggregate0")).isEqualTo(5L);
+        assertThat(params.getValue().getValue("aggregate1")).isEqualTo(6L);
+        assertThat(params.getValue().hasValue("type2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("writes nothing when the transaction rolls back")
+    void nothingOnRollback() {
+        OutboxWriter writer = writer();
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.onActualSetChanged(setLogged(10L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(TransactionSynchronizationManager.getResource(writer)).isNull();
+    }
+
+    @Test
+    @DisplayName("refuses events published outside a transaction")
+    void requiresTransaction() {
+        assertThatThrownBy(() -> writer().onActualSetChanged(setLogged(10L)))
+                .isInstanceOf(IllegalStateException.class);
+        verify(jdbcTemplate, never()).update(anyString(), any(MapSqlParameterSource.class));
+    }
+}
@@ -0,0 +1,187 @@
+package com.workouttracker.reaper;
+
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.service.PersonalRecordService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlockReaperTest {
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private PersonalRecordService personalRecordService;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BlockReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new BlockReaper(trainingBlockRepository, personalRecordService, jdbcTemplate, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(reaper, "enabled", true);
+        ReflectionTestUtils.setField(reaper, "chunkSize", 2);
+        ReflectionTestUtils.setField(reaper, "pauseMs", 0L);
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 100);
+        ReflectionTestUtils.setField(reaper, "blocksPerRun", 10);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(jdbcTemplate.update(any(String.class), any(MapSqlParameterSource.class))).thenReturn(0);
+    }
+
+    private void deletes(String table, Integer... chunks) {
+        var stubbing = when(jdbcTemplate.update(startsWith("DELETE FROM " + table + " "), any(MapSqlParameterSource.class)));
+        for (Integer rows : chunks) {
+            stubbing = stubbing.thenReturn(rows);
+        }
+    }
+
+    // Each chunk of athlete 3's sets gets the next ids from 100 up
+    private void deletesSets(int... chunks) {
+        AtomicInteger chunk = new AtomicInteger();
+        AtomicLong nextId = new AtomicLong(100);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            int index = chunk.getAndIncrement();
+            for (int row = 0; index < chunks.length && row < chunks[index]; row++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("athlete_id")).thenReturn(3L);
+                when(rs.getLong("id")).thenReturn(nextId.getAndIncrement());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("DELETE FROM actual_sets "), any(MapSqlParameterSource.class),
+                any(RowCallbackHandler.class));
+    }
+
+    private double rows(String table) {
+        return meterRegistry.counter("workout_tracker.reaper.rows", "table", table).count();
+    }
+
+    @Test
+    @DisplayName("deletes the tree bottom-up in chunks, each in its own transaction, then the block row")
+    void reapsBottomUp() {
+        when(trainingBlockRepository.findDeletedBlockIds(any(Pageable.class))).thenReturn(List.of(7L));
+        deletesSets(2, 2, 1);
+        deletes("prescribed_sets", 2, 0);
+        deletes("exercises", 1);
+        deletes("workout_days", 1);
+        deletes("weeks", 1);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM training_blocks"), any(MapSqlParameterSource.class),
+                eq(String.class))).thenReturn(List.of());
+
+        reaper.reap();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate, times(3)).query(startsWith("DELETE FROM actual_sets "),
+                any(MapSqlParameterSource.class), any(RowCallbackHandler.class));
+        inOrder.verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM prescribed_sets "), any(MapSqlParameterSource.class));
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM exercises "), any(MapSqlParameterSource.class));
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM workout_days "), any(MapSqlParameterSource.class));
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM weeks "), any(MapSqlParameterSource.class));
+        inOrder.verify(jdbcTemplate).queryForList(startsWith("DELETE FROM training_blocks"),
+                any(MapSqlParameterSource.class), eq(String.class));
+        verify(transactionTemplate, times(9)).execute(any());
+        assertThat(rows("actual_sets")).isEqualTo(5);
+        assertThat(rows("prescribed_sets")).isEqualTo(2);
+        assertThat(reaper.getProgress()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("stops at the chunk budget, reports progress and resumes on the next run")
+    void resumesAfterBudget() {
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 2);
+        when(trainingBlockRepository.findDeletedBlockIds(any(Pageable.class))).thenReturn(List.of(7L));
+        deletesSets(2, 2, 1);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM training_blocks"), any(MapSqlParameterSource.class),
+                eq(String.class))).thenReturn(List.of());
+
+        reaper.reap();
+
+        assertThat(reaper.getProgress()).singleElement().satisfies(progress -> {
+            assertThat(progress.blockId()).isEqualTo(7L);
+            assertThat(progress.phase()).isEqualTo("actual_sets");
+            assertThat(progress.rowsDeleted()).containsEntry("actual_sets", 4L);
+        });
+        verify(jdbcTemplate, never()).queryForList(any(String.class), any(MapSqlParameterSource.class), eq(String.class));
+
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 100);
+        reaper.reap();
+
+        assertThat(rows("actual_sets")).isEqualTo(5);
+        assertThat(reaper.getProgress()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("drops the records held by each chunk of reaped sets in that chunk's transaction")
+    void removesRecordsOfReapedSets() {
+        when(trainingBlockRepository.findDeletedBlockIds(any(Pageable.class))).thenReturn(List.of(7L));
+        deletesSets(2, 1);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM training_blocks"), any(MapSqlParameterSource.class),
+                eq(String.class))).thenReturn(List.of());
+
+        reaper.reap();
+
+        verify(personalRecordService).removeDeletedSets(3L, List.of(100L, 101L));
+        verify(personalRecordService).removeDeletedSets(3L, List.of(102L));
+        verifyNoMoreInteractions(personalRecordService);
+    }
+
+    @Test
+    @DisplayName("removes the archive file of an archived block once its row is gone")
+    void deletesArchiveFile(@TempDir Path dir) throws Exception {
+        Path archive = Files.writeString(dir.resolve("block-7.wtb"), "archived");
+        when(trainingBlockRepository.findDeletedBlockIds(any(Pageable.class))).thenReturn(List.of(7L));
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM training_blocks"), any(MapSqlParameterSource.class),
+                eq(String.class))).thenReturn(List.of(archive.toString()));
+
+        reaper.reap();
+
+        assertThat(archive).doesNotExist();
+        assertThat(rows("training_blocks")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("does nothing when disabled")
+    void disabled() {
+        ReflectionTestUtils.setField(reaper, "enabled", false);
+
+        reaper.reap();
+
+        verifyNoInteractions(trainingBlockRepository, jdbcTemplate);
+    }
+}
@@ -0,0 +1,64 @@
+package com.workouttracker.records;
+
+import com.workouttracker.records.PersonalRecordIndex.RepRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonalRecordIndexTest {
+
+    private static final Long SQUAT = 3L;
+
+    private final PersonalRecordIndex index = new PersonalRecordIndex();
+
+    private static RepRecord record(long setId, int reps, String weight) {
+        BigDecimal w = new BigDecimal(weight);
+        return new RepRecord("Squat", reps, w, PersonalRecordIndex.estimateOneRepMax(w, reps), setId,
+                LocalDateTime.of(2024, 1, 8, 18, 0));
+    }
+
+    @Test
+    @DisplayName("estimates the one-rep max with Epley, keeping singles as they are")
+    void estimatesOneRepMax() {
+        assertThat(PersonalRecordIndex.estimateOneRepMax(new BigDecimal("100"), 1)).isEqualByComparingTo("100.00");
+        assertThat(PersonalRecordIndex.estimateOneRepMax(new BigDecimal("100"), 5)).isEqualByComparingTo("116.67");
+        assertThat(PersonalRecordIndex.estimateOneRepMax(new BigDecimal("100"), 13)).isNull();
+    }
+
+    @Test
+    @DisplayName("keeps only heavier sets per rep count and tracks the best estimate across rep counts")
+    void offersRecords() {
+        assertThat(index.offer(SQUAT, record(1, 5, "140"))).isTrue();
+        assertThat(index.offer(SQUAT, record(2, 5, "140"))).isFalse();
+        assertThat(index.offer(SQUAT, record(3, 1, "160"))).isTrue();
+        assertThat(index.offer(SQUAT, record(4, 3, "155"))).isTrue();
+
+        assertThat(index.get(SQUAT, 5)).map(RepRecord::actualSetId).contains(1L);
+        // 155 x 3 -> 170.50 beats 160 x 1 and 140 x 5 (163.33)
+        assertThat(index.bestEstimate(SQUAT)).map(RepRecord::actualSetId).contains(4L);
+        assertThat(index.repRecords(SQUAT)).extracting(RepRecord::reps).containsExactly(1, 3, 5);
+    }
+
+    @Test
+    @DisplayName("replaces a record only while the removed set still holds it and demotes the best estimate")
+    void replacesRecords() {
+        index.offer(SQUAT, record(1, 1, "160"));
+        index.offer(SQUAT, record(4, 3, "155"));
+
+        index.replace(SQUAT, 3, 99L, null);
+        assertThat(index.get(SQUAT, 3)).isPresent();
+
+        index.replace(SQUAT, 3, 4L, record(5, 3, "150"));
+        assertThat(index.get(SQUAT, 3)).map(RepRecord::actualSetId).contains(5L);
+        // 150 x 3 -> 165.00 still beats the single
+        assertThat(index.bestEstimate(SQUAT)).map(RepRecord::actualSetId).contains(5L);
+
+        index.replace(SQUAT, 3, 5L, null);
+        assertThat(index.get(SQUAT, 3)).isEmpty();
+        assertThat(index.bestEstimate(SQUAT)).map(RepRecord::actualSetId).contains(1L);
+    }
+}
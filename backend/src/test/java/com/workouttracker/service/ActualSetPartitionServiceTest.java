@@ -0,0 +1,47 @@
+package com.workouttracker.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActualSetPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ActualSetPartitionService actualSetPartitionService;
+
+    @Nested
+    @DisplayName("detachPartitionsBefore")
+    class DetachPartitionsBefore {
+
+        @Test
+        @DisplayName("detaches only monthly partitions older than the cutoff")
+        void detachesOlderPartitions() {
+            when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                    .thenReturn(List.of("actual_sets_2024_01", "actual_sets_2024_02", "actual_sets_2024_03", "actual_sets_archive"));
+
+            List<String> detached = actualSetPartitionService.detachPartitionsBefore(YearMonth.of(2024, 3));
+
+            assertThat(detached).containsExactly("actual_sets_2024_01", "actual_sets_2024_02");
+            verify(jdbcTemplate).execute("ALTER TABLE actual_sets DETACH PARTITION actual_sets_2024_01");
+            verify(jdbcTemplate).execute("ALTER TABLE actual_sets DETACH PARTITION actual_sets_2024_02");
+            verify(jdbcTemplate, never()).execute("ALTER TABLE actual_sets DETACH PARTITION actual_sets_2024_03");
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.*;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.mapper.TrainingBlockMapper;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.WeekType;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockArchiveServiceTest {
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private TrainingBlockMapper trainingBlockMapper;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ExerciseDefinitionService exerciseDefinitionService;
+
+    @TempDir
+    Path archiveDir;
+
+    private BlockArchiveService blockArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        blockArchiveService = new BlockArchiveService(trainingBlockRepository, trainingBlockMapper,
+                jdbcTemplate, eventPublisher, transactionTemplate, exerciseDefinitionService);
+        ReflectionTestUtils.setField(blockArchiveService, "directory", archiveDir.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    }
+
+    private static TrainingBlockDto sampleBlock() {
+        ActualSetDto actualSet = ActualSetDto.builder()
+                .id(40L).prescribedSetId(30L).setNumber(1)
+                .actualWeight(new BigDecimal("142.50")).actualReps(5).actualRPE(8)
+                .tempoUsed(Tempo.CONTROLLED).videoRecorded(true).feedback("Moved well, ünïcode ok")
+                .completedAt(LocalDateTime.of(2024, 1, 8, 18, 30, 15, 123_000_000))
+                .build();
+        PrescribedSetDto prescribedSet = PrescribedSetDto.builder()
+                .id(30L).setNumber(1).targetSets(3).targetReps(5)
+                .targetLoadMin(new BigDecimal("140.00")).targetLoadMax(null).targetRPE(8)
+                .tempo(null).videoRequired(false)
+                .build();
+        ExerciseDto exercise = ExerciseDto.builder()
+                .id(20L).name("Squat").category(ExerciseCategory.SQUAT).orderInWorkout(1)
+                .prescribedSets(List.of(prescribedSet)).actualSets(List.of(actualSet))
+                .build();
+        WorkoutDayDto day = WorkoutDayDto.builder()
+                .id(10L).dayNumber(1).dayName("Lower").restDay(false).exercises(List.of(exercise))
+                .build();
+        WeekDto week = WeekDto.builder()
+                .id(5L).weekNumber(1).weekType(WeekType.BASE)
+                .startDate(LocalDate.of(2024, 1, 8)).endDate(LocalDate.of(2024, 1, 14))
+                .days(List.of(day))
+                .build();
+        return TrainingBlockDto.builder()
+                .id(1L).blockLength(4).progressionRate(new BigDecimal("2.50")).deloadRate(null)
+                .macrocycle("Default").mesocycle(null).createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                .weeks(List.of(week))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("BlockArchiveCodec")
+    class Codec {
+
+        @Test
+        @DisplayName("round-trips the whole tree including nulls and nested parent ids")
+        void roundTrips() throws Exception {
+            TrainingBlockDto block = sampleBlock();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            BlockArchiveCodec.write(block, out);
+            TrainingBlockDto decoded = BlockArchiveCodec.read(new ByteArrayInputStream(out.toByteArray()));
+
+            assertThat(decoded.getMacrocycle()).isEqualTo("Default");
+            assertThat(decoded.getMesocycle()).isNull();
+            assertThat(decoded.getProgressionRate()).isEqualTo(new BigDecimal("2.50"));
+            WeekDto week = decoded.getWeeks().get(0);
+            assertThat(week.getBlockId()).isEqualTo(1L);
+            assertThat(week.getWeekType()).isEqualTo(WeekType.BASE);
+            ExerciseDto exercise = week.getDays().get(0).getExercises().get(0);
+            assertThat(exercise.getDayId()).isEqualTo(10L);
+            assertThat(exercise.getPrescribedSets().get(0))
+                    .usingRecursiveComparison().ignoringFields("exerciseId")
+                    .isEqualTo(block.getWeeks().get(0).getDays().get(0).getExercises().get(0).getPrescribedSets().get(0));
+            assertThat(exercise.getActualSets().get(0))
+                    .usingRecursiveComparison().ignoringFields("exerciseId")
+                    .isEqualTo(block.getWeeks().get(0).getDays().get(0).getExercises().get(0).getActualSets().get(0));
+        }
+
+        @Test
+        @DisplayName("rejects streams that are not block archives")
+        void rejectsForeignData() throws Exception {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(out)) {
+                gzip.write(new byte[]{1, 2, 3, 4, 5});
+            }
+
+            assertThatThrownBy(() -> BlockArchiveCodec.read(new ByteArrayInputStream(out.toByteArray())))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Not a block archive");
+        }
+    }
+
+    @Nested
+    @DisplayName("archiveBlock")
+    class ArchiveBlock {
+
+        @Test
+        @DisplayName("writes the archive file, deletes the tree and marks the row archived")
+        void archivesBlock() {
+            runTransactionsInline();
+            TrainingBlock block = TrainingBlock.builder().id(1L).build();
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(block));
+            when(trainingBlockMapper.toDto(block)).thenReturn(sampleBlock());
+
+            TrainingBlockDto result = blockArchiveService.archiveBlock(1L);
+
+            ArgumentCaptor<String> path = ArgumentCaptor.forClass(String.class);
+            verify(trainingBlockRepository).updateArchiveState(eq(1L), any(LocalDateTime.class), path.capture());
+            assertThat(Path.of(path.getValue())).exists().hasParent(archiveDir.toAbsolutePath());
+            verify(jdbcTemplate).update(startsWith("DELETE FROM actual_sets"), eq(1L));
+            verify(jdbcTemplate).update(startsWith("DELETE FROM weeks"), eq(1L));
+            verify(eventPublisher).publishEvent(new BlockChangedEvent(1L));
+            assertThat(result.getArchivedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("rejects blocks that are already archived")
+        void rejectsArchivedBlock() {
+            runTransactionsInline();
+            TrainingBlock block = TrainingBlock.builder().id(1L).archivedAt(LocalDateTime.now()).build();
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(block));
+
+            assertThatThrownBy(() -> blockArchiveService.archiveBlock(1L))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(jdbcTemplate).queryForList(contains("FOR UPDATE"), eq(Long.class), eq(1L));
+            verifyNoMoreInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("locks the block row before reading the tree it archives")
+        void locksBeforeReading() {
+            runTransactionsInline();
+            TrainingBlock block = TrainingBlock.builder().id(1L).build();
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(block));
+            when(trainingBlockMapper.toDto(block)).thenReturn(sampleBlock());
+
+            blockArchiveService.archiveBlock(1L);
+
+            InOrder inOrder = inOrder(jdbcTemplate, trainingBlockRepository, trainingBlockMapper);
+            inOrder.verify(jdbcTemplate).queryForList(contains("FOR UPDATE"), eq(Long.class), eq(1L));
+            inOrder.verify(trainingBlockRepository).findByIdAndAthleteId(1L, BoundAthlete.ID);
+            inOrder.verify(trainingBlockMapper).toDto(block);
+            inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM actual_sets"), eq(1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("lockForSetWrite")
+    class LockForSetWrite {
+
+        @Test
+        @DisplayName("lets writes to a live block through")
+        void allowsLiveBlock() {
+            when(jdbcTemplate.query(contains("FOR KEY SHARE"), any(ResultSetExtractor.class), eq(1L)))
+                    .thenReturn(false);
+
+            blockArchiveService.lockForSetWrite(1L);
+        }
+
+        @Test
+        @DisplayName("rejects writes to a block that was archived while they waited for the lock")
+        void rejectsArchivedBlock() {
+            when(jdbcTemplate.query(contains("FOR KEY SHARE"), any(ResultSetExtractor.class), eq(1L)))
+                    .thenReturn(true);
+
+            assertThatThrownBy(() -> blockArchiveService.lockForSetWrite(1L))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("archived");
+        }
+    }
+
+    @Nested
+    @DisplayName("restoreBlock")
+    class RestoreBlock {
+
+        @Test
+        @DisplayName("re-inserts the tree from the file, clears the archive state and removes the file")
+        void restoresBlock() throws Exception {
+            runTransactionsInline();
+            Path file = archiveDir.resolve("block-1.wtba");
+            try (var out = Files.newOutputStream(file)) {
+                BlockArchiveCodec.write(sampleBlock(), out);
+            }
+            TrainingBlock block = TrainingBlock.builder().id(1L).athleteId(BoundAthlete.ID)
+                    .archivedAt(LocalDateTime.now()).archivePath(file.toString()).build();
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(block));
+            when(exerciseDefinitionService.resolve("Squat", ExerciseCategory.SQUAT))
+                    .thenReturn(ExerciseDefinition.builder().id(7L).build());
+
+            TrainingBlockDto result = blockArchiveService.restoreBlock(1L);
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO weeks"), argThat((List<Object[]> rows) -> rows.size() == 1));
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO exercises"),
+                    argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[3].equals(7L)));
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO actual_sets"),
+                    argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(40L)
+                            && rows.get(0)[2].equals(7L) && rows.get(0)[3].equals(BoundAthlete.ID)));
+            verify(trainingBlockRepository).updateArchiveState(1L, null, null);
+            assertThat(result.getArchivedAt()).isNull();
+            assertThat(file).doesNotExist();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.workouttracker.service;
+
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.service.BlockBackupFormat.Section;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockBackupServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private ExerciseDefinitionService exerciseDefinitionService;
+
+    @Mock
+    private ActualSetPartitionService actualSetPartitionService;
+
+    @Mock
+    private PersonalRecordService personalRecordService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BlockBackupService blockBackupService;
+
+    @BeforeEach
+    void setUp() {
+        blockBackupService = new BlockBackupService(jdbcTemplate, namedJdbcTemplate, trainingBlockRepository,
+                exerciseDefinitionService, actualSetPartitionService, personalRecordService, eventPublisher,
+                transactionManager);
+        ReflectionTestUtils.setField(blockBackupService, "maxSizeBytes", 1_048_576L);
+    }
+
+    private static byte[] backup(LocalDateTime firstSetAt, byte[] actualSets) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlockBackupFormat.Writer writer = BlockBackupFormat.write(bytes, new BlockBackupFormat.Header(7L, firstSetAt));
+        for (Section section : Section.values()) {
+            try (OutputStream rows = writer.section(section)) {
+                if (section == Section.ACTUAL_SETS) {
+                    rows.write(actualSets);
+                } else {
+                    rows.write((section.ordinal() + "\tx\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        writer.finish();
+        return bytes.toByteArray();
+    }
+
+    @Nested
+    @DisplayName("format")
+    class Format {
+
+        @Test
+        @DisplayName("reads back the header and every section's bytes, across chunk boundaries")
+        void roundTrip() throws IOException {
+            byte[] actualSets = new byte[200_000];
+            Arrays.fill(actualSets, (byte) 'a');
+            LocalDateTime firstSetAt = LocalDateTime.of(2023, 1, 9, 18, 30, 5, 123_000_000);
+
+            BlockBackupFormat.Reader reader = BlockBackupFormat.read(
+                    new ByteArrayInputStream(backup(firstSetAt, actualSets)));
+
+            assertThat(reader.header()).isEqualTo(new BlockBackupFormat.Header(7L, firstSetAt));
+            for (Section section : Section.values()) {
+                InputStream rows = reader.section(section);
+                byte[] expected = section == Section.ACTUAL_SETS
+                        ? actualSets
+                        : (section.ordinal() + "\tx\n").getBytes(StandardCharsets.UTF_8);
+                assertThat(rows.readAllBytes()).isEqualTo(expected);
+                assertThat(rows.read()).isEqualTo(-1);
+            }
+        }
+
+        @Test
+        @DisplayName("keeps a block without sets and without a first set date")
+        void emptySections() throws IOException {
+            BlockBackupFormat.Reader reader = BlockBackupFormat.read(
+                    new ByteArrayInputStream(backup(null, new byte[0])));
+
+            assertThat(reader.header().firstSetAt()).isNull();
+            for (Section section : Section.values()) {
+                reader.section(section).readAllBytes();
+            }
+        }
+
+        @Test
+        @DisplayName("rejects sections in an unexpected order")
+        void rejectsWrongSection() throws IOException {
+            BlockBackupFormat.Reader reader = BlockBackupFormat.read(
+                    new ByteArrayInputStream(backup(null, new byte[0])));
+
+            assertThatThrownBy(() -> reader.section(Section.WEEKS))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Expected section WEEKS");
+        }
+
+        @Test
+        @DisplayName("rejects a truncated backup")
+        void rejectsTruncated() throws IOException {
+            byte[] complete = backup(null, new byte[100_000]);
+            BlockBackupFormat.Reader reader = BlockBackupFormat.read(
+                    new ByteArrayInputStream(Arrays.copyOf(complete, complete.length / 2)));
+
+            assertThatThrownBy(() -> {
+                for (Section section : Section.values()) {
+                    reader.section(section).readAllBytes();
+                }
+            }).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("backup")
+    class Backup {
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for blocks of other athletes or unknown ids")
+        void unknownBlock() {
+            when(trainingBlockRepository.findByIdAndAthleteId(9L, BoundAthlete.ID)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> blockBackupService.backup(9L))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("Training block not found with id: 9");
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("rejects archived blocks, whose rows live in the archive file")
+        void archivedBlock() {
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).archivedAt(LocalDateTime.now()).build()));
+
+            assertThatThrownBy(() -> blockBackupService.backup(1L))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("restore")
+    class Restore {
+
+        @Test
+        @DisplayName("rejects a body that is not a backup before touching the database")
+        void rejectsGarbage() {
+            InputStream body = new ByteArrayInputStream("not a backup".getBytes(StandardCharsets.UTF_8));
+
+            assertThatThrownBy(() -> blockBackupService.restore(body))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Not a readable block backup");
+            verifyNoInteractions(jdbcTemplate, namedJdbcTemplate, actualSetPartitionService, transactionManager);
+        }
+
+        /** Loads every section as one staged row and lists the staged exercise as {@code name}. */
+        private void stage(String name) throws Exception {
+            Connection connection = mock(Connection.class);
+            PGConnection pgConnection = mock(PGConnection.class);
+            CopyManager copyManager = mock(CopyManager.class);
+            ResultSet exercise = mock(ResultSet.class);
+            lenient().when(exercise.getString("name")).thenReturn(name);
+            when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+            when(connection.createStatement()).thenReturn(mock(Statement.class));
+            when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+            when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+            when(copyManager.copyIn(anyString(), any(InputStream.class))).thenAnswer(invocation -> {
+                invocation.<InputStream>getArgument(1).readAllBytes();
+                return 1L;
+            });
+            when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                    .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+            doAnswer(invocation -> {
+                invocation.<RowCallbackHandler>getArgument(1).processRow(exercise);
+                return null;
+            }).when(jdbcTemplate).query(contains("FROM restore_exercises"), any(RowCallbackHandler.class));
+        }
+
+        private byte[] oneRowBackup() throws IOException {
+            return backup(null, "1\tx\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("rejects a backup with an unnamed exercise before restoring anything")
+        void rejectsUnnamedExercise() throws Exception {
+            stage(null);
+            byte[] backup = oneRowBackup();
+
+            assertThatThrownBy(() -> blockBackupService.restore(new ByteArrayInputStream(backup)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("exercise without a name");
+            verifyNoInteractions(namedJdbcTemplate, exerciseDefinitionService, personalRecordService, eventPublisher);
+            verify(transactionManager).rollback(any());
+        }
+
+        @Test
+        @DisplayName("rolls back a backup whose rows do not all belong to the block")
+        @SuppressWarnings("unchecked")
+        void rejectsOrphanedRows() throws Exception {
+            stage("Squat");
+            ExerciseDefinition definition = new ExerciseDefinition();
+            definition.setId(3L);
+            when(exerciseDefinitionService.resolve("Squat", null)).thenReturn(definition);
+            ResultSet inserted = mock(ResultSet.class);
+            when(inserted.getLong(anyString())).thenReturn(1L);
+            // The staged set's exercise is missing from the backup, so RESTORE inserts no set
+            when(inserted.getLong("actual_sets")).thenReturn(0L);
+            when(namedJdbcTemplate.queryForObject(contains("new_actual"), any(MapSqlParameterSource.class),
+                    any(RowMapper.class))).thenAnswer(invocation -> invocation.<RowMapper<Long>>getArgument(2).mapRow(inserted, 0));
+            byte[] backup = oneRowBackup();
+
+            assertThatThrownBy(() -> blockBackupService.restore(new ByteArrayInputStream(backup)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("only 0 of its 1 actual_sets rows");
+            verifyNoInteractions(personalRecordService, eventPublisher);
+            verify(transactionManager).rollback(any());
+        }
+
+        @Test
+        @DisplayName("stops spooling a body larger than the configured maximum")
+        void rejectsOversizedBody() throws Exception {
+            ReflectionTestUtils.setField(blockBackupService, "maxSizeBytes", 64L);
+            InputStream endless = new InputStream() {
+                @Override
+                public int read() {
+                    return 0;
+                }
+            };
+
+            assertThatThrownBy(() -> blockBackupService.restore(endless))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("limited to 64 bytes");
+            verifyNoInteractions(jdbcTemplate, namedJdbcTemplate, actualSetPartitionService, transactionManager);
+        }
+    }
+}
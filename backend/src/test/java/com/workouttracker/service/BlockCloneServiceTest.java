@@ -0,0 +1,118 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.CloneBlockRequest;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.mapper.TrainingBlockMapper;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockCloneServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private TrainingBlockMapper trainingBlockMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BlockCloneService blockCloneService;
+
+    @Nested
+    @DisplayName("cloneBlock")
+    class CloneBlock {
+
+        @Test
+        @DisplayName("copies the tree in one statement and returns the new block")
+        void clonesInOneStatement() {
+            TrainingBlock source = TrainingBlock.builder().id(1L).build();
+            TrainingBlock clone = TrainingBlock.builder().id(2L).build();
+            TrainingBlockDto cloneDto = TrainingBlockDto.builder().id(2L).build();
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(source));
+            when(trainingBlockRepository.findById(2L)).thenReturn(Optional.of(clone));
+            when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Long.class))).thenReturn(2L);
+            when(trainingBlockMapper.toDto(clone)).thenReturn(cloneDto);
+
+            TrainingBlockDto result = blockCloneService.cloneBlock(1L, CloneBlockRequest.builder()
+                    .startDate(LocalDate.of(2025, 3, 3)).loadMultiplier(new BigDecimal("1.05")).build());
+
+            assertThat(result).isSameAs(cloneDto);
+            ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+            verify(jdbcTemplate).queryForObject(anyString(), params.capture(), eq(Long.class));
+            assertThat(params.getValue().getValue("sourceId")).isEqualTo(1L);
+            assertThat(params.getValue().getValue("startDate")).isEqualTo(LocalDate.of(2025, 3, 3));
+            assertThat(params.getValue().getValue("loadMultiplier")).isEqualTo(new BigDecimal("1.05"));
+            verify(eventPublisher).publishEvent(new BlockChangedEvent(2L));
+            verifyNoMoreInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("keeps dates and loads without a request body")
+        void defaultsWithoutRequest() {
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).build()));
+            when(trainingBlockRepository.findById(2L)).thenReturn(Optional.of(TrainingBlock.builder().id(2L).build()));
+            when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Long.class))).thenReturn(2L);
+
+            blockCloneService.cloneBlock(1L, null);
+
+            ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+            verify(jdbcTemplate).queryForObject(anyString(), params.capture(), eq(Long.class));
+            assertThat(params.getValue().getValue("startDate")).isNull();
+            assertThat(params.getValue().getValue("loadMultiplier")).isEqualTo(BigDecimal.ONE);
+        }
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for unknown blocks")
+        void unknownBlock() {
+            when(trainingBlockRepository.findByIdAndAthleteId(99L, BoundAthlete.ID)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> blockCloneService.cloneBlock(99L, null))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("rejects archived blocks, whose rows live in the archive file")
+        void archivedBlock() {
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(
+                    TrainingBlock.builder().id(1L).archivedAt(LocalDateTime.now()).build()));
+
+            assertThatThrownBy(() -> blockCloneService.cloneBlock(1L, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.*;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockComparisonServiceTest {
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private WorkoutService workoutService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BlockComparisonService blockComparisonService;
+
+    @BeforeEach
+    void setUp() {
+        blockComparisonService = new BlockComparisonService(trainingBlockRepository, workoutService,
+                transactionManager, 2, 4, 3, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockComparisonService.shutdown();
+    }
+
+    private static WorkoutResponseDto workout(int weekNumber, String weight, int reps, int rpe) {
+        ActualSetDto set = ActualSetDto.builder()
+                .actualWeight(new BigDecimal(weight)).actualReps(reps).actualRPE(rpe).build();
+        return WorkoutResponseDto.builder()
+                .weekNumber(weekNumber)
+                .dayNumber(1)
+                .exercises(List.of(WorkoutExerciseResponseDto.builder().actualSets(List.of(set)).build()))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("compare")
+    class Compare {
+
+        @Test
+        @DisplayName("aligns every block on the longest week axis and computes metrics")
+        void alignsWeeks() {
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).blockLength(4).build()));
+            when(trainingBlockRepository.findByIdAndAthleteId(2L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(2L).blockLength(2).build()));
+            when(workoutService.getBlockProgress(1L)).thenReturn(List.of(workout(1, "100.00", 5, 7), workout(3, "110.00", 3, 9)));
+            when(workoutService.getBlockProgress(2L)).thenReturn(List.of(workout(2, "90.00", 8, 8)));
+
+            BlockComparisonDto result = blockComparisonService.compare(List.of(1L, 2L), null);
+
+            assertThat(result.getWeekCount()).isEqualTo(4);
+            assertThat(result.getPartial()).isFalse();
+            BlockComparisonEntryDto first = result.getBlocks().get(0);
+            assertThat(first.getWeeks()).hasSize(4);
+            assertThat(first.getSummary().getTotalVolume()).isEqualByComparingTo("830");
+            assertThat(first.getSummary().getTopSetWeight()).isEqualByComparingTo("110");
+            assertThat(first.getSummary().getAverageRpe()).isEqualByComparingTo("8");
+            assertThat(first.getWeeks().get(1).getTotalSets()).isZero();
+            assertThat(result.getBlocks().get(1).getWeeks()).hasSize(4);
+            assertThat(result.getBlocks().get(1).getWeeks().get(1).getTotalReps()).isEqualTo(8);
+        }
+
+        @Test
+        @DisplayName("reports missing blocks without failing the others")
+        void reportsMissingBlock() {
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).blockLength(1).build()));
+            when(trainingBlockRepository.findByIdAndAthleteId(9L, BoundAthlete.ID)).thenReturn(Optional.empty());
+            when(workoutService.getBlockProgress(1L)).thenReturn(List.of());
+
+            BlockComparisonDto result = blockComparisonService.compare(List.of(1L, 9L), null);
+
+            assertThat(result.getPartial()).isTrue();
+            assertThat(result.getBlocks()).extracting(BlockComparisonEntryDto::getStatus)
+                    .containsExactly(BlockComparisonEntryDto.Status.COMPLETE, BlockComparisonEntryDto.Status.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("returns partial results when a block misses the deadline")
+        void returnsPartialOnTimeout() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).blockLength(1).build()));
+            when(trainingBlockRepository.findByIdAndAthleteId(2L, BoundAthlete.ID)).thenAnswer(inv -> {
+                release.await();
+                return Optional.empty();
+            });
+            when(workoutService.getBlockProgress(1L)).thenReturn(List.of());
+
+            BlockComparisonDto result = blockComparisonService.compare(List.of(1L, 2L), 200L);
+            release.countDown();
+
+            assertThat(result.getPartial()).isTrue();
+            assertThat(result.getBlocks().get(0).getStatus()).isEqualTo(BlockComparisonEntryDto.Status.COMPLETE);
+            assertThat(result.getBlocks().get(1).getStatus()).isEqualTo(BlockComparisonEntryDto.Status.TIMED_OUT);
+        }
+
+        @Test
+        @DisplayName("rejects requests above the block limit")
+        void rejectsTooManyBlocks() {
+            assertThatThrownBy(() -> blockComparisonService.compare(List.of(1L, 2L, 3L, 4L), null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(trainingBlockRepository);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseComplianceDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.repository.WeekRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockComplianceServiceTest {
+
+    @Mock
+    private WeekRepository weekRepository;
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @InjectMocks
+    private BlockComplianceService blockComplianceService;
+
+    private static WeekRepository.ComplianceRow row(Integer weekNumber, String completionPercent, String rpeDrift) {
+        WeekRepository.ComplianceRow row = mock(WeekRepository.ComplianceRow.class);
+        when(row.getWeekNumber()).thenReturn(weekNumber);
+        when(row.getDefinitionId()).thenReturn(7L);
+        when(row.getExerciseName()).thenReturn("Squat");
+        when(row.getPrescribedSets()).thenReturn(4);
+        when(row.getLoggedSets()).thenReturn(5);
+        when(row.getCompletedSets()).thenReturn(3);
+        when(row.getMissedSets()).thenReturn(1);
+        when(row.getCompletionPercent()).thenReturn(new BigDecimal(completionPercent));
+        when(row.getLoadDeviationPercent()).thenReturn(new BigDecimal("-2.5"));
+        when(row.getRpeDeviation()).thenReturn(new BigDecimal("0.75"));
+        when(row.getRpeDrift()).thenReturn(rpeDrift != null ? new BigDecimal(rpeDrift) : null);
+        return row;
+    }
+
+    @Nested
+    @DisplayName("getCompliance")
+    class GetCompliance {
+
+        @Test
+        @DisplayName("maps the summary rows of the current athlete's block without loading the block")
+        void mapsRows() {
+            List<WeekRepository.ComplianceRow> rows = List.of(row(1, "75.0", null), row(2, "100.0", "0.25"));
+            when(weekRepository.findComplianceRows(1L, BoundAthlete.ID)).thenReturn(rows);
+
+            List<ExerciseComplianceDto> result = blockComplianceService.getCompliance(1L);
+
+            assertThat(result).extracting(ExerciseComplianceDto::getWeekNumber).containsExactly(1, 2);
+            assertThat(result.get(0).getMissedSets()).isEqualTo(1);
+            assertThat(result.get(0).getCompletionPercent()).isEqualByComparingTo("75");
+            assertThat(result.get(0).getRpeDrift()).isNull();
+            assertThat(result.get(1).getRpeDrift()).isEqualByComparingTo("0.25");
+            verifyNoInteractions(trainingBlockRepository);
+        }
+
+        @Test
+        @DisplayName("returns no rows for a block that prescribes nothing")
+        void emptyBlock() {
+            when(weekRepository.findComplianceRows(1L, BoundAthlete.ID)).thenReturn(List.of());
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).build()));
+
+            assertThat(blockComplianceService.getCompliance(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for unknown blocks")
+        void unknownBlock() {
+            when(weekRepository.findComplianceRows(9L, BoundAthlete.ID)).thenReturn(List.of());
+            when(trainingBlockRepository.findByIdAndAthleteId(9L, BoundAthlete.ID)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> blockComplianceService.getCompliance(9L))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("Training block not found with id: 9");
+        }
+
+        @Test
+        @DisplayName("rejects archived blocks, whose sets live in the archive file")
+        void archivedBlock() {
+            when(weekRepository.findComplianceRows(1L, BoundAthlete.ID)).thenReturn(List.of());
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID))
+                    .thenReturn(Optional.of(TrainingBlock.builder().id(1L).archivedAt(LocalDateTime.now()).build()));
+
+            assertThatThrownBy(() -> blockComplianceService.getCompliance(1L))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.workouttracker.service;
+
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.Week;
+import com.workouttracker.repository.WeekRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlockGraphServiceTest {
+
+    @Mock
+    private WeekRepository weekRepository;
+
+    @InjectMocks
+    private BlockGraphService blockGraphService;
+
+    @Test
+    @DisplayName("groups one level of children by parent in one query, keeping query order")
+    void groupsChildrenByParent() {
+        TrainingBlock first = TrainingBlock.builder().id(1L).build();
+        TrainingBlock second = TrainingBlock.builder().id(2L).build();
+        Week week1 = Week.builder().id(10L).block(first).weekNumber(1).build();
+        Week week2 = Week.builder().id(11L).block(second).weekNumber(1).build();
+        Week week3 = Week.builder().id(12L).block(first).weekNumber(2).build();
+        when(weekRepository.findByBlockIdInOrderByWeekNumberAsc(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(week1, week2, week3));
+
+        Map<Long, List<Week>> result = blockGraphService.getWeeksByBlockIds(List.of(1L, 2L, 3L));
+
+        assertThat(result.get(1L)).containsExactly(week1, week3);
+        assertThat(result.get(2L)).containsExactly(week2);
+        assertThat(result.get(3L)).isEmpty();
+        verify(weekRepository, times(1)).findByBlockIdInOrderByWeekNumberAsc(List.of(1L, 2L, 3L));
+    }
+}
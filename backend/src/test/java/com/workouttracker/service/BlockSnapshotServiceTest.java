@@ -0,0 +1,173 @@
+package com.workouttracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.AthleteContext;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockSnapshotServiceTest {
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private TrainingBlockService trainingBlockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BlockSnapshotService blockSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        blockSnapshotService = new BlockSnapshotService(trainingBlockRepository, trainingBlockService,
+                new ObjectMapper(), transactionTemplate);
+        ReflectionTestUtils.setField(blockSnapshotService, "enabled", true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private static TrainingBlockRepository.SnapshotVersionView version(Long version, Long athleteId) {
+        return new TrainingBlockRepository.SnapshotVersionView() {
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public Long getAthleteId() {
+                return athleteId;
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("findFreshSnapshot")
+    class FindFreshSnapshot {
+
+        @Test
+        @DisplayName("returns empty without querying when snapshots are disabled")
+        void emptyWhenDisabled() {
+            ReflectionTestUtils.setField(blockSnapshotService, "enabled", false);
+
+            assertThat(blockSnapshotService.findFreshSnapshot(1L)).isEmpty();
+            verifyNoInteractions(trainingBlockRepository);
+        }
+
+        @Test
+        @DisplayName("returns stored bytes when the snapshot is fresh")
+        void returnsStoredBytes() {
+            byte[] bytes = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            when(trainingBlockRepository.findFreshSnapshot(1L, BoundAthlete.ID)).thenReturn(Optional.of(() -> bytes));
+
+            assertThat(blockSnapshotService.findFreshSnapshot(1L)).contains(bytes);
+        }
+    }
+
+    @Nested
+    @DisplayName("markStale")
+    class MarkStale {
+
+        @Test
+        @DisplayName("bumps the snapshot version of the changed block")
+        void marksBlockStale() {
+            blockSnapshotService.markStale(new BlockChangedEvent(7L));
+
+            verify(trainingBlockRepository).markSnapshotStale(7L);
+        }
+    }
+
+    @Nested
+    @DisplayName("rebuild")
+    class Rebuild {
+
+        @Test
+        @DisplayName("stores serialized DTO, mapped as the block's owner, guarded by the version read before mapping")
+        void storesSnapshotForVersion() {
+            runTransactionsInline();
+            when(trainingBlockRepository.findSnapshotVersion(1L)).thenReturn(Optional.of(version(4L, 3L)));
+            // The owner is bound while mapping, whoever the rebuilding thread belonged to
+            when(trainingBlockService.getTrainingBlockById(1L)).thenAnswer(inv -> {
+                assertThat(AthleteContext.find()).contains(3L);
+                return TrainingBlockDto.builder().id(1L).blockLength(5).build();
+            });
+            when(trainingBlockRepository.storeSnapshot(eq(1L), eq(4L), any())).thenReturn(1);
+
+            blockSnapshotService.rebuild(1L);
+
+            ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+            verify(trainingBlockRepository).storeSnapshot(eq(1L), eq(4L), captor.capture());
+            assertThat(new String(captor.getValue(), StandardCharsets.UTF_8))
+                    .contains("\"id\":1")
+                    .contains("\"blockLength\":5");
+        }
+
+        @Test
+        @DisplayName("lets a failure through instead of logging it")
+        void propagatesFailure() {
+            runTransactionsInline();
+            when(trainingBlockRepository.findSnapshotVersion(1L)).thenReturn(Optional.of(version(4L, 3L)));
+            when(trainingBlockService.getTrainingBlockById(1L)).thenThrow(new IllegalStateException("archive unreadable"));
+
+            assertThatThrownBy(() -> blockSnapshotService.rebuild(1L)).hasMessage("archive unreadable");
+            verify(trainingBlockRepository, never()).storeSnapshot(anyLong(), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("the sweep logs a failed block and carries on with the rest")
+        void sweepContinuesPastFailure() {
+            ReflectionTestUtils.setField(blockSnapshotService, "sweepBatchSize", 10);
+            runTransactionsInline();
+            when(trainingBlockRepository.findStaleSnapshotIds(any())).thenReturn(List.of(1L, 2L));
+            when(trainingBlockRepository.findSnapshotVersion(1L)).thenThrow(new IllegalStateException("boom"));
+            when(trainingBlockRepository.findSnapshotVersion(2L)).thenReturn(Optional.empty());
+
+            blockSnapshotService.rebuildStaleSnapshots();
+
+            verify(trainingBlockRepository).findSnapshotVersion(2L);
+        }
+
+        @Test
+        @DisplayName("does nothing when the block no longer exists")
+        void skipsMissingBlock() {
+            runTransactionsInline();
+            when(trainingBlockRepository.findSnapshotVersion(9L)).thenReturn(Optional.empty());
+
+            blockSnapshotService.rebuild(9L);
+
+            verify(trainingBlockRepository, never()).storeSnapshot(anyLong(), anyLong(), any());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseHistoryDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.repository.ExerciseDefinitionRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class ExerciseDefinitionServiceTest {
+
+    @Mock
+    private ExerciseDefinitionRepository exerciseDefinitionRepository;
+
+    @Mock
+    private ActualSetRepository actualSetRepository;
+
+    @InjectMocks
+    private ExerciseDefinitionService exerciseDefinitionService;
+
+    private ExerciseDefinition squat;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exerciseDefinitionService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(exerciseDefinitionService, "maxPageSize", 10);
+        squat = ExerciseDefinition.builder().id(7L).name("Back Squat").normalizedName("backsquat")
+                .category(ExerciseCategory.SQUAT).build();
+    }
+
+    private static ActualSetRepository.HistoryView row(long id, LocalDateTime completedAt) {
+        ActualSetRepository.HistoryView row = mock(ActualSetRepository.HistoryView.class);
+        lenient().when(row.getActualSetId()).thenReturn(id);
+        lenient().when(row.getExerciseName()).thenReturn("back squats");
+        lenient().when(row.getActualWeight()).thenReturn(new BigDecimal("140.00"));
+        lenient().when(row.getCompletedAt()).thenReturn(completedAt);
+        return row;
+    }
+
+    @Nested
+    @DisplayName("resolve")
+    class Resolve {
+
+        @Test
+        @DisplayName("reuses the definition of a near-duplicate name without inserting")
+        void reusesExisting() {
+            when(exerciseDefinitionRepository.findByNormalizedName("backsquat")).thenReturn(Optional.of(squat));
+
+            assertThat(exerciseDefinitionService.resolve("Back Squats", ExerciseCategory.ACCESSORY)).isSameAs(squat);
+            verify(exerciseDefinitionRepository, never()).insertIfAbsent(anyString(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("inserts a missing definition and reads back whichever row won")
+        void insertsMissing() {
+            when(exerciseDefinitionRepository.findByNormalizedName("backsquat"))
+                    .thenReturn(Optional.empty(), Optional.of(squat));
+
+            assertThat(exerciseDefinitionService.resolve(" Back Squat ", ExerciseCategory.SQUAT)).isSameAs(squat);
+            verify(exerciseDefinitionRepository).insertIfAbsent("Back Squat", "backsquat", "SQUAT");
+        }
+
+        @Test
+        @DisplayName("rejects names without letters or digits")
+        void rejectsBlankKey() {
+            assertThatThrownBy(() -> exerciseDefinitionService.resolve("--", ExerciseCategory.SQUAT))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("getHistory")
+    class GetHistory {
+
+        @Test
+        @DisplayName("returns one page and a cursor pointing after its last row")
+        void pagesWithCursor() {
+            LocalDateTime newest = LocalDateTime.of(2025, 3, 10, 18, 0);
+            List<ActualSetRepository.HistoryView> rows =
+                    List.of(row(30L, newest), row(20L, newest.minusDays(3)), row(10L, newest.minusDays(7)));
+            when(exerciseDefinitionRepository.findById(7L)).thenReturn(Optional.of(squat));
+            when(actualSetRepository.findHistoryPage(eq(BoundAthlete.ID), eq(7L), any(LocalDateTime.class), eq(Long.MAX_VALUE),
+                    eq(PageRequest.of(0, 3)))).thenReturn(rows);
+
+            ExerciseHistoryDto result = exerciseDefinitionService.getHistory(7L, null, null);
+
+            assertThat(result.getName()).isEqualTo("Back Squat");
+            assertThat(result.getEntries()).extracting("actualSetId").containsExactly(30L, 20L);
+            assertThat(result.getNextCursor()).isEqualTo("2025-03-07T18:00_20");
+        }
+
+        @Test
+        @DisplayName("continues strictly after the cursor and ends without one")
+        void continuesFromCursor() {
+            List<ActualSetRepository.HistoryView> rows = List.of(row(10L, LocalDateTime.of(2025, 3, 3, 18, 0)));
+            when(exerciseDefinitionRepository.findById(7L)).thenReturn(Optional.of(squat));
+            when(actualSetRepository.findHistoryPage(BoundAthlete.ID, 7L, LocalDateTime.of(2025, 3, 7, 18, 0), 20L,
+                    PageRequest.of(0, 6)))
+                    .thenReturn(rows);
+
+            ExerciseHistoryDto result = exerciseDefinitionService.getHistory(7L, "2025-03-07T18:00_20", 5);
+
+            assertThat(result.getEntries()).extracting("actualSetId").containsExactly(10L);
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for unknown definitions")
+        void unknownDefinition() {
+            when(exerciseDefinitionRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> exerciseDefinitionService.getHistory(99L, null, null))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("rejects malformed cursors")
+        void malformedCursor() {
+            when(exerciseDefinitionRepository.findById(7L)).thenReturn(Optional.of(squat));
+
+            assertThatThrownBy(() -> exerciseDefinitionService.getHistory(7L, "yesterday", null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(actualSetRepository);
+        }
+    }
+}
@@ -1,28 +1,48 @@
 package com.workouttracker.service;
 
+import com.workouttracker.event.BlockChangedEvent;
 import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.ActualSet;
 import com.workouttracker.model.Exercise;
 import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.Week;
+import com.workouttracker.model.WorkoutDay;
 import com.workouttracker.repository.ExerciseRepository;
+import com.workouttracker.tenancy.BoundAthlete;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
 class ExerciseServiceTest {
 
     @Mock
     private ExerciseRepository exerciseRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BlockArchiveService blockArchiveService;
+
+    @Mock
+    private PersonalRecordService personalRecordService;
+
     @InjectMocks
     private ExerciseService exerciseService;
 
@@ -33,8 +53,13 @@ class ExerciseServiceTest {
         @Test
         @DisplayName("deletes exercise when found")
         void deletesWhenFound() {
+            WorkoutDay day = WorkoutDay.builder()
+                    .id(10L)
+                    .week(Week.builder().id(5L).block(TrainingBlock.builder().id(3L).athleteId(BoundAthlete.ID).build()).build())
+                    .build();
             Exercise exercise = Exercise.builder()
                     .id(1L)
+                    .day(day)
                     .name("Squat")
                     .category(ExerciseCategory.SQUAT)
                     .orderInWorkout(1)
@@ -45,7 +70,31 @@ class ExerciseServiceTest {
             exerciseService.deleteExercise(1L);
 
             verify(exerciseRepository).findById(1L);
+            verify(blockArchiveService).lockForSetWrite(3L);
             verify(exerciseRepository).delete(exercise);
+            verify(eventPublisher).publishEvent(new BlockChangedEvent(3L));
+            verify(personalRecordService).removeSets(List.of());
+        }
+
+        @Test
+        @DisplayName("removes the exercise's sets from personal records")
+        void removesSetsFromRecords() {
+            WorkoutDay day = WorkoutDay.builder()
+                    .id(10L)
+                    .week(Week.builder().id(5L).block(TrainingBlock.builder().id(3L).athleteId(BoundAthlete.ID).build()).build())
+                    .build();
+            Exercise exercise = Exercise.builder().id(1L).day(day).name("Squat").build();
+            LocalDateTime completedAt = LocalDateTime.of(2024, 3, 4, 18, 0);
+            exercise.getActualSets().add(ActualSet.builder().id(20L).exercise(exercise).definitionId(7L)
+                    .athleteId(BoundAthlete.ID).actualReps(5).actualWeight(new BigDecimal("140")).completedAt(completedAt).build());
+            when(exerciseRepository.findById(1L)).thenReturn(Optional.of(exercise));
+
+            exerciseService.deleteExercise(1L);
+
+            InOrder inOrder = inOrder(exerciseRepository, personalRecordService);
+            inOrder.verify(exerciseRepository).delete(exercise);
+            inOrder.verify(personalRecordService).removeSets(List.of(new PersonalRecordService.LoggedSet(
+                    BoundAthlete.ID, 7L, "Squat", 20L, 5, new BigDecimal("140"), completedAt)));
         }
 
         @Test
@@ -60,5 +109,39 @@ class ExerciseServiceTest {
             verify(exerciseRepository).findById(99L);
             verify(exerciseRepository, never()).delete(any());
         }
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for another athlete's exercise")
+        void throwsForOtherAthlete() {
+            WorkoutDay day = WorkoutDay.builder()
+                    .id(10L)
+                    .week(Week.builder().id(5L).block(TrainingBlock.builder().id(3L).athleteId(2L).build()).build())
+                    .build();
+            when(exerciseRepository.findById(1L)).thenReturn(Optional.of(Exercise.builder().id(1L).day(day).build()));
+
+            assertThatThrownBy(() -> exerciseService.deleteExercise(1L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+
+            verify(exerciseRepository, never()).delete(any());
+            verifyNoInteractions(eventPublisher, personalRecordService);
+        }
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for an exercise of a deleted block")
+        void throwsForDeletedBlock() {
+            WorkoutDay day = WorkoutDay.builder()
+                    .id(10L)
+                    .week(Week.builder().id(5L).block(TrainingBlock.builder().id(3L).athleteId(BoundAthlete.ID)
+                            .deletedAt(LocalDateTime.of(2024, 3, 5, 9, 0)).build()).build())
+                    .build();
+            when(exerciseRepository.findById(1L)).thenReturn(Optional.of(Exercise.builder().id(1L).day(day).build()));
+
+            assertThatThrownBy(() -> exerciseService.deleteExercise(1L))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("Exercise not found with id: 1");
+
+            verify(exerciseRepository, never()).delete(any());
+            verifyNoInteractions(blockArchiveService, eventPublisher, personalRecordService);
+        }
     }
 }
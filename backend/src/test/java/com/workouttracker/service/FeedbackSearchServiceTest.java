@@ -0,0 +1,94 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.FeedbackSearchDto;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class FeedbackSearchServiceTest {
+
+    @Mock
+    private ActualSetRepository actualSetRepository;
+
+    @InjectMocks
+    private FeedbackSearchService feedbackSearchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(feedbackSearchService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(feedbackSearchService, "maxPageSize", 10);
+    }
+
+    private static ActualSetRepository.FeedbackMatchView row(long id, float rank) {
+        ActualSetRepository.FeedbackMatchView row = mock(ActualSetRepository.FeedbackMatchView.class);
+        lenient().when(row.getActualSetId()).thenReturn(id);
+        lenient().when(row.getExerciseName()).thenReturn("Back Squat");
+        lenient().when(row.getFeedback()).thenReturn("Knee pain on the way up");
+        lenient().when(row.getHighlight()).thenReturn("<mark>Knee</mark> <mark>pain</mark> on the way up");
+        lenient().when(row.getRank()).thenReturn(rank);
+        return row;
+    }
+
+    @Nested
+    @DisplayName("search")
+    class Search {
+
+        @Test
+        @DisplayName("returns one page of the current athlete's matches and a cursor after its last row")
+        void pagesWithCursor() {
+            List<ActualSetRepository.FeedbackMatchView> rows = List.of(row(30L, 0.6f), row(20L, 0.1f), row(10L, 0.1f));
+            when(actualSetRepository.searchFeedback(BoundAthlete.ID, "knee pain", Float.MAX_VALUE, Long.MAX_VALUE,
+                    PageRequest.of(0, 3))).thenReturn(rows);
+
+            FeedbackSearchDto result = feedbackSearchService.search(" knee pain ", null, null);
+
+            assertThat(result.getQuery()).isEqualTo("knee pain");
+            assertThat(result.getMatches()).extracting("actualSetId").containsExactly(30L, 20L);
+            assertThat(result.getMatches().get(0).getHighlight()).contains("<mark>Knee</mark>");
+            assertThat(result.getNextCursor()).isEqualTo("0.1_20");
+        }
+
+        @Test
+        @DisplayName("continues strictly after the cursor and ends without one")
+        void continuesFromCursor() {
+            List<ActualSetRepository.FeedbackMatchView> rows = List.of(row(10L, 0.1f));
+            when(actualSetRepository.searchFeedback(BoundAthlete.ID, "knee", 0.1f, 20L, PageRequest.of(0, 6)))
+                    .thenReturn(rows);
+
+            FeedbackSearchDto result = feedbackSearchService.search("knee", "0.1_20", 5);
+
+            assertThat(result.getMatches()).extracting("actualSetId").containsExactly(10L);
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("rejects blank queries, malformed cursors and limits below 1")
+        void rejectsInvalidInput() {
+            assertThatThrownBy(() -> feedbackSearchService.search(" ", null, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> feedbackSearchService.search("knee", "abc", null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Invalid search cursor");
+            assertThatThrownBy(() -> feedbackSearchService.search("knee", null, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(actualSetRepository);
+        }
+    }
+}
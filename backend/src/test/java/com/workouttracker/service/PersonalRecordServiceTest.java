@@ -0,0 +1,252 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseRecordsDto;
+import com.workouttracker.dto.PersonalRecordDto;
+import com.workouttracker.model.ExerciseDefinition;
+import com.workouttracker.records.PersonalRecordIndex;
+import com.workouttracker.repository.ExerciseDefinitionRepository;
+import com.workouttracker.service.PersonalRecordService.LoggedSet;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class PersonalRecordServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 8, 18, 0);
+    private static final long SQUAT = 3L;
+    private static final long ROW = 4L;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JdbcTemplate plainJdbcTemplate;
+
+    @Mock
+    private ExerciseDefinitionRepository exerciseDefinitionRepository;
+
+    @InjectMocks
+    private PersonalRecordService personalRecordService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(personalRecordService, "cachedAthletes", 10);
+        // Empty personal_records table
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+    }
+
+    private static LoggedSet set(long id, String name, int reps, String weight) {
+        return new LoggedSet(BoundAthlete.ID, name.contains("Row") ? ROW : SQUAT, name, id, reps,
+                new BigDecimal(weight), NOW);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBestRemaining(LoggedSet... remaining) {
+        when(jdbcTemplate.query(contains("FROM actual_sets"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(remaining).stream()
+                        .map(s -> new PersonalRecordIndex.RepRecord(s.exerciseName(), s.reps(), s.weight(),
+                                PersonalRecordIndex.estimateOneRepMax(s.weight(), s.reps()), s.id(), NOW))
+                        .toList());
+    }
+
+    private PersonalRecordDto repMax(int reps) {
+        ExerciseRecordsDto records = personalRecordService.getRecords(null).get(0);
+        return records.getRepMaxes().stream().filter(r -> r.getReps() == reps).findFirst().orElse(null);
+    }
+
+    @Nested
+    @DisplayName("recordSets")
+    class RecordSets {
+
+        @Test
+        @DisplayName("reports one rep max per exercise and rep count plus the best estimate, and writes each once")
+        void reportsRecordsOncePerBucket() {
+            List<PersonalRecordDto> records = personalRecordService.recordSets(List.of(
+                    set(1, "Squat", 5, "140"), set(2, "squat ", 5, "145"), set(3, "Squat", 5, "145"),
+                    set(4, "Row", 0, "80")));
+
+            assertThat(records).extracting(PersonalRecordDto::getType, PersonalRecordDto::getActualSetId)
+                    .containsExactly(tuple(PersonalRecordDto.Type.REP_MAX, 2L),
+                            tuple(PersonalRecordDto.Type.ESTIMATED_ONE_REP_MAX, 2L));
+            assertThat(records.get(0).getPreviousBest()).isNull();
+            verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO personal_records"), any(MapSqlParameterSource.class));
+        }
+
+        @Test
+        @DisplayName("does not report sets that only match the standing record")
+        void ignoresTies() {
+            personalRecordService.recordSets(List.of(set(1, "Squat", 5, "140")));
+
+            List<PersonalRecordDto> records = personalRecordService.recordSets(List.of(
+                    set(2, "Squat", 5, "140"), set(3, "Squat", 3, "130")));
+
+            assertThat(records).extracting(PersonalRecordDto::getType, PersonalRecordDto::getActualSetId)
+                    .containsExactly(tuple(PersonalRecordDto.Type.REP_MAX, 3L));
+            assertThat(repMax(5).getActualSetId()).isEqualTo(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("getRecords")
+    class GetRecords {
+
+        @Test
+        @DisplayName("keeps one set of records for every spelling of a lift and finds them by any of them")
+        void sharesRecordsAcrossSpellings() {
+            when(exerciseDefinitionRepository.findByNormalizedName("backsquat"))
+                    .thenReturn(Optional.of(ExerciseDefinition.builder().id(SQUAT).build()));
+            personalRecordService.recordSets(List.of(set(1, "Back Squats", 5, "140")));
+
+            List<PersonalRecordDto> records = personalRecordService.recordSets(List.of(set(2, "back squat", 5, "145")));
+
+            assertThat(records.get(0).getPreviousBest()).isEqualByComparingTo("140");
+            assertThat(personalRecordService.getRecords("BACK-SQUAT")).singleElement()
+                    .satisfies(exercise -> assertThat(exercise.getRepMaxes())
+                            .extracting(PersonalRecordDto::getActualSetId).containsExactly(2L));
+        }
+
+        @Test
+        @DisplayName("returns nothing for a name without a definition")
+        void unknownName() {
+            when(exerciseDefinitionRepository.findByNormalizedName("zercherpress")).thenReturn(Optional.empty());
+            personalRecordService.recordSets(List.of(set(1, "Squat", 5, "140")));
+
+            assertThat(personalRecordService.getRecords("Zercher Press")).isEmpty();
+        }
+    }
+
+        @Nested
+    @DisplayName("recordBlockSets")
+    class RecordBlockSets {
+
+        @Test
+        @DisplayName("raises records with one statement and reloads the athlete's index afterwards")
+        void upsertsAndReloadsIndex() {
+            personalRecordService.getRecords(null);
+            when(jdbcTemplate.update(contains("INSERT INTO personal_records"), any(MapSqlParameterSource.class)))
+                    .thenReturn(2);
+
+            assertThat(personalRecordService.recordBlockSets(BoundAthlete.ID, 42L)).isEqualTo(2);
+            personalRecordService.getRecords(null);
+
+            verify(jdbcTemplate).update(and(contains("w.block_id = :blockId"), contains("trim(e.name) <> ''")),
+                    any(MapSqlParameterSource.class));
+            verify(plainJdbcTemplate, times(2))
+                    .query(contains("FROM personal_records"), any(RowCallbackHandler.class), eq(BoundAthlete.ID));
+        }
+    }
+
+    @Nested
+    @DisplayName("removeBlockSets and removeDeletedSets")
+    class RemoveInBulk {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("refills the dropped records from the live sets and reloads the athlete's index afterwards")
+        void refillsDroppedRecords() {
+            personalRecordService.getRecords(null);
+            when(jdbcTemplate.query(startsWith("DELETE FROM personal_records"), any(MapSqlParameterSource.class),
+                    any(RowMapper.class))).thenReturn(List.<Object[]>of(new Object[]{SQUAT, 5}));
+
+            personalRecordService.removeBlockSets(BoundAthlete.ID, 42L);
+            personalRecordService.getRecords(null);
+
+            verify(jdbcTemplate).query(contains("w.block_id = :blockId"), any(MapSqlParameterSource.class),
+                    any(RowMapper.class));
+            verify(jdbcTemplate).update(contains("b.deleted_at IS NULL"), argThat((MapSqlParameterSource params) ->
+                    ((List<Object[]>) params.getValue("buckets")).get(0)[0].equals(SQUAT)));
+            verify(plainJdbcTemplate, times(2))
+                    .query(contains("FROM personal_records"), any(RowCallbackHandler.class), eq(BoundAthlete.ID));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("writes nothing more when the deleted sets held no record")
+        void ignoresNonHolders() {
+            personalRecordService.getRecords(null);
+            when(jdbcTemplate.query(startsWith("DELETE FROM personal_records"), any(MapSqlParameterSource.class),
+                    any(RowMapper.class))).thenReturn(List.of());
+
+            personalRecordService.removeDeletedSets(BoundAthlete.ID, List.of(1L, 2L));
+            personalRecordService.removeDeletedSets(BoundAthlete.ID, List.of());
+            personalRecordService.getRecords(null);
+
+            verify(jdbcTemplate).query(contains("actual_set_id IN (:setIds)"), any(MapSqlParameterSource.class),
+                    any(RowMapper.class));
+            verify(jdbcTemplate, never()).update(anyString(), any(MapSqlParameterSource.class));
+            verify(plainJdbcTemplate, times(1))
+                    .query(contains("FROM personal_records"), any(RowCallbackHandler.class), eq(BoundAthlete.ID));
+        }
+    }
+
+    @Nested
+    @DisplayName("removeSets")
+    class RemoveSets {
+
+        @Test
+        @DisplayName("hands a removed record to the next best set")
+        void replacesRemovedHolder() {
+            personalRecordService.recordSets(List.of(set(1, "Squat", 5, "140")));
+            stubBestRemaining(set(7, "Squat", 5, "135"));
+
+            personalRecordService.removeSets(List.of(set(1, "Squat", 5, "140")));
+
+            verify(jdbcTemplate).update(startsWith("UPDATE personal_records"), any(MapSqlParameterSource.class));
+            assertThat(repMax(5).getActualSetId()).isEqualTo(7L);
+        }
+
+        @Test
+        @DisplayName("leaves the table alone when the removed set held no record")
+        void ignoresNonHolders() {
+            personalRecordService.recordSets(List.of(set(1, "Squat", 5, "140")));
+            clearInvocations(jdbcTemplate);
+
+            personalRecordService.removeSets(List.of(set(2, "Squat", 5, "120")));
+
+            verify(jdbcTemplate, never()).update(anyString(), any(MapSqlParameterSource.class));
+            verify(jdbcTemplate, never()).query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("updateSet")
+    class UpdateSet {
+
+        @Test
+        @DisplayName("a corrected record falls back to the heavier of the edited set and the next best")
+        void correctsRecord() {
+            personalRecordService.recordSets(List.of(set(1, "Squat", 5, "150")));
+            stubBestRemaining(set(7, "Squat", 5, "145"));
+
+            personalRecordService.updateSet(set(1, "Squat", 5, "150"), set(1, "Squat", 5, "148"));
+            assertThat(repMax(5).getWeight()).isEqualByComparingTo("148");
+
+            personalRecordService.updateSet(set(1, "Squat", 5, "148"), set(1, "Squat", 5, "140"));
+            assertThat(repMax(5).getActualSetId()).isEqualTo(7L);
+        }
+    }
+}
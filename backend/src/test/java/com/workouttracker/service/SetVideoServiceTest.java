@@ -0,0 +1,281 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.CreateVideoUploadRequest;
+import com.workouttracker.dto.VideoUploadDto;
+import com.workouttracker.event.BlockChangedEvent;
+import com.workouttracker.exception.CapacityExceededException;
+import com.workouttracker.exception.ConflictException;
+import com.workouttracker.tenancy.BoundAthlete;
+import com.workouttracker.video.VideoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class SetVideoServiceTest {
+
+    private static final String UPLOAD_ID = "0b7c2f5e-61f4-4d0c-9a55-3f1f0c8d2a10";
+    private static final byte[] VIDEO = "not really an mp4, but bytes all the same".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path videoDir;
+
+    private VideoStore videoStore;
+
+    private SetVideoService setVideoService;
+
+    @BeforeEach
+    void setUp() {
+        videoStore = new VideoStore();
+        ReflectionTestUtils.setField(videoStore, "directory", videoDir.toString());
+        setVideoService = new SetVideoService(jdbcTemplate, namedJdbcTemplate, transactionTemplate, eventPublisher, videoStore);
+        ReflectionTestUtils.setField(setVideoService, "maxSizeBytes", 1024L);
+        ReflectionTestUtils.setField(setVideoService, "maxConcurrentUploads", 2);
+        ReflectionTestUtils.setField(setVideoService, "maxOpenUploads", 3);
+        setVideoService.init();
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void uploadExists(String sha256) {
+        Answer<List<Object>> row = inv -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("id")).thenReturn(UPLOAD_ID);
+            when(rs.getLong("actual_set_id")).thenReturn(40L);
+            when(rs.getLong("size_bytes")).thenReturn((long) VIDEO.length);
+            when(rs.getString("sha256")).thenReturn(sha256);
+            when(rs.getString("content_type")).thenReturn("video/mp4");
+            when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(LocalDateTime.of(2024, 3, 1, 18, 0));
+            return List.of(inv.<RowMapper<Object>>getArgument(1).mapRow(rs, 0));
+        };
+        when(jdbcTemplate.query(startsWith("SELECT id, actual_set_id"), any(RowMapper.class),
+                eq(UPLOAD_ID), eq(40L), eq(BoundAthlete.ID))).thenAnswer(row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private VideoUploadDto send(int from, int to) {
+        return setVideoService.appendChunk(40L, UPLOAD_ID, from, to - from,
+                new ByteArrayInputStream(VIDEO, from, to - from));
+    }
+
+    @Nested
+    @DisplayName("createUpload")
+    class CreateUpload {
+
+        @Test
+        @DisplayName("opens an upload at offset 0 for one of the athlete's sets")
+        void opensUpload() {
+            when(jdbcTemplate.queryForList(startsWith("SELECT w.block_id"), eq(Long.class), eq(40L), eq(BoundAthlete.ID)))
+                    .thenReturn(List.of(7L));
+            when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Integer.class), eq(BoundAthlete.ID)))
+                    .thenReturn(0);
+
+            VideoUploadDto upload = setVideoService.createUpload(40L,
+                    new CreateVideoUploadRequest(100L, "AB".repeat(32), "video/mp4"));
+
+            assertThat(upload.getOffset()).isZero();
+            assertThat(upload.getSha256()).isEqualTo("ab".repeat(32));
+            verify(jdbcTemplate).update(startsWith("INSERT INTO video_uploads"), eq(upload.getUploadId()),
+                    eq(BoundAthlete.ID), eq(40L), eq(100L), eq("ab".repeat(32)), eq("video/mp4"), any(), any());
+        }
+
+        @Test
+        @DisplayName("rejects a further upload once the athlete has max-open-uploads open")
+        void limitsOpenUploads() {
+            when(jdbcTemplate.queryForList(startsWith("SELECT w.block_id"), eq(Long.class), eq(40L), eq(BoundAthlete.ID)))
+                    .thenReturn(List.of(7L));
+            when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Integer.class), eq(BoundAthlete.ID)))
+                    .thenReturn(3);
+
+            assertThatThrownBy(() -> setVideoService.createUpload(40L,
+                    new CreateVideoUploadRequest(100L, "ab".repeat(32), "video/mp4")))
+                    .isInstanceOf(ConflictException.class);
+            verify(jdbcTemplate, never()).update(startsWith("INSERT INTO video_uploads"), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("rejects videos larger than max-size-bytes before touching the database")
+        void limitsSize() {
+            assertThatThrownBy(() -> setVideoService.createUpload(40L,
+                    new CreateVideoUploadRequest(4096L, "ab".repeat(32), "video/mp4")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("appendChunk")
+    class AppendChunk {
+
+        @Test
+        @DisplayName("resumes at the received offset and links the verified video after the last chunk")
+        void completesUpload() throws Exception {
+            String sha256 = sha256(VIDEO);
+            uploadExists(sha256);
+            runTransactionsInline();
+            when(jdbcTemplate.queryForList(startsWith("SELECT w.block_id"), eq(Long.class), eq(40L), eq(BoundAthlete.ID)))
+                    .thenReturn(List.of(7L));
+
+            VideoUploadDto first = send(0, 10);
+            assertThat(first.getOffset()).isEqualTo(10);
+            assertThat(first.isComplete()).isFalse();
+            assertThat(setVideoService.getUpload(40L, UPLOAD_ID).getOffset()).isEqualTo(10);
+
+            VideoUploadDto last = send(10, VIDEO.length);
+
+            assertThat(last.isComplete()).isTrue();
+            assertThat(Files.readAllBytes(videoStore.objectFile(sha256))).isEqualTo(VIDEO);
+            verify(jdbcTemplate).update(startsWith("INSERT INTO set_videos"), eq(40L), eq(BoundAthlete.ID), eq(7L),
+                    eq(sha256), eq((long) VIDEO.length), eq("video/mp4"));
+            verify(jdbcTemplate).update(startsWith("UPDATE actual_sets SET video_recorded = TRUE"), eq(40L), eq(BoundAthlete.ID));
+            verify(jdbcTemplate).update("DELETE FROM video_uploads WHERE id = ?", UPLOAD_ID);
+            verify(eventPublisher).publishEvent(new BlockChangedEvent(7L));
+        }
+
+        @Test
+        @DisplayName("rejects a chunk sent at a stale offset without writing it")
+        void staleOffset() throws Exception {
+            uploadExists(sha256(VIDEO));
+            send(0, 10);
+
+            assertThatThrownBy(() -> send(5, 15)).isInstanceOf(ConflictException.class);
+            assertThat(videoStore.received(UPLOAD_ID)).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("discards the upload when the bytes do not match the declared sha256")
+        void checksumMismatch() {
+            uploadExists("ab".repeat(32));
+
+            assertThatThrownBy(() -> send(0, VIDEO.length))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("discarded");
+            assertThat(videoStore.received(UPLOAD_ID)).isZero();
+            verify(jdbcTemplate).update("DELETE FROM video_uploads WHERE id = ?", UPLOAD_ID);
+            verify(jdbcTemplate, never()).update(startsWith("INSERT INTO set_videos"), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("rejects a chunk that runs past the declared size")
+        void pastDeclaredSize() throws Exception {
+            uploadExists(sha256(VIDEO));
+
+            assertThatThrownBy(() -> setVideoService.appendChunk(40L, UPLOAD_ID, 10, VIDEO.length,
+                    new ByteArrayInputStream(VIDEO)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(videoStore.received(UPLOAD_ID)).isZero();
+        }
+
+        @Test
+        @DisplayName("takes a chunked body without Content-Length up to the declared size")
+        void unknownLength() throws Exception {
+            uploadExists(sha256(VIDEO));
+
+            VideoUploadDto upload = setVideoService.appendChunk(40L, UPLOAD_ID, 0, -1,
+                    new ByteArrayInputStream(VIDEO, 0, 10));
+
+            assertThat(upload.getOffset()).isEqualTo(10);
+            assertThat(upload.isComplete()).isFalse();
+            verify(jdbcTemplate).update(startsWith("UPDATE video_uploads SET updated_at"), any(), eq(UPLOAD_ID));
+        }
+
+        @Test
+        @DisplayName("rejects a chunked body that runs past the declared size")
+        void unknownLengthPastDeclaredSize() throws Exception {
+            uploadExists(sha256(VIDEO));
+            byte[] tooLong = Arrays.copyOf(VIDEO, VIDEO.length + 1);
+
+            assertThatThrownBy(() -> setVideoService.appendChunk(40L, UPLOAD_ID, 0, -1, new ByteArrayInputStream(tooLong)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("runs past the declared size");
+            verify(jdbcTemplate, never()).update(startsWith("INSERT INTO set_videos"), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("answers 503 instead of queueing when every upload slot is busy")
+        void noFreeSlot() throws Exception {
+            ReflectionTestUtils.setField(setVideoService, "maxConcurrentUploads", 0);
+            setVideoService.init();
+            uploadExists(sha256(VIDEO));
+
+            assertThatThrownBy(() -> send(0, 10))
+                    .isInstanceOf(CapacityExceededException.class)
+                    .extracting("retryAfterSeconds").isEqualTo(1L);
+            assertThat(videoStore.received(UPLOAD_ID)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("sweep")
+    class Sweep {
+
+        @Test
+        @DisplayName("removes orphaned links one key range at a time")
+        void chunksOrphanedLinks() {
+            when(jdbcTemplate.queryForObject(startsWith("SELECT max(actual_set_id)"), eq(Long.class), anyLong(), anyInt()))
+                    .thenReturn(500L, 900L, null);
+            when(jdbcTemplate.update(startsWith("DELETE FROM set_videos v"), anyLong(), anyLong())).thenReturn(3, 1);
+
+            setVideoService.sweep();
+
+            InOrder inOrder = inOrder(jdbcTemplate);
+            inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM set_videos v"), eq(0L), eq(500L));
+            inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM set_videos v"), eq(500L), eq(900L));
+            verify(jdbcTemplate).queryForObject(startsWith("SELECT max(actual_set_id)"), eq(Long.class), eq(900L), anyInt());
+            verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM set_videos v"), anyLong(), anyLong());
+        }
+    }
+}
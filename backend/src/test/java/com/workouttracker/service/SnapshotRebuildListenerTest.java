@@ -0,0 +1,85 @@
+package com.workouttracker.service;
+
+import com.workouttracker.outbox.OutboxMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotRebuildListenerTest {
+
+    @Mock
+    private BlockSnapshotService blockSnapshotService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SnapshotRebuildListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new SnapshotRebuildListener(blockSnapshotService, transactionManager);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private static OutboxMessage message(long id, String eventType, long blockId) {
+        return new OutboxMessage(id, eventType, blockId, "{}", LocalDateTime.now(), 1);
+    }
+
+    @Test
+    @DisplayName("rebuilds each changed block of a batch once, in a transaction of its own")
+    void rebuildsChangedBlocks() {
+        when(blockSnapshotService.isEnabled()).thenReturn(true);
+
+        listener.onMessages(List.of(message(1, "BLOCK_CHANGED", 5L), message(2, "SET_LOGGED", 6L),
+                message(3, "BLOCK_CHANGED", 7L), message(4, "BLOCK_CHANGED", 5L)));
+
+        verify(blockSnapshotService).rebuild(5L);
+        verify(blockSnapshotService).rebuild(7L);
+        verify(blockSnapshotService, never()).rebuild(6L);
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).extracting(TransactionDefinition::getPropagationBehavior)
+                .containsOnly(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    @DisplayName("fails the delivery with the rebuild's own exception, rolling back its transaction")
+    void failedRebuild() {
+        when(blockSnapshotService.isEnabled()).thenReturn(true);
+        IllegalStateException cause = new IllegalStateException("Could not serialize block snapshot");
+        doThrow(cause).when(blockSnapshotService).rebuild(5L);
+
+        assertThatThrownBy(() -> listener.onMessages(List.of(message(1, "BLOCK_CHANGED", 5L))))
+                .isSameAs(cause);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("does nothing while snapshots are disabled")
+    void disabled() {
+        when(blockSnapshotService.isEnabled()).thenReturn(false);
+
+        listener.onMessages(List.of(message(1, "BLOCK_CHANGED", 5L)));
+
+        verify(blockSnapshotService, never()).rebuild(anyLong());
+        verifyNoInteractions(transactionManager);
+    }
+}
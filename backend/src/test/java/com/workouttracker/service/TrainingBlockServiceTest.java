@@ -6,13 +6,16 @@ import com.workouttracker.dto.CreatePrescribedSetRequest;
 import com.workouttracker.dto.CreateWeekRequest;
 import com.workouttracker.dto.CreateWorkoutDayRequest;
 import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.event.BlockLifecycleEvent;
 import com.workouttracker.exception.ResourceNotFoundException;
 import com.workouttracker.mapper.TrainingBlockMapper;
 import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.ExerciseDefinition;
 import com.workouttracker.model.Tempo;
 import com.workouttracker.model.TrainingBlock;
 import com.workouttracker.model.WeekType;
 import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.tenancy.BoundAthlete;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -22,9 +25,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -32,9 +37,10 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
 class TrainingBlockServiceTest {
 
     @Mock
@@ -43,6 +49,18 @@ class TrainingBlockServiceTest {
     @Mock
     private TrainingBlockMapper trainingBlockMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BlockArchiveService blockArchiveService;
+
+    @Mock
+    private ExerciseDefinitionService exerciseDefinitionService;
+
+    @Mock
+    private PersonalRecordService personalRecordService;
+
     @InjectMocks
     private TrainingBlockService trainingBlockService;
 
@@ -74,18 +92,18 @@ class TrainingBlockServiceTest {
         @Test
         @DisplayName("returns empty list when no blocks exist")
         void returnsEmptyList() {
-            when(trainingBlockRepository.findAll()).thenReturn(Collections.emptyList());
+            when(trainingBlockRepository.findByAthleteIdOrderById(BoundAthlete.ID)).thenReturn(Collections.emptyList());
 
             List<TrainingBlockDto> result = trainingBlockService.getAllTrainingBlocks();
 
             assertThat(result).isEmpty();
-            verify(trainingBlockRepository).findAll();
+            verify(trainingBlockRepository).findByAthleteIdOrderById(BoundAthlete.ID);
         }
 
         @Test
         @DisplayName("returns all blocks as DTOs")
         void returnsAllBlocks() {
-            when(trainingBlockRepository.findAll()).thenReturn(List.of(block));
+            when(trainingBlockRepository.findByAthleteIdOrderById(BoundAthlete.ID)).thenReturn(List.of(block));
             when(trainingBlockMapper.toDto(block)).thenReturn(blockDto);
 
             List<TrainingBlockDto> result = trainingBlockService.getAllTrainingBlocks();
@@ -104,25 +122,25 @@ class TrainingBlockServiceTest {
         @Test
         @DisplayName("returns block when found")
         void returnsBlockWhenFound() {
-            when(trainingBlockRepository.findById(1L)).thenReturn(Optional.of(block));
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(block));
             when(trainingBlockMapper.toDto(block)).thenReturn(blockDto);
 
             TrainingBlockDto result = trainingBlockService.getTrainingBlockById(1L);
 
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo(1L);
-            verify(trainingBlockRepository).findById(1L);
+            verify(trainingBlockRepository).findByIdAndAthleteId(1L, BoundAthlete.ID);
         }
 
         @Test
         @DisplayName("throws ResourceNotFoundException when not found")
         void throwsWhenNotFound() {
-            when(trainingBlockRepository.findById(99L)).thenReturn(Optional.empty());
+            when(trainingBlockRepository.findByIdAndAthleteId(99L, BoundAthlete.ID)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> trainingBlockService.getTrainingBlockById(99L))
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("Training block not found with id: 99");
-            verify(trainingBlockRepository).findById(99L);
+            verify(trainingBlockRepository).findByIdAndAthleteId(99L, BoundAthlete.ID);
         }
     }
 
@@ -131,27 +149,31 @@ class TrainingBlockServiceTest {
     class DeleteTrainingBlock {
 
         @Test
-        @DisplayName("deletes block when it exists")
-        void deletesWhenExists() {
-            when(trainingBlockRepository.existsById(1L)).thenReturn(true);
-            doNothing().when(trainingBlockRepository).deleteById(1L);
+        @DisplayName("marks block deleted when it exists")
+        void marksDeletedWhenExists() {
+            when(trainingBlockRepository.markDeleted(eq(1L), eq(BoundAthlete.ID), any(LocalDateTime.class)))
+                    .thenReturn(1);
 
             trainingBlockService.deleteTrainingBlock(1L);
 
-            verify(trainingBlockRepository).existsById(1L);
-            verify(trainingBlockRepository).deleteById(1L);
+            verify(trainingBlockRepository).markDeleted(eq(1L), eq(BoundAthlete.ID), any(LocalDateTime.class));
+            verify(trainingBlockRepository, never()).deleteById(any());
+            verify(personalRecordService).removeBlockSets(BoundAthlete.ID, 1L);
+            verify(eventPublisher).publishEvent(new BlockLifecycleEvent(BlockLifecycleEvent.Type.DELETED, 1L));
         }
 
         @Test
-        @DisplayName("throws ResourceNotFoundException when block does not exist")
+        @DisplayName("throws ResourceNotFoundException when block does not exist or is already deleted")
         void throwsWhenNotExists() {
-            when(trainingBlockRepository.existsById(99L)).thenReturn(false);
+            when(trainingBlockRepository.markDeleted(eq(99L), eq(BoundAthlete.ID), any(LocalDateTime.class)))
+                    .thenReturn(0);
 
             assertThatThrownBy(() -> trainingBlockService.deleteTrainingBlock(99L))
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("Training block not found with id: 99");
-            verify(trainingBlockRepository).existsById(99L);
             verify(trainingBlockRepository, never()).deleteById(any());
+            verifyNoInteractions(personalRecordService);
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
 
@@ -206,6 +228,8 @@ class TrainingBlockServiceTest {
                 return saved;
             });
             when(trainingBlockMapper.toDto(any(TrainingBlock.class))).thenReturn(blockDto);
+            ExerciseDefinition squat = ExerciseDefinition.builder().id(7L).name("Squat").build();
+            when(exerciseDefinitionService.resolve("Squat", ExerciseCategory.SQUAT)).thenReturn(squat);
 
             TrainingBlockDto result = trainingBlockService.createBlockWithWeeks(request);
 
@@ -213,6 +237,7 @@ class TrainingBlockServiceTest {
             ArgumentCaptor<TrainingBlock> captor = ArgumentCaptor.forClass(TrainingBlock.class);
             verify(trainingBlockRepository).save(captor.capture());
             TrainingBlock saved = captor.getValue();
+            assertThat(saved.getAthleteId()).isEqualTo(BoundAthlete.ID);
             assertThat(saved.getBlockLength()).isEqualTo(4);
             assertThat(saved.getProgressionRate()).isEqualByComparingTo(BigDecimal.valueOf(0.1));
             assertThat(saved.getWeeks()).hasSize(1);
@@ -220,6 +245,7 @@ class TrainingBlockServiceTest {
             assertThat(saved.getWeeks().get(0).getDays()).hasSize(1);
             assertThat(saved.getWeeks().get(0).getDays().get(0).getExercises()).hasSize(1);
             assertThat(saved.getWeeks().get(0).getDays().get(0).getExercises().get(0).getName()).isEqualTo("Squat");
+            assertThat(saved.getWeeks().get(0).getDays().get(0).getExercises().get(0).getDefinition()).isSameAs(squat);
         }
     }
 }
@@ -0,0 +1,142 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ExerciseDto;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.dto.WeekDto;
+import com.workouttracker.exception.ResourceNotFoundException;
+import com.workouttracker.model.TrainingBlock;
+import com.workouttracker.model.WeekType;
+import com.workouttracker.repository.ActualSetRepository;
+import com.workouttracker.repository.TrainingBlockRepository;
+import com.workouttracker.repository.WeekRepository;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class WeekSessionServiceTest {
+
+    @Mock
+    private WeekRepository weekRepository;
+
+    @Mock
+    private ActualSetRepository actualSetRepository;
+
+    @Mock
+    private TrainingBlockRepository trainingBlockRepository;
+
+    @Mock
+    private BlockArchiveService blockArchiveService;
+
+    @InjectMocks
+    private WeekSessionService weekSessionService;
+
+    private static WeekRepository.SessionPlanRow planRow(Long dayId, Integer dayNumber, Long exerciseId,
+                                                         Long prescribedSetId, Integer setNumber) {
+        WeekRepository.SessionPlanRow row = mock(WeekRepository.SessionPlanRow.class);
+        lenient().when(row.getWeekId()).thenReturn(10L);
+        lenient().when(row.getBlockId()).thenReturn(1L);
+        lenient().when(row.getWeekNumber()).thenReturn(2);
+        lenient().when(row.getWeekType()).thenReturn("PROGRESSION");
+        lenient().when(row.getStartDate()).thenReturn(LocalDate.of(2025, 3, 10));
+        lenient().when(row.getEndDate()).thenReturn(LocalDate.of(2025, 3, 16));
+        lenient().when(row.getDayId()).thenReturn(dayId);
+        lenient().when(row.getDayNumber()).thenReturn(dayNumber);
+        lenient().when(row.getDayName()).thenReturn("Day " + dayNumber);
+        lenient().when(row.getRestDay()).thenReturn(exerciseId == null);
+        lenient().when(row.getExerciseId()).thenReturn(exerciseId);
+        lenient().when(row.getExerciseName()).thenReturn("Squat");
+        lenient().when(row.getDefinitionId()).thenReturn(7L);
+        lenient().when(row.getCategory()).thenReturn("SQUAT");
+        lenient().when(row.getOrderInWorkout()).thenReturn(1);
+        lenient().when(row.getPrescribedSetId()).thenReturn(prescribedSetId);
+        lenient().when(row.getSetNumber()).thenReturn(setNumber);
+        lenient().when(row.getTargetSets()).thenReturn(1);
+        lenient().when(row.getTargetReps()).thenReturn(5);
+        lenient().when(row.getTargetLoadMin()).thenReturn(new BigDecimal("100.00"));
+        lenient().when(row.getTempo()).thenReturn("CONTROLLED");
+        lenient().when(row.getVideoRequired()).thenReturn(false);
+        return row;
+    }
+
+    private static ActualSetRepository.SessionActualRow actualRow(Long id, Long exerciseId, Long prescribedSetId) {
+        ActualSetRepository.SessionActualRow row = mock(ActualSetRepository.SessionActualRow.class);
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getExerciseId()).thenReturn(exerciseId);
+        lenient().when(row.getPrescribedSetId()).thenReturn(prescribedSetId);
+        lenient().when(row.getSetNumber()).thenReturn(1);
+        lenient().when(row.getActualWeight()).thenReturn(new BigDecimal("102.50"));
+        lenient().when(row.getActualReps()).thenReturn(5);
+        lenient().when(row.getTempoUsed()).thenReturn(null);
+        lenient().when(row.getVideoRecorded()).thenReturn(false);
+        lenient().when(row.getCompletedAt()).thenReturn(LocalDateTime.of(2025, 3, 10, 18, 0));
+        return row;
+    }
+
+    @Nested
+    @DisplayName("getWeekSessions")
+    class GetWeekSessions {
+
+        @Test
+        @DisplayName("assembles days, exercises, prescriptions and logged sets from two flat queries")
+        void assemblesWeek() {
+            List<WeekRepository.SessionPlanRow> planRows = List.of(
+                    planRow(100L, 1, 1000L, 5000L, 1),
+                    planRow(100L, 1, 1000L, 5001L, 2),
+                    planRow(101L, 2, null, null, null));
+            List<ActualSetRepository.SessionActualRow> actualRows = List.of(actualRow(9000L, 1000L, 5000L));
+            when(weekRepository.findSessionPlanRows(1L, 2, BoundAthlete.ID)).thenReturn(planRows);
+            when(actualSetRepository.findSessionActualRows(1L, 2, BoundAthlete.ID)).thenReturn(actualRows);
+
+            WeekDto week = weekSessionService.getWeekSessions(1L, 2);
+
+            assertThat(week.getWeekType()).isEqualTo(WeekType.PROGRESSION);
+            assertThat(week.getDays()).hasSize(2);
+            ExerciseDto squat = week.getDays().get(0).getExercises().get(0);
+            assertThat(squat.getPrescribedSets()).extracting("id").containsExactly(5000L, 5001L);
+            assertThat(squat.getActualSets()).extracting("prescribedSetId").containsExactly(5000L);
+            assertThat(week.getDays().get(1).getExercises()).isEmpty();
+            verifyNoInteractions(trainingBlockRepository, blockArchiveService);
+        }
+
+        @Test
+        @DisplayName("reads the week from the archive file of an archived block")
+        void readsArchivedWeek() {
+            TrainingBlock block = TrainingBlock.builder().id(1L).archivedAt(LocalDateTime.now()).build();
+            WeekDto archivedWeek = WeekDto.builder().weekNumber(2).build();
+            when(weekRepository.findSessionPlanRows(1L, 2, BoundAthlete.ID)).thenReturn(List.of());
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(block));
+            when(blockArchiveService.readArchivedBlock(block)).thenReturn(TrainingBlockDto.builder()
+                    .weeks(List.of(WeekDto.builder().weekNumber(1).build(), archivedWeek)).build());
+
+            assertThat(weekSessionService.getWeekSessions(1L, 2)).isSameAs(archivedWeek);
+            verifyNoInteractions(actualSetRepository);
+        }
+
+        @Test
+        @DisplayName("throws when the block has no such week")
+        void missingWeek() {
+            when(weekRepository.findSessionPlanRows(1L, 9, BoundAthlete.ID)).thenReturn(List.of());
+            when(trainingBlockRepository.findByIdAndAthleteId(1L, BoundAthlete.ID)).thenReturn(Optional.of(TrainingBlock.builder().id(1L).build()));
+
+            assertThatThrownBy(() -> weekSessionService.getWeekSessions(1L, 9))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("Week 9");
+        }
+    }
+}
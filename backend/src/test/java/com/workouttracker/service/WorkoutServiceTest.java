@@ -7,6 +7,7 @@ import com.workouttracker.model.*;
 import com.workouttracker.repository.ActualSetRepository;
 import com.workouttracker.repository.ExerciseRepository;
 import com.workouttracker.repository.WorkoutDayRepository;
+import com.workouttracker.tenancy.BoundAthlete;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -14,8 +15,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -25,7 +28,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
 class WorkoutServiceTest {
 
     @Mock
@@ -40,6 +43,15 @@ class WorkoutServiceTest {
     @Mock
     private ActualSetMapper actualSetMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BlockArchiveService blockArchiveService;
+
+    @Mock
+    private PersonalRecordService personalRecordService;
+
     @InjectMocks
     private WorkoutService workoutService;
 
@@ -50,15 +62,15 @@ class WorkoutServiceTest {
         @Test
         @DisplayName("throws ResourceNotFoundException when workout day not found")
         void throwsWhenWorkoutDayNotFound() {
-            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> workoutService.getWorkout(1L, 1, 1))
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("Workout day not found");
 
-            verify(workoutDayRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1);
-            verify(actualSetRepository, never()).findByBlockIdAndWeekNumberAndDayNumber(any(), any(), any());
+            verify(workoutDayRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID);
+            verify(actualSetRepository, never()).findByBlockIdAndWeekNumberAndDayNumber(any(), any(), any(), any());
         }
 
         @Test
@@ -70,9 +82,9 @@ class WorkoutServiceTest {
                     .dayName("Day 1")
                     .restDay(false)
                     .build();
-            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Optional.of(day));
-            when(actualSetRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(actualSetRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Collections.emptyList());
 
             WorkoutResponseDto result = workoutService.getWorkout(1L, 1, 1);
@@ -92,12 +104,36 @@ class WorkoutServiceTest {
         @Test
         @DisplayName("returns empty list when block has no logged workouts")
         void returnsEmptyWhenNoWorkouts() {
-            when(actualSetRepository.findByBlockId(1L)).thenReturn(Collections.emptyList());
+            when(actualSetRepository.findByBlockId(1L, BoundAthlete.ID)).thenReturn(Collections.emptyList());
 
             List<WorkoutResponseDto> result = workoutService.getBlockProgress(1L);
 
             assertThat(result).isEmpty();
-            verify(actualSetRepository).findByBlockId(1L);
+            verify(actualSetRepository).findByBlockId(1L, BoundAthlete.ID);
+        }
+
+        @Test
+        @DisplayName("reads progress from the archive file when the block is archived")
+        void readsArchivedBlock() {
+            ActualSetDto set = ActualSetDto.builder().id(5L).setNumber(1).actualReps(5)
+                    .completedAt(LocalDateTime.of(2024, 1, 8, 18, 0)).build();
+            ExerciseDto logged = ExerciseDto.builder().id(3L).name("Squat").actualSets(List.of(set)).build();
+            ExerciseDto skipped = ExerciseDto.builder().id(4L).name("Row").actualSets(List.of()).build();
+            WorkoutDayDto day = WorkoutDayDto.builder().dayNumber(1).exercises(List.of(logged, skipped)).build();
+            WorkoutDayDto restDay = WorkoutDayDto.builder().dayNumber(2).exercises(List.of()).build();
+            TrainingBlockDto archived = TrainingBlockDto.builder().id(1L)
+                    .weeks(List.of(WeekDto.builder().weekNumber(2).days(List.of(day, restDay)).build()))
+                    .build();
+            when(actualSetRepository.findByBlockId(1L, BoundAthlete.ID)).thenReturn(Collections.emptyList());
+            when(blockArchiveService.findArchivedBlock(1L)).thenReturn(Optional.of(archived));
+
+            List<WorkoutResponseDto> result = workoutService.getBlockProgress(1L);
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getWeekNumber()).isEqualTo(2);
+            assertThat(result.get(0).getCompletedAt()).isEqualTo(set.getCompletedAt());
+            assertThat(result.get(0).getExercises()).extracting(WorkoutExerciseResponseDto::getExerciseName)
+                    .containsExactly("Squat");
         }
     }
 
@@ -108,14 +144,14 @@ class WorkoutServiceTest {
         @Test
         @DisplayName("throws ResourceNotFoundException when workout day not found")
         void throwsWhenWorkoutDayNotFound() {
-            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> workoutService.deleteWorkout(1L, 1, 1))
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("Workout day not found");
 
-            verify(workoutDayRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1);
+            verify(workoutDayRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID);
             verify(actualSetRepository, never()).deleteAll(anyList());
         }
 
@@ -128,15 +164,16 @@ class WorkoutServiceTest {
                     .dayName("Day 1")
                     .restDay(false)
                     .build();
-            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Optional.of(day));
-            when(actualSetRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(actualSetRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Collections.emptyList());
             doNothing().when(actualSetRepository).deleteAll(anyList());
 
             workoutService.deleteWorkout(1L, 1, 1);
 
-            verify(actualSetRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1);
+            verify(actualSetRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID);
+            verify(blockArchiveService).lockForSetWrite(1L);
             verify(actualSetRepository).deleteAll(Collections.emptyList());
         }
     }
@@ -154,14 +191,14 @@ class WorkoutServiceTest {
                     .dayNumber(1)
                     .exercises(Collections.emptyList())
                     .build();
-            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1))
+            when(workoutDayRepository.findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID))
                     .thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> workoutService.logWorkout(request))
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("Workout day not found");
 
-            verify(workoutDayRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1);
+            verify(workoutDayRepository).findByBlockIdAndWeekNumberAndDayNumber(1L, 1, 1, BoundAthlete.ID);
             verify(actualSetRepository, never()).save(any());
         }
     }
@@ -0,0 +1,298 @@
+package com.workouttracker.service;
+
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.event.ActualSetChangedEvent;
+import com.workouttracker.service.WorkoutSessionBroadcaster.SlowConsumerPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkoutSessionBroadcasterTest {
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private WorkoutSessionBroadcaster broadcaster(int bufferSize, long writeTimeoutMs, SlowConsumerPolicy policy,
+                                                  ExecutorService dispatchExecutor) {
+        return new WorkoutSessionBroadcaster(bufferSize, 60_000, writeTimeoutMs, policy, dispatchExecutor, timeout -> {
+            RecordingEmitter emitter = new RecordingEmitter(timeout);
+            emitters.add(emitter);
+            return emitter;
+        });
+    }
+
+    private static ActualSetChangedEvent logged(long setId) {
+        return new ActualSetChangedEvent(ActualSetChangedEvent.Type.LOGGED, 1L, 2, 3, "Squat",
+                ActualSetDto.builder().id(setId).build());
+    }
+
+    private static void publish(WorkoutSessionBroadcaster broadcaster, long... setIds) {
+        for (long setId : setIds) {
+            broadcaster.onActualSetChanged(logged(setId));
+        }
+    }
+
+    @Nested
+    @DisplayName("buffering")
+    class Buffering {
+
+        @Test
+        @DisplayName("only delivers to watchers of the changed day")
+        void routesByDay() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(4, 10_000, SlowConsumerPolicy.DROP_OLDEST, executor);
+            broadcaster.subscribe(1L, 2, 3);
+            broadcaster.subscribe(1L, 2, 4);
+
+            publish(broadcaster, 10);
+            executor.runAll();
+
+            assertThat(emitters.get(0).setIds).containsExactly(10L);
+            assertThat(emitters.get(1).setIds).isEmpty();
+        }
+
+        @Test
+        @DisplayName("drops the oldest buffered events of a watcher that falls behind")
+        void dropOldest() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(2, 10_000, SlowConsumerPolicy.DROP_OLDEST, executor);
+            broadcaster.subscribe(1L, 2, 3);
+
+            publish(broadcaster, 10, 11, 12, 13);
+            executor.runAll();
+
+            assertThat(emitters.get(0).setIds).containsExactly(12L, 13L);
+            assertThat(emitters.get(0).completed).isFalse();
+            assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("closes the stream of a watcher that falls behind under DISCONNECT")
+        void disconnect() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(2, 10_000, SlowConsumerPolicy.DISCONNECT, executor);
+            broadcaster.subscribe(1L, 2, 3);
+
+            publish(broadcaster, 10, 11, 12);
+            executor.runAll();
+
+            assertThat(broadcaster.subscriberCount()).isZero();
+            assertThat(emitters.get(0).completed).isTrue();
+            assertThat(emitters.get(0).setIds).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("draining")
+    class Draining {
+
+        @Test
+        @DisplayName("queues one drain per watcher however many events arrive")
+        void singleFlight() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(8, 10_000, SlowConsumerPolicy.DROP_OLDEST, executor);
+            broadcaster.subscribe(1L, 2, 3);
+
+            publish(broadcaster, 10, 11, 12);
+
+            assertThat(executor.tasks).hasSize(1);
+            executor.runAll();
+            assertThat(emitters.get(0).setIds).containsExactly(10L, 11L, 12L);
+        }
+
+        @Test
+        @DisplayName("yields after one buffer's worth and reschedules the rest in order")
+        void reschedulesLongDrain() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(2, 10_000, SlowConsumerPolicy.DROP_OLDEST, executor);
+            broadcaster.subscribe(1L, 2, 3);
+            RecordingEmitter emitter = emitters.get(0);
+            emitter.onSend = setId -> {
+                if (setId < 12) {
+                    publish(broadcaster, setId + 2);
+                }
+            };
+
+            publish(broadcaster, 10, 11);
+            executor.runNext();
+
+            assertThat(emitter.setIds).containsExactly(10L, 11L);
+            assertThat(executor.tasks).hasSize(1);
+            executor.runAll();
+            assertThat(emitter.setIds).containsExactly(10L, 11L, 12L, 13L);
+        }
+
+        @Test
+        @DisplayName("drops a watcher whose connection failed without rescheduling")
+        void failedSend() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(4, 10_000, SlowConsumerPolicy.DROP_OLDEST, executor);
+            broadcaster.subscribe(1L, 2, 3);
+            emitters.get(0).onSend = setId -> {
+                throw new IllegalStateException("gone");
+            };
+
+            publish(broadcaster, 10, 11);
+            executor.runAll();
+
+            assertThat(broadcaster.subscriberCount()).isZero();
+            assertThat(executor.tasks).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("write timeout")
+    class WriteTimeout {
+
+        private ExecutorService pool;
+
+        @AfterEach
+        void shutdown() {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("interrupts a send stuck on a stalled client and closes the stream")
+        void disconnectsStalledSend() throws InterruptedException {
+            pool = Executors.newSingleThreadExecutor();
+            WorkoutSessionBroadcaster broadcaster = broadcaster(4, 1, SlowConsumerPolicy.DROP_OLDEST, pool);
+            broadcaster.subscribe(1L, 2, 3);
+            RecordingEmitter emitter = emitters.get(0);
+            CountDownLatch sending = new CountDownLatch(1);
+            CountDownLatch neverReleased = new CountDownLatch(1);
+            emitter.onSend = setId -> {
+                sending.countDown();
+                try {
+                    neverReleased.await();
+                } catch (InterruptedException ex) {
+                    throw new UncheckedInterrupt();
+                }
+            };
+
+            publish(broadcaster, 10);
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(5);
+            broadcaster.disconnectStalledSubscribers();
+
+            assertThat(emitter.closed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(emitter.interrupted).isTrue();
+            assertThat(broadcaster.subscriberCount()).isZero();
+            publish(broadcaster, 11);
+            assertThat(emitter.setIds).containsExactly(10L);
+            assertThat(pool.submit(() -> Thread.currentThread().isInterrupted()))
+                    .succeedsWithin(5, TimeUnit.SECONDS).isEqualTo(false);
+        }
+
+        @Test
+        @DisplayName("leaves sends within the timeout alone")
+        void keepsHealthySubscribers() {
+            WorkoutSessionBroadcaster broadcaster = broadcaster(4, 10_000, SlowConsumerPolicy.DROP_OLDEST, executor);
+            broadcaster.subscribe(1L, 2, 3);
+
+            publish(broadcaster, 10);
+            broadcaster.disconnectStalledSubscribers();
+            executor.runAll();
+
+            assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+            assertThat(emitters.get(0).setIds).containsExactly(10L);
+        }
+    }
+
+    /** Marks an interrupted send; the emitter reports it as the I/O failure a real socket would. */
+    private static final class UncheckedInterrupt extends RuntimeException {
+    }
+
+    /** Records the set ids it is sent; heartbeats carry none. */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Long> setIds = new CopyOnWriteArrayList<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile Consumer<Long> onSend = setId -> { };
+        private volatile boolean completed;
+        private volatile boolean interrupted;
+
+        private RecordingEmitter(Long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof ActualSetChangedEvent event) {
+                    Long setId = event.getActualSet().getId();
+                    setIds.add(setId);
+                    try {
+                        onSend.accept(setId);
+                    } catch (UncheckedInterrupt ex) {
+                        interrupted = true;
+                        throw new InterruptedIOException();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            closed.countDown();
+            super.complete();
+        }
+    }
+
+    /** Runs dispatch tasks only when asked, so tests see exactly which drains were queued. */
+    private static final class ManualExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runNext() {
+            tasks.remove().run();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                runNext();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
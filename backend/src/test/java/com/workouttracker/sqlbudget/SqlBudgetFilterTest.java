@@ -0,0 +1,98 @@
+package com.workouttracker.sqlbudget;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlBudgetFilterTest {
+
+    private static final String SELECT_DAY = "select d1_0.id,d1_0.day_name from workout_days d1_0 where d1_0.week_id=?";
+
+    private final SqlStatementRecorder recorder = new SqlStatementRecorder();
+
+    private static SqlBudgetFilter.Settings settings(boolean failOnViolation, Map<String, Integer> endpoints) {
+        return new SqlBudgetFilter.Settings(true, true, 5, 3, failOnViolation, endpoints);
+    }
+
+    private static MockHttpServletRequest blockRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/blocks/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/blocks/{id}");
+        return request;
+    }
+
+    private FilterChain issuing(String... statements) {
+        return (request, response) -> {
+            for (String sql : statements) {
+                recorder.inspect(sql);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("reports the statement count in headers of responses without a body")
+    void addsHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlBudgetFilter(settings(true, Map.of()))
+                .doFilter(blockRequest(), response, issuing("select 1", "select 2"));
+
+        assertThat(response.getHeader(SqlBudgetFilter.STATEMENTS_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(SqlBudgetFilter.TIME_HEADER)).isEqualTo("0");
+    }
+
+    @Test
+    @DisplayName("fails requests over their endpoint budget when enforcing")
+    void failsOverBudget() {
+        SqlBudgetFilter filter = new SqlBudgetFilter(settings(true, Map.of("GET /blocks/{id}", 1)));
+
+        assertThatThrownBy(() -> filter.doFilter(blockRequest(), new MockHttpServletResponse(),
+                issuing("select a", "select b")))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("GET /blocks/{id}: 2 statements (budget 1)");
+    }
+
+    @Test
+    @DisplayName("flags one select shape repeated with different parameters as N+1")
+    void flagsRepeatedShape() {
+        SqlBudgetFilter filter = new SqlBudgetFilter(settings(true, Map.of("GET /blocks/{id}", 100)));
+
+        assertThatThrownBy(() -> filter.doFilter(blockRequest(), new MockHttpServletResponse(),
+                issuing(SELECT_DAY, SELECT_DAY, "  " + SELECT_DAY.replace(" from", "\n  from"))))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("possible N+1: 3x select d1_0.id,d1_0.day_name from workout_days");
+    }
+
+    @Test
+    @DisplayName("does not treat repeated inserts or IN lists of different lengths as separate shapes")
+    void shapes() {
+        assertThat(RequestStatements.shape("select * from weeks where id in (?, ?, ?)"))
+                .isEqualTo(RequestStatements.shape("select * from weeks where id in (?,?)"));
+
+        SqlBudgetFilter filter = new SqlBudgetFilter(settings(true, Map.of("POST /blocks", 10)));
+        String insert = "insert into exercises (name,day_id) values (?,?)";
+        assertThatCode(() -> filter.doFilter(new MockHttpServletRequest("POST", "/blocks"),
+                new MockHttpServletResponse(), issuing(insert, insert, insert, insert)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("only logs violations when not enforcing, and stops recording after the request")
+    void warnsOnly() throws Exception {
+        new SqlBudgetFilter(settings(false, Map.of()))
+                .doFilter(blockRequest(), new MockHttpServletResponse(), issuing("s1", "s2", "s3", "s4", "s5", "s6"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        recorder.inspect("select outside a request");
+        new SqlBudgetFilter(settings(true, Map.of())).doFilter(blockRequest(), response, issuing());
+        assertThat(response.getHeader(SqlBudgetFilter.STATEMENTS_HEADER)).isEqualTo("0");
+    }
+}
@@ -0,0 +1,93 @@
+package com.workouttracker.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.tenancy.BoundAthlete;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({MockitoExtension.class, BoundAthlete.class})
+class BlockJsonStreamerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BlockJsonStreamer streamer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        streamer = new BlockJsonStreamer(jdbcTemplate, objectMapper, transactionManager, true, 500);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(1L), eq(BoundAthlete.ID)))
+                .thenReturn(List.of(TrainingBlockDto.builder().id(1L).build()));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private static ResultSet progressRow(long dayId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("day_id")).thenReturn(dayId);
+        when(rs.getLong("exercise_id")).thenReturn(dayId * 10);
+        return rs;
+    }
+
+    @Test
+    @DisplayName("leaves the JSON unterminated when the query fails part way, instead of closing it")
+    void abortsOnFailure() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(progressRow(1));
+            handler.processRow(progressRow(2));
+            throw new DataAccessResourceFailureException("Connection lost");
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        StreamingResponseBody body = streamer.streamProgress(1L).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> body.writeTo(out)).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(out.toString()).doesNotEndWith("]");
+    }
+
+    @Test
+    @DisplayName("closes the JSON once every row is written")
+    void closesOnSuccess() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(progressRow(1));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.streamProgress(1L).orElseThrow().writeTo(out);
+
+        assertThat(objectMapper.readTree(out.toByteArray()).size()).isEqualTo(1);
+    }
+}
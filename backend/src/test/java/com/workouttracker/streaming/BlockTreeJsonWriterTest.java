@@ -0,0 +1,190 @@
+package com.workouttracker.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workouttracker.dto.ActualSetDto;
+import com.workouttracker.dto.ExerciseDto;
+import com.workouttracker.dto.PrescribedSetDto;
+import com.workouttracker.dto.TrainingBlockDto;
+import com.workouttracker.dto.WeekDto;
+import com.workouttracker.dto.WorkoutDayDto;
+import com.workouttracker.dto.WorkoutExerciseResponseDto;
+import com.workouttracker.dto.WorkoutResponseDto;
+import com.workouttracker.model.ExerciseCategory;
+import com.workouttracker.model.Tempo;
+import com.workouttracker.model.WeekType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Streamed output must be indistinguishable from serializing the DTOs of the regular path. */
+class BlockTreeJsonWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 3);
+    private static final LocalDateTime LOGGED = LocalDateTime.of(2025, 3, 3, 17, 30, 5);
+
+    private static PrescribedSetDto prescribed(long id, long exerciseId) {
+        return PrescribedSetDto.builder().id(id).exerciseId(exerciseId).setNumber(1).targetSets(3).targetReps(5)
+                .targetLoadMin(new BigDecimal("97.50")).targetLoadMax(new BigDecimal("100.00")).targetRPE(8)
+                .tempo(Tempo.CONTROLLED).videoRequired(true).build();
+    }
+
+    private static ActualSetDto actual(long id, long exerciseId, Long prescribedSetId, int setNumber) {
+        return ActualSetDto.builder().id(id).exerciseId(exerciseId).prescribedSetId(prescribedSetId)
+                .setNumber(setNumber).actualWeight(new BigDecimal("100.00")).actualReps(5).actualRPE(8)
+                .tempoUsed(Tempo.CONTROLLED).videoRecorded(false).feedback(setNumber == 2 ? "Grindy" : null)
+                .completedAt(LOGGED.plusMinutes(setNumber)).build();
+    }
+
+    private static ExerciseDto exercise(long id, long dayId, String name, ExerciseCategory category, int order,
+                                        List<PrescribedSetDto> prescribedSets, List<ActualSetDto> actualSets) {
+        return ExerciseDto.builder().id(id).dayId(dayId).name(name).definitionId(id * 10).category(category)
+                .orderInWorkout(order).prescribedSets(prescribedSets).actualSets(actualSets).build();
+    }
+
+    private TrainingBlockDto block() {
+        ExerciseDto squat = exercise(100, 10, "Back Squat", ExerciseCategory.SQUAT, 1,
+                List.of(prescribed(1000, 100)), List.of(actual(5000, 100, 1000L, 1), actual(5001, 100, 1000L, 2)));
+        ExerciseDto row = exercise(101, 10, "Barbell Row", ExerciseCategory.ACCESSORY, 2,
+                List.of(), List.of(actual(5002, 101, null, 1)));
+        ExerciseDto bench = exercise(102, 11, "Bench Press", ExerciseCategory.BENCH, 1,
+                List.of(prescribed(1001, 102)), List.of());
+        WorkoutDayDto day1 = WorkoutDayDto.builder().id(10L).weekId(1L).dayNumber(1).dayName("Day 1")
+                .restDay(false).exercises(List.of(squat, row)).build();
+        WorkoutDayDto day2 = WorkoutDayDto.builder().id(11L).weekId(1L).dayNumber(2).dayName("Day 2")
+                .restDay(false).exercises(List.of(bench)).build();
+        WorkoutDayDto rest = WorkoutDayDto.builder().id(12L).weekId(1L).dayNumber(3).dayName("Rest")
+                .restDay(true).exercises(List.of()).build();
+        WeekDto week1 = WeekDto.builder().id(1L).blockId(7L).weekNumber(1).weekType(WeekType.BASE)
+                .startDate(START).endDate(START.plusDays(6)).days(List.of(day1, day2, rest)).build();
+        WeekDto week2 = WeekDto.builder().id(2L).blockId(7L).weekNumber(2).weekType(WeekType.DELOAD)
+                .startDate(START.plusWeeks(1)).endDate(START.plusWeeks(1).plusDays(6)).days(List.of()).build();
+        return TrainingBlockDto.builder().id(7L).blockLength(2).progressionRate(new BigDecimal("0.0250"))
+                .deloadRate(new BigDecimal("0.7000")).macrocycle("Default").mesocycle("Strength")
+                .weeks(List.of(week1, week2)).createdAt(LocalDateTime.of(2025, 3, 1, 19, 0)).archivedAt(null)
+                .build();
+    }
+
+    // The rows the flat join returns for the block, in query order
+    private static List<BlockTreeJsonWriter.Row> rows(TrainingBlockDto block) {
+        List<BlockTreeJsonWriter.Row> rows = new ArrayList<>();
+        for (WeekDto w : block.getWeeks()) {
+            if (w.getDays().isEmpty()) {
+                rows.add(row(w, null, null, null, null));
+            }
+            for (WorkoutDayDto d : w.getDays()) {
+                if (d.getExercises().isEmpty()) {
+                    rows.add(row(w, d, null, null, null));
+                }
+                for (ExerciseDto e : d.getExercises()) {
+                    if (e.getPrescribedSets().isEmpty() && e.getActualSets().isEmpty()) {
+                        rows.add(row(w, d, e, null, null));
+                    }
+                    e.getPrescribedSets().forEach(p -> rows.add(row(w, d, e, p, null)));
+                    e.getActualSets().forEach(a -> rows.add(row(w, d, e, null, a)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static BlockTreeJsonWriter.Row row(WeekDto w, WorkoutDayDto d, ExerciseDto e,
+                                               PrescribedSetDto p, ActualSetDto a) {
+        return new BlockTreeJsonWriter.Row(w.getId(), w.getWeekNumber(), w.getWeekType().name(),
+                w.getStartDate(), w.getEndDate(),
+                d != null ? d.getId() : null, d != null ? d.getDayNumber() : null,
+                d != null ? d.getDayName() : null, d != null ? d.getRestDay() : null,
+                e != null ? e.getId() : null, e != null ? e.getName() : null,
+                e != null ? e.getDefinitionId() : null, e != null ? e.getCategory().name() : null,
+                e != null ? e.getOrderInWorkout() : null, p, a);
+    }
+
+    @Test
+    @DisplayName("writes the same JSON as the DTO, including empty weeks, days and set lists")
+    void matchesDtoSerialization() throws Exception {
+        TrainingBlockDto block = block();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            BlockTreeJsonWriter writer = new BlockTreeJsonWriter(generator, block);
+            writer.start();
+            for (BlockTreeJsonWriter.Row row : rows(block)) {
+                writer.row(row);
+            }
+            writer.finish();
+        }
+
+        assertThat(out.toString()).isEqualTo(objectMapper.writeValueAsString(block));
+    }
+
+    @Test
+    @DisplayName("writes an empty weeks array for a block without weeks")
+    void emptyBlock() throws Exception {
+        TrainingBlockDto block = block();
+        block.setWeeks(List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            BlockTreeJsonWriter writer = new BlockTreeJsonWriter(generator, block);
+            writer.start();
+            writer.finish();
+        }
+
+        assertThat(out.toString()).isEqualTo(objectMapper.writeValueAsString(block));
+    }
+
+    @Test
+    @DisplayName("writes progress as the WorkoutResponseDto list, one entry per logged day")
+    void progressMatchesDtoSerialization() throws Exception {
+        ActualSetDto first = actual(5000, 100, 1000L, 1);
+        // Logged last although it comes first, so the day's completedAt is not simply its last row's
+        first.setCompletedAt(LOGGED.plusHours(1));
+        ActualSetDto second = actual(5001, 100, 1000L, 2);
+        ActualSetDto accessory = actual(5002, 101, null, 3);
+        ActualSetDto nextDay = actual(5003, 102, null, 1);
+        List<WorkoutResponseDto> expected = List.of(
+                WorkoutResponseDto.builder().blockId(7L).weekNumber(1).dayNumber(1).completedAt(first.getCompletedAt())
+                        .exercises(List.of(
+                                new WorkoutExerciseResponseDto(100L, "Back Squat", List.of(first, second)),
+                                new WorkoutExerciseResponseDto(101L, "Barbell Row", List.of(accessory))))
+                        .build(),
+                WorkoutResponseDto.builder().blockId(7L).weekNumber(2).dayNumber(1).completedAt(nextDay.getCompletedAt())
+                        .exercises(List.of(new WorkoutExerciseResponseDto(102L, "Bench Press", List.of(nextDay))))
+                        .build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            ProgressJsonWriter writer = new ProgressJsonWriter(generator, 7L);
+            writer.start();
+            writer.row(new ProgressJsonWriter.Row(1, 10L, 1, 100L, "Back Squat", first));
+            writer.row(new ProgressJsonWriter.Row(1, 10L, 1, 100L, "Back Squat", second));
+            writer.row(new ProgressJsonWriter.Row(1, 10L, 1, 101L, "Barbell Row", accessory));
+            writer.row(new ProgressJsonWriter.Row(2, 20L, 1, 102L, "Bench Press", nextDay));
+            writer.finish();
+        }
+
+        assertThat(out.toString()).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    @Test
+    @DisplayName("writes an empty array for a block without logged sets")
+    void emptyProgress() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            ProgressJsonWriter writer = new ProgressJsonWriter(generator, 7L);
+            writer.start();
+            writer.finish();
+        }
+
+        assertThat(out.toString()).isEqualTo("[]");
+    }
+}
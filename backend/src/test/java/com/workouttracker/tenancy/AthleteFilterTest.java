@@ -0,0 +1,90 @@
+package com.workouttracker.tenancy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AthleteFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final List<Long> seen = new ArrayList<>();
+
+    private static AthleteFilter.Settings settings(boolean requireHeader) {
+        return new AthleteFilter.Settings("X-Athlete-Id", 1, requireHeader);
+    }
+
+    private static MockHttpServletRequest request(String athleteId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/blocks/7");
+        if (athleteId != null) {
+            request.addHeader("X-Athlete-Id", athleteId);
+        }
+        return request;
+    }
+
+    private final FilterChain recording = (request, response) -> seen.add(AthleteContext.currentAthleteId());
+
+    @Test
+    @DisplayName("binds the athlete from the header for the request and unbinds it afterwards")
+    void bindsHeader() throws Exception {
+        new AthleteFilter(settings(false), objectMapper)
+                .doFilter(request(" 42 "), new MockHttpServletResponse(), recording);
+
+        assertThat(seen).containsExactly(42L);
+        assertThat(AthleteContext.find()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("falls back to the default athlete without a header")
+    void defaultAthlete() throws Exception {
+        new AthleteFilter(settings(false), objectMapper)
+                .doFilter(request(null), new MockHttpServletResponse(), recording);
+
+        assertThat(seen).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("rejects a missing header with 400 when the header is required")
+    void requiredHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new AthleteFilter(settings(true), objectMapper).doFilter(request(null), response, recording);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getContentAsString()).contains("Missing X-Athlete-Id header");
+        assertThat(seen).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rejects ids that are not positive numbers with 400")
+    void malformedHeader() throws Exception {
+        AthleteFilter filter = new AthleteFilter(settings(false), objectMapper);
+        for (String athleteId : List.of("abc", "0", "-3")) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request(athleteId), response, recording);
+
+            assertThat(response.getStatus()).isEqualTo(400);
+            assertThat(response.getContentAsString()).contains("Invalid X-Athlete-Id header: " + athleteId);
+        }
+        assertThat(seen).isEmpty();
+    }
+
+    @Test
+    @DisplayName("leaves documentation and actuator endpoints unbound")
+    void skipsOperationalPaths() throws Exception {
+        FilterChain chain = (request, response) -> assertThat(AthleteContext.find()).isEmpty();
+
+        new AthleteFilter(settings(true), objectMapper)
+                .doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+    }
+}
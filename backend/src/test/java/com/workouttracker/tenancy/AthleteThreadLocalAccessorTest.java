@@ -0,0 +1,42 @@
+package com.workouttracker.tenancy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AthleteThreadLocalAccessorTest {
+
+    private final AthleteThreadLocalAccessor accessor = new AthleteThreadLocalAccessor();
+
+    @AfterEach
+    void unbind() {
+        AthleteContext.restore(null);
+    }
+
+    @Test
+    @DisplayName("binds a captured athlete and hands back a previous one")
+    void setsAndRestores() {
+        AthleteContext.bind(3L);
+
+        accessor.setValue(7L);
+        assertThat(accessor.getValue()).isEqualTo(7L);
+
+        accessor.restore(3L);
+        assertThat(AthleteContext.find()).contains(3L);
+    }
+
+    @Test
+    @DisplayName("clears the binding when the captured context had no athlete")
+    void clearsWithoutValue() {
+        AthleteContext.bind(7L);
+
+        accessor.setValue();
+        assertThat(AthleteContext.find()).isEmpty();
+
+        AthleteContext.bind(7L);
+        accessor.restore();
+        assertThat(AthleteContext.find()).isEmpty();
+    }
+}
@@ -0,0 +1,21 @@
+package com.workouttracker.tenancy;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/** Runs each test as athlete {@link #ID}, as if {@link AthleteFilter} had bound it. */
+public class BoundAthlete implements BeforeEachCallback, AfterEachCallback {
+
+    public static final Long ID = 1L;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        AthleteContext.bind(ID);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        AthleteContext.restore(null);
+    }
+}
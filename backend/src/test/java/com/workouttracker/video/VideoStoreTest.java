@@ -0,0 +1,88 @@
+package com.workouttracker.video;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VideoStoreTest {
+
+    private static final byte[] VIDEO = "frames of a heavy single".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path videoDir;
+
+    private final VideoStore videoStore = new VideoStore();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(videoStore, "directory", videoDir.toString());
+    }
+
+    private static String sha256(byte[] bytes) throws IOException {
+        Path file = Files.createTempFile("video", ".bin");
+        Files.write(file, bytes);
+        try {
+            return VideoStore.sha256(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("keeps the bytes that arrived before a dropped connection so the upload resumes there")
+    void keepsPartialChunk() {
+        InputStream dropping = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read == 5) {
+                    throw new IOException("Connection reset");
+                }
+                return VIDEO[read++];
+            }
+        };
+
+        assertThatThrownBy(() -> videoStore.append("u1", 0, dropping, VIDEO.length))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(videoStore.received("u1")).isEqualTo(5);
+
+        long received = videoStore.append("u1", 5, new ByteArrayInputStream(VIDEO, 5, VIDEO.length - 5),
+                VIDEO.length - 5);
+        assertThat(received).isEqualTo(VIDEO.length);
+    }
+
+    @Test
+    @DisplayName("stores identical uploads once, under their sha256")
+    void deduplicates() throws IOException {
+        String sha256 = sha256(VIDEO);
+        videoStore.append("u1", 0, new ByteArrayInputStream(VIDEO), VIDEO.length);
+        videoStore.append("u2", 0, new ByteArrayInputStream(VIDEO), VIDEO.length);
+
+        videoStore.publish("u1", sha256);
+        Files.setLastModifiedTime(videoStore.objectFile(sha256), FileTime.from(Instant.now().minusSeconds(7200)));
+        videoStore.publish("u2", sha256);
+
+        assertThat(Files.readAllBytes(videoStore.objectFile(sha256))).isEqualTo(VIDEO);
+        assertThat(videoStore.received("u1")).isZero();
+        assertThat(videoStore.received("u2")).isZero();
+        // Reuse refreshes the object, so an orphan sweep running now leaves it alone
+        assertThat(videoStore.objectsOlderThan(Instant.now().minusSeconds(3600))).isEmpty();
+        assertThat(videoStore.objectsOlderThan(Instant.now().plusSeconds(1))).containsExactly(sha256);
+    }
+}
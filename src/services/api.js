@@ -428,13 +428,33 @@ export const getEquipments = async () => Promise.resolve([...EQUIPMENTS_STATIC])
 export const getBodyParts = async () => Promise.resolve([...BODY_PARTS_STATIC]);
 
 /**
- * List exercises for body part AND equipment (ExerciseDB direct, cached).
+ * Backend exercise catalog (bundled seed + names already used in blocks), ranked server-side.
+ * @returns {Promise<Array<{ name: string, bodyPart?: string, equipment?: string }>>}
+ */
+async function searchCatalog(params) {
+  const search = new URLSearchParams();
+  Object.entries(params).forEach(([k, v]) => {
+    if (v != null && String(v).trim() !== '') search.set(k, String(v).trim());
+  });
+  try {
+    const response = await fetch(`${API_URL}/catalog/exercises?${search.toString()}`);
+    if (!response.ok) return [];
+    return await response.json();
+  } catch (err) {
+    console.warn('Exercise catalog search failed:', err);
+    return [];
+  }
+}
+
+/**
+ * List exercises for body part AND equipment (backend catalog with USE_API, otherwise ExerciseDB direct, cached).
  * @param {string} bodyPart - e.g. "Upper Legs"
  * @param {string} equipment - e.g. "Barbell"
  * @returns {Promise<Array<{ name: string, bodyPart?: string, equipment?: string }>>}
  */
 export const getExercisesByBodyPartAndEquipment = async (bodyPart, equipment) => {
   if (!bodyPart || !equipment || String(bodyPart).trim() === '' || String(equipment).trim() === '') return [];
+  if (USE_API) return searchCatalog({ bodyPart, equipment, limit: EXERCISE_LIMIT });
   const key = `${String(bodyPart).trim()}|${String(equipment).trim()}`;
   const now = Date.now();
   const entry = cache.filter.get(key);
@@ -469,12 +489,13 @@ export const getExercisesByBodyPartAndEquipment = async (bodyPart, equipment) =>
 };
 
 /**
- * Search exercise names (ExerciseDB direct, cached, for custom name fallback).
+ * Search exercise names (backend catalog with USE_API, otherwise ExerciseDB direct, cached, for custom name fallback).
  * @param {string} query - Search term (optional; empty returns initial list)
  * @returns {Promise<Array<{ name: string, bodyPart?: string, equipment?: string }>>}
  */
 export const getExerciseNames = async (query = '') => {
   const q = query != null ? String(query).trim() : '';
+  if (USE_API) return searchCatalog({ q, limit: EXERCISE_LIMIT });
   const key = q || '__empty__';
   const now = Date.now();
   const entry = cache.search.get(key);